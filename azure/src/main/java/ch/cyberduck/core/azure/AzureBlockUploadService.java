@@ -0,0 +1,369 @@
+package ch.cyberduck.core.azure;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Cache;
+import ch.cyberduck.core.ConnectionCallback;
+import ch.cyberduck.core.DefaultIOExceptionMappingService;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathAttributes;
+import ch.cyberduck.core.PathContainerService;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.features.Upload;
+import ch.cyberduck.core.features.Write;
+import ch.cyberduck.core.io.BandwidthThrottle;
+import ch.cyberduck.core.io.Checksum;
+import ch.cyberduck.core.io.SegmentBufferPool;
+import ch.cyberduck.core.io.StreamCopier;
+import ch.cyberduck.core.io.StreamListener;
+import ch.cyberduck.core.io.ThrottledInputStream;
+import ch.cyberduck.core.preferences.Preferences;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.shared.DefaultUploadFeature;
+import ch.cyberduck.core.threading.BackgroundExceptionCallable;
+import ch.cyberduck.core.threading.DefaultRetryCallable;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
+import ch.cyberduck.core.transfer.TransferStatus;
+import ch.cyberduck.core.worker.DefaultExceptionMappingService;
+
+import org.apache.commons.codec.DecoderException;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.ProxyInputStream;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpStatus;
+import org.apache.log4j.Logger;
+import org.bouncycastle.util.encoders.Base64;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import com.microsoft.azure.storage.AccessCondition;
+import com.microsoft.azure.storage.OperationContext;
+import com.microsoft.azure.storage.RetryNoRetry;
+import com.microsoft.azure.storage.StorageException;
+import com.microsoft.azure.storage.blob.BlobRequestOptions;
+import com.microsoft.azure.storage.blob.BlobType;
+import com.microsoft.azure.storage.blob.BlockEntry;
+import com.microsoft.azure.storage.blob.BlockListingFilter;
+import com.microsoft.azure.storage.blob.CloudBlockBlob;
+
+/**
+ * Upload block blob with blocks staged concurrently from positional reads of the local file and committed with a
+ * block list. Blocks already staged by a previous attempt are found in the uncommitted block list and skipped.
+ */
+public class AzureBlockUploadService implements Upload<Void> {
+    private static final Logger log = Logger.getLogger(AzureBlockUploadService.class);
+
+    /**
+     * The maximum number of blocks in a block blob
+     */
+    public static final int MAXIMUM_UPLOAD_BLOCKS = 50000;
+
+    private final PathContainerService containerService
+        = new AzurePathContainerService();
+
+    private final Preferences preferences
+        = PreferencesFactory.get();
+
+    private final AzureSession session;
+    private final OperationContext context;
+
+    private final Long blockSize;
+    private final Integer concurrency;
+
+    private Write<Void> writer;
+
+    public AzureBlockUploadService(final AzureSession session, final OperationContext context, final Write<Void> writer) {
+        this(session, context, writer, PreferencesFactory.get().getLong("azure.upload.block.size"),
+            PreferencesFactory.get().getInteger("azure.upload.block.concurrency"));
+    }
+
+    public AzureBlockUploadService(final AzureSession session, final OperationContext context, final Write<Void> writer,
+                                   final Long blockSize, final Integer concurrency) {
+        this.session = session;
+        this.context = context;
+        this.writer = writer;
+        this.blockSize = blockSize;
+        this.concurrency = concurrency;
+    }
+
+    @Override
+    public Write.Append append(final Path file, final Long length, final Cache<Path> cache) throws BackgroundException {
+        try {
+            final PathAttributes attr = new AzureAttributesFinderFeature(session, context).withCache(cache).find(file);
+            if(BlobType.APPEND_BLOB == AzureWriteFeature.toBlobType(attr.getCustom().get(AzureAttributesFinderFeature.KEY_BLOB_TYPE), BlobType.UNSPECIFIED)) {
+                if(log.isInfoEnabled()) {
+                    log.info(String.format("Append to existing append blob %s", file));
+                }
+                return writer.append(file, length, cache);
+            }
+        }
+        catch(NotfoundException e) {
+            // Blocks may be staged without committed blob
+        }
+        try {
+            final CloudBlockBlob blob = session.getClient().getContainerReference(containerService.getContainer(file).getName())
+                .getBlockBlobReference(containerService.getKey(file));
+            long size = 0L;
+            for(Long staged : this.uncommitted(blob, this.toBlockSize(length)).values()) {
+                size += staged;
+            }
+            if(size > 0L) {
+                if(log.isInfoEnabled()) {
+                    log.info(String.format("Found %d bytes in uncommitted blocks for %s", size, file));
+                }
+                return new Write.Append(size);
+            }
+        }
+        catch(StorageException e) {
+            throw new AzureExceptionMappingService().map("Upload {0} failed", e, file);
+        }
+        catch(URISyntaxException e) {
+            throw new NotfoundException(e.getMessage(), e);
+        }
+        return writer.append(file, length, cache);
+    }
+
+    @Override
+    public Void upload(final Path file, final Local local, final BandwidthThrottle throttle, final StreamListener listener,
+                       final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
+        if(!(writer instanceof AzureWriteFeature)) {
+            // Blocks are read from local file and would bypass writer
+            log.warn(String.format("Upload %s with writer %s", file, writer));
+            return new DefaultUploadFeature<Void>(writer).upload(file, local, throttle, listener, status, callback);
+        }
+        final ThreadPool pool = ThreadPoolFactory.get("blockupload", concurrency);
+        try {
+            final CloudBlockBlob blob = session.getClient().getContainerReference(containerService.getContainer(file).getName())
+                .getBlockBlobReference(containerService.getKey(file));
+            if(status.isExists()) {
+                if(preferences.getBoolean("azure.upload.snapshot")) {
+                    session.getClient().getContainerReference(containerService.getContainer(file).getName())
+                        .getBlobReferenceFromServer(containerService.getKey(file)).createSnapshot();
+                }
+            }
+            // Full size of file
+            final long size = status.getLength() + status.getOffset();
+            final long length = this.toBlockSize(size);
+            final Map<String, Long> staged = status.isAppend() ? this.uncommitted(blob, length) : Collections.emptyMap();
+            // Bound buffers to concurrent blocks of this upload
+            final SegmentBufferPool buffers = new SegmentBufferPool((int) length, concurrency, Long.MAX_VALUE);
+            final List<BlockEntry> blocks = new ArrayList<>();
+            final List<Future<Void>> parts = new ArrayList<>();
+            long offset = 0L;
+            for(int block = 1; offset < size; block++) {
+                final long remaining = Math.min(length, size - offset);
+                final String id = this.toBlockId(length, block);
+                blocks.add(new BlockEntry(id));
+                if(staged.containsKey(id) && staged.get(id) == remaining) {
+                    if(log.isInfoEnabled()) {
+                        log.info(String.format("Skip staged block %d", block));
+                    }
+                }
+                else {
+                    parts.add(this.submit(pool, buffers, file, blob, local, throttle, listener, status, id, block, offset, remaining));
+                }
+                offset += remaining;
+            }
+            try {
+                for(Future<Void> f : parts) {
+                    f.get();
+                }
+            }
+            catch(InterruptedException e) {
+                log.error("Block upload failed with interrupt failure");
+                status.setCanceled();
+                throw new ConnectionCanceledException(e);
+            }
+            catch(ExecutionException e) {
+                log.warn(String.format("Block upload failed with execution failure %s", e.getMessage()));
+                if(e.getCause() instanceof BackgroundException) {
+                    throw (BackgroundException) e.getCause();
+                }
+                throw new DefaultExceptionMappingService().map(e.getCause());
+            }
+            this.properties(blob, status);
+            blob.commitBlockList(blocks, AccessCondition.generateEmptyCondition(), new BlobRequestOptions(), context);
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Committed %d blocks for %s", blocks.size(), file));
+            }
+            // Mark parent status as complete
+            status.setComplete();
+            return null;
+        }
+        catch(StorageException e) {
+            throw new AzureExceptionMappingService().map("Upload {0} failed", e, file);
+        }
+        catch(URISyntaxException e) {
+            throw new NotfoundException(e.getMessage(), e);
+        }
+        finally {
+            pool.shutdown(false);
+        }
+    }
+
+    private Future<Void> submit(final ThreadPool pool, final SegmentBufferPool buffers, final Path file,
+                                final CloudBlockBlob blob, final Local local,
+                                final BandwidthThrottle throttle, final StreamListener listener,
+                                final TransferStatus overall, final String id, final int block,
+                                final long offset, final long length) {
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Submit block %d of %s to queue with offset %d and length %d", block, file, offset, length));
+        }
+        return pool.execute(new DefaultRetryCallable<Void>(session.getHost(), new BackgroundExceptionCallable<Void>() {
+            @Override
+            public Void call() throws BackgroundException {
+                overall.validate();
+                final byte[] buffer = buffers.acquire();
+                final long[] sent = new long[1];
+                try {
+                    try (InputStream in = StreamCopier.skip(local.getInputStream(), offset)) {
+                        IOUtils.readFully(in, buffer, 0, (int) length);
+                    }
+                    final BlobRequestOptions options = new BlobRequestOptions();
+                    // Retry with new request for block
+                    options.setRetryPolicyFactory(new RetryNoRetry());
+                    blob.uploadBlock(id, new ThrottledInputStream(new ProxyInputStream(new ByteArrayInputStream(buffer, 0, (int) length)) {
+                        @Override
+                        protected void afterRead(final int n) {
+                            if(n > 0) {
+                                sent[0] += n;
+                                overall.progress(n);
+                                listener.sent(n);
+                            }
+                        }
+                    }, throttle), length, AccessCondition.generateEmptyCondition(), options, context);
+                    if(log.isDebugEnabled()) {
+                        log.debug(String.format("Staged block %d of %s", block, file));
+                    }
+                    return null;
+                }
+                catch(StorageException e) {
+                    // Discard sent bytes if there is an error reply
+                    overall.progress(-sent[0]);
+                    listener.sent(-sent[0]);
+                    throw new AzureExceptionMappingService().map("Upload {0} failed", e, file);
+                }
+                catch(IOException e) {
+                    overall.progress(-sent[0]);
+                    listener.sent(-sent[0]);
+                    throw new DefaultIOExceptionMappingService().map("Upload {0} failed", e, file);
+                }
+                finally {
+                    buffers.release(buffer);
+                }
+            }
+        }, overall));
+    }
+
+    /**
+     * Set properties and metadata sent with block list
+     */
+    private void properties(final CloudBlockBlob blob, final TransferStatus status) {
+        if(StringUtils.isNotBlank(status.getMime())) {
+            blob.getProperties().setContentType(status.getMime());
+        }
+        final HashMap<String, String> headers = new HashMap<>(status.getMetadata());
+        blob.setMetadata(headers);
+        // Remove additional headers not allowed in metadata and move to properties
+        if(headers.containsKey(HttpHeaders.CACHE_CONTROL)) {
+            blob.getProperties().setCacheControl(headers.get(HttpHeaders.CACHE_CONTROL));
+            headers.remove(HttpHeaders.CACHE_CONTROL);
+        }
+        if(headers.containsKey(HttpHeaders.CONTENT_TYPE)) {
+            blob.getProperties().setContentType(headers.get(HttpHeaders.CONTENT_TYPE));
+            headers.remove(HttpHeaders.CONTENT_TYPE);
+        }
+        final Checksum checksum = status.getChecksum();
+        if(Checksum.NONE != checksum) {
+            switch(checksum.algorithm) {
+                case md5:
+                    try {
+                        blob.getProperties().setContentMD5(Base64.toBase64String(Hex.decodeHex(checksum.hash.toCharArray())));
+                        headers.remove(HttpHeaders.CONTENT_MD5);
+                    }
+                    catch(DecoderException e) {
+                        // Ignore
+                    }
+                    break;
+            }
+        }
+    }
+
+    /**
+     * @param blob   Block blob
+     * @param length Block size
+     * @return Size of uncommitted blocks by identifier staged with the given block size
+     */
+    private Map<String, Long> uncommitted(final CloudBlockBlob blob, final long length) throws StorageException {
+        final Map<String, Long> staged = new HashMap<>();
+        try {
+            for(BlockEntry entry : blob.downloadBlockList(BlockListingFilter.UNCOMMITTED, AccessCondition.generateEmptyCondition(),
+                new BlobRequestOptions(), context)) {
+                if(StringUtils.startsWith(new String(Base64.decode(entry.getId()), StandardCharsets.US_ASCII), String.format("%019d-", length))) {
+                    staged.put(entry.getId(), entry.getSize());
+                }
+            }
+        }
+        catch(StorageException e) {
+            if(HttpStatus.SC_NOT_FOUND == e.getHttpStatusCode()) {
+                // No blocks staged
+                return staged;
+            }
+            throw e;
+        }
+        return staged;
+    }
+
+    /**
+     * @param size Total length of file
+     * @return Block size not exceeding maximum number of blocks
+     */
+    private long toBlockSize(final long size) {
+        return Math.max(blockSize, (size + MAXIMUM_UPLOAD_BLOCKS - 1) / MAXIMUM_UPLOAD_BLOCKS);
+    }
+
+    /**
+     * @param length Block size
+     * @param block  Block number
+     * @return Identifier of same length for all blocks including block size to ignore blocks staged with other size
+     */
+    private String toBlockId(final long length, final int block) {
+        return Base64.toBase64String(String.format("%019d-%05d", length, block).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Override
+    public Upload<Void> withWriter(final Write<Void> writer) {
+        this.writer = writer;
+        return this;
+    }
+}
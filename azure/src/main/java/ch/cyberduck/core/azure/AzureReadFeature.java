@@ -76,7 +76,15 @@ public class AzureReadFeature implements Read {
             }
             final BlobRequestOptions options = new BlobRequestOptions();
             options.setConcurrentRequestCount(1);
-            final BlobInputStream in = blob.openInputStream(AccessCondition.generateEmptyCondition(), options, context);
+            final AccessCondition condition;
+            if(status.isAppend() && StringUtils.isNotBlank(status.getRemote().getETag())) {
+                // Fail if blob has changed since download started
+                condition = AccessCondition.generateIfMatchCondition(status.getRemote().getETag());
+            }
+            else {
+                condition = AccessCondition.generateEmptyCondition();
+            }
+            final BlobInputStream in = blob.openInputStream(condition, options, context);
             if(status.isAppend()) {
                 try {
                     return StreamCopier.skip(in, status.getOffset());
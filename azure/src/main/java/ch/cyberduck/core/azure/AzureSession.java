@@ -32,6 +32,7 @@ import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ListCanceledException;
 import ch.cyberduck.core.exception.LoginFailureException;
 import ch.cyberduck.core.features.*;
+import ch.cyberduck.core.http.ConcurrentRangeDownloadFeature;
 import ch.cyberduck.core.http.DisabledX509HostnameVerifier;
 import ch.cyberduck.core.proxy.Proxy;
 import ch.cyberduck.core.ssl.CustomTrustSSLProtocolSocketFactory;
@@ -186,9 +187,15 @@ public class AzureSession extends SSLSession<CloudBlobClient> {
         if(type == Read.class) {
             return (T) new AzureReadFeature(this, context);
         }
+        if(type == Download.class) {
+            return (T) new ConcurrentRangeDownloadFeature(this);
+        }
         if(type == Write.class) {
             return (T) new AzureWriteFeature(this, context);
         }
+        if(type == Upload.class) {
+            return (T) new AzureThresholdUploadService(this, context);
+        }
         if(type == Directory.class) {
             return (T) new AzureDirectoryFeature(this, context);
         }
@@ -78,7 +78,7 @@ public class AzureWriteFeature extends AppendWriteFeature<Void> implements Write
     private final BlobType blobType;
 
     public AzureWriteFeature(final AzureSession session, final OperationContext context) {
-        this(session, BlobType.valueOf(PreferencesFactory.get().getProperty("azure.upload.blobtype")), context);
+        this(session, toBlobType(PreferencesFactory.get().getProperty("azure.upload.blobtype"), BlobType.APPEND_BLOB), context);
     }
 
     public AzureWriteFeature(final AzureSession session, final BlobType blobType, final OperationContext context) {
@@ -89,7 +89,7 @@ public class AzureWriteFeature extends AppendWriteFeature<Void> implements Write
     }
 
     public AzureWriteFeature(final AzureSession session, final OperationContext context, final Find finder, final AttributesFinder attributes) {
-        this(session, BlobType.valueOf(PreferencesFactory.get().getProperty("azure.upload.blobtype")), context, finder, attributes);
+        this(session, toBlobType(PreferencesFactory.get().getProperty("azure.upload.blobtype"), BlobType.APPEND_BLOB), context, finder, attributes);
     }
 
     public AzureWriteFeature(final AzureSession session, final BlobType blobType, final OperationContext context, final Find finder, final AttributesFinder attributes) {
@@ -99,6 +99,10 @@ public class AzureWriteFeature extends AppendWriteFeature<Void> implements Write
         this.context = context;
     }
 
+    public BlobType getBlobType() {
+        return blobType;
+    }
+
     @Override
     public boolean temporary() {
         return false;
@@ -109,6 +113,23 @@ public class AzureWriteFeature extends AppendWriteFeature<Void> implements Write
         return false;
     }
 
+    /**
+     * @param type     Name of blob type
+     * @param fallback Blob type to use for missing or unknown name
+     */
+    protected static BlobType toBlobType(final String type, final BlobType fallback) {
+        if(StringUtils.isBlank(type)) {
+            return fallback;
+        }
+        try {
+            return BlobType.valueOf(type);
+        }
+        catch(IllegalArgumentException e) {
+            log.warn(String.format("Unknown blob type %s", type));
+            return fallback;
+        }
+    }
+
     @Override
     public ChecksumCompute checksum(final Path file, final TransferStatus status) {
         return ChecksumComputeFactory.get(HashAlgorithm.md5);
@@ -119,7 +140,7 @@ public class AzureWriteFeature extends AppendWriteFeature<Void> implements Write
         final Append status = super.append(file, length, cache);
         if(status.append) {
             final PathAttributes attr = new AzureAttributesFinderFeature(session, context).withCache(cache).find(file);
-            if(BlobType.APPEND_BLOB == BlobType.valueOf(attr.getCustom().get(AzureAttributesFinderFeature.KEY_BLOB_TYPE))) {
+            if(BlobType.APPEND_BLOB == toBlobType(attr.getCustom().get(AzureAttributesFinderFeature.KEY_BLOB_TYPE), BlobType.UNSPECIFIED)) {
                 return status;
             }
             return Write.override;
@@ -144,7 +165,7 @@ public class AzureWriteFeature extends AppendWriteFeature<Void> implements Write
                 else {
                     // Existing block blob type
                     final PathAttributes attr = new AzureAttributesFinderFeature(session, context).find(file);
-                    if(BlobType.APPEND_BLOB == BlobType.valueOf(attr.getCustom().get(AzureAttributesFinderFeature.KEY_BLOB_TYPE))) {
+                    if(BlobType.APPEND_BLOB == toBlobType(attr.getCustom().get(AzureAttributesFinderFeature.KEY_BLOB_TYPE), BlobType.UNSPECIFIED)) {
                         blob = session.getClient().getContainerReference(containerService.getContainer(file).getName())
                             .getAppendBlobReference(containerService.getKey(file));
                     }
@@ -86,9 +86,9 @@ public class B2LargeUploadWriteFeature implements MultipartWrite<VersionId> {
 
     @Override
     public StatusOutputStream<VersionId> write(final Path file, final TransferStatus status, final ConnectionCallback callback) {
-        final LargeUploadOutputStream proxy = new LargeUploadOutputStream(file, status);
-        return new HttpResponseOutputStream<VersionId>(new MemorySegementingOutputStream(proxy,
-            PreferencesFactory.get().getInteger("b2.upload.largeobject.size.minimum"))) {
+        final Integer minimum = PreferencesFactory.get().getInteger("b2.upload.largeobject.size.minimum");
+        final LargeUploadOutputStream proxy = new LargeUploadOutputStream(file, status, minimum);
+        return new HttpResponseOutputStream<VersionId>(new MemorySegementingOutputStream(proxy, minimum)) {
             @Override
             public VersionId getStatus() {
                 return proxy.getFileId();
@@ -120,12 +120,14 @@ public class B2LargeUploadWriteFeature implements MultipartWrite<VersionId> {
         private final Path file;
         private final TransferStatus overall;
         private final AtomicBoolean close = new AtomicBoolean();
+        private final Integer minimum;
 
         private int partNumber;
 
-        public LargeUploadOutputStream(final Path file, final TransferStatus status) {
+        public LargeUploadOutputStream(final Path file, final TransferStatus status, final Integer minimum) {
             this.file = file;
             this.overall = status;
+            this.minimum = minimum;
         }
 
         @Override
@@ -136,7 +138,7 @@ public class B2LargeUploadWriteFeature implements MultipartWrite<VersionId> {
         @Override
         public void write(final byte[] content, final int off, final int len) throws IOException {
             try {
-                if(0 == partNumber && len < PreferencesFactory.get().getInteger("b2.upload.largeobject.size.minimum")) {
+                if(0 == partNumber && len < minimum) {
                     // Write single upload
                     final B2GetUploadUrlResponse uploadUrl = session.getClient().getUploadUrl(fileid.getFileid(containerService.getContainer(file), new DisabledListProgressListener()));
                     final Checksum checksum = overall.getChecksum();
@@ -26,6 +26,7 @@ import ch.cyberduck.core.PathNormalizer;
 import ch.cyberduck.core.UrlProvider;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.features.*;
+import ch.cyberduck.core.http.ConcurrentRangeDownloadFeature;
 import ch.cyberduck.core.http.HttpSession;
 import ch.cyberduck.core.proxy.Proxy;
 import ch.cyberduck.core.ssl.X509KeyManager;
@@ -107,6 +108,9 @@ public class B2Session extends HttpSession<B2ApiClient> {
         if(type == Read.class) {
             return (T) new B2ReadFeature(this, fileid);
         }
+        if(type == Download.class) {
+            return (T) new ConcurrentRangeDownloadFeature(this);
+        }
         if(type == Upload.class) {
             return (T) new B2ThresholdUploadService(this, fileid);
         }
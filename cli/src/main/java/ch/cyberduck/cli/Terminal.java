@@ -43,6 +43,12 @@ import ch.cyberduck.core.local.ApplicationQuitCallback;
 import ch.cyberduck.core.local.TemporaryFileServiceFactory;
 import ch.cyberduck.core.logging.LoggerPrintStream;
 import ch.cyberduck.core.manta.MantaProtocol;
+import ch.cyberduck.core.metrics.JsonMetricExporter;
+import ch.cyberduck.core.metrics.Metric;
+import ch.cyberduck.core.metrics.MetricExporter;
+import ch.cyberduck.core.metrics.MetricRegistry;
+import ch.cyberduck.core.metrics.PrometheusMetricExporter;
+import ch.cyberduck.core.metrics.SummaryMetricExporter;
 import ch.cyberduck.core.nextcloud.NextcloudProtocol;
 import ch.cyberduck.core.nio.LocalProtocol;
 import ch.cyberduck.core.onedrive.OneDriveProtocol;
@@ -89,6 +95,11 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.math.NumberUtils;
 import org.apache.log4j.Logger;
 
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumSet;
@@ -178,7 +189,11 @@ public class Terminal {
             final CommandLineParser parser = new DefaultParser();
             final CommandLine input = parser.parse(options, args);
             final Terminal terminal = new Terminal(defaults, options, input);
-            switch(terminal.execute()) {
+            final Exit exit = terminal.execute();
+            if(input.hasOption(TerminalOptionsBuilder.Params.metrics.name())) {
+                terminal.metrics(input.getOptionValue(TerminalOptionsBuilder.Params.metrics.name()));
+            }
+            switch(exit) {
                 case success:
                     console.printf("%s%n", StringUtils.EMPTY);
                     System.exit(0);
@@ -354,6 +369,32 @@ public class Terminal {
         return Exit.failure;
     }
 
+    /**
+     * Print summary of metrics and write all metrics to file
+     *
+     * @param file Output file with .json extension for JSON or Prometheus text format otherwise. Null to skip.
+     */
+    protected void metrics(final String file) {
+        final Console console = new Console();
+        final List<Metric> metrics = MetricRegistry.get().getMetrics();
+        try {
+            final StringWriter summary = new StringWriter();
+            new SummaryMetricExporter().export(metrics, summary);
+            console.printf("%n%s", summary.toString());
+            if(StringUtils.isNotBlank(file)) {
+                final Local local = LocalFactory.get(file);
+                final MetricExporter exporter = "json".equals(local.getExtension())
+                    ? new JsonMetricExporter() : new PrometheusMetricExporter();
+                try (Writer writer = new OutputStreamWriter(local.getOutputStream(false), StandardCharsets.UTF_8)) {
+                    exporter.export(metrics, writer);
+                }
+            }
+        }
+        catch(IOException | AccessDeniedException e) {
+            console.printf("%nFailure writing metrics. %s", e.getMessage());
+        }
+    }
+
     protected void configure(final CommandLine input) {
         final boolean preserve = input.hasOption(TerminalOptionsBuilder.Params.preserve.name());
         preferences.setDefault("queue.upload.permissions.change", String.valueOf(preserve));
@@ -452,10 +493,10 @@ public class Terminal {
         }
         final DeleteWorker worker;
         if(StringUtils.containsAny(remote.getName(), '*')) {
-            worker = new DeleteWorker(new TerminalLoginCallback(reader), files, cache, new DownloadGlobFilter(remote.getName()), progress);
+            worker = new DeleteWorker(new TerminalLoginCallback(reader), files, cache, new DownloadGlobFilter(remote.getName()), progress, session);
         }
         else {
-            worker = new DeleteWorker(new TerminalLoginCallback(reader), files, cache, progress);
+            worker = new DeleteWorker(new TerminalLoginCallback(reader), files, cache, new NullFilter<Path>(), progress, session);
         }
         final SessionBackgroundAction<List<Path>> action = new TerminalBackgroundAction<List<Path>>(controller, session, worker);
         try {
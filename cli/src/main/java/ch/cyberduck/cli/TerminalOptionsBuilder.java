@@ -177,6 +177,10 @@ public final class TerminalOptionsBuilder {
         options.addOption(Option.builder("y")
             .longOpt(Params.assumeyes.name())
             .desc("Assume yes for all prompts").build());
+        options.addOption(Option.builder()
+            .longOpt(Params.metrics.name())
+            .desc("Print summary of metrics at exit and optionally write all metrics to file in Prometheus text or JSON format")
+            .hasArg().optionalArg(true).argName("file").build());
 
         return options;
     }
@@ -207,6 +211,7 @@ public final class TerminalOptionsBuilder {
         application,
         chmod,
         profile,
-        debug
+        debug,
+        metrics
     }
 }
@@ -109,6 +109,7 @@ public class TerminalPreferences extends Preferences {
     @Override
     public void setDefault(final String property, final String value) {
         proxy.setDefault(property, value);
+        this.changed(property);
     }
 
     @Override
@@ -127,11 +128,13 @@ public class TerminalPreferences extends Preferences {
     @Override
     public void setProperty(final String property, final String v) {
         proxy.setProperty(property, v);
+        this.changed(property);
     }
 
     @Override
     public void deleteProperty(final String property) {
         proxy.deleteProperty(property);
+        this.changed(property);
     }
 
     @Override
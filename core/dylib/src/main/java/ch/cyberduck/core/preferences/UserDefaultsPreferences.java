@@ -120,6 +120,7 @@ public class UserDefaultsPreferences extends DefaultPreferences {
             // the same key exists in a domain that precedes the application domain in the search list.
             store.setObjectForKey(NSString.stringWithString(value), property);
             cache.put(property, value);
+            this.changed(property);
         }
         else {
             this.deleteProperty(property);
@@ -130,6 +131,7 @@ public class UserDefaultsPreferences extends DefaultPreferences {
     public void setDefault(final String property, final String value) {
         super.setDefault(property, value);
         cache.remove(property);
+        this.changed(property);
     }
 
     @Override
@@ -138,6 +140,7 @@ public class UserDefaultsPreferences extends DefaultPreferences {
         // Setting a default has no effect on the value returned by the objectForKey method if
         // the same key exists in a domain that precedes the application domain in the search list.
         store.setObjectForKey(NSArray.arrayWithObjects(value.toArray(new String[value.size()])), property);
+        this.changed(property);
     }
 
     @Override
@@ -147,6 +150,7 @@ public class UserDefaultsPreferences extends DefaultPreferences {
         }
         store.removeObjectForKey(property);
         cache.remove(property);
+        this.changed(property);
     }
 
     /**
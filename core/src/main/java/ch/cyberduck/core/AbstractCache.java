@@ -23,34 +23,73 @@ import ch.cyberduck.core.cache.LRUCache;
 import org.apache.log4j.Logger;
 
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public abstract class AbstractCache<T extends Referenceable> implements Cache<T> {
     private static final Logger log = Logger.getLogger(AbstractCache.class);
 
     private final LRUCache<T, AttributedList<T>> impl;
 
+    /**
+     * Reverse index from reference of cached file to its location in parent directory listing
+     */
+    private final Map<CacheReference<?>, Location<T>> reverse
+        = new ConcurrentHashMap<>();
+
     public AbstractCache(int size) {
         if(size == Integer.MAX_VALUE) {
             // Unlimited
-            impl = LRUCache.build();
+            impl = LRUCache.build(notification -> this.unindex(notification.getValue()));
         }
         else {
             // Will inflate to the given size
-            impl = LRUCache.build(size);
+            impl = LRUCache.build(notification -> this.unindex(notification.getValue()), size);
         }
     }
 
+    /**
+     * Resolve file in reverse index maintained when listings are cached, replaced, removed or evicted. Files added to
+     * a cached listing in place are only found after putting the listing again.
+     *
+     * @param reference Reference equal to the reference derived for cached files
+     * @return Null if not found in index
+     */
     @Override
     public T lookup(final CacheReference<T> reference) {
-        for(AttributedList<T> entry : impl.asMap().values()) {
-            final T f = entry.find(reference);
-            if(null == f) {
-                continue;
-            }
-            return f;
+        final Location<T> location = reverse.get(reference);
+        if(null == location) {
+            log.warn(String.format("Lookup failed for %s in cache", reference));
+            return null;
+        }
+        final T f = location.resolve(reference);
+        if(null == f) {
+            // Removed from cached listing in place
+            reverse.remove(reference, location);
+            log.warn(String.format("Lookup failed for %s in cache", reference));
+        }
+        return f;
+    }
+
+    /**
+     * Add all files in directory listing to reverse index
+     */
+    private void index(final AttributedList<T> children) {
+        int index = 0;
+        for(T f : children) {
+            reverse.put(this.reference(f), new Location<>(children, index++));
+        }
+    }
+
+    /**
+     * Remove files in directory listing from reverse index unless meanwhile indexed with another listing
+     */
+    private void unindex(final AttributedList<T> children) {
+        if(null == children) {
+            return;
+        }
+        for(T f : children) {
+            reverse.computeIfPresent(this.reference(f), (reference, location) -> location.children == children ? null : location);
         }
-        log.warn(String.format("Lookup failed for %s in cache", reference));
-        return null;
     }
 
     @Override
@@ -122,7 +161,9 @@ public abstract class AbstractCache<T extends Referenceable> implements Cache<T>
             log.debug(String.format("Caching %s", reference));
         }
         final AttributedList<T> replaced = impl.get(reference);
+        // Previous listing is removed from index when notified of replacement
         impl.put(reference, children);
+        this.index(children);
         if(null == replaced) {
             // Not previously in cache
             return AttributedList.emptyList();
@@ -145,6 +186,8 @@ public abstract class AbstractCache<T extends Referenceable> implements Cache<T>
     }
 
     /**
+     * Invalid directory listings are kept in the cache and reverse index until replaced
+     *
      * @param reference Path reference
      */
     public void invalidate(final T reference) {
@@ -169,6 +212,7 @@ public abstract class AbstractCache<T extends Referenceable> implements Cache<T>
             log.info(String.format("Clear cache %s", this));
         }
         impl.clear();
+        reverse.clear();
     }
 
     @Override
@@ -178,4 +222,27 @@ public abstract class AbstractCache<T extends Referenceable> implements Cache<T>
         sb.append('}');
         return sb.toString();
     }
+
+    private static final class Location<T extends Referenceable> {
+        private final AttributedList<T> children;
+        private final int index;
+
+        private Location(final AttributedList<T> children, final int index) {
+            this.children = children;
+            this.index = index;
+        }
+
+        /**
+         * @return Null if the listing has been modified and the file is no longer found
+         */
+        private T resolve(final CacheReference<T> reference) {
+            if(index < children.size()) {
+                final T f = children.get(index);
+                if(reference.test(f)) {
+                    return f;
+                }
+            }
+            return children.find(reference);
+        }
+    }
 }
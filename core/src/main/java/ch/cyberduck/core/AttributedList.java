@@ -18,6 +18,8 @@ package ch.cyberduck.core;
  *  dkocher@cyberduck.ch
  */
 
+import ch.cyberduck.core.collections.ChunkedList;
+
 import org.apache.log4j.Logger;
 
 import java.util.Comparator;
@@ -25,7 +27,6 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Predicate;
 
 /**
@@ -51,8 +52,8 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
         }
     };
 
-    private final List<E> impl
-        = new CopyOnWriteArrayList<>();
+    private final ChunkedList<E> impl
+        = new ChunkedList<>();
 
     /**
      * Metadata of file listing
@@ -127,13 +128,8 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
     }
 
     /**
-     * The CopyOnWriteArrayList iterator does not support remove but the sort implementation
-     * makes use of it. Provide our own implementation here to circumvent.
-     *
      * @param copy       The list copy to sort
      * @param comparator The comparator to use
-     * @see java.util.Collections#sort(java.util.List, java.util.Comparator)
-     * @see java.util.concurrent.CopyOnWriteArrayList#iterator()
      */
     private void doSort(final List<E> copy, final Comparator<E> comparator) {
         if(null == comparator) {
@@ -195,7 +191,28 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
         return impl.contains(e);
     }
 
+    /**
+     * Lookup in hash index if predicate is a cache reference that can derive references of the same type from the
+     * elements in the list. Otherwise each element is tested.
+     *
+     * @param predicate Predicate
+     * @return First element matching predicate or null
+     */
+    @SuppressWarnings("unchecked")
     public E find(final Predicate<E> predicate) {
+        if(predicate instanceof CacheReference) {
+            final CacheReference<E> reference = (CacheReference<E>) predicate;
+            if(!impl.isEmpty()) {
+                final CacheReference<E> derived = reference.reference(impl.get(0));
+                if(null != derived && derived.getClass().equals(reference.getClass())) {
+                    final int index = impl.indexOf(reference.getClass(), reference::reference, reference);
+                    if(-1 == index) {
+                        return null;
+                    }
+                    return impl.get(index);
+                }
+            }
+        }
         final Optional<E> optional = impl.stream().filter(predicate).findFirst();
         return optional.orElse(null);
     }
@@ -21,5 +21,15 @@ package ch.cyberduck.core;
 import java.util.function.Predicate;
 
 public interface CacheReference<T> extends Predicate<T> {
-    // Marker only
+
+    /**
+     * Create a reference of the same type for another object. Allows to lookup matching objects in a hash index
+     * instead of testing every object.
+     *
+     * @param object Object to reference
+     * @return Null if not supported
+     */
+    default CacheReference<T> reference(final T object) {
+        return null;
+    }
 }
\ No newline at end of file
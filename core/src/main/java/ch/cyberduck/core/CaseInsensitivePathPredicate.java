@@ -52,6 +52,11 @@ public final class CaseInsensitivePathPredicate implements CacheReference<Path>
         return Objects.hash(type, path);
     }
 
+    @Override
+    public CacheReference<Path> reference(final Path object) {
+        return new CaseInsensitivePathPredicate(object);
+    }
+
     @Override
     public boolean test(final Path test) {
         return this.equals(new CaseInsensitivePathPredicate(test));
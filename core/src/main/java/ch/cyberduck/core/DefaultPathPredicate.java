@@ -79,6 +79,11 @@ public class DefaultPathPredicate implements CacheReference<Path> {
         return reference.hashCode();
     }
 
+    @Override
+    public CacheReference<Path> reference(final Path object) {
+        return new DefaultPathPredicate(object);
+    }
+
     @Override
     public boolean test(final Path test) {
         return this.equals(new DefaultPathPredicate(test));
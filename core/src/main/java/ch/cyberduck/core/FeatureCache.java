@@ -0,0 +1,128 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.features.Stateless;
+import ch.cyberduck.core.vault.VaultRegistry;
+
+import org.apache.log4j.Logger;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Memoize features of a session implemented as {@link Stateless} where the vault registry wrapper is stateless as
+ * well. Cached features are dropped when the vault
+ * registry of the session is replaced or a vault is loaded or locked.
+ */
+final class FeatureCache {
+    private static final Logger log = Logger.getLogger(FeatureCache.class);
+
+    private final Map<Class<?>, Object> features = new ConcurrentHashMap<>();
+    /**
+     * Types resolved to an implementation with state that must not be shared
+     */
+    private final Set<Class<?>> stateful = ConcurrentHashMap.newKeySet();
+
+    private volatile Revision revision = new Revision(null, -1L);
+
+    /**
+     * @param type     Feature type
+     * @param registry Vault registry of session
+     * @param resolve  Create feature implementation
+     * @param wrap     Wrap implementation with vault features
+     * @return Shared instance if implementation and its wrapper are stateless
+     */
+    @SuppressWarnings("unchecked")
+    <T> T get(final Class<T> type, final VaultRegistry registry, final Supplier<T> resolve, final Function<T, T> wrap) {
+        this.validate(registry);
+        final Object cached = features.get(type);
+        if(cached != null) {
+            return (T) cached;
+        }
+        final T feature = resolve.get();
+        if(stateful.contains(type)) {
+            return wrap.apply(feature);
+        }
+        if(feature instanceof Stateless) {
+            final T wrapped = wrap.apply(feature);
+            if(wrapped != feature && !(wrapped instanceof Stateless)) {
+                // Wrapper with mutators
+                return wrapped;
+            }
+            if(wrapped != null) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Cache feature %s for %s", wrapped, type));
+                }
+                final Object previous = features.putIfAbsent(type, wrapped);
+                if(previous != null) {
+                    return (T) previous;
+                }
+            }
+            return wrapped;
+        }
+        if(feature != null) {
+            stateful.add(type);
+        }
+        return wrap.apply(feature);
+    }
+
+    /**
+     * Drop cached features when vaults have changed
+     */
+    private void validate(final VaultRegistry registry) {
+        final long current = registry.getRevision();
+        if(revision.matches(registry, current)) {
+            return;
+        }
+        synchronized(this) {
+            if(revision.matches(registry, current)) {
+                return;
+            }
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Invalidate %d cached features after change in registry %s", features.size(), registry));
+            }
+            features.clear();
+            revision = new Revision(registry, current);
+        }
+    }
+
+    /**
+     * Drop all cached features
+     */
+    synchronized void clear() {
+        features.clear();
+        stateful.clear();
+        revision = new Revision(null, -1L);
+    }
+
+    private static final class Revision {
+        private final VaultRegistry registry;
+        private final long revision;
+
+        private Revision(final VaultRegistry registry, final long revision) {
+            this.registry = registry;
+            this.revision = revision;
+        }
+
+        private boolean matches(final VaultRegistry registry, final long revision) {
+            return this.registry == registry && this.revision == revision;
+        }
+    }
+}
@@ -0,0 +1,421 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.exception.AccessDeniedException;
+import ch.cyberduck.core.features.Location;
+import ch.cyberduck.core.serializer.Reader;
+
+import org.apache.log4j.Logger;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Profile with properties required to register and lookup the protocol taken from {@link ProfileIndex}. The
+ * profile file is only parsed when any other property is requested.
+ */
+final class IndexedProfile implements Protocol {
+    private static final Logger log = Logger.getLogger(IndexedProfile.class);
+
+    private final Local file;
+    private final Reader<Profile> reader;
+
+    private final String identifier;
+    private final String provider;
+    private final Type type;
+    private final Scheme scheme;
+    private final String[] schemes;
+    private final String context;
+    private final String authorization;
+    private final String hostname;
+    private final boolean enabled;
+    private final boolean bundled;
+    private final boolean deprecated;
+
+    private Profile profile;
+
+    IndexedProfile(final Local file, final Reader<Profile> reader,
+                   final String identifier, final String provider, final Type type, final Scheme scheme, final String[] schemes,
+                   final String context, final String authorization, final String hostname,
+                   final boolean enabled, final boolean bundled, final boolean deprecated) {
+        this.file = file;
+        this.reader = reader;
+        this.identifier = identifier;
+        this.provider = provider;
+        this.type = type;
+        this.scheme = scheme;
+        this.schemes = schemes;
+        this.context = context;
+        this.authorization = authorization;
+        this.hostname = hostname;
+        this.enabled = enabled;
+        this.bundled = bundled;
+        this.deprecated = deprecated;
+    }
+
+    /**
+     * @return Profile parsed from file on first use
+     */
+    private synchronized Profile profile() {
+        if(null == profile) {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Read profile from %s", file));
+            }
+            try {
+                profile = reader.read(file);
+            }
+            catch(AccessDeniedException e) {
+                throw new FactoryException(String.format("Failure reading profile from %s", file), e);
+            }
+            if(null == profile) {
+                throw new FactoryException(String.format("Failure reading profile from %s", file));
+            }
+        }
+        return profile;
+    }
+
+    public Local getFile() {
+        return file;
+    }
+
+    @Override
+    public String getIdentifier() {
+        return identifier;
+    }
+
+    @Override
+    public String getProvider() {
+        return provider;
+    }
+
+    @Override
+    public Type getType() {
+        return type;
+    }
+
+    @Override
+    public Scheme getScheme() {
+        return scheme;
+    }
+
+    @Override
+    public String[] getSchemes() {
+        return schemes;
+    }
+
+    @Override
+    public String getContext() {
+        return context;
+    }
+
+    @Override
+    public String getAuthorization() {
+        return authorization;
+    }
+
+    @Override
+    public String getDefaultHostname() {
+        return hostname;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public boolean isBundled() {
+        return bundled;
+    }
+
+    @Override
+    public boolean isDeprecated() {
+        return deprecated;
+    }
+
+    @Override
+    public boolean validate(final Credentials credentials, final LoginOptions options) {
+        return this.profile().validate(credentials, options);
+    }
+
+    @Override
+    public CredentialsConfigurator getCredentialsFinder() {
+        return this.profile().getCredentialsFinder();
+    }
+
+    @Override
+    public HostnameConfigurator getHostnameFinder() {
+        return this.profile().getHostnameFinder();
+    }
+
+    @Override
+    public JumphostConfigurator getJumpHostFinder() {
+        return this.profile().getJumpHostFinder();
+    }
+
+    @Override
+    public Case getCaseSensitivity() {
+        return this.profile().getCaseSensitivity();
+    }
+
+    @Override
+    public DirectoryTimestamp getDirectoryTimestamp() {
+        return this.profile().getDirectoryTimestamp();
+    }
+
+    @Override
+    public Statefulness getStatefulness() {
+        return this.profile().getStatefulness();
+    }
+
+    @Override
+    public Comparator<String> getListComparator() {
+        return this.profile().getListComparator();
+    }
+
+    @Override
+    public boolean isAnonymousConfigurable() {
+        return this.profile().isAnonymousConfigurable();
+    }
+
+    @Override
+    public boolean isUsernameConfigurable() {
+        return this.profile().isUsernameConfigurable();
+    }
+
+    @Override
+    public boolean isPasswordConfigurable() {
+        return this.profile().isPasswordConfigurable();
+    }
+
+    @Override
+    public boolean isTokenConfigurable() {
+        return this.profile().isTokenConfigurable();
+    }
+
+    @Override
+    public boolean isOAuthConfigurable() {
+        return this.profile().isOAuthConfigurable();
+    }
+
+    @Override
+    public boolean isCertificateConfigurable() {
+        return this.profile().isCertificateConfigurable();
+    }
+
+    @Override
+    public boolean isPrivateKeyConfigurable() {
+        return this.profile().isPrivateKeyConfigurable();
+    }
+
+    @Override
+    public boolean isHostnameConfigurable() {
+        return this.profile().isHostnameConfigurable();
+    }
+
+    @Override
+    public boolean isPortConfigurable() {
+        return this.profile().isPortConfigurable();
+    }
+
+    @Override
+    public boolean isPathConfigurable() {
+        return this.profile().isPathConfigurable();
+    }
+
+    @Override
+    public boolean isEncodingConfigurable() {
+        return this.profile().isEncodingConfigurable();
+    }
+
+    @Override
+    public boolean isUTCTimezone() {
+        return this.profile().isUTCTimezone();
+    }
+
+    @Override
+    public String getName() {
+        return this.profile().getName();
+    }
+
+    @Override
+    public boolean isSecure() {
+        return this.profile().isSecure();
+    }
+
+    @Override
+    public String getPrefix() {
+        return this.profile().getPrefix();
+    }
+
+    @Override
+    public String getDescription() {
+        return this.profile().getDescription();
+    }
+
+    @Override
+    public int getDefaultPort() {
+        return this.profile().getDefaultPort();
+    }
+
+    @Override
+    public String getDefaultPath() {
+        return this.profile().getDefaultPath();
+    }
+
+    @Override
+    public String getDefaultNickname() {
+        return this.profile().getDefaultNickname();
+    }
+
+    @Override
+    public Set<Location.Name> getRegions() {
+        return this.profile().getRegions();
+    }
+
+    @Override
+    public String getRegion() {
+        return this.profile().getRegion();
+    }
+
+    @Override
+    public String disk() {
+        return this.profile().disk();
+    }
+
+    @Override
+    public String icon() {
+        return this.profile().icon();
+    }
+
+    @Override
+    public String favicon() {
+        return this.profile().favicon();
+    }
+
+    @Override
+    public String getUsernamePlaceholder() {
+        return this.profile().getUsernamePlaceholder();
+    }
+
+    @Override
+    public String getPasswordPlaceholder() {
+        return this.profile().getPasswordPlaceholder();
+    }
+
+    @Override
+    public String getTokenPlaceholder() {
+        return this.profile().getTokenPlaceholder();
+    }
+
+    @Override
+    public String getOAuthAuthorizationUrl() {
+        return this.profile().getOAuthAuthorizationUrl();
+    }
+
+    @Override
+    public String getOAuthTokenUrl() {
+        return this.profile().getOAuthTokenUrl();
+    }
+
+    @Override
+    public List<String> getOAuthScopes() {
+        return this.profile().getOAuthScopes();
+    }
+
+    @Override
+    public String getOAuthRedirectUrl() {
+        return this.profile().getOAuthRedirectUrl();
+    }
+
+    @Override
+    public String getOAuthClientId() {
+        return this.profile().getOAuthClientId();
+    }
+
+    @Override
+    public String getOAuthClientSecret() {
+        return this.profile().getOAuthClientSecret();
+    }
+
+    @Override
+    public <T> T getFeature(final Class<T> type) {
+        return this.profile().getFeature(type);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if(this == o) {
+            return true;
+        }
+        if(!(o instanceof Protocol)) {
+            return false;
+        }
+        Protocol protocol = (Protocol) o;
+        if(identifier != null ? !identifier.equals(protocol.getIdentifier()) : protocol.getIdentifier() != null) {
+            return false;
+        }
+        if(scheme != null ? !scheme.equals(protocol.getScheme()) : protocol.getScheme() != null) {
+            return false;
+        }
+        if(context != null ? !context.equals(protocol.getContext()) : protocol.getContext() != null) {
+            return false;
+        }
+        if(authorization != null ? !authorization.equals(protocol.getAuthorization()) : protocol.getAuthorization() != null) {
+            return false;
+        }
+        if(provider != null ? !provider.equals(protocol.getProvider()) : protocol.getProvider() != null) {
+            return false;
+        }
+        if(hostname != null ? !hostname.equals(protocol.getDefaultHostname()) : protocol.getDefaultHostname() != null) {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Same as {@link Profile#hashCode()}
+     */
+    @Override
+    public int hashCode() {
+        int result = identifier != null ? identifier.hashCode() : 0;
+        result = 31 * result + (scheme != null ? scheme.hashCode() : 0);
+        result = 31 * result + (context != null ? context.hashCode() : 0);
+        result = 31 * result + (authorization != null ? authorization.hashCode() : 0);
+        result = 31 * result + (provider != null ? provider.hashCode() : 0);
+        result = 31 * result + (hostname != null ? hostname.hashCode() : 0);
+        return result;
+    }
+
+    @Override
+    public int compareTo(final Protocol o) {
+        return identifier.compareTo(o.getIdentifier());
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("IndexedProfile{");
+        sb.append("file=").append(file);
+        sb.append(", identifier=").append(identifier);
+        sb.append(", provider=").append(provider);
+        sb.append(", schemes=").append(Arrays.toString(schemes));
+        sb.append('}');
+        return sb.toString();
+    }
+}
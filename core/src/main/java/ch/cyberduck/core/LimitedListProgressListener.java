@@ -18,6 +18,8 @@ package ch.cyberduck.core;
  */
 
 import ch.cyberduck.core.exception.ListCanceledException;
+import ch.cyberduck.core.preferences.PreferenceKeys;
+import ch.cyberduck.core.preferences.PreferenceValue;
 import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 
@@ -26,17 +28,23 @@ public class LimitedListProgressListener implements ListProgressListener {
     private final Preferences preferences
             = PreferencesFactory.get();
 
+    private final PreferenceValue<Integer> containerLimit
+            = PreferenceKeys.BROWSER_LIST_LIMIT_CONTAINER.value(preferences);
+
+    private final PreferenceValue<Integer> directoryLimit
+            = PreferenceKeys.BROWSER_LIST_LIMIT_DIRECTORY.value(preferences);
+
     /**
      * Limit for containers
      */
     private Integer container
-            = preferences.getInteger("browser.list.limit.container");
+            = containerLimit.get();
 
     /**
      * Limit for regular directories
      */
     private Integer directory
-            = preferences.getInteger("browser.list.limit.directory");
+            = directoryLimit.get();
 
     private final ProgressListener delegate;
 
@@ -54,13 +62,13 @@ public class LimitedListProgressListener implements ListProgressListener {
         if(folder.isRoot()) {
             if(list.size() >= container) {
                 // Allow another chunk until limit is reached again
-                container += preferences.getInteger("browser.list.limit.container");
+                container += containerLimit.get();
                 throw new ListCanceledException(list);
             }
         }
         if(list.size() >= directory) {
             // Allow another chunk until limit is reached again
-            directory += preferences.getInteger("browser.list.limit.directory");
+            directory += directoryLimit.get();
             throw new ListCanceledException(list);
         }
     }
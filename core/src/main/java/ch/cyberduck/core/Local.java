@@ -466,6 +466,22 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
         }
     }
 
+    /**
+     * @return Channel for positional reads and writes leaving existing contents in place
+     */
+    public FileChannel getChannel() throws AccessDeniedException {
+        return this.getChannel(path);
+    }
+
+    protected FileChannel getChannel(final String path) throws LocalAccessDeniedException {
+        try {
+            return FileChannel.open(Paths.get(path), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+        catch(RuntimeException | IOException e) {
+            throw new LocalAccessDeniedException(e.getMessage(), e);
+        }
+    }
+
     public Object lock(final boolean interactive) throws AccessDeniedException {
         return null;
     }
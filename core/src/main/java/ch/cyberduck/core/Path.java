@@ -18,23 +18,51 @@ package ch.cyberduck.core;
  *  dkocher@cyberduck.ch
  */
 
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.serializer.Serializer;
 
 import java.util.EnumSet;
 import java.util.Objects;
 
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
 public class Path extends AbstractPath implements Referenceable, Serializable {
 
     /**
      * The path delimiter for remote paths
      */
     public static final char DELIMITER = '/';
+
+    /**
+     * Do not retain absolute path of files but compute from parent when requested
+     */
+    private static volatile boolean compact = PreferencesFactory.get().getBoolean("path.compact");
+
+    /**
+     * Change representation of paths created from now on. Existing instances are not affected.
+     *
+     * @param enabled Compute absolute path of files from parent when requested
+     */
+    static void setCompact(final boolean enabled) {
+        compact = enabled;
+    }
+
+    /**
+     * Share filenames repeating in different directories
+     */
+    private static final Interner<String> names = Interners.newWeakInterner();
+
     /**
      * Reference to the parent
      */
     protected Path parent;
     /**
-     * The absolute remote path
+     * The filename relative to the parent or the absolute path if no parent. Only set in compact mode.
+     */
+    private String name;
+    /**
+     * The absolute remote path. Only memoized for directories when requested in compact mode.
      */
     private String path;
     /**
@@ -42,9 +70,9 @@ public class Path extends AbstractPath implements Referenceable, Serializable {
      */
     private Path symlink;
     /**
-     * The file type
+     * The file type as bitmask of ordinals
      */
-    private EnumSet<Type> type;
+    private int type;
 
     /**
      * Attributes denoting this path
@@ -53,9 +81,10 @@ public class Path extends AbstractPath implements Referenceable, Serializable {
 
     public Path(final Path copy) {
         this.parent = copy.parent;
+        this.name = copy.name;
         this.path = copy.path;
         this.symlink = copy.symlink;
-        this.type = EnumSet.copyOf(copy.type);
+        this.type = copy.type;
         this.attributes = new PathAttributes(copy.attributes);
     }
 
@@ -65,7 +94,7 @@ public class Path extends AbstractPath implements Referenceable, Serializable {
      * @param type   File type
      */
     public Path(final Path parent, final String name, final EnumSet<Type> type) {
-        this.type = type;
+        this.type = toMask(type);
         this.attributes = new PathAttributes();
         this.attributes.setRegion(parent.attributes.getRegion());
         this._setPath(parent, name);
@@ -76,7 +105,7 @@ public class Path extends AbstractPath implements Referenceable, Serializable {
      * @param type     File type
      */
     public Path(final String absolute, final EnumSet<Type> type) {
-        this.type = type;
+        this.type = toMask(type);
         this.attributes = new PathAttributes();
         this.setPath(absolute);
     }
@@ -86,7 +115,7 @@ public class Path extends AbstractPath implements Referenceable, Serializable {
      * @param attributes File type
      */
     public Path(final String absolute, final EnumSet<Type> type, final PathAttributes attributes) {
-        this.type = type;
+        this.type = toMask(type);
         this.attributes = attributes;
         this.setPath(absolute);
     }
@@ -97,14 +126,14 @@ public class Path extends AbstractPath implements Referenceable, Serializable {
      * @param attributes Attributes
      */
     public Path(final Path parent, final String name, final EnumSet<Type> type, final PathAttributes attributes) {
-        this.type = type;
+        this.type = toMask(type);
         this.attributes = attributes;
         this._setPath(parent, name);
     }
 
     @Override
     public <T> T serialize(final Serializer dict) {
-        dict.setStringForKey(String.valueOf(type), "Type");
+        dict.setStringForKey(String.valueOf(this.getType()), "Type");
         dict.setStringForKey(this.getAbsolute(), "Remote");
         if(symlink != null) {
             dict.setObjectForKey(symlink, "Symbolic Link");
@@ -129,51 +158,88 @@ public class Path extends AbstractPath implements Referenceable, Serializable {
 
     private void _setPath(final Path parent, final String name) {
         this.parent = parent;
-        if(null == parent) {
-            this.path = name;
+        if(compact) {
+            this.name = null == name ? null : names.intern(name);
         }
         else {
-            if(parent.isRoot()) {
-                this.path = parent.getAbsolute() + name;
-            }
-            else {
-                if(name.startsWith(String.valueOf(DELIMITER))) {
-                    this.path = parent.getAbsolute() + name;
-                }
-                else {
-                    this.path = parent.getAbsolute() + Path.DELIMITER + name;
-                }
-            }
+            this.path = toAbsolute(parent, name);
+        }
+    }
+
+    private static String toAbsolute(final Path parent, final String name) {
+        if(null == parent) {
+            return name;
+        }
+        final String absolute = parent.getAbsolute();
+        if(parent.isRoot()) {
+            return absolute + name;
+        }
+        if(name.startsWith(String.valueOf(DELIMITER))) {
+            return absolute + name;
+        }
+        return absolute + Path.DELIMITER + name;
+    }
+
+    private static int toMask(final EnumSet<Type> type) {
+        int mask = 0;
+        for(Type t : type) {
+            mask |= 1 << t.ordinal();
         }
+        return mask;
     }
 
+    private boolean is(final Type t) {
+        return (type & 1 << t.ordinal()) != 0;
+    }
+
+    /**
+     * @return Copy of the file type. Changes must be applied with {@link #setType(EnumSet)}
+     */
     @Override
     public EnumSet<Type> getType() {
-        return type;
+        final EnumSet<Type> set = EnumSet.noneOf(Type.class);
+        for(Type t : Type.values()) {
+            if(this.is(t)) {
+                set.add(t);
+            }
+        }
+        return set;
     }
 
     public void setType(final EnumSet<Type> type) {
-        this.type = type;
+        this.type = toMask(type);
     }
 
     public boolean isVolume() {
-        return type.contains(Type.volume);
+        return this.is(Type.volume);
     }
 
     public boolean isDirectory() {
-        return type.contains(Type.directory);
+        return this.is(Type.directory);
     }
 
     public boolean isPlaceholder() {
-        return type.contains(Type.placeholder);
+        return this.is(Type.placeholder);
     }
 
     public boolean isFile() {
-        return type.contains(Type.file);
+        return this.is(Type.file);
     }
 
     public boolean isSymbolicLink() {
-        return type.contains(Type.symboliclink);
+        return this.is(Type.symboliclink);
+    }
+
+    @Override
+    public boolean isRoot() {
+        if(null != path) {
+            return super.isRoot();
+        }
+        if(null == parent) {
+            return String.valueOf(DELIMITER).equals(name);
+        }
+        // Empty filename in root
+        return name.isEmpty() && parent.isRoot();
     }
 
     @Override
@@ -209,6 +275,9 @@ public class Path extends AbstractPath implements Referenceable, Serializable {
         if(this.isRoot()) {
             return String.valueOf(DELIMITER);
         }
+        if(null != name && null != parent && name.indexOf(DELIMITER) == -1) {
+            return name;
+        }
         final String abs = this.getAbsolute();
         int index = abs.lastIndexOf(DELIMITER);
         return abs.substring(index + 1);
@@ -219,6 +288,14 @@ public class Path extends AbstractPath implements Referenceable, Serializable {
      */
     @Override
     public String getAbsolute() {
+        if(null == path) {
+            final String absolute = toAbsolute(parent, name);
+            if(!this.isFile()) {
+                // Memoize for children computing their absolute path from this parent
+                path = absolute;
+            }
+            return absolute;
+        }
         return path;
     }
 
@@ -264,8 +341,8 @@ public class Path extends AbstractPath implements Referenceable, Serializable {
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("Path{");
-        sb.append("path='").append(path).append('\'');
-        sb.append(", type=").append(type);
+        sb.append("path='").append(this.getAbsolute()).append('\'');
+        sb.append(", type=").append(this.getType());
         sb.append('}');
         return sb.toString();
     }
@@ -66,8 +66,6 @@ public class PathAttributes extends Attributes implements Serializable {
 
     private Permission permission = Permission.EMPTY;
 
-    private Acl acl = Acl.EMPTY;
-
     /**
      * MD5 checksum
      */
@@ -93,11 +91,6 @@ public class PathAttributes extends Attributes implements Serializable {
      */
     private String versionId;
 
-    /**
-     * References to previous versions if any
-     */
-    private AttributedList<Path> versions = AttributedList.emptyList();
-
     /**
      * Lock id
      */
@@ -127,13 +120,6 @@ public class PathAttributes extends Attributes implements Serializable {
      */
     private String displayname;
 
-    private DescriptiveUrl link = DescriptiveUrl.EMPTY;
-
-    /**
-     * HTTP headers
-     */
-    private Map<String, String> metadata = Collections.emptyMap();
-
     /**
      * Cryptomator vault
      */
@@ -151,7 +137,10 @@ public class PathAttributes extends Attributes implements Serializable {
      */
     private String directoryId;
 
-    private Map<String, String> custom = Collections.emptyMap();
+    /**
+     * Rarely set attributes only allocated when needed
+     */
+    private Extended extended;
 
     public PathAttributes() {
     }
@@ -164,22 +153,18 @@ public class PathAttributes extends Attributes implements Serializable {
         owner = copy.owner;
         group = copy.group;
         permission = copy.permission;
-        acl = copy.acl;
         checksum = copy.checksum;
         etag = copy.etag;
         storageClass = copy.storageClass;
         encryption = copy.encryption;
         versionId = copy.versionId;
-        versions = copy.versions;
         lockId = copy.lockId;
         duplicate = copy.duplicate;
         hidden = copy.hidden;
         revision = copy.revision;
         region = copy.region;
         displayname = copy.displayname;
-        link = copy.link;
-        metadata = copy.metadata;
-        custom = copy.custom;
+        extended = null == copy.extended ? null : new Extended(copy.extended);
         vault = copy.vault;
         decrypted = copy.decrypted;
         encrypted = copy.encrypted;
@@ -200,8 +185,8 @@ public class PathAttributes extends Attributes implements Serializable {
         if(revision != null) {
             dict.setStringForKey(String.valueOf(revision), "Revision");
         }
-        if(!versions.isEmpty()) {
-            dict.setListForKey(versions.toList(), "Versions");
+        if(!this.getVersions().isEmpty()) {
+            dict.setListForKey(this.getVersions().toList(), "Versions");
         }
         if(etag != null) {
             dict.setStringForKey(etag, "ETag");
@@ -209,11 +194,11 @@ public class PathAttributes extends Attributes implements Serializable {
         if(permission != Permission.EMPTY) {
             dict.setObjectForKey(permission, "Permission");
         }
-        if(acl != Acl.EMPTY) {
-            dict.setObjectForKey(acl, "Acl");
+        if(this.getAcl() != Acl.EMPTY) {
+            dict.setObjectForKey(this.getAcl(), "Acl");
         }
-        if(link != DescriptiveUrl.EMPTY) {
-            dict.setStringForKey(link.getUrl(), "Link");
+        if(this.getLink() != DescriptiveUrl.EMPTY) {
+            dict.setStringForKey(this.getLink().getUrl(), "Link");
         }
         if(checksum != Checksum.NONE) {
             final Map<String, String> wrapper = new HashMap<>();
@@ -316,11 +301,14 @@ public class PathAttributes extends Attributes implements Serializable {
     }
 
     public Acl getAcl() {
-        return acl;
+        return null == extended ? Acl.EMPTY : extended.acl;
     }
 
     public void setAcl(final Acl acl) {
-        this.acl = acl;
+        if(null == extended && acl == Acl.EMPTY) {
+            return;
+        }
+        this.extended().acl = acl;
     }
 
     @Override
@@ -403,12 +391,18 @@ public class PathAttributes extends Attributes implements Serializable {
         return this;
     }
 
+    /**
+     * @return References to previous versions if any
+     */
     public AttributedList<Path> getVersions() {
-        return versions;
+        return null == extended ? AttributedList.emptyList() : extended.versions;
     }
 
     public void setVersions(final AttributedList<Path> versions) {
-        this.versions = versions;
+        if(null == extended && versions == AttributedList.<Path>emptyList()) {
+            return;
+        }
+        this.extended().versions = versions;
     }
 
     public PathAttributes withVersions(final AttributedList<Path> versions) {
@@ -501,12 +495,18 @@ public class PathAttributes extends Attributes implements Serializable {
         this.hidden = hidden;
     }
 
+    /**
+     * @return HTTP headers
+     */
     public Map<String, String> getMetadata() {
-        return metadata;
+        return null == extended ? Collections.emptyMap() : extended.metadata;
     }
 
     public void setMetadata(final Map<String, String> metadata) {
-        this.metadata = metadata;
+        if(null == extended && metadata == Collections.<String, String>emptyMap()) {
+            return;
+        }
+        this.extended().metadata = metadata;
     }
 
     public String getRegion() {
@@ -526,27 +526,41 @@ public class PathAttributes extends Attributes implements Serializable {
     }
 
     public DescriptiveUrl getLink() {
-        return link;
+        return null == extended ? DescriptiveUrl.EMPTY : extended.link;
     }
 
     public void setLink(final DescriptiveUrl link) {
-        this.link = link;
+        if(null == extended && link == DescriptiveUrl.EMPTY) {
+            return;
+        }
+        this.extended().link = link;
     }
 
     public Map<String, String> getCustom() {
-        return custom;
+        return null == extended ? Collections.emptyMap() : extended.custom;
     }
 
     public void setCustom(final Map<String, String> custom) {
-        this.custom = custom;
+        if(null == extended && custom == Collections.<String, String>emptyMap()) {
+            return;
+        }
+        this.extended().custom = custom;
     }
 
     public PathAttributes withCustom(final String key, final String value) {
-        custom = new HashMap<>(custom);
+        final Map<String, String> custom = new HashMap<>(this.getCustom());
         custom.put(key, value);
+        this.extended().custom = custom;
         return this;
     }
 
+    private Extended extended() {
+        if(null == extended) {
+            extended = new Extended();
+        }
+        return extended;
+    }
+
     @Override
     public boolean equals(final Object o) {
         if(this == o) {
@@ -568,7 +582,7 @@ public class PathAttributes extends Attributes implements Serializable {
         if(!Objects.equals(permission, that.permission)) {
             return false;
         }
-        if(!Objects.equals(acl, that.acl)) {
+        if(!Objects.equals(this.getAcl(), that.getAcl())) {
             return false;
         }
         if(!Objects.equals(versionId, that.versionId)) {
@@ -577,7 +591,7 @@ public class PathAttributes extends Attributes implements Serializable {
         if(!Objects.equals(revision, that.revision)) {
             return false;
         }
-        if(!Objects.equals(versions, that.versions)) {
+        if(!Objects.equals(this.getVersions(), that.getVersions())) {
             return false;
         }
         if(!Objects.equals(region, that.region)) {
@@ -591,11 +605,11 @@ public class PathAttributes extends Attributes implements Serializable {
         int result = (int) (size ^ (size >>> 32));
         result = 31 * result + (int) (modified ^ (modified >>> 32));
         result = 31 * result + (permission != null ? permission.hashCode() : 0);
-        result = 31 * result + (acl != null ? acl.hashCode() : 0);
+        result = 31 * result + (this.getAcl() != null ? this.getAcl().hashCode() : 0);
         result = 31 * result + (checksum != null ? checksum.hashCode() : 0);
         result = 31 * result + (versionId != null ? versionId.hashCode() : 0);
         result = 31 * result + (revision != null ? revision.hashCode() : 0);
-        result = 31 * result + (versions != null ? versions.hashCode() : 0);
+        result = 31 * result + (this.getVersions() != null ? this.getVersions().hashCode() : 0);
         result = 31 * result + (region != null ? region.hashCode() : 0);
         return result;
     }
@@ -610,7 +624,7 @@ public class PathAttributes extends Attributes implements Serializable {
         sb.append(", owner='").append(owner).append('\'');
         sb.append(", group='").append(group).append('\'');
         sb.append(", permission=").append(permission);
-        sb.append(", acl=").append(acl);
+        sb.append(", acl=").append(this.getAcl());
         sb.append(", checksum='").append(checksum).append('\'');
         sb.append(", etag='").append(etag).append('\'');
         sb.append(", storageClass='").append(storageClass).append('\'');
@@ -620,10 +634,29 @@ public class PathAttributes extends Attributes implements Serializable {
         sb.append(", duplicate=").append(duplicate);
         sb.append(", hidden=").append(hidden);
         sb.append(", revision=").append(revision);
-        sb.append(", versions=").append(versions);
+        sb.append(", versions=").append(this.getVersions());
         sb.append(", region='").append(region).append('\'');
-        sb.append(", metadata=").append(metadata);
+        sb.append(", metadata=").append(this.getMetadata());
         sb.append('}');
         return sb.toString();
     }
+
+    private static final class Extended {
+        private Acl acl = Acl.EMPTY;
+        private AttributedList<Path> versions = AttributedList.emptyList();
+        private DescriptiveUrl link = DescriptiveUrl.EMPTY;
+        private Map<String, String> metadata = Collections.emptyMap();
+        private Map<String, String> custom = Collections.emptyMap();
+
+        private Extended() {
+        }
+
+        private Extended(final Extended copy) {
+            acl = copy.acl;
+            versions = copy.versions;
+            link = copy.link;
+            metadata = copy.metadata;
+            custom = copy.custom;
+        }
+    }
 }
@@ -47,14 +47,16 @@ public class Profile implements Protocol, Serializable {
      * The actual protocol implementation registered
      */
     private final Protocol parent;
-    private final Local disk;
-    private final Local icon;
+    private Local disk;
+    private Local icon;
+    /**
+     * Images are only decoded to temporary files when first requested
+     */
+    private boolean decoded;
 
     public Profile(final Protocol parent, final Deserializer<String> dict) {
         this.parent = parent;
         this.dict = dict;
-        this.disk = this.write(this.value("Disk"));
-        this.icon = this.write(this.value("Icon"));
     }
 
     @Override
@@ -225,6 +227,7 @@ public class Profile implements Protocol, Serializable {
 
     @Override
     public String disk() {
+        this.decode();
         if(null == disk) {
             return parent.disk();
         }
@@ -234,6 +237,7 @@ public class Profile implements Protocol, Serializable {
 
     @Override
     public String icon() {
+        this.decode();
         if(null == icon) {
             if(null == disk) {
                 return parent.icon();
@@ -249,6 +253,14 @@ public class Profile implements Protocol, Serializable {
         return parent.favicon();
     }
 
+    private synchronized void decode() {
+        if(!decoded) {
+            disk = this.write(this.value("Disk"));
+            icon = this.write(this.value("Icon"));
+            decoded = true;
+        }
+    }
+
     /**
      * Write temporary file with data
      *
@@ -573,7 +585,7 @@ public class Profile implements Protocol, Serializable {
         sb.append("parent=").append(parent);
         sb.append(", vendor=").append(this.value("Vendor"));
         sb.append(", description=").append(this.value("Description"));
-        sb.append(", image=").append(disk);
+        sb.append(", image=").append(StringUtils.isNotBlank(this.value("Disk")));
         sb.append('}');
         return sb.toString();
     }
@@ -0,0 +1,206 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.exception.AccessDeniedException;
+import ch.cyberduck.core.exception.LocalAccessDeniedException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.preferences.SupportDirectoryFinderFactory;
+import ch.cyberduck.core.serializer.Reader;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashSet;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Index of profile files with the properties needed to register and lookup protocols without parsing the profile.
+ * Entries are revalidated with the modification date and size of the profile file.
+ */
+public final class ProfileIndex {
+    private static final Logger log = Logger.getLogger(ProfileIndex.class);
+
+    private static final String VERSION = "Version";
+
+    private final Local file;
+    private final String version;
+
+    private Properties entries;
+    /**
+     * Profiles found or added since loaded. Other entries are dropped when saved.
+     */
+    private final Set<String> seen = new HashSet<>();
+    private boolean modified;
+
+    public ProfileIndex() {
+        this(LocalFactory.get(SupportDirectoryFinderFactory.get().find(), "Profiles.index"));
+    }
+
+    public ProfileIndex(final Local file) {
+        this.file = file;
+        this.version = String.format("%s-%s", PreferencesFactory.get().getProperty("application.version"),
+            PreferencesFactory.get().getProperty("application.revision"));
+    }
+
+    private Properties load() {
+        if(null == entries) {
+            entries = new Properties();
+            if(file.exists()) {
+                try (InputStream in = file.getInputStream()) {
+                    entries.load(in);
+                }
+                catch(IOException | AccessDeniedException e) {
+                    log.warn(String.format("Failure reading index %s. %s", file, e));
+                    entries.clear();
+                }
+                // Values inherited from protocol implementations may change with version
+                if(!StringUtils.equals(version, entries.getProperty(VERSION))) {
+                    if(log.isInfoEnabled()) {
+                        log.info(String.format("Discard index %s from version %s", file, entries.getProperty(VERSION)));
+                    }
+                    entries.clear();
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * @param profile Profile file
+     * @param reader  Reader to parse profile when properties not in index are requested
+     * @return Null if no entry or profile file has changed since indexed
+     */
+    public synchronized Protocol find(final Local profile, final Reader<Profile> reader) {
+        final Properties entries = this.load();
+        final String key = profile.getAbsolute();
+        if(!StringUtils.equals(this.stamp(profile), entries.getProperty(this.key(key, "Stamp")))) {
+            return null;
+        }
+        final String type = entries.getProperty(this.key(key, "Type"));
+        final String scheme = entries.getProperty(this.key(key, "Scheme"));
+        try {
+            final Protocol protocol = new IndexedProfile(profile, reader,
+                this.value(key, "Identifier"), this.value(key, "Provider"),
+                null == type ? null : Protocol.Type.valueOf(type), null == scheme ? null : Scheme.valueOf(scheme),
+                StringUtils.split(entries.getProperty(this.key(key, "Schemes"), StringUtils.EMPTY), ','),
+                this.value(key, "Context"), this.value(key, "Authorization"), this.value(key, "Hostname"),
+                Boolean.parseBoolean(entries.getProperty(this.key(key, "Enabled"))),
+                Boolean.parseBoolean(entries.getProperty(this.key(key, "Bundled"))),
+                Boolean.parseBoolean(entries.getProperty(this.key(key, "Deprecated"))));
+            seen.add(key);
+            return protocol;
+        }
+        catch(IllegalArgumentException e) {
+            log.warn(String.format("Invalid entry for %s in index %s", profile, file));
+            return null;
+        }
+    }
+
+    /**
+     * Add or replace entry for parsed profile
+     *
+     * @param file    Profile file
+     * @param profile Parsed profile
+     */
+    public synchronized void put(final Local file, final Profile profile) {
+        final Properties entries = this.load();
+        final String key = file.getAbsolute();
+        entries.setProperty(this.key(key, "Stamp"), this.stamp(file));
+        this.put(key, "Identifier", profile.getIdentifier());
+        this.put(key, "Provider", profile.getProvider());
+        this.put(key, "Type", null == profile.getType() ? null : profile.getType().name());
+        this.put(key, "Scheme", null == profile.getScheme() ? null : profile.getScheme().name());
+        this.put(key, "Schemes", StringUtils.join(profile.getSchemes(), ','));
+        this.put(key, "Context", profile.getContext());
+        this.put(key, "Authorization", profile.getAuthorization());
+        this.put(key, "Hostname", profile.getDefaultHostname());
+        entries.setProperty(this.key(key, "Enabled"), String.valueOf(profile.isEnabled()));
+        entries.setProperty(this.key(key, "Bundled"), String.valueOf(profile.isBundled()));
+        entries.setProperty(this.key(key, "Deprecated"), String.valueOf(profile.isDeprecated()));
+        seen.add(key);
+        modified = true;
+    }
+
+    /**
+     * Write index dropping entries for profiles no longer found
+     */
+    public synchronized void save() {
+        final Properties entries = this.load();
+        for(String key : entries.stringPropertyNames()) {
+            if(VERSION.equals(key)) {
+                continue;
+            }
+            if(!seen.contains(StringUtils.substringBeforeLast(key, "#"))) {
+                entries.remove(key);
+                modified = true;
+            }
+        }
+        if(!modified) {
+            return;
+        }
+        entries.setProperty(VERSION, version);
+        OutputStream out = null;
+        try {
+            if(!file.getParent().exists()) {
+                file.getParent().mkdir();
+            }
+            out = file.getOutputStream(false);
+            entries.store(out, null);
+            modified = false;
+        }
+        catch(IOException | AccessDeniedException e) {
+            log.warn(String.format("Failure writing index %s. %s", file, e));
+        }
+        finally {
+            IOUtils.closeQuietly(out);
+        }
+    }
+
+    private String stamp(final Local profile) {
+        return String.format("%d-%d", profile.attributes().getModificationDate(), profile.attributes().getSize());
+    }
+
+    private String key(final String file, final String property) {
+        return String.format("%s#%s", file, property);
+    }
+
+    private String value(final String file, final String property) {
+        return entries.getProperty(this.key(file, property));
+    }
+
+    private void put(final String file, final String property, final String value) {
+        if(null == value) {
+            entries.remove(this.key(file, property));
+        }
+        else {
+            entries.setProperty(this.key(file, property), value);
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ProfileIndex{");
+        sb.append("file=").append(file);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -19,13 +19,16 @@ import ch.cyberduck.core.exception.AccessDeniedException;
 import ch.cyberduck.core.preferences.ApplicationResourcesFinderFactory;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.preferences.SupportDirectoryFinderFactory;
+import ch.cyberduck.core.serializer.Reader;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
 
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Predicate;
 import java.util.regex.Pattern;
@@ -43,6 +46,8 @@ public final class ProtocolFactory {
     private final Set<Protocol> registered;
     private final Local bundle;
 
+    private volatile Lookup lookup;
+
     public ProtocolFactory() {
         this(new LinkedHashSet<Protocol>());
     }
@@ -68,6 +73,7 @@ public final class ProtocolFactory {
      * Load profiles embedded in bundles and installed in the application support directory.
      */
     public void loadDefaultProfiles() {
+        final ProfileIndex index = new ProfileIndex();
         if(bundle.exists()) {
             try {
                 if(log.isDebugEnabled()) {
@@ -75,7 +81,7 @@ public final class ProtocolFactory {
                 }
                 for(Local f : bundle.list().filter(new ProfileFilter())) {
                     try {
-                        final Profile profile = ProfileReaderFactory.get().read(f);
+                        final Protocol profile = this.read(index, f);
                         if(log.isInfoEnabled()) {
                             log.info(String.format("Adding bundled protocol %s", profile));
                         }
@@ -101,7 +107,7 @@ public final class ProtocolFactory {
                 }
                 for(Local f : library.list().filter(new ProfileFilter())) {
                     try {
-                        final Profile profile = ProfileReaderFactory.get().read(f);
+                        final Protocol profile = this.read(index, f);
                         if(log.isInfoEnabled()) {
                             log.info(String.format("Adding profile %s", profile));
                         }
@@ -117,6 +123,24 @@ public final class ProtocolFactory {
                 log.warn(String.format("Failure reading collection %s %s", library, e));
             }
         }
+        index.save();
+        lookup = null;
+    }
+
+    /**
+     * @return Profile from index or parsed from file if not indexed or changed since
+     */
+    private Protocol read(final ProfileIndex index, final Local file) throws AccessDeniedException {
+        final Reader<Profile> reader = ProfileReaderFactory.get();
+        final Protocol indexed = index.find(file, reader);
+        if(indexed != null) {
+            return indexed;
+        }
+        final Profile profile = reader.read(file);
+        if(profile != null) {
+            index.put(file, profile);
+        }
+        return profile;
     }
 
     public void register(final Protocol protocol) {
@@ -125,6 +149,7 @@ public final class ProtocolFactory {
             return;
         }
         registered.add(protocol);
+        lookup = null;
     }
 
     /**
@@ -139,7 +164,7 @@ public final class ProtocolFactory {
      * @return List of registered protocols matching search criteria.
      */
     public List<Protocol> find(final Predicate<Protocol> search) {
-        return registered.stream().filter(search).sorted().collect(Collectors.toList());
+        return this.lookup().sorted.stream().filter(search).collect(Collectors.toList());
     }
 
     /**
@@ -156,7 +181,15 @@ public final class ProtocolFactory {
      * @return Matching protocol or null if no match
      */
     public Protocol forName(final String identifier, final String provider) {
-        return this.forName(this.find(), identifier, provider);
+        final Lookup lookup = this.lookup();
+        final Protocol match = lookup.forName(identifier, provider);
+        if(null == match) {
+            if(lookup.enabled.isEmpty()) {
+                log.error(String.format("List of registered protocols in %s is empty", this));
+            }
+            log.error(String.format("Missing registered protocol for identifier %s", identifier));
+        }
+        return match;
     }
 
     /**
@@ -191,12 +224,7 @@ public final class ProtocolFactory {
     }
 
     public Protocol forType(final Protocol.Type type) {
-        final List<Protocol> enabled = this.find();
-        return this.forType(enabled, type);
-    }
-
-    private Protocol forType(final List<Protocol> enabled, final Protocol.Type type) {
-        return enabled.stream().filter(protocol -> protocol.getType().equals(type)).findFirst().orElse(null);
+        return this.lookup().types.get(type.name());
     }
 
     public Protocol forScheme(final Scheme scheme) {
@@ -204,25 +232,93 @@ public final class ProtocolFactory {
     }
 
     public Protocol forScheme(final String scheme, final Protocol fallback) {
-        return this.forScheme(this.find(), scheme, fallback);
+        return this.lookup().forScheme(scheme, fallback);
     }
 
     private Protocol forScheme(final List<Protocol> enabled, final String scheme, final Protocol fallback) {
-        final String filter;
+        final String filter = toFilter(scheme);
+        return enabled.stream().filter(protocol -> Arrays.asList(protocol.getSchemes()).contains(filter)).findFirst().orElse(
+            enabled.stream().filter(protocol -> Arrays.asList(protocol.getSchemes()).contains(scheme)).findFirst().orElse(fallback)
+        );
+    }
+
+    private static String toFilter(final String scheme) {
         switch(scheme) {
             case "http":
-                filter = Scheme.dav.name();
-                break;
+                return Scheme.dav.name();
             case "https":
-                filter = Scheme.davs.name();
-                break;
+                return Scheme.davs.name();
             default:
-                filter = scheme;
-                break;
+                return scheme;
+        }
+    }
+
+    /**
+     * @return Hashed lookup of enabled protocols rebuilt when registered protocols change
+     */
+    private Lookup lookup() {
+        final Lookup current = lookup;
+        if(current != null && current.size == registered.size()) {
+            return current;
+        }
+        return lookup = new Lookup(registered);
+    }
+
+    /**
+     * Registered protocols sorted once with the first enabled protocol for every key used by {@link #forName}
+     */
+    private static final class Lookup {
+        private final int size;
+        private final List<Protocol> sorted;
+        private final List<Protocol> enabled;
+
+        private final Map<String, Protocol> hashes = new HashMap<>();
+        private final Map<List<String>, Protocol> providers = new HashMap<>();
+        private final Map<String, Protocol> vendors = new HashMap<>();
+        private final Map<String, Protocol> legacy = new HashMap<>();
+        private final Map<String, Protocol> types = new HashMap<>();
+        private final Map<String, Protocol> schemes = new HashMap<>();
+
+        private Lookup(final Set<Protocol> registered) {
+            this.size = registered.size();
+            this.sorted = registered.stream().sorted().collect(Collectors.toList());
+            this.enabled = sorted.stream().filter(Protocol::isEnabled).collect(Collectors.toList());
+            for(Protocol protocol : enabled) {
+                hashes.putIfAbsent(String.valueOf(protocol.hashCode()), protocol);
+                providers.putIfAbsent(Arrays.asList(protocol.getIdentifier(), protocol.getProvider()), protocol);
+                vendors.putIfAbsent(protocol.getProvider(), protocol);
+                legacy.putIfAbsent(String.format("%s-%s", protocol.getIdentifier(), protocol.getProvider()), protocol);
+                types.putIfAbsent(protocol.getType().name(), protocol);
+                for(String scheme : protocol.getSchemes()) {
+                    schemes.putIfAbsent(scheme, protocol);
+                }
+            }
+        }
+
+        private Protocol forName(final String identifier, final String provider) {
+            Protocol match = hashes.get(identifier);
+            if(null == match) {
+                match = providers.get(Arrays.asList(identifier, provider));
+            }
+            if(null == match) {
+                match = vendors.get(identifier);
+            }
+            if(null == match) {
+                match = legacy.get(identifier);
+            }
+            if(null == match) {
+                match = this.forScheme(identifier, types.get(identifier));
+            }
+            return match;
+        }
+
+        private Protocol forScheme(final String scheme, final Protocol fallback) {
+            Protocol match = schemes.get(toFilter(scheme));
+            if(null == match) {
+                match = schemes.get(scheme);
+            }
+            return null == match ? fallback : match;
         }
-        return enabled.stream().filter(protocol -> Arrays.asList(protocol.getSchemes()).contains(filter)).findFirst().orElse(
-            enabled.stream().filter(protocol -> Arrays.asList(protocol.getSchemes()).contains(scheme)).findFirst().orElse(fallback)
-        );
     }
 
     private static final class ProfileFilter implements Filter<Local> {
@@ -21,26 +21,75 @@ package ch.cyberduck.core;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.exception.ResolveCanceledException;
 import ch.cyberduck.core.exception.ResolveFailedException;
+import ch.cyberduck.core.preferences.Preferences;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.threading.CancelCallback;
-import ch.cyberduck.core.threading.NamedThreadFactory;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
 
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.conn.util.InetAddressUtils;
 import org.apache.log4j.Logger;
 
+import javax.naming.Context;
+import javax.naming.NamingEnumeration;
+import javax.naming.NamingException;
+import javax.naming.directory.Attribute;
+import javax.naming.directory.Attributes;
+import javax.naming.directory.DirContext;
+import javax.naming.directory.InitialDirContext;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.text.MessageFormat;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.ThreadFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicReference;
-
-import com.google.common.util.concurrent.Uninterruptibles;
+import java.util.concurrent.TimeoutException;
 
+/**
+ * Resolve hostnames in a bounded thread pool. Addresses and failures are cached for a configurable time and concurrent
+ * lookups for the same hostname share a single query. All instances created with the default constructor share
+ * the same cache.
+ */
 public final class Resolver {
     private static final Logger log = Logger.getLogger(Resolver.class);
 
-    private final ThreadFactory threadFactory
-        = new NamedThreadFactory("resolver");
+    /**
+     * Query for all addresses of a hostname
+     */
+    public interface Lookup {
+        /**
+         * @return Addresses in order of preference
+         * @throws UnknownHostException No address found
+         */
+        InetAddress[] lookup(String hostname) throws UnknownHostException;
+    }
+
+    private final Lookups lookups;
+
+    public Resolver() {
+        this(Shared.lookups);
+    }
+
+    /**
+     * @param lookup   Query name server
+     * @param ttl      Milliseconds to cache resolved addresses
+     * @param negative Milliseconds to cache failed lookups
+     */
+    public Resolver(final Lookup lookup, final long ttl, final long negative) {
+        this(new Lookups(lookup, ttl, negative));
+    }
+
+    private Resolver(final Lookups lookups) {
+        this.lookups = lookups;
+    }
 
     /**
      * This method is blocking until the hostname has been resolved or the lookup
@@ -51,54 +100,50 @@ public final class Resolver {
      * @throws ResolveCanceledException If the lookup has been interrupted
      */
     public InetAddress resolve(final String hostname, final CancelCallback callback) throws ResolveFailedException, ResolveCanceledException {
-        final CountDownLatch signal = new CountDownLatch(1);
-        final AtomicReference<InetAddress> resolved = new AtomicReference<>();
-        final AtomicReference<UnknownHostException> failure = new AtomicReference<>();
-        final Thread resolver = threadFactory.newThread(new Runnable() {
-            @Override
-            public void run() {
-                try {
-                    final InetAddress address = InetAddress.getByName(hostname);
-                    resolved.set(address);
-                    if(log.isInfoEnabled()) {
-                        log.info(String.format("Resolved %s to %s", hostname, address.getHostAddress()));
-                    }
-                }
-                catch(UnknownHostException e) {
-                    log.warn(String.format("Failed resolving %s", hostname));
-                    failure.set(e);
-                }
-                finally {
-                    signal.countDown();
-                }
-            }
-        });
-        resolver.start();
-        log.debug(String.format("Waiting for resolving of %s", hostname));
-        // Wait for #run to finish
-        while(!Uninterruptibles.awaitUninterruptibly(signal, 500, TimeUnit.MILLISECONDS)) {
+        return this.resolveAll(hostname, callback)[0];
+    }
+
+    /**
+     * This method is blocking until the hostname has been resolved or the lookup
+     * has been canceled using #cancel
+     *
+     * @return All resolved IP addresses for this hostname in order of preference
+     * @throws ResolveFailedException   If the hostname cannot be resolved
+     * @throws ResolveCanceledException If the lookup has been interrupted
+     */
+    public InetAddress[] resolveAll(final String hostname, final CancelCallback callback) throws ResolveFailedException, ResolveCanceledException {
+        final Future<InetAddress[]> future = lookups.submit(hostname);
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Waiting for resolving of %s", hostname));
+        }
+        while(true) {
             try {
-                callback.verify();
+                final InetAddress[] addresses = future.get(500, TimeUnit.MILLISECONDS);
+                this.verify(hostname, callback);
+                return addresses;
             }
-            catch(ConnectionCanceledException c) {
-                throw new ResolveCanceledException(MessageFormat.format(LocaleFactory.localizedString("DNS lookup for {0} failed", "Error"), hostname), c);
+            catch(TimeoutException e) {
+                // Wait for lookup to finish
+                this.verify(hostname, callback);
+            }
+            catch(InterruptedException e) {
+                log.warn(String.format("Canceled resolving %s", hostname));
+                throw new ResolveCanceledException(MessageFormat.format(LocaleFactory.localizedString("DNS lookup for {0} failed", "Error"), hostname), e);
+            }
+            catch(ExecutionException e) {
+                throw new ResolveFailedException(
+                    MessageFormat.format(LocaleFactory.localizedString("DNS lookup for {0} failed", "Error"), hostname), e.getCause());
             }
         }
+    }
+
+    private void verify(final String hostname, final CancelCallback callback) throws ResolveCanceledException {
         try {
             callback.verify();
         }
         catch(ConnectionCanceledException c) {
             throw new ResolveCanceledException(MessageFormat.format(LocaleFactory.localizedString("DNS lookup for {0} failed", "Error"), hostname), c);
         }
-        if(null == resolved.get()) {
-            if(null == failure.get()) {
-                log.warn(String.format("Canceled resolving %s", hostname));
-                throw new ResolveCanceledException(MessageFormat.format(LocaleFactory.localizedString("DNS lookup for {0} failed", "Error"), hostname));
-            }
-            throw new ResolveFailedException(
-                MessageFormat.format(LocaleFactory.localizedString("DNS lookup for {0} failed", "Error"), hostname), failure.get());
-        }
-        return resolved.get();
     }
 
     @Override
@@ -107,4 +152,147 @@ public final class Resolver {
         sb.append('}');
         return sb.toString();
     }
+
+    private static final class Shared {
+        private static final Lookups lookups;
+
+        static {
+            final Preferences preferences = PreferencesFactory.get();
+            final String server = preferences.getProperty("connection.dns.server");
+            lookups = new Lookups(StringUtils.isBlank(server) ? InetAddress::getAllByName : new NameServerLookup(server,
+                preferences.getBoolean("connection.dns.ipv6")),
+                TimeUnit.SECONDS.toMillis(preferences.getLong("connection.dns.cache.ttl")),
+                TimeUnit.SECONDS.toMillis(preferences.getLong("connection.dns.cache.negative.ttl")));
+        }
+    }
+
+    private static final class Lookups {
+        private final Lookup lookup;
+        private final long ttl;
+        private final long negative;
+
+        private final ThreadPool pool = ThreadPoolFactory.get("resolver",
+            PreferencesFactory.get().getInteger("connection.dns.pool.size"));
+
+        private final Map<String, Entry> cache = new ConcurrentHashMap<>();
+        /**
+         * Lookups in progress by hostname
+         */
+        private final Map<String, Future<InetAddress[]>> pending = new ConcurrentHashMap<>();
+
+        private Lookups(final Lookup lookup, final long ttl, final long negative) {
+            this.lookup = lookup;
+            this.ttl = ttl;
+            this.negative = negative;
+        }
+
+        private Future<InetAddress[]> submit(final String hostname) {
+            final Entry entry = cache.get(hostname);
+            if(entry != null && entry.expires > System.currentTimeMillis()) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Return cached lookup for %s", hostname));
+                }
+                return entry.result;
+            }
+            return pending.computeIfAbsent(hostname, h -> pool.execute(() -> {
+                try {
+                    final InetAddress[] addresses = lookup.lookup(h);
+                    if(log.isInfoEnabled()) {
+                        log.info(String.format("Resolved %s to %s", h, Arrays.toString(addresses)));
+                    }
+                    cache.put(h, new Entry(CompletableFuture.completedFuture(addresses), System.currentTimeMillis() + ttl));
+                    return addresses;
+                }
+                catch(UnknownHostException e) {
+                    log.warn(String.format("Failed resolving %s", h));
+                    final CompletableFuture<InetAddress[]> failure = new CompletableFuture<>();
+                    failure.completeExceptionally(e);
+                    cache.put(h, new Entry(failure, System.currentTimeMillis() + negative));
+                    throw e;
+                }
+                finally {
+                    pending.remove(h);
+                }
+            }));
+        }
+    }
+
+    private static final class Entry {
+        private final Future<InetAddress[]> result;
+        private final long expires;
+
+        private Entry(final Future<InetAddress[]> result, final long expires) {
+            this.result = result;
+            this.expires = expires;
+        }
+    }
+
+    /**
+     * Query configured name server instead of system resolver
+     */
+    private static final class NameServerLookup implements Lookup {
+        /**
+         * Maximum number of aliases to follow
+         */
+        private static final int ALIASES = 8;
+
+        private final String server;
+        private final String[] types;
+
+        /**
+         * @param server Hostname with optional port of name server
+         * @param ipv6   Prefer IPv6 addresses
+         */
+        private NameServerLookup(final String server, final boolean ipv6) {
+            this.server = server;
+            this.types = ipv6 ? new String[]{"AAAA", "A"} : new String[]{"A", "AAAA"};
+        }
+
+        @Override
+        public InetAddress[] lookup(final String hostname) throws UnknownHostException {
+            if(InetAddressUtils.isIPv4Address(hostname) || InetAddressUtils.isIPv6Address(hostname)) {
+                return InetAddress.getAllByName(hostname);
+            }
+            final Hashtable<String, String> env = new Hashtable<>();
+            env.put(Context.INITIAL_CONTEXT_FACTORY, "com.sun.jndi.dns.DnsContextFactory");
+            env.put(Context.PROVIDER_URL, String.format("dns://%s", server));
+            try {
+                final DirContext context = new InitialDirContext(env);
+                try {
+                    String name = hostname;
+                    for(int i = 0; i < ALIASES; i++) {
+                        final Attributes attributes = context.getAttributes(name, new String[]{"A", "AAAA", "CNAME"});
+                        final List<InetAddress> addresses = new ArrayList<>();
+                        for(String type : types) {
+                            final Attribute attribute = attributes.get(type);
+                            if(null == attribute) {
+                                continue;
+                            }
+                            for(NamingEnumeration<?> values = attribute.getAll(); values.hasMore(); ) {
+                                addresses.add(InetAddress.getByAddress(hostname,
+                                    InetAddress.getByName(values.next().toString()).getAddress()));
+                            }
+                        }
+                        if(!addresses.isEmpty()) {
+                            return addresses.toArray(new InetAddress[0]);
+                        }
+                        final Attribute alias = attributes.get("CNAME");
+                        if(null == alias) {
+                            break;
+                        }
+                        name = StringUtils.removeEnd(alias.get().toString(), ".");
+                    }
+                    throw new UnknownHostException(hostname);
+                }
+                finally {
+                    context.close();
+                }
+            }
+            catch(NamingException e) {
+                final UnknownHostException failure = new UnknownHostException(hostname);
+                failure.initCause(e);
+                throw failure;
+            }
+        }
+    }
 }
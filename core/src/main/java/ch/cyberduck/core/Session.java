@@ -18,6 +18,8 @@ package ch.cyberduck.core;
  *  dkocher@cyberduck.ch
  */
 
+import ch.cyberduck.core.cache.ListingStore;
+import ch.cyberduck.core.cache.PersistentListService;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.features.AttributesFinder;
 import ch.cyberduck.core.features.Bulk;
@@ -26,6 +28,7 @@ import ch.cyberduck.core.features.Download;
 import ch.cyberduck.core.features.Find;
 import ch.cyberduck.core.features.Home;
 import ch.cyberduck.core.features.IdProvider;
+import ch.cyberduck.core.features.ListValidator;
 import ch.cyberduck.core.features.Move;
 import ch.cyberduck.core.features.PromptUrlProvider;
 import ch.cyberduck.core.features.Quota;
@@ -72,6 +75,16 @@ public abstract class Session<C> implements TranscriptListener {
 
     private Metrics metrics = new DisabledMetrics();
 
+    /**
+     * Shared stateless features or null if disabled
+     */
+    private FeatureCache features;
+
+    /**
+     * Listings saved across sessions or null if disabled
+     */
+    private ListingStore listings;
+
     /**
      * Connection
      */
@@ -144,6 +157,23 @@ public abstract class Session<C> implements TranscriptListener {
         return metrics;
     }
 
+    /**
+     * Share feature implementations without state with all callers until the connection is closed or vaults change
+     */
+    public void enableFeatureCache() {
+        features = new FeatureCache();
+    }
+
+    /**
+     * Reuse listings saved in previous sessions for directories with an unchanged validator. Only effective for
+     * protocols implementing {@link ListValidator}.
+     *
+     * @param store Persistent listings
+     */
+    public void enablePersistentListings(final ListingStore store) {
+        listings = store;
+    }
+
     /**
      * Connect to host
      *
@@ -157,6 +187,9 @@ public abstract class Session<C> implements TranscriptListener {
         }
         // Update status flag
         state = State.opening;
+        if(features != null) {
+            features.clear();
+        }
         client = this.connect(proxy, key, login);
         if(log.isDebugEnabled()) {
             log.debug(String.format("Connection did open to %s", host));
@@ -222,6 +255,9 @@ public abstract class Session<C> implements TranscriptListener {
      */
     protected void disconnect() {
         state = State.closed;
+        if(features != null) {
+            features.clear();
+        }
         listeners.clear();
         client = null;
     }
@@ -279,7 +315,26 @@ public abstract class Session<C> implements TranscriptListener {
     @SuppressWarnings("unchecked")
     public <T> T getFeature(final Class<T> type) {
         metrics.increment(type);
-        return this.getFeature(type, this._getFeature(type));
+        if(null == features) {
+            return this.getFeature(type, this.resolve(type));
+        }
+        return features.get(type, registry, () -> this.resolve(type), feature -> this.getFeature(type, feature));
+    }
+
+    /**
+     * Decorate listing service with persistent listings before wrapping with vault features to never save
+     * decrypted listings
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T resolve(final Class<T> type) {
+        final T feature = this._getFeature(type);
+        if(type == ListService.class && listings != null && feature != null) {
+            final ListValidator validator = this._getFeature(ListValidator.class);
+            if(validator != null) {
+                return (T) new PersistentListService(host, (ListService) feature, validator, listings);
+            }
+        }
+        return feature;
     }
 
     /**
@@ -18,6 +18,8 @@ package ch.cyberduck.core;
  * dkocher@cyberduck.ch
  */
 
+import ch.cyberduck.core.cache.ListingStore;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.ssl.X509KeyManager;
 import ch.cyberduck.core.ssl.X509TrustManager;
 
@@ -58,6 +60,12 @@ public final class SessionFactory {
             else {
                 session = constructor.newInstance(host, trust, key);
             }
+            if(PreferencesFactory.get().getBoolean("connection.features.cache")) {
+                session.enableFeatureCache();
+            }
+            if(PreferencesFactory.get().getBoolean("browser.cache.persistent")) {
+                session.enablePersistentListings(new ListingStore());
+            }
             return session;
         }
         catch(InstantiationException | InvocationTargetException | ClassNotFoundException | IllegalAccessException e) {
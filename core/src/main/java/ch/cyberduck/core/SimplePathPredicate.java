@@ -54,6 +54,11 @@ public class SimplePathPredicate implements CacheReference<Path> {
         return Objects.hash(type, path);
     }
 
+    @Override
+    public CacheReference<Path> reference(final Path object) {
+        return new SimplePathPredicate(object);
+    }
+
     @Override
     public boolean test(final Path test) {
         return this.equals(new SimplePathPredicate(test));
@@ -0,0 +1,69 @@
+package ch.cyberduck.core.cache;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.Serializable;
+import ch.cyberduck.core.serializer.Serializer;
+
+/**
+ * Contents of a directory with the validator obtained before listing
+ */
+public final class Listing implements Serializable {
+
+    private final Path directory;
+    private final String validator;
+    private final AttributedList<Path> children;
+
+    public Listing(final Path directory, final String validator, final AttributedList<Path> children) {
+        this.directory = directory;
+        this.validator = validator;
+        this.children = children;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public String getValidator() {
+        return validator;
+    }
+
+    public AttributedList<Path> getChildren() {
+        return children;
+    }
+
+    @Override
+    public <T> T serialize(final Serializer dict) {
+        dict.setObjectForKey(directory, "Directory");
+        if(validator != null) {
+            dict.setStringForKey(validator, "Validator");
+        }
+        dict.setListForKey(children.toList(), "Children");
+        return dict.getSerialized();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("Listing{");
+        sb.append("directory=").append(directory);
+        sb.append(", validator='").append(validator).append('\'');
+        sb.append(", children=").append(children.size());
+        sb.append('}');
+        return sb.toString();
+    }
+}
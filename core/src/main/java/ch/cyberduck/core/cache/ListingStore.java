@@ -0,0 +1,215 @@
+package ch.cyberduck.core.cache;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.HostUrlProvider;
+import ch.cyberduck.core.ListingReaderFactory;
+import ch.cyberduck.core.ListingWriterFactory;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.LocalFactory;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.UUIDRandomStringService;
+import ch.cyberduck.core.exception.AccessDeniedException;
+import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.preferences.SupportDirectoryFinderFactory;
+import ch.cyberduck.core.serializer.Reader;
+import ch.cyberduck.core.serializer.Writer;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Directory listings persisted in the support directory with one file per directory in a folder per host. Listings
+ * not saved within the maximum age and the oldest listings exceeding the limit for a host are evicted on first save
+ * and after every limit number of saves.
+ */
+public class ListingStore {
+    private static final Logger log = Logger.getLogger(ListingStore.class);
+
+    private final Local folder;
+    /**
+     * Maximum number of listings per host
+     */
+    private final int limit;
+    /**
+     * Maximum age in milliseconds
+     */
+    private final long age;
+
+    private final AtomicBoolean swept = new AtomicBoolean();
+    private final AtomicInteger saved = new AtomicInteger();
+
+    private final Reader<Listing> reader = ListingReaderFactory.get();
+    private final Writer<Listing> writer = ListingWriterFactory.get();
+
+    public ListingStore() {
+        this(LocalFactory.get(SupportDirectoryFinderFactory.get().find(), "Listings"));
+    }
+
+    public ListingStore(final Local folder) {
+        this(folder, PreferencesFactory.get().getInteger("browser.cache.persistent.limit"),
+            TimeUnit.DAYS.toMillis(PreferencesFactory.get().getLong("browser.cache.persistent.age")));
+    }
+
+    /**
+     * @param limit Maximum number of listings per host
+     * @param age   Maximum age in milliseconds
+     */
+    public ListingStore(final Local folder, final int limit, final long age) {
+        this.folder = folder;
+        this.limit = limit;
+        this.age = age;
+    }
+
+    /**
+     * @param host      Bookmark
+     * @param directory Directory
+     * @return Previously stored listing or null if not found or unreadable
+     */
+    public Listing get(final Host host, final Path directory) {
+        final Local file = this.toFile(host, directory);
+        if(!file.exists()) {
+            return null;
+        }
+        try {
+            final Listing listing = reader.read(file);
+            if(!directory.getAbsolute().equals(listing.getDirectory().getAbsolute())) {
+                log.warn(String.format("Ignore listing %s in %s for different directory", listing, file));
+                return null;
+            }
+            return listing;
+        }
+        catch(AccessDeniedException e) {
+            log.warn(String.format("Failure reading listing from %s. %s", file, e.getMessage()));
+            return null;
+        }
+    }
+
+    /**
+     * Replace previous listing of directory. Written to a temporary file first to never expose a partial listing
+     * to concurrent readers.
+     *
+     * @param host    Bookmark
+     * @param listing Contents of directory
+     */
+    public void put(final Host host, final Listing listing) {
+        final Local file = this.toFile(host, listing.getDirectory());
+        final Local temporary = LocalFactory.get(file.getParent(),
+            String.format("%s.%s", file.getName(), new UUIDRandomStringService().random()));
+        try {
+            if(!file.getParent().exists()) {
+                file.getParent().mkdir();
+            }
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Save %s to %s", listing, file));
+            }
+            writer.write(listing, temporary);
+            temporary.rename(file);
+        }
+        catch(AccessDeniedException e) {
+            log.warn(String.format("Failure saving listing to %s. %s", file, e.getMessage()));
+        }
+        if(!swept.getAndSet(true)) {
+            // Expire listings of all hosts once
+            this.sweep();
+        }
+        else if(saved.incrementAndGet() % limit == 0) {
+            this.evict(file.getParent());
+        }
+    }
+
+    /**
+     * Evict listings in folders of all hosts and delete folders left empty
+     */
+    protected void sweep() {
+        if(!folder.exists()) {
+            return;
+        }
+        try {
+            for(Local host : folder.list()) {
+                if(host.isDirectory()) {
+                    this.evict(host);
+                    if(host.list().isEmpty()) {
+                        host.delete();
+                    }
+                }
+            }
+        }
+        catch(AccessDeniedException | NotfoundException e) {
+            log.warn(String.format("Failure evicting listings in %s. %s", folder, e.getMessage()));
+        }
+    }
+
+    /**
+     * Delete listings older than maximum age and the oldest listings exceeding the limit
+     *
+     * @param host Folder for host
+     */
+    protected void evict(final Local host) {
+        try {
+            final List<Local> files = new ArrayList<>(host.list().toList());
+            files.sort(Comparator.comparingLong((Local f) -> f.attributes().getModificationDate()).reversed());
+            final long expiry = System.currentTimeMillis() - age;
+            for(int i = 0; i < files.size(); i++) {
+                final Local file = files.get(i);
+                if(i >= limit || file.attributes().getModificationDate() < expiry) {
+                    if(log.isDebugEnabled()) {
+                        log.debug(String.format("Evict listing %s", file));
+                    }
+                    file.delete();
+                }
+            }
+        }
+        catch(AccessDeniedException | NotfoundException e) {
+            log.warn(String.format("Failure evicting listings in %s. %s", host, e.getMessage()));
+        }
+    }
+
+    /**
+     * Remove listing of directory
+     *
+     * @param host      Bookmark
+     * @param directory Directory
+     */
+    public void invalidate(final Host host, final Path directory) {
+        final Local file = this.toFile(host, directory);
+        if(file.exists()) {
+            try {
+                file.delete();
+            }
+            catch(AccessDeniedException | NotfoundException e) {
+                log.warn(String.format("Failure deleting listing %s. %s", file, e.getMessage()));
+            }
+        }
+    }
+
+    /**
+     * @return File named by hash of host URL and absolute path of directory
+     */
+    protected Local toFile(final Host host, final Path directory) {
+        return LocalFactory.get(LocalFactory.get(folder, DigestUtils.sha256Hex(new HostUrlProvider().withUsername(true).withPath(false).get(host))),
+            DigestUtils.sha256Hex(directory.getAbsolute()));
+    }
+}
@@ -0,0 +1,72 @@
+package ch.cyberduck.core.cache;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.Cache;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.ListProgressListener;
+import ch.cyberduck.core.ListService;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.features.ListValidator;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Reuse listing from persistent store when the validator of the directory is unchanged since it was saved
+ */
+public class PersistentListService implements ListService {
+    private static final Logger log = Logger.getLogger(PersistentListService.class);
+
+    private final Host host;
+    private final ListService proxy;
+    private final ListValidator validator;
+    private final ListingStore store;
+
+    public PersistentListService(final Host host, final ListService proxy, final ListValidator validator, final ListingStore store) {
+        this.host = host;
+        this.proxy = proxy;
+        this.validator = validator;
+        this.store = store;
+    }
+
+    @Override
+    public AttributedList<Path> list(final Path directory, final ListProgressListener listener) throws BackgroundException {
+        // Obtain validator before listing to never save contents newer than the validator
+        final String current = validator.getValidator(directory);
+        if(null == current) {
+            return proxy.list(directory, listener);
+        }
+        final Listing previous = store.get(host, directory);
+        if(previous != null && current.equals(previous.getValidator())) {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Reuse %s with validator %s", previous, current));
+            }
+            listener.chunk(directory, previous.getChildren());
+            return previous.getChildren();
+        }
+        final AttributedList<Path> list = proxy.list(directory, listener);
+        store.put(host, new Listing(directory, current, list));
+        return list;
+    }
+
+    @Override
+    public ListService withCache(final Cache<Path> cache) {
+        proxy.withCache(cache);
+        return this;
+    }
+}
@@ -0,0 +1,428 @@
+package ch.cyberduck.core.collections;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Thread safe list backed by fixed size chunks that are never copied when appending. Readers and iterators work on
+ * an immutable snapshot of the list and never block. Any other modification than appending copies the content as
+ * with {@link java.util.concurrent.CopyOnWriteArrayList}. Optional hash indexes are built on demand to lookup
+ * elements by equality or by a derived key.
+ */
+public final class ChunkedList<E> extends AbstractList<E> implements RandomAccess {
+
+    private static final int SHIFT = 10;
+    private static final int CHUNK = 1 << SHIFT;
+    private static final int MASK = CHUNK - 1;
+
+    /**
+     * Initial capacity of first chunk growing with content until full size
+     */
+    private static final int INITIAL = 8;
+
+    /**
+     * Minimum size of list before an index is built. Smaller lists are searched linearly.
+     */
+    private static final int THRESHOLD = 32;
+
+    /**
+     * Minimum size of list to compute sort keys and sort in parallel
+     */
+    private static final int PARALLEL = 1 << 13;
+
+    private volatile Snapshot<E> snapshot = new Snapshot<>(new Object[0][], 0);
+
+    /**
+     * Indexes by key type mapping key to first position in list. Guarded by this.
+     */
+    private final Map<Object, Index<E>> indexes = new HashMap<>();
+
+    private static final Object EQUALITY = new Object();
+
+    public ChunkedList() {
+        //
+    }
+
+    public ChunkedList(final Collection<? extends E> c) {
+        this.addAll(c);
+    }
+
+    @Override
+    public E get(final int index) {
+        return snapshot.get(index);
+    }
+
+    @Override
+    public int size() {
+        return snapshot.size;
+    }
+
+    @Override
+    public synchronized boolean add(final E e) {
+        final Snapshot<E> current = snapshot;
+        Object[][] chunks = current.chunks;
+        final int chunk = current.size >>> SHIFT;
+        final int slot = current.size & MASK;
+        if(chunk == chunks.length) {
+            // Only the directory of chunks is copied. Chunks are shared with previous snapshots.
+            chunks = Arrays.copyOf(chunks, Math.max(1, chunks.length << 1));
+        }
+        if(null == chunks[chunk]) {
+            // Only the first chunk is sized to content to keep small lists small
+            chunks[chunk] = new Object[0 == chunk ? INITIAL : CHUNK];
+        }
+        else if(slot == chunks[chunk].length) {
+            // Grow partial first chunk in a copy of the directory not shared with previous snapshots
+            chunks = chunks.clone();
+            chunks[chunk] = Arrays.copyOf(chunks[chunk], Math.min(CHUNK, chunks[chunk].length << 1));
+        }
+        // Slots beyond the size of previous snapshots are never read by them
+        chunks[chunk][slot] = e;
+        for(Index<E> index : indexes.values()) {
+            index.put(e, current.size);
+        }
+        snapshot = new Snapshot<>(chunks, current.size + 1);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean addAll(final Collection<? extends E> c) {
+        for(E e : c) {
+            this.add(e);
+        }
+        return !c.isEmpty();
+    }
+
+    @Override
+    public synchronized void add(final int index, final E element) {
+        final Object[] content = snapshot.toArray();
+        if(index < 0 || index > content.length) {
+            throw new IndexOutOfBoundsException(String.format("Index %d for size %d", index, content.length));
+        }
+        final Object[] copy = new Object[content.length + 1];
+        System.arraycopy(content, 0, copy, 0, index);
+        copy[index] = element;
+        System.arraycopy(content, index, copy, index + 1, content.length - index);
+        this.replace(copy);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public synchronized E set(final int index, final E element) {
+        final Object[] content = snapshot.toArray();
+        final E previous = (E) content[this.check(index, content.length)];
+        content[index] = element;
+        this.replace(content);
+        return previous;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public synchronized E remove(final int index) {
+        final Object[] content = snapshot.toArray();
+        final E previous = (E) content[this.check(index, content.length)];
+        final Object[] copy = new Object[content.length - 1];
+        System.arraycopy(content, 0, copy, 0, index);
+        System.arraycopy(content, index + 1, copy, index, content.length - index - 1);
+        this.replace(copy);
+        return previous;
+    }
+
+    @Override
+    public synchronized boolean remove(final Object o) {
+        final int index = this.indexOf(o);
+        if(-1 == index) {
+            return false;
+        }
+        this.remove(index);
+        return true;
+    }
+
+    @Override
+    public boolean removeAll(final Collection<?> c) {
+        return this.removeIf(c::contains);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public synchronized boolean removeIf(final Predicate<? super E> filter) {
+        final Object[] content = snapshot.toArray();
+        final Object[] retained = new Object[content.length];
+        int size = 0;
+        for(Object e : content) {
+            if(!filter.test((E) e)) {
+                retained[size++] = e;
+            }
+        }
+        if(size == content.length) {
+            return false;
+        }
+        this.replace(Arrays.copyOf(retained, size));
+        return true;
+    }
+
+    /**
+     * Sort with keys computed once per element if comparator is a {@link KeyedComparator}. Large lists are sorted
+     * in parallel in the common fork join pool.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public synchronized void sort(final Comparator<? super E> c) {
+        final Object[] content = snapshot.toArray();
+        if(c instanceof KeyedComparator) {
+            sort(content, (KeyedComparator<Object, Object>) c);
+        }
+        else {
+            Arrays.sort(content, (Comparator<Object>) c);
+        }
+        this.replace(content);
+    }
+
+    private static <K> void sort(final Object[] content, final KeyedComparator<Object, K> c) {
+        @SuppressWarnings("unchecked") final Keyed<K>[] keyed = new Keyed[content.length];
+        final Comparator<K> keys = c.getKeyComparator();
+        final Comparator<Keyed<K>> comparator = (k1, k2) -> keys.compare(k1.key, k2.key);
+        if(content.length < PARALLEL) {
+            for(int i = 0; i < content.length; i++) {
+                keyed[i] = new Keyed<>(content[i], c.getKey(content[i]));
+            }
+            Arrays.sort(keyed, comparator);
+        }
+        else {
+            Arrays.parallelSetAll(keyed, i -> new Keyed<>(content[i], c.getKey(content[i])));
+            // Stable merge sort with fork join
+            Arrays.parallelSort(keyed, comparator);
+        }
+        for(int i = 0; i < keyed.length; i++) {
+            content[i] = keyed[i].element;
+        }
+    }
+
+    @Override
+    public synchronized void clear() {
+        this.replace(new Object[0]);
+    }
+
+    @Override
+    public Object[] toArray() {
+        return snapshot.toArray();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T[] toArray(final T[] a) {
+        final Object[] content = snapshot.toArray();
+        if(a.length < content.length) {
+            return (T[]) Arrays.copyOf(content, content.length, a.getClass());
+        }
+        System.arraycopy(content, 0, a, 0, content.length);
+        if(a.length > content.length) {
+            a[content.length] = null;
+        }
+        return a;
+    }
+
+    @Override
+    public boolean contains(final Object o) {
+        return this.indexOf(o) != -1;
+    }
+
+    /**
+     * @return Position of first element equal to o using an index for larger lists
+     */
+    @Override
+    public int indexOf(final Object o) {
+        return this.indexOf(EQUALITY, e -> e, o);
+    }
+
+    /**
+     * Lookup element by a key derived from every element of the list. The index for the given type is built on first
+     * use, maintained when appending and rebuilt lazily after any other modification. A miss in the index is final.
+     * A hit is verified against the element and the index is rebuilt when the key of the element has changed since
+     * it was indexed. Call {@link #invalidate()} after changing keys of elements in place to find them by their new
+     * key.
+     *
+     * @param type  Identifies the index for keys derived with function
+     * @param key   Derive key from element. Must yield keys consistent with equals and hashCode of value
+     * @param value Key to search for
+     * @return Position of first element with key equal to value or -1 if not found
+     */
+    public int indexOf(final Object type, final Function<? super E, ?> key, final Object value) {
+        final Snapshot<E> current = snapshot;
+        if(current.size < THRESHOLD) {
+            return current.indexOf(key, value);
+        }
+        synchronized(this) {
+            Index<E> index = indexes.get(type);
+            if(null == index) {
+                index = new Index<>(key, snapshot);
+                indexes.put(type, index);
+            }
+            final Integer position = index.get(value);
+            if(null == position) {
+                return -1;
+            }
+            if(Objects.equals(key.apply(snapshot.get(position)), value)) {
+                return position;
+            }
+            // Key of element changed since it was indexed
+            index = new Index<>(key, snapshot);
+            indexes.put(type, index);
+            final Integer found = index.get(value);
+            return null == found ? -1 : found;
+        }
+    }
+
+    /**
+     * Drop all indexes to be rebuilt on next lookup
+     */
+    public synchronized void invalidate() {
+        indexes.clear();
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return snapshot.iterator();
+    }
+
+    @Override
+    public Spliterator<E> spliterator() {
+        final Snapshot<E> current = snapshot;
+        return Spliterators.spliterator(current.iterator(), current.size, Spliterator.ORDERED);
+    }
+
+    private int check(final int index, final int size) {
+        if(index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(String.format("Index %d for size %d", index, size));
+        }
+        return index;
+    }
+
+    /**
+     * Publish new content and drop indexes as positions may have changed
+     */
+    private void replace(final Object[] content) {
+        final int count = (content.length + MASK) >>> SHIFT;
+        final Object[][] chunks = new Object[count][];
+        for(int offset = 0; offset < content.length; offset += CHUNK) {
+            // Single chunk sized to content. Any following chunks must have full size.
+            chunks[offset >>> SHIFT] = Arrays.copyOfRange(content, offset,
+                offset + (1 == count ? content.length : CHUNK));
+        }
+        indexes.clear();
+        snapshot = new Snapshot<>(chunks, content.length);
+    }
+
+    private static final class Snapshot<E> {
+        private final Object[][] chunks;
+        private final int size;
+
+        private Snapshot(final Object[][] chunks, final int size) {
+            this.chunks = chunks;
+            this.size = size;
+        }
+
+        @SuppressWarnings("unchecked")
+        private E get(final int index) {
+            if(index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException(String.format("Index %d for size %d", index, size));
+            }
+            return (E) chunks[index >>> SHIFT][index & MASK];
+        }
+
+        private Object[] toArray() {
+            final Object[] content = new Object[size];
+            for(int offset = 0; offset < size; offset += CHUNK) {
+                System.arraycopy(chunks[offset >>> SHIFT], 0, content, offset, Math.min(CHUNK, size - offset));
+            }
+            return content;
+        }
+
+        private int indexOf(final Function<? super E, ?> key, final Object value) {
+            for(int i = 0; i < size; i++) {
+                if(Objects.equals(key.apply(this.get(i)), value)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private Iterator<E> iterator() {
+            return new Iterator<E>() {
+                private int cursor;
+
+                @Override
+                public boolean hasNext() {
+                    return cursor < size;
+                }
+
+                @Override
+                public E next() {
+                    if(cursor >= size) {
+                        throw new NoSuchElementException();
+                    }
+                    return get(cursor++);
+                }
+            };
+        }
+    }
+
+    private static final class Keyed<K> {
+        private final Object element;
+        private final K key;
+
+        private Keyed(final Object element, final K key) {
+            this.element = element;
+            this.key = key;
+        }
+    }
+
+    private static final class Index<E> {
+        private final Function<? super E, ?> key;
+        private final Map<Object, Integer> positions;
+
+        private Index(final Function<? super E, ?> key, final Snapshot<E> snapshot) {
+            this.key = key;
+            this.positions = new HashMap<>(Math.max(16, snapshot.size * 4 / 3 + 1));
+            for(int i = 0; i < snapshot.size; i++) {
+                this.put(snapshot.get(i), i);
+            }
+        }
+
+        private void put(final E e, final int position) {
+            // Retain first occurrence
+            positions.putIfAbsent(key.apply(e), position);
+        }
+
+        private Integer get(final Object value) {
+            return positions.get(value);
+        }
+    }
+}
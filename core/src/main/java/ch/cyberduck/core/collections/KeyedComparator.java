@@ -0,0 +1,39 @@
+package ch.cyberduck.core.collections;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import java.util.Comparator;
+
+/**
+ * Comparator ordering elements by a key that can be computed once per element before sorting instead of for every
+ * comparison.
+ *
+ * @param <E> Element type
+ * @param <K> Key type
+ */
+public interface KeyedComparator<E, K> extends Comparator<E> {
+
+    /**
+     * @param e Element
+     * @return Sort key. Must be safe to call concurrently.
+     */
+    K getKey(E e);
+
+    /**
+     * @return Order of keys equal to the order of elements with this comparator
+     */
+    Comparator<K> getKeyComparator();
+}
@@ -44,6 +44,14 @@ public interface Bulk<R> {
      */
     void post(Transfer.Type type, Map<TransferItem, TransferStatus> files, ConnectionCallback callback) throws BackgroundException;
 
+    /**
+     * @return True if {@link #pre} and {@link #post} only require the roots of the transfer and files can be
+     * transferred as soon as they are prepared
+     */
+    default boolean isPipelined() {
+        return false;
+    }
+
     Bulk<R> withDelete(Delete delete);
     Bulk<R> withCache(Cache<Path> cache);
 }
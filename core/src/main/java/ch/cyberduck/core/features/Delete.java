@@ -43,6 +43,15 @@ public interface Delete {
         return false;
     }
 
+    /**
+     * @param file Directory to delete with all its descendants
+     * @return Number of files to pass per call when deleting descendants in batches or 0 if all files must be
+     * passed with a single call. Batches are deleted concurrently and in no particular order.
+     */
+    default int getBatchSize(final Path file) {
+        return 0;
+    }
+
     interface Callback {
         void delete(Path file);
     }
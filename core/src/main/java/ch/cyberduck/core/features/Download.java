@@ -30,5 +30,14 @@ public interface Download {
 
     boolean offset(Path file) throws BackgroundException;
 
+    /**
+     * @param file Remote file with size in attributes
+     * @return True if file is downloaded with concurrent range requests and must not be split in segments by the
+     * transfer
+     */
+    default boolean concurrent(Path file) throws BackgroundException {
+        return false;
+    }
+
     Download withReader(Read reader);
 }
@@ -0,0 +1,31 @@
+package ch.cyberduck.core.features;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.BackgroundException;
+
+/**
+ * Revalidate a previous listing of a directory without listing its contents again
+ */
+public interface ListValidator {
+
+    /**
+     * @param directory Directory
+     * @return Opaque token that changes whenever the contents of the directory change or null if not available
+     */
+    String getValidator(Path directory) throws BackgroundException;
+}
@@ -0,0 +1,395 @@
+package ch.cyberduck.core.http;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.ConnectionCallback;
+import ch.cyberduck.core.DefaultIOExceptionMappingService;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.Session;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.exception.LocalAccessDeniedException;
+import ch.cyberduck.core.features.Download;
+import ch.cyberduck.core.features.Read;
+import ch.cyberduck.core.io.BandwidthThrottle;
+import ch.cyberduck.core.io.StreamListener;
+import ch.cyberduck.core.io.ThrottledInputStream;
+import ch.cyberduck.core.preferences.Preferences;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.shared.DefaultDownloadFeature;
+import ch.cyberduck.core.threading.BackgroundExceptionCallable;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
+import ch.cyberduck.core.transfer.TransferStatus;
+import ch.cyberduck.core.transfer.download.SegmentedFileChannel;
+import ch.cyberduck.core.worker.DefaultExceptionMappingService;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Download file with concurrent ranged requests each writing to its offset in the target file. When no more ranges
+ * are queued, an idle connection takes over the second half of the range with most bytes remaining. Requires a read
+ * feature supporting offsets that can be used concurrently from multiple threads. Ranges are requested with the
+ * remote attributes of the download to fail when the file is replaced meanwhile.
+ */
+public class ConcurrentRangeDownloadFeature implements Download {
+    private static final Logger log = Logger.getLogger(ConcurrentRangeDownloadFeature.class);
+
+    private final Preferences preferences
+        = PreferencesFactory.get();
+
+    private final Host host;
+    private final int concurrency;
+    private final long partsize;
+    private final long threshold;
+    private final long minimum;
+
+    private Read reader;
+
+    public ConcurrentRangeDownloadFeature(final Session<?> session) {
+        this(session.getHost(), session.getFeature(Read.class),
+            PreferencesFactory.get().getInteger("queue.download.ranges.concurrency"),
+            PreferencesFactory.get().getLong("queue.download.ranges.size"),
+            PreferencesFactory.get().getLong("queue.download.ranges.threshold"),
+            PreferencesFactory.get().getLong("queue.download.ranges.split.minimum"));
+    }
+
+    /**
+     * @param host        Bookmark to determine retry policy
+     * @param reader      Read feature for single range
+     * @param concurrency Number of ranges requested in parallel
+     * @param partsize    Length of range in bytes
+     * @param threshold   Minimum number of bytes to download with concurrent requests
+     * @param minimum     Minimum number of bytes for each half when splitting a range in progress
+     */
+    public ConcurrentRangeDownloadFeature(final Host host, final Read reader, final int concurrency, final long partsize,
+                                          final long threshold, final long minimum) {
+        this.host = host;
+        this.reader = reader;
+        this.concurrency = concurrency;
+        this.partsize = partsize;
+        this.threshold = threshold;
+        this.minimum = minimum;
+    }
+
+    @Override
+    public void download(final Path file, final Local local, final BandwidthThrottle throttle, final StreamListener listener,
+                         final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
+        if(concurrency < 2 || status.isSegment() || status.getLength() < Math.max(threshold, partsize + 1L) || !reader.offset(file)) {
+            new DefaultDownloadFeature(reader).download(file, local, throttle, listener, status, callback);
+            return;
+        }
+        final long offset = status.isAppend() ? status.getOffset() : 0L;
+        final long end = offset + status.getLength();
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Download %d bytes of %s from offset %d with %d concurrent requests", status.getLength(), file, offset, concurrency));
+        }
+        // Journal marks target file incomplete until all ranges are written
+        SegmentedFileChannel.allocate(local, offset, end);
+        final Deque<Range> queue = new ConcurrentLinkedDeque<>();
+        for(HttpRange range : HttpRange.split(offset, status.getLength(), partsize)) {
+            queue.add(new Range(range.getStart(), range.getStart() + range.getLength()));
+        }
+        final FileChannel channel = local.getChannel();
+        final ThreadPool pool = ThreadPoolFactory.get("rangedownload", concurrency);
+        final Ranges ranges = new Ranges(file, channel, throttle, listener, status, callback, queue);
+        try {
+            final List<Future<Void>> workers = new ArrayList<>();
+            for(int i = 0; i < Math.min(concurrency, queue.size()); i++) {
+                workers.add(pool.execute(ranges::work));
+            }
+            try {
+                for(Future<Void> f : workers) {
+                    f.get();
+                }
+            }
+            catch(InterruptedException e) {
+                log.error("Range download failed with interrupt failure");
+                throw new ConnectionCanceledException(e);
+            }
+            catch(ExecutionException e) {
+                log.warn(String.format("Range download failed with execution failure %s", e.getMessage()));
+                if(ranges.failure.get() != null) {
+                    // Other workers fail with cancel after abort
+                    throw ranges.failure.get();
+                }
+                if(e.getCause() instanceof BackgroundException) {
+                    throw (BackgroundException) e.getCause();
+                }
+                throw new DefaultExceptionMappingService().map(e.getCause());
+            }
+            try {
+                channel.force(false);
+            }
+            catch(IOException e) {
+                throw new LocalAccessDeniedException(e.getMessage(), e);
+            }
+            status.setComplete();
+        }
+        finally {
+            // Stop remaining workers on failure
+            ranges.abort.set(true);
+            pool.shutdown(false);
+            IOUtils.closeQuietly(channel);
+        }
+        SegmentedFileChannel.complete(local);
+    }
+
+    @Override
+    public boolean offset(final Path file) throws BackgroundException {
+        return reader.offset(file);
+    }
+
+    @Override
+    public boolean concurrent(final Path file) throws BackgroundException {
+        return concurrency >= 2 && file.attributes().getSize() >= Math.max(threshold, partsize + 1L) && reader.offset(file);
+    }
+
+    @Override
+    public Download withReader(final Read reader) {
+        this.reader = reader;
+        return this;
+    }
+
+    private final class Ranges {
+        private final Path file;
+        private final FileChannel channel;
+        private final BandwidthThrottle throttle;
+        private final StreamListener listener;
+        private final TransferStatus status;
+        private final HttpRangeReadService service;
+
+        private final Deque<Range> queue;
+        /**
+         * Ranges currently downloaded
+         */
+        private final Set<Range> active = ConcurrentHashMap.newKeySet();
+        private final AtomicBoolean abort = new AtomicBoolean();
+        /**
+         * First failure other than cancel
+         */
+        private final AtomicReference<BackgroundException> failure = new AtomicReference<>();
+
+        public Ranges(final Path file, final FileChannel channel, final BandwidthThrottle throttle, final StreamListener listener,
+                      final TransferStatus status, final ConnectionCallback callback, final Deque<Range> queue) {
+            this.file = file;
+            this.channel = channel;
+            this.throttle = throttle;
+            this.listener = listener;
+            this.status = status;
+            this.service = new HttpRangeReadService(host, reader, file, status, callback);
+            this.queue = queue;
+        }
+
+        /**
+         * Download ranges from queue and then split ranges of other workers until none is left
+         */
+        private Void work() throws BackgroundException {
+            while(!abort.get()) {
+                Range range = queue.poll();
+                if(null == range) {
+                    range = this.split();
+                    if(null == range) {
+                        return null;
+                    }
+                }
+                final Range next = range;
+                active.add(next);
+                try {
+                    // Retry continues from position reached in range
+                    service.retry(new BackgroundExceptionCallable<Void>() {
+                        @Override
+                        public Void call() throws BackgroundException {
+                            return transfer(next);
+                        }
+                    }, status);
+                }
+                catch(BackgroundException e) {
+                    if(!(e instanceof ConnectionCanceledException)) {
+                        failure.compareAndSet(null, e);
+                    }
+                    abort.set(true);
+                    throw e;
+                }
+                finally {
+                    active.remove(next);
+                }
+            }
+            throw new ConnectionCanceledException();
+        }
+
+        /**
+         * @return Second half of range with most bytes remaining or null if no range is large enough
+         */
+        private Range split() {
+            Range largest = null;
+            for(Range range : active) {
+                if(null == largest || range.remaining() > largest.remaining()) {
+                    largest = range;
+                }
+            }
+            if(null == largest) {
+                return null;
+            }
+            final Range tail = largest.split(minimum);
+            if(tail != null) {
+                if(log.isInfoEnabled()) {
+                    log.info(String.format("Split range %s of %s for idle connection", tail, file));
+                }
+            }
+            return tail;
+        }
+
+        private Void transfer(final Range range) throws BackgroundException {
+            status.validate();
+            final HttpRange bytes = range.toHttpRange();
+            if(bytes.getLength() <= 0) {
+                return null;
+            }
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Request range %d-%d of %s", bytes.getStart(), bytes.getEnd(), file));
+            }
+            final InputStream in = new ThrottledInputStream(service.read(bytes), throttle);
+            try {
+                final byte[] buffer = new byte[preferences.getInteger("connection.chunksize")];
+                while(true) {
+                    status.validate();
+                    if(abort.get()) {
+                        throw new ConnectionCanceledException();
+                    }
+                    final long remaining = range.remaining();
+                    if(remaining <= 0) {
+                        // Range complete or end moved by split
+                        return null;
+                    }
+                    final int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                    if(IOUtils.EOF == read) {
+                        throw new IOException(String.format("Unexpected end of stream with %d bytes remaining", remaining));
+                    }
+                    // Reserve bytes in range before writing
+                    final long position = range.position();
+                    final int length = range.advance(read);
+                    final ByteBuffer b = ByteBuffer.wrap(buffer, 0, length);
+                    long written = 0L;
+                    while(b.hasRemaining()) {
+                        written += channel.write(b, position + written);
+                    }
+                    status.progress(length);
+                    listener.recv(length);
+                    listener.sent(length);
+                }
+            }
+            catch(IOException e) {
+                throw new DefaultIOExceptionMappingService().map("Download {0} failed", e, file);
+            }
+            finally {
+                // Aborts connection if range is not fully read
+                IOUtils.closeQuietly(in);
+            }
+        }
+    }
+
+    private static final class Range {
+        /**
+         * Next byte to write. Guarded by this.
+         */
+        private long position;
+        /**
+         * End byte exclusive. Guarded by this.
+         */
+        private long end;
+
+        public Range(final long start, final long end) {
+            this.position = start;
+            this.end = end;
+        }
+
+        private synchronized long remaining() {
+            return end - position;
+        }
+
+        private synchronized long position() {
+            return position;
+        }
+
+        private synchronized HttpRange toHttpRange() {
+            return HttpRange.byLength(position, end - position);
+        }
+
+        /**
+         * @param read Number of bytes read
+         * @return Number of bytes read within range to write at previous position
+         */
+        private synchronized int advance(final int read) {
+            final int length = (int) Math.min(read, end - position);
+            position += length;
+            return length;
+        }
+
+        /**
+         * Shorten range to first half
+         *
+         * @param minimum Minimum length of both halves
+         * @return Second half of range or null if too small to split
+         */
+        private synchronized Range split(final long minimum) {
+            final long remaining = end - position;
+            if(remaining < 2 * minimum) {
+                return null;
+            }
+            final long middle = position + remaining / 2;
+            final Range tail = new Range(middle, end);
+            end = middle;
+            return tail;
+        }
+
+        @Override
+        public synchronized String toString() {
+            final StringBuilder sb = new StringBuilder("Range{");
+            sb.append("position=").append(position);
+            sb.append(", end=").append(end);
+            sb.append('}');
+            return sb.toString();
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ConcurrentRangeDownloadFeature{");
+        sb.append("reader=").append(reader);
+        sb.append(", concurrency=").append(concurrency);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,135 @@
+package ch.cyberduck.core.http;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.socket.HappyEyeballsConnector;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.http.HttpHost;
+import org.apache.http.config.Lookup;
+import org.apache.http.config.SocketConfig;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.apache.http.conn.DnsResolver;
+import org.apache.http.conn.HttpHostConnectException;
+import org.apache.http.conn.ManagedHttpClientConnection;
+import org.apache.http.conn.SchemePortResolver;
+import org.apache.http.conn.UnsupportedSchemeException;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.LayeredConnectionSocketFactory;
+import org.apache.http.impl.conn.DefaultHttpClientConnectionOperator;
+import org.apache.http.impl.conn.DefaultSchemePortResolver;
+import org.apache.http.protocol.HttpContext;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+
+/**
+ * Race connection attempts to all addresses of a host with multiple addresses instead of trying one after another.
+ * Only the TCP connection is raced and the TLS handshake is made once with the winning connection.
+ */
+public class HappyEyeballsConnectionOperator extends DefaultHttpClientConnectionOperator {
+
+    private final Lookup<ConnectionSocketFactory> registry;
+    private final SchemePortResolver ports;
+    private final DnsResolver resolver;
+    private final HappyEyeballsConnector connector;
+
+    public HappyEyeballsConnectionOperator(final Lookup<ConnectionSocketFactory> registry, final DnsResolver resolver) {
+        this(registry, DefaultSchemePortResolver.INSTANCE, resolver, new HappyEyeballsConnector());
+    }
+
+    public HappyEyeballsConnectionOperator(final Lookup<ConnectionSocketFactory> registry, final SchemePortResolver ports,
+                                           final DnsResolver resolver, final HappyEyeballsConnector connector) {
+        super(registry, ports, resolver);
+        this.registry = registry;
+        this.ports = ports;
+        this.resolver = resolver;
+        this.connector = connector;
+    }
+
+    @Override
+    public void connect(final ManagedHttpClientConnection conn, final HttpHost host, final InetSocketAddress localAddress,
+                        final int connectTimeout, final SocketConfig socketConfig, final HttpContext context) throws IOException {
+        if(host.getAddress() != null) {
+            super.connect(conn, host, localAddress, connectTimeout, socketConfig, context);
+            return;
+        }
+        final InetAddress[] addresses = resolver.resolve(host.getHostName());
+        if(addresses.length < 2) {
+            super.connect(conn, host, localAddress, connectTimeout, socketConfig, context);
+            return;
+        }
+        final ConnectionSocketFactory factory = registry.lookup(host.getSchemeName());
+        if(null == factory) {
+            throw new UnsupportedSchemeException(String.format("%s protocol is not supported", host.getSchemeName()));
+        }
+        final int port = ports.resolve(host);
+        final Socket socket;
+        try {
+            // Race plain TCP connections only
+            socket = connector.connect(addresses, new HappyEyeballsConnector.Attempt() {
+                @Override
+                public Socket create() throws IOException {
+                    final Socket socket = factory.createSocket(context);
+                    socket.setSoTimeout(socketConfig.getSoTimeout());
+                    socket.setReuseAddress(socketConfig.isSoReuseAddress());
+                    socket.setTcpNoDelay(socketConfig.isTcpNoDelay());
+                    socket.setKeepAlive(socketConfig.isSoKeepAlive());
+                    if(socketConfig.getRcvBufSize() > 0) {
+                        socket.setReceiveBufferSize(socketConfig.getRcvBufSize());
+                    }
+                    if(socketConfig.getSndBufSize() > 0) {
+                        socket.setSendBufferSize(socketConfig.getSndBufSize());
+                    }
+                    if(socketConfig.getSoLinger() >= 0) {
+                        socket.setSoLinger(true, socketConfig.getSoLinger());
+                    }
+                    return socket;
+                }
+
+                @Override
+                public Socket connect(final Socket socket, final InetAddress address) throws IOException {
+                    if(localAddress != null) {
+                        socket.bind(localAddress);
+                    }
+                    socket.connect(new InetSocketAddress(address, port), connectTimeout);
+                    return socket;
+                }
+            });
+        }
+        catch(SocketTimeoutException e) {
+            throw new ConnectTimeoutException(e, host, addresses);
+        }
+        catch(ConnectException e) {
+            throw new HttpHostConnectException(e, host, addresses);
+        }
+        conn.bind(socket);
+        if(factory instanceof LayeredConnectionSocketFactory) {
+            // Handshake with winning connection only
+            try {
+                conn.bind(((LayeredConnectionSocketFactory) factory).createLayeredSocket(socket, host.getHostName(), port, context));
+            }
+            catch(IOException e) {
+                IOUtils.closeQuietly(socket);
+                throw e;
+            }
+        }
+    }
+}
@@ -61,6 +61,7 @@ import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.nio.charset.Charset;
+import java.util.concurrent.TimeUnit;
 
 public class HttpConnectionPoolBuilder {
     private static final Logger log = Logger.getLogger(HttpConnectionPoolBuilder.class);
@@ -207,7 +208,8 @@ public class HttpConnectionPoolBuilder {
         if(log.isDebugEnabled()) {
             log.debug(String.format("Setup connection pool with registry %s", registry));
         }
-        final PoolingHttpClientConnectionManager manager = new PoolingHttpClientConnectionManager(registry);
+        final PoolingHttpClientConnectionManager manager = new PoolingHttpClientConnectionManager(
+            new HappyEyeballsConnectionOperator(registry, new CustomDnsResolver()), null, -1, TimeUnit.MILLISECONDS);
         manager.setMaxTotal(preferences.getInteger("http.connections.total"));
         manager.setDefaultMaxPerRoute(preferences.getInteger("http.connections.route"));
         // Detect connections that have become stale (half-closed) while kept inactive in the pool
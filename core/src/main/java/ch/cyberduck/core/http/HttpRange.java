@@ -16,6 +16,8 @@ package ch.cyberduck.core.http;
 
 import ch.cyberduck.core.transfer.TransferStatus;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 
 public class HttpRange {
@@ -42,6 +44,20 @@ public class HttpRange {
         return new HttpRange(offset, -1 == length ? -1 : offset + length - 1);
     }
 
+    /**
+     * @param offset   First byte position
+     * @param length   Number of bytes to split
+     * @param partsize Maximum length of range
+     * @return Consecutive ranges of part size covering length with a shorter last range
+     */
+    public static List<HttpRange> split(final long offset, final long length, final long partsize) {
+        final List<HttpRange> ranges = new ArrayList<>();
+        for(long start = offset; start < offset + length; start += partsize) {
+            ranges.add(byLength(start, Math.min(partsize, offset + length - start)));
+        }
+        return ranges;
+    }
+
     public HttpRange(final long start, final long end) {
         this(start, end, -1 == end ? -1 : end - start + 1);
     }
@@ -0,0 +1,71 @@
+package ch.cyberduck.core.http;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.ConnectionCallback;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathAttributes;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.features.Read;
+import ch.cyberduck.core.io.StreamCancelation;
+import ch.cyberduck.core.threading.BackgroundExceptionCallable;
+import ch.cyberduck.core.threading.DefaultRetryCallable;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import java.io.InputStream;
+
+/**
+ * Request byte ranges of a file concurrently. Every range is requested with the attributes of the file when the
+ * download started as remote attributes of its status. Read features add a precondition on the ETag or request the
+ * version to fail instead of mixing content of different versions of a file replaced in the meantime.
+ */
+public class HttpRangeReadService {
+
+    private final Host host;
+    private final Read reader;
+    private final Path file;
+    private final PathAttributes pin;
+    private final ConnectionCallback callback;
+
+    /**
+     * @param status Status of download with remote attributes if known. Otherwise attributes of file from listing
+     */
+    public HttpRangeReadService(final Host host, final Read reader, final Path file, final TransferStatus status,
+                                final ConnectionCallback callback) {
+        this.host = host;
+        this.reader = reader;
+        this.file = file;
+        this.pin = PathAttributes.EMPTY == status.getRemote() ? file.attributes() : status.getRemote();
+        this.callback = callback;
+    }
+
+    /**
+     * @return Stream with content of range
+     */
+    public InputStream read(final HttpRange range) throws BackgroundException {
+        final TransferStatus status = new TransferStatus().append(true).skip(range.getStart()).length(range.getLength());
+        status.setRemote(pin);
+        return reader.read(file, status, callback);
+    }
+
+    /**
+     * Run request of range and retry on network failures
+     */
+    public <T> T retry(final BackgroundExceptionCallable<T> callable, final StreamCancelation cancel) throws BackgroundException {
+        return new DefaultRetryCallable<T>(host, callable, cancel).call();
+    }
+}
@@ -28,19 +28,24 @@ import ch.cyberduck.core.features.Upload;
 import ch.cyberduck.core.features.Write;
 import ch.cyberduck.core.io.BandwidthThrottle;
 import ch.cyberduck.core.io.Checksum;
+import ch.cyberduck.core.io.ChecksumCompute;
+import ch.cyberduck.core.io.SegmentBufferPool;
 import ch.cyberduck.core.io.StatusOutputStream;
 import ch.cyberduck.core.io.StreamCancelation;
 import ch.cyberduck.core.io.StreamCopier;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.io.StreamProgress;
 import ch.cyberduck.core.io.ThrottledOutputStream;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.transfer.TransferStatus;
 
 import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.ObjectUtils;
 import org.apache.http.client.HttpResponseException;
 import org.apache.log4j.Logger;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.security.MessageDigest;
@@ -69,16 +74,26 @@ public class HttpUploadFeature<Reply, Digest> implements Upload<Reply> {
     public Reply upload(final Path file, final Local local, final BandwidthThrottle throttle,
                         final StreamListener listener, final TransferStatus status,
                         final StreamCancelation cancel, final StreamProgress progress, final ConnectionCallback callback) throws BackgroundException {
+        return this.upload(file, local.getInputStream(), status.getOffset(), throttle, listener, status, cancel, progress, callback);
+    }
+
+    /**
+     * @param in     Local data
+     * @param offset Number of bytes to skip in input
+     */
+    public Reply upload(final Path file, final InputStream in, final long offset, final BandwidthThrottle throttle,
+                        final StreamListener listener, final TransferStatus status,
+                        final StreamCancelation cancel, final StreamProgress progress, final ConnectionCallback callback) throws BackgroundException {
         try {
             final Digest digest = this.digest();
             // Wrap with digest stream if available
-            final InputStream in = this.decorate(local.getInputStream(), digest);
+            final InputStream decorated = this.decorate(in, digest);
             final StatusOutputStream<Reply> out = writer.write(file, status, callback);
             new StreamCopier(cancel, progress)
-                .withOffset(status.getOffset())
+                .withOffset(offset)
                 .withLimit(status.getLength())
                 .withListener(listener)
-                .transfer(in, new ThrottledOutputStream(out, throttle));
+                .transfer(decorated, new ThrottledOutputStream(out, throttle));
             final Reply response = out.getStatus();
             this.post(file, digest, response);
             return response;
@@ -91,6 +106,66 @@ public class HttpUploadFeature<Reply, Digest> implements Upload<Reply> {
         }
     }
 
+    /**
+     * Read segment of local file into memory to compute a checksum required prior to uploading and then upload
+     * from the same buffer instead of reading the file twice.
+     *
+     * @param local  File to upload
+     * @param status Offset and length of segment
+     * @return Null if the length is unknown or exceeds the maximum buffer size. Leased from pool and must be passed
+     * to {@link #release(byte[])} after the upload.
+     */
+    protected byte[] buffer(final Path file, final Local local, final TransferStatus status) throws BackgroundException {
+        if(status.getLength() < 0 || status.getLength() > PreferencesFactory.get().getLong("http.upload.buffer.maximum")) {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Skip buffering %d bytes of %s", status.getLength(), local));
+            }
+            return null;
+        }
+        final SegmentBufferPool pool = SegmentBufferPool.get((int) status.getLength());
+        final byte[] buffer;
+        try {
+            buffer = pool.acquire();
+        }
+        catch(IOException e) {
+            throw new HttpExceptionMappingService().map("Upload {0} failed", e, file);
+        }
+        final InputStream in = local.getInputStream();
+        try {
+            StreamCopier.skip(in, status.getOffset());
+            IOUtils.readFully(in, buffer);
+            return buffer;
+        }
+        catch(IOException e) {
+            pool.release(buffer);
+            throw new HttpExceptionMappingService().map("Upload {0} failed", e, file);
+        }
+        finally {
+            IOUtils.closeQuietly(in);
+        }
+    }
+
+    /**
+     * Return buffer to pool
+     *
+     * @param buffer Segment previously read or null
+     */
+    protected void release(final byte[] buffer) {
+        if(null != buffer) {
+            SegmentBufferPool.get(buffer.length).release(buffer);
+        }
+    }
+
+    /**
+     * @param compute Checksum algorithm of writer
+     * @param buffer  Segment previously read
+     * @param status  Offset and length of segment in file
+     * @return Checksum for segment as if read from the file at the offset
+     */
+    protected Checksum checksum(final ChecksumCompute compute, final byte[] buffer, final TransferStatus status) throws BackgroundException {
+        return compute.compute(new SegmentInputStream(buffer, status.getOffset()), status);
+    }
+
     protected InputStream decorate(final InputStream in, final Digest digest) throws IOException {
         return in;
     }
@@ -134,4 +209,39 @@ public class HttpUploadFeature<Reply, Digest> implements Upload<Reply> {
         this.writer = writer;
         return this;
     }
+
+    /**
+     * Buffered segment positioned at its offset in the file. Skipping the leading offset does not read any data.
+     */
+    private static final class SegmentInputStream extends ByteArrayInputStream {
+        private long offset;
+
+        public SegmentInputStream(final byte[] buffer, final long offset) {
+            super(buffer);
+            this.offset = offset;
+        }
+
+        @Override
+        public synchronized long skip(final long n) {
+            final long virtual = Math.min(n, offset);
+            offset -= virtual;
+            return virtual + super.skip(n - virtual);
+        }
+
+        @Override
+        public synchronized int read() {
+            if(offset > 0) {
+                throw new IllegalStateException(String.format("Missing skip of %d bytes before segment", offset));
+            }
+            return super.read();
+        }
+
+        @Override
+        public synchronized int read(final byte[] b, final int off, final int len) {
+            if(offset > 0) {
+                throw new IllegalStateException(String.format("Missing skip of %d bytes before segment", offset));
+            }
+            return super.read(b, off, len);
+        }
+    }
 }
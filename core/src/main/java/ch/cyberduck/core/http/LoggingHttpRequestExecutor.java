@@ -21,6 +21,8 @@ package ch.cyberduck.core.http;
 import ch.cyberduck.core.PreferencesUseragentProvider;
 import ch.cyberduck.core.TranscriptListener;
 import ch.cyberduck.core.UseragentProvider;
+import ch.cyberduck.core.metrics.Histogram;
+import ch.cyberduck.core.metrics.MetricRegistry;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.Header;
@@ -34,12 +36,16 @@ import org.apache.http.protocol.HttpContext;
 import org.apache.http.protocol.HttpRequestExecutor;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 public class LoggingHttpRequestExecutor extends HttpRequestExecutor {
 
     private final UseragentProvider useragentProvider
             = new PreferencesUseragentProvider();
 
+    private final MetricRegistry metrics
+            = MetricRegistry.get();
+
     private final TranscriptListener listener;
 
     public LoggingHttpRequestExecutor(final TranscriptListener listener) {
@@ -52,7 +58,20 @@ public class LoggingHttpRequestExecutor extends HttpRequestExecutor {
         if(!request.containsHeader(HttpHeaders.USER_AGENT)) {
             request.addHeader(new BasicHeader(HttpHeaders.USER_AGENT, useragentProvider.get()));
         }
-        return super.execute(request, conn, context);
+        final String method = request.getRequestLine().getMethod();
+        final long start = System.nanoTime();
+        String status = "error";
+        try {
+            final HttpResponse response = super.execute(request, conn, context);
+            status = String.valueOf(response.getStatusLine().getStatusCode());
+            return response;
+        }
+        finally {
+            // Time until response headers are received
+            metrics.histogram("http_request_duration_ms", Histogram.LATENCY, "method", method)
+                .observe(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            metrics.counter("http_requests_total", "method", method, "status", status).increment();
+        }
     }
 
     @Override
@@ -0,0 +1,121 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.threading.ScheduledThreadPool;
+
+import org.apache.log4j.Logger;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Accumulate bytes from concurrent streams in striped counters and publish the sum to the delegate at a fixed
+ * interval from a single thread. Threads reporting progress never contend on a shared counter or wait for the
+ * delegate.
+ */
+public final class BatchedStreamListener implements StreamListener {
+    private static final Logger log = Logger.getLogger(BatchedStreamListener.class);
+
+    private final StreamListener delegate;
+    private final long interval;
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder recv = new LongAdder();
+
+    private volatile ScheduledThreadPool timer;
+    private volatile boolean closed;
+
+    /**
+     * @param delegate Listener notified with bytes accumulated since previous tick
+     * @param interval Milliseconds between notifications
+     */
+    public BatchedStreamListener(final StreamListener delegate, final long interval) {
+        this.delegate = delegate;
+        this.interval = interval;
+    }
+
+    @Override
+    public void sent(final long bytes) {
+        if(closed) {
+            delegate.sent(bytes);
+            return;
+        }
+        sent.add(bytes);
+        this.start();
+    }
+
+    @Override
+    public void recv(final long bytes) {
+        if(closed) {
+            delegate.recv(bytes);
+            return;
+        }
+        recv.add(bytes);
+        this.start();
+    }
+
+    /**
+     * Schedule notification of delegate with first progress reported
+     */
+    private void start() {
+        if(null == timer) {
+            synchronized(this) {
+                if(closed) {
+                    // Progress added while closing
+                    this.publish();
+                }
+                else if(null == timer) {
+                    if(log.isDebugEnabled()) {
+                        log.debug(String.format("Publish progress every %dms", interval));
+                    }
+                    final ScheduledThreadPool pool = new ScheduledThreadPool();
+                    pool.repeat(this::publish, interval, TimeUnit.MILLISECONDS);
+                    timer = pool;
+                }
+            }
+        }
+    }
+
+    /**
+     * Notify delegate with bytes accumulated since last call
+     */
+    public synchronized void publish() {
+        final long r = recv.sumThenReset();
+        if(r != 0L) {
+            delegate.recv(r);
+        }
+        final long s = sent.sumThenReset();
+        if(s != 0L) {
+            delegate.sent(s);
+        }
+    }
+
+    /**
+     * Stop timer and notify delegate with remaining bytes. Progress reported afterwards is forwarded to the delegate
+     * directly.
+     */
+    public void close() {
+        synchronized(this) {
+            closed = true;
+            if(timer != null) {
+                timer.shutdown();
+                timer = null;
+            }
+        }
+        this.publish();
+    }
+}
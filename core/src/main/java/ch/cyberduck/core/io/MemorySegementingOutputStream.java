@@ -17,66 +17,50 @@ package ch.cyberduck.core.io;
 
 import org.apache.log4j.Logger;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * Collect segments of threshold size in a buffer leased from a shared pool and pass them to the proxy without copying.
+ * The buffer is returned to the pool once empty and written out.
+ */
 public class MemorySegementingOutputStream extends SegmentingOutputStream {
     private static final Logger log = Logger.getLogger(MemorySegementingOutputStream.class);
 
     private final OutputStream proxy;
-    private final ByteArrayOutputStream buffer;
-    private final Integer threshold;
+    private final SegmentBuffer buffer;
 
     private final AtomicBoolean close = new AtomicBoolean();
 
     public MemorySegementingOutputStream(final OutputStream proxy, final Integer threshold) {
-        this(proxy, threshold, new ByteArrayOutputStream(threshold));
+        this(proxy, SegmentBufferPool.get(threshold));
+    }
+
+    /**
+     * @param proxy Stream receiving segments of pool buffer size. Must not retain reference to written content.
+     * @param pool  Buffers with segment size
+     */
+    public MemorySegementingOutputStream(final OutputStream proxy, final SegmentBufferPool pool) {
+        this(proxy, new SegmentBuffer(proxy, pool));
     }
 
-    public MemorySegementingOutputStream(final OutputStream proxy, final Integer threshold, final ByteArrayOutputStream buffer) {
-        super(proxy, (long) threshold, buffer);
+    private MemorySegementingOutputStream(final OutputStream proxy, final SegmentBuffer buffer) {
+        super(proxy, (long) buffer.pool.getSize(), buffer);
         this.proxy = proxy;
         this.buffer = buffer;
-        this.threshold = threshold;
     }
 
     @Override
-    protected void checkThreshold(final int count) throws IOException {
-        if(buffer.size() >= threshold) {
-            this.reset();
-            this.flush(false);
-        }
+    protected void checkThreshold(final int count) {
+        // Segments are written out by buffer when full
+        this.reset();
     }
 
     @Override
     public void flush() throws IOException {
         log.warn(String.format("Flush stream %s", proxy));
-        this.flush(true);
-    }
-
-    /**
-     * @param force Write last segment to proxy regardless if threshold is reached
-     */
-    protected void flush(final boolean force) throws IOException {
-        // Copy from memory file to output
-        final byte[] content = buffer.toByteArray();
-        // Re-use buffer
-        buffer.reset();
-        for(int offset = 0; offset < content.length; offset += threshold) {
-            int len = Math.min(threshold, content.length - offset);
-            final byte[] bytes = Arrays.copyOfRange(content, offset, offset + len);
-            if(!force && len < threshold) {
-                // Write to start of buffer
-                this.write(bytes);
-            }
-            else {
-                // Write out
-                proxy.write(bytes);
-            }
-        }
+        buffer.drain();
     }
 
     @Override
@@ -86,15 +70,73 @@ public class MemorySegementingOutputStream extends SegmentingOutputStream {
             return;
         }
         try {
-            if(buffer.size() > 0) {
-                proxy.write(buffer.toByteArray());
-            }
-            // Re-use buffer
-            buffer.reset();
+            buffer.drain();
             super.close();
         }
         finally {
+            buffer.release();
             close.set(true);
         }
     }
+
+    private static final class SegmentBuffer extends OutputStream {
+        private final OutputStream proxy;
+        private final SegmentBufferPool pool;
+
+        /**
+         * Leased buffer or null
+         */
+        private byte[] segment;
+        private int count;
+
+        public SegmentBuffer(final OutputStream proxy, final SegmentBufferPool pool) {
+            this.proxy = proxy;
+            this.pool = pool;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            this.write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(final byte[] b, int off, int len) throws IOException {
+            while(len > 0) {
+                if(null == segment) {
+                    segment = pool.acquire();
+                }
+                final int n = Math.min(len, segment.length - count);
+                System.arraycopy(b, off, segment, count, n);
+                count += n;
+                off += n;
+                len -= n;
+                if(count == segment.length) {
+                    this.drain();
+                }
+            }
+        }
+
+        /**
+         * Write buffered content to proxy and return buffer to pool. The buffer is returned and its content discarded
+         * when writing to the proxy fails as callers are not required to close the stream after a failure.
+         */
+        private void drain() throws IOException {
+            try {
+                if(count > 0) {
+                    proxy.write(segment, 0, count);
+                }
+            }
+            finally {
+                this.release();
+            }
+        }
+
+        private void release() {
+            if(segment != null) {
+                pool.release(segment);
+                segment = null;
+            }
+            count = 0;
+        }
+    }
 }
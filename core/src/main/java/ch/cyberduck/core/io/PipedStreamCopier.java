@@ -0,0 +1,266 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.BytecountStreamListener;
+import ch.cyberduck.core.DefaultIOExceptionMappingService;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Copy with reading from the input on a separate thread while writing to the output. Both sides are joined by a
+ * bounded ring of reusable buffers so latency of the source and the target overlap.
+ */
+public final class PipedStreamCopier {
+    private static final Logger log = Logger.getLogger(PipedStreamCopier.class);
+
+    private final StreamCancelation cancel;
+
+    private final StreamProgress progress;
+
+    private BytecountStreamListener listener
+        = new BytecountStreamListener(new DisabledStreamListener());
+
+    /**
+     * Size of a buffer in ring
+     */
+    private Integer chunksize
+        = PreferencesFactory.get().getInteger("queue.copy.buffer.size");
+
+    /**
+     * Number of buffers in ring
+     */
+    private Integer capacity
+        = PreferencesFactory.get().getInteger("queue.copy.buffer.capacity");
+
+    private Long limit = -1L;
+
+    private final Throughput read = new Throughput();
+    private final Throughput write = new Throughput();
+
+    public PipedStreamCopier(final StreamCancelation cancel, final StreamProgress progress) {
+        this.cancel = cancel;
+        this.progress = progress;
+    }
+
+    public PipedStreamCopier withChunksize(final Integer chunksize) {
+        this.chunksize = chunksize;
+        return this;
+    }
+
+    public PipedStreamCopier withCapacity(final Integer capacity) {
+        this.capacity = capacity;
+        return this;
+    }
+
+    public PipedStreamCopier withListener(final StreamListener listener) {
+        this.listener = new BytecountStreamListener(listener);
+        return this;
+    }
+
+    public PipedStreamCopier withLimit(final Long limit) {
+        if(limit > 0) {
+            this.limit = limit;
+        }
+        return this;
+    }
+
+    /**
+     * @return Bytes per second read from input excluding time waiting for a free buffer
+     */
+    public double getReadThroughput() {
+        return read.get();
+    }
+
+    /**
+     * @return Bytes per second written to output excluding time waiting for a buffer to be filled
+     */
+    public double getWriteThroughput() {
+        return write.get();
+    }
+
+    /**
+     * Updates the current number of bytes transferred in the status reference.
+     *
+     * @param in  The stream to read from on a separate thread
+     * @param out The stream to write to from the calling thread
+     */
+    public void transfer(final InputStream in, final OutputStream out) throws BackgroundException {
+        final SegmentBufferPool buffers = new SegmentBufferPool(chunksize, capacity + 1, Long.MAX_VALUE);
+        // Additional slot for end of file or failure
+        final BlockingQueue<Segment> ring = new ArrayBlockingQueue<>(capacity + 1);
+        final ThreadPool pool = ThreadPoolFactory.get("copy", 1);
+        try {
+            try {
+                final long timestamp = System.nanoTime();
+                pool.execute(() -> {
+                    this.produce(in, buffers, ring);
+                    return null;
+                });
+                long total = 0;
+                while(true) {
+                    cancel.validate();
+                    final Segment segment;
+                    try {
+                        segment = ring.take();
+                    }
+                    catch(InterruptedException e) {
+                        throw new ConnectionCanceledException(e);
+                    }
+                    if(segment.failure != null) {
+                        throw segment.failure;
+                    }
+                    if(IOUtils.EOF == segment.length) {
+                        if(log.isDebugEnabled()) {
+                            log.debug(String.format("End of file reached with %d bytes read from stream", total));
+                        }
+                        progress.setComplete();
+                        break;
+                    }
+                    listener.recv(segment.length);
+                    final long start = System.nanoTime();
+                    out.write(segment.buffer, 0, segment.length);
+                    write.add(segment.length, System.nanoTime() - start);
+                    buffers.release(segment.buffer);
+                    progress.progress(segment.length);
+                    listener.sent(segment.length);
+                    total += segment.length;
+                }
+                final StreamCloser c = new DefaultStreamCloser();
+                c.close(out);
+                TransferMetrics.observe(total, System.nanoTime() - timestamp);
+            }
+            catch(IOException e) {
+                throw new DefaultIOExceptionMappingService().map(e);
+            }
+            finally {
+                // Interrupt reader before closing its stream
+                pool.shutdown(false);
+                final StreamCloser c = new DefaultStreamCloser();
+                c.close(in);
+            }
+        }
+        catch(ConnectionCanceledException e) {
+            throw e;
+        }
+        catch(Exception e) {
+            // Discard sent bytes if there is an error reply.
+            final long sent = listener.getSent();
+            progress.progress(-sent);
+            listener.sent(-sent);
+            final long recv = listener.getRecv();
+            listener.recv(-recv);
+            throw e;
+        }
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Read with %.0f bytes/s and written with %.0f bytes/s", read.get(), write.get()));
+        }
+        cancel.validate();
+    }
+
+    /**
+     * Fill buffers from input and pass them to the writer until end of file, limit or failure
+     */
+    private void produce(final InputStream in, final SegmentBufferPool buffers, final BlockingQueue<Segment> ring) throws InterruptedException {
+        try {
+            long total = 0;
+            while(limit < 0 || total < limit) {
+                final byte[] buffer = buffers.acquire();
+                final int len = limit > 0 ? (int) Math.min(limit - total, chunksize) : chunksize;
+                final long start = System.nanoTime();
+                final int n = IOUtils.read(in, buffer, 0, len);
+                read.add(n, System.nanoTime() - start);
+                if(n > 0) {
+                    ring.put(new Segment(buffer, n));
+                    total += n;
+                }
+                if(n < len) {
+                    break;
+                }
+            }
+            if(limit == total) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Limit %d reached reading from stream", limit));
+                }
+            }
+            ring.put(new Segment(null, IOUtils.EOF));
+        }
+        catch(InterruptedIOException e) {
+            // Writer failed
+            throw new InterruptedException(e.getMessage());
+        }
+        catch(IOException e) {
+            ring.put(new Segment(e));
+        }
+        catch(RuntimeException e) {
+            ring.put(new Segment(new IOException(e.getMessage(), e)));
+        }
+    }
+
+    private static final class Segment {
+        private final byte[] buffer;
+        private final int length;
+        private final IOException failure;
+
+        public Segment(final byte[] buffer, final int length) {
+            this.buffer = buffer;
+            this.length = length;
+            this.failure = null;
+        }
+
+        public Segment(final IOException failure) {
+            this.buffer = null;
+            this.length = IOUtils.EOF;
+            this.failure = failure;
+        }
+    }
+
+    /**
+     * Bytes transferred and time spent blocked in I/O on one side
+     */
+    private static final class Throughput {
+        private final AtomicLong bytes = new AtomicLong();
+        private final AtomicLong nanos = new AtomicLong();
+
+        public void add(final long bytes, final long nanos) {
+            this.bytes.addAndGet(bytes);
+            this.nanos.addAndGet(nanos);
+        }
+
+        public double get() {
+            final long elapsed = nanos.get();
+            if(0L == elapsed) {
+                return 0d;
+            }
+            return bytes.get() * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.log4j.Logger;
+
+import java.io.InterruptedIOException;
+import java.lang.ref.SoftReference;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded pool of reusable buffers of a fixed segment size. Callers block up to the timeout when all buffers are
+ * leased until one is released. Idle buffers are only softly referenced and reclaimed under memory pressure.
+ */
+public final class SegmentBufferPool {
+    private static final Logger log = Logger.getLogger(SegmentBufferPool.class);
+
+    private static final Map<Integer, SegmentBufferPool> pools = new ConcurrentHashMap<>();
+
+    /**
+     * @param size Segment size in bytes
+     * @return Shared pool for buffers of given size allocating additional buffers without waiting when exhausted.
+     * Buffers larger than the maximum segment size are never retained.
+     */
+    public static SegmentBufferPool get(final int size) {
+        if(size > PreferencesFactory.get().getInteger("queue.upload.buffer.pool.segment.maximum")) {
+            return new SegmentBufferPool(size, 0, 0L);
+        }
+        return pools.computeIfAbsent(size, s -> new SegmentBufferPool(s,
+            PreferencesFactory.get().getInteger("queue.upload.buffer.pool.size"), 0L));
+    }
+
+    private final int size;
+    private final Semaphore permits;
+    private final long timeout;
+
+    private final Deque<SoftReference<byte[]>> free = new ConcurrentLinkedDeque<>();
+    /**
+     * Buffers currently handed out by this pool. Arrays compare by identity.
+     */
+    private final Set<byte[]> leased = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param size     Segment size in bytes
+     * @param capacity Maximum number of buffers leased at the same time
+     * @param timeout  Milliseconds to wait for a free buffer before allocating a buffer not accounted in the pool
+     */
+    public SegmentBufferPool(final int size, final int capacity, final long timeout) {
+        this.size = size;
+        this.permits = new Semaphore(capacity, true);
+        this.timeout = timeout;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Lease buffer waiting up to the timeout for another to be released if the pool is exhausted
+     *
+     * @return Buffer of segment size with undefined content
+     */
+    public byte[] acquire() throws InterruptedIOException {
+        try {
+            if(!permits.tryAcquire(timeout, TimeUnit.MILLISECONDS)) {
+                log.warn(String.format("No buffer released in pool %s within %dms", this, timeout));
+                return new byte[size];
+            }
+        }
+        catch(InterruptedException e) {
+            throw new InterruptedIOException(e.getMessage());
+        }
+        byte[] buffer = null;
+        for(SoftReference<byte[]> reference = free.poll(); reference != null; reference = free.poll()) {
+            buffer = reference.get();
+            if(buffer != null) {
+                break;
+            }
+        }
+        if(null == buffer) {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Allocate buffer of %d bytes in pool %s", size, this));
+            }
+            buffer = new byte[size];
+        }
+        leased.add(buffer);
+        return buffer;
+    }
+
+    /**
+     * Return buffer to pool. Buffers not leased from this pool are ignored.
+     *
+     * @param buffer Buffer previously returned by {@link #acquire()}
+     */
+    public void release(final byte[] buffer) {
+        if(leased.remove(buffer)) {
+            free.push(new SoftReference<>(buffer));
+            permits.release();
+        }
+    }
+
+    /**
+     * @return Number of buffers that can be leased without waiting
+     */
+    public int available() {
+        return permits.availablePermits();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("SegmentBufferPool{");
+        sb.append("size=").append(size);
+        sb.append(", leased=").append(leased.size());
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -21,7 +21,7 @@ import ch.cyberduck.core.BytecountStreamListener;
 import ch.cyberduck.core.DefaultIOExceptionMappingService;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
-import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.preferences.PreferenceKeys;
 
 import org.apache.log4j.Logger;
 
@@ -43,7 +43,7 @@ public final class StreamCopier {
      * Buffer size
      */
     private Integer chunksize
-            = PreferencesFactory.get().getInteger("connection.chunksize");
+            = PreferenceKeys.CONNECTION_CHUNKSIZE.get();
 
     private Long offset = 0L;
 
@@ -91,6 +91,7 @@ public final class StreamCopier {
                     skip(in, offset);
                 }
                 final byte[] buffer = new byte[chunksize];
+                final long start = System.nanoTime();
                 long total = 0;
                 int len = chunksize;
                 if(limit > 0 && limit < chunksize) {
@@ -127,6 +128,7 @@ public final class StreamCopier {
                 }
                 final StreamCloser c = new DefaultStreamCloser();
                 c.close(out);
+                TransferMetrics.observe(total, System.nanoTime() - start);
             }
             catch(IOException e) {
                 throw new DefaultIOExceptionMappingService().map(e);
@@ -0,0 +1,44 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.metrics.Histogram;
+import ch.cyberduck.core.metrics.MetricRegistry;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Record bytes copied and throughput of completed stream copies
+ */
+final class TransferMetrics {
+
+    private TransferMetrics() {
+        //
+    }
+
+    /**
+     * @param bytes Number of bytes copied
+     * @param nanos Elapsed time copying
+     */
+    static void observe(final long bytes, final long nanos) {
+        final MetricRegistry metrics = MetricRegistry.get();
+        metrics.counter("transfer_bytes_total").add(bytes);
+        if(bytes > 0 && nanos > 0) {
+            metrics.histogram("transfer_throughput_bytes_per_second", Histogram.THROUGHPUT)
+                .observe(bytes * (double) TimeUnit.SECONDS.toNanos(1) / nanos);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package ch.cyberduck.core.metrics;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Monotonically increasing count
+ */
+public final class Counter extends Metric {
+
+    private final LongAdder count = new LongAdder();
+
+    public Counter(final String name, final String... labels) {
+        super(name, labels);
+    }
+
+    public void increment() {
+        count.increment();
+    }
+
+    public void add(final long value) {
+        count.add(value);
+    }
+
+    public long get() {
+        return count.sum();
+    }
+}
@@ -0,0 +1,35 @@
+package ch.cyberduck.core.metrics;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * Current value read on demand
+ */
+public final class Gauge extends Metric {
+
+    private final DoubleSupplier supplier;
+
+    public Gauge(final String name, final DoubleSupplier supplier, final String... labels) {
+        super(name, labels);
+        this.supplier = supplier;
+    }
+
+    public double get() {
+        return supplier.getAsDouble();
+    }
+}
@@ -0,0 +1,115 @@
+package ch.cyberduck.core.metrics;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Distribution of observed values counted in buckets with fixed upper bounds
+ */
+public final class Histogram extends Metric {
+
+    /**
+     * Bucket bounds for durations in milliseconds
+     */
+    public static final double[] LATENCY = {1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000, 60000};
+
+    /**
+     * Bucket bounds for rates in bytes per second
+     */
+    public static final double[] THROUGHPUT = {64 * 1024, 256 * 1024, 1024 * 1024, 4 * 1024 * 1024, 16 * 1024 * 1024,
+        64 * 1024 * 1024, 256 * 1024 * 1024, 1024 * 1024 * 1024};
+
+    private final double[] bounds;
+    /**
+     * Count per bucket with additional bucket for values exceeding the largest bound
+     */
+    private final LongAdder[] buckets;
+    private final LongAdder count = new LongAdder();
+    private final DoubleAdder sum = new DoubleAdder();
+
+    /**
+     * @param bounds Upper bounds of buckets in ascending order
+     */
+    public Histogram(final String name, final double[] bounds, final String... labels) {
+        super(name, labels);
+        this.bounds = bounds.clone();
+        this.buckets = new LongAdder[bounds.length + 1];
+        for(int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void observe(final double value) {
+        int index = Arrays.binarySearch(bounds, value);
+        if(index < 0) {
+            // Insertion point is first bound larger than value
+            index = -index - 1;
+        }
+        buckets[index].increment();
+        count.increment();
+        sum.add(value);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public double getSum() {
+        return sum.sum();
+    }
+
+    /**
+     * @return Upper bounds of buckets excluding the unbounded last bucket
+     */
+    public double[] getBounds() {
+        return bounds.clone();
+    }
+
+    /**
+     * @return Number of observations less or equal than bound of bucket. Last entry is the total count.
+     */
+    public long[] getCumulativeCounts() {
+        final long[] counts = new long[buckets.length];
+        long total = 0L;
+        for(int i = 0; i < buckets.length; i++) {
+            total += buckets[i].sum();
+            counts[i] = total;
+        }
+        return counts;
+    }
+
+    /**
+     * @param quantile Between 0 and 1
+     * @return Upper bound of bucket containing quantile or positive infinity if in last bucket
+     */
+    public double getQuantile(final double quantile) {
+        final long[] counts = this.getCumulativeCounts();
+        final long total = counts[counts.length - 1];
+        if(0L == total) {
+            return Double.NaN;
+        }
+        final double rank = quantile * total;
+        for(int i = 0; i < bounds.length; i++) {
+            if(counts[i] >= rank) {
+                return bounds[i];
+            }
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+}
@@ -0,0 +1,69 @@
+package ch.cyberduck.core.metrics;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * JSON array with an object for every metric
+ */
+public class JsonMetricExporter implements MetricExporter {
+
+    @Override
+    public void export(final List<Metric> metrics, final Writer writer) throws IOException {
+        final JsonWriter json = new JsonWriter(writer);
+        json.setIndent("  ");
+        json.beginArray();
+        for(Metric metric : metrics) {
+            json.beginObject();
+            json.name("name").value(metric.getName());
+            json.name("labels").beginObject();
+            for(Map.Entry<String, String> label : metric.getLabels().entrySet()) {
+                json.name(label.getKey()).value(label.getValue());
+            }
+            json.endObject();
+            if(metric instanceof Counter) {
+                json.name("type").value("counter");
+                json.name("value").value(((Counter) metric).get());
+            }
+            else if(metric instanceof Gauge) {
+                json.name("type").value("gauge");
+                json.name("value").value(((Gauge) metric).get());
+            }
+            else if(metric instanceof Histogram) {
+                final Histogram histogram = (Histogram) metric;
+                json.name("type").value("histogram");
+                json.name("count").value(histogram.getCount());
+                json.name("sum").value(histogram.getSum());
+                json.name("buckets").beginObject();
+                final double[] bounds = histogram.getBounds();
+                final long[] counts = histogram.getCumulativeCounts();
+                for(int i = 0; i < counts.length; i++) {
+                    json.name(i < bounds.length ? String.valueOf(bounds[i]) : "+Inf").value(counts[i]);
+                }
+                json.endObject();
+            }
+            json.endObject();
+        }
+        json.endArray();
+        json.flush();
+    }
+}
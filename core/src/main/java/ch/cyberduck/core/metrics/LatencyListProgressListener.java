@@ -0,0 +1,49 @@
+package ch.cyberduck.core.metrics;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.ListProgressListener;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.ProxyListProgressListener;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Observe time in milliseconds to retrieve every chunk of a directory listing excluding time spent in listeners
+ */
+public class LatencyListProgressListener extends ProxyListProgressListener {
+
+    private final Histogram histogram;
+    private long timestamp = System.nanoTime();
+
+    public LatencyListProgressListener(final Histogram histogram, final ListProgressListener proxy) {
+        super(proxy);
+        this.histogram = histogram;
+    }
+
+    @Override
+    public void chunk(final Path folder, final AttributedList<Path> list) throws ConnectionCanceledException {
+        histogram.observe(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - timestamp));
+        try {
+            super.chunk(folder, list);
+        }
+        finally {
+            timestamp = System.nanoTime();
+        }
+    }
+}
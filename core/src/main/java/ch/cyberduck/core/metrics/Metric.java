@@ -0,0 +1,91 @@
+package ch.cyberduck.core.metrics;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Named measurement with optional labels
+ */
+public abstract class Metric {
+
+    private final String name;
+    private final Map<String, String> labels;
+
+    /**
+     * @param labels Alternating label names and values
+     */
+    protected Metric(final String name, final String... labels) {
+        this.name = name;
+        this.labels = toMap(labels);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Map<String, String> getLabels() {
+        return labels;
+    }
+
+    static Map<String, String> toMap(final String... labels) {
+        if(labels.length % 2 != 0) {
+            throw new IllegalArgumentException(String.format("Missing value for label %s", labels[labels.length - 1]));
+        }
+        final Map<String, String> map = new LinkedHashMap<>();
+        for(int i = 0; i < labels.length; i += 2) {
+            map.put(labels[i], labels[i + 1]);
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if(this == o) {
+            return true;
+        }
+        if(o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final Metric metric = (Metric) o;
+        return Objects.equals(name, metric.name) &&
+            Objects.equals(labels, metric.labels);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, labels);
+    }
+
+    @Override
+    public String toString() {
+        if(labels.isEmpty()) {
+            return name;
+        }
+        final StringBuilder sb = new StringBuilder(name).append('{');
+        for(Map.Entry<String, String> label : labels.entrySet()) {
+            if(sb.charAt(sb.length() - 1) != '{') {
+                sb.append(',');
+            }
+            sb.append(label.getKey()).append("=\"").append(label.getValue()
+                .replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n")).append('"');
+        }
+        return sb.append('}').toString();
+    }
+}
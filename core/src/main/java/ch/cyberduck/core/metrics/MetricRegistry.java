@@ -0,0 +1,93 @@
+package ch.cyberduck.core.metrics;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Registry of metrics looked up by name and labels. Metrics are created on first use.
+ */
+public final class MetricRegistry {
+
+    private static final MetricRegistry global = new MetricRegistry();
+
+    /**
+     * @return Registry shared by all sessions of the application
+     */
+    public static MetricRegistry get() {
+        return global;
+    }
+
+    private final Map<List<Object>, Metric> metrics = new ConcurrentHashMap<>();
+
+    /**
+     * @param labels Alternating label names and values
+     */
+    public Counter counter(final String name, final String... labels) {
+        return this.lookup(Counter.class, name, labels, () -> new Counter(name, labels));
+    }
+
+    /**
+     * @param bounds Upper bounds of buckets used when the histogram is created
+     * @param labels Alternating label names and values
+     */
+    public Histogram histogram(final String name, final double[] bounds, final String... labels) {
+        return this.lookup(Histogram.class, name, labels, () -> new Histogram(name, bounds, labels));
+    }
+
+    /**
+     * Register gauge replacing any previous gauge with the same name and labels
+     *
+     * @param labels Alternating label names and values
+     */
+    public Gauge gauge(final String name, final DoubleSupplier supplier, final String... labels) {
+        final Gauge gauge = new Gauge(name, supplier, labels);
+        metrics.put(this.key(name, labels), gauge);
+        return gauge;
+    }
+
+    /**
+     * @return All metrics ordered by name
+     */
+    public List<Metric> getMetrics() {
+        final List<Metric> list = new ArrayList<>(metrics.values());
+        list.sort(Comparator.comparing(Metric::getName).thenComparing(Metric::toString));
+        return list;
+    }
+
+    public void clear() {
+        metrics.clear();
+    }
+
+    private <T extends Metric> T lookup(final Class<T> type, final String name, final String[] labels, final Supplier<T> factory) {
+        final Metric metric = metrics.computeIfAbsent(this.key(name, labels), k -> factory.get());
+        if(!type.isInstance(metric)) {
+            throw new IllegalArgumentException(String.format("Metric %s already registered as %s", metric, metric.getClass().getSimpleName()));
+        }
+        return type.cast(metric);
+    }
+
+    private List<Object> key(final String name, final String[] labels) {
+        return Arrays.asList(name, Metric.toMap(labels));
+    }
+}
@@ -0,0 +1,81 @@
+package ch.cyberduck.core.metrics;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Prometheus text exposition format
+ */
+public class PrometheusMetricExporter implements MetricExporter {
+
+    @Override
+    public void export(final List<Metric> metrics, final Writer writer) throws IOException {
+        final Set<String> types = new HashSet<>();
+        for(Metric metric : metrics) {
+            if(metric instanceof Counter) {
+                this.type(writer, types, metric.getName(), "counter");
+                this.sample(writer, metric.toString(), ((Counter) metric).get());
+            }
+            else if(metric instanceof Gauge) {
+                this.type(writer, types, metric.getName(), "gauge");
+                this.sample(writer, metric.toString(), ((Gauge) metric).get());
+            }
+            else if(metric instanceof Histogram) {
+                final Histogram histogram = (Histogram) metric;
+                this.type(writer, types, metric.getName(), "histogram");
+                final double[] bounds = histogram.getBounds();
+                final long[] counts = histogram.getCumulativeCounts();
+                for(int i = 0; i < counts.length; i++) {
+                    final String le = i < bounds.length ? String.valueOf(bounds[i]) : "+Inf";
+                    this.sample(writer, this.bucket(histogram, le), counts[i]);
+                }
+                this.sample(writer, this.suffix(histogram, "_sum"), histogram.getSum());
+                this.sample(writer, this.suffix(histogram, "_count"), histogram.getCount());
+            }
+        }
+        writer.flush();
+    }
+
+    private void type(final Writer writer, final Set<String> types, final String name, final String type) throws IOException {
+        if(types.add(name)) {
+            writer.write(String.format("# TYPE %s %s\n", name, type));
+        }
+    }
+
+    private void sample(final Writer writer, final String name, final double value) throws IOException {
+        writer.write(String.format("%s %s\n", name, value == Math.rint(value) && !Double.isInfinite(value)
+            ? String.valueOf((long) value) : String.valueOf(value)));
+    }
+
+    private String suffix(final Metric metric, final String suffix) {
+        final String name = metric.toString();
+        return metric.getName() + suffix + name.substring(metric.getName().length());
+    }
+
+    private String bucket(final Metric metric, final String le) {
+        final String labels = metric.toString().substring(metric.getName().length());
+        final String bound = String.format("le=\"%s\"", le);
+        if(labels.isEmpty()) {
+            return String.format("%s_bucket{%s}", metric.getName(), bound);
+        }
+        return String.format("%s_bucket%s,%s}", metric.getName(), labels.substring(0, labels.length() - 1), bound);
+    }
+}
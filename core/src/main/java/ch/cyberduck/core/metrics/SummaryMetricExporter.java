@@ -0,0 +1,48 @@
+package ch.cyberduck.core.metrics;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Human readable line per metric with count, mean and percentiles of histograms
+ */
+public class SummaryMetricExporter implements MetricExporter {
+
+    @Override
+    public void export(final List<Metric> metrics, final Writer writer) throws IOException {
+        for(Metric metric : metrics) {
+            if(metric instanceof Counter) {
+                writer.write(String.format("%s %d\n", metric, ((Counter) metric).get()));
+            }
+            else if(metric instanceof Gauge) {
+                writer.write(String.format("%s %.2f\n", metric, ((Gauge) metric).get()));
+            }
+            else if(metric instanceof Histogram) {
+                final Histogram histogram = (Histogram) metric;
+                if(0L == histogram.getCount()) {
+                    continue;
+                }
+                writer.write(String.format("%s count=%d mean=%.2f p50<=%s p95<=%s p99<=%s\n", metric,
+                    histogram.getCount(), histogram.getSum() / histogram.getCount(),
+                    histogram.getQuantile(0.5), histogram.getQuantile(0.95), histogram.getQuantile(0.99)));
+            }
+        }
+        writer.flush();
+    }
+}
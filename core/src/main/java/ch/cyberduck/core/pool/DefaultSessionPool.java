@@ -22,6 +22,8 @@ import ch.cyberduck.core.SessionFactory;
 import ch.cyberduck.core.TranscriptListener;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.metrics.Histogram;
+import ch.cyberduck.core.metrics.MetricRegistry;
 import ch.cyberduck.core.ssl.DefaultX509KeyManager;
 import ch.cyberduck.core.ssl.DisabledX509TrustManager;
 import ch.cyberduck.core.ssl.X509KeyManager;
@@ -40,7 +42,13 @@ import org.apache.commons.pool2.impl.GenericObjectPool;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 import org.apache.log4j.Logger;
 
+import java.util.Collections;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 public class DefaultSessionPool implements SessionPool {
     private static final Logger log = Logger.getLogger(DefaultSessionPool.class);
@@ -48,6 +56,11 @@ public class DefaultSessionPool implements SessionPool {
     private static final long BORROW_MAX_WAIT_INTERVAL = 1000L;
     private static final int POOL_WARNING_THRESHOLD = 5;
 
+    /**
+     * Live pools by hostname
+     */
+    private static final Map<String, Set<GenericObjectPool<Session>>> pools = new ConcurrentHashMap<>();
+
     private final FailureDiagnostics<BackgroundException> diagnostics
         = new DefaultFailureDiagnostics();
 
@@ -77,6 +90,23 @@ public class DefaultSessionPool implements SessionPool {
         final AbandonedConfig abandon = new AbandonedConfig();
         abandon.setUseUsageTracking(true);
         this.pool.setAbandonedConfig(abandon);
+        register(bookmark.getHostname(), pool);
+    }
+
+    /**
+     * Add pool to gauge summing active sessions of all live pools for the same host. The gauge is registered once per
+     * host and does not retain pools no longer in use.
+     */
+    private static void register(final String hostname, final GenericObjectPool<Session> pool) {
+        pools.computeIfAbsent(hostname, h -> {
+            final Set<GenericObjectPool<Session>> live = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+            MetricRegistry.get().gauge("pool_active_sessions", () -> {
+                synchronized(live) {
+                    return live.stream().mapToInt(GenericObjectPool::getNumActive).sum();
+                }
+            }, "host", h);
+            return live;
+        }).add(pool);
     }
 
     public DefaultSessionPool(final ConnectionService connect, final VaultRegistry registry,
@@ -130,6 +160,7 @@ public class DefaultSessionPool implements SessionPool {
         if(numActive > POOL_WARNING_THRESHOLD) {
             log.warn(String.format("Possibly large number of open connections (%d) in pool %s", numActive, this));
         }
+        final long start = System.nanoTime();
         try {
             while(!callback.isCanceled()) {
                 try {
@@ -137,6 +168,8 @@ public class DefaultSessionPool implements SessionPool {
                         log.info(String.format("Borrow session from pool %s", this));
                     }
                     final Session<?> session = pool.borrowObject();
+                    MetricRegistry.get().histogram("pool_borrow_wait_ms", Histogram.LATENCY, "host", bookmark.getHostname())
+                        .observe(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
                     if(log.isInfoEnabled()) {
                         log.info(String.format("Borrowed session %s from pool %s", session, this));
                     }
@@ -0,0 +1,216 @@
+package ch.cyberduck.core.pool;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.Cache;
+import ch.cyberduck.core.ListProgressListener;
+import ch.cyberduck.core.ListService;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.Session;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.exception.ListCanceledException;
+import ch.cyberduck.core.preferences.Preferences;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.BackgroundActionState;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
+
+import org.apache.log4j.Logger;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Speculatively list child directories of a listing into the cache using idle connections from the pool. Pending
+ * and running listings are canceled with the next call to {@link #prefetch(Path, AttributedList)} or
+ * {@link #cancel()}.
+ */
+public class ListPrefetcher {
+    private static final Logger log = Logger.getLogger(ListPrefetcher.class);
+
+    private final SessionPool pool;
+    private final Cache<Path> cache;
+    /**
+     * Maximum number of child directories to list
+     */
+    private final int count;
+    /**
+     * Maximum number of files in a speculative listing before it is discarded
+     */
+    private final int limit;
+    private final ThreadPool executor;
+
+    /**
+     * Incremented to cancel previously scheduled listings
+     */
+    private final AtomicInteger generation = new AtomicInteger();
+
+    public ListPrefetcher(final SessionPool pool, final Cache<Path> cache) {
+        this(pool, cache, PreferencesFactory.get());
+    }
+
+    private ListPrefetcher(final SessionPool pool, final Cache<Path> cache, final Preferences preferences) {
+        this(pool, cache, preferences.getInteger("browser.list.prefetch.count"),
+            preferences.getInteger("browser.list.prefetch.limit"),
+            preferences.getInteger("browser.list.prefetch.concurrency"));
+    }
+
+    public ListPrefetcher(final SessionPool pool, final Cache<Path> cache, final int count, final int limit, final int concurrency) {
+        this.pool = pool;
+        this.cache = cache;
+        this.count = count;
+        this.limit = limit;
+        this.executor = ThreadPoolFactory.get("prefetch", concurrency, ThreadPool.Priority.low);
+    }
+
+    /**
+     * Cancel previous prefetch and schedule listing of child directories not cached
+     *
+     * @param directory Directory listed
+     * @param children  Contents of directory
+     */
+    public void prefetch(final Path directory, final AttributedList<Path> children) {
+        final int current = generation.incrementAndGet();
+        int scheduled = 0;
+        for(Path child : children) {
+            if(scheduled == count) {
+                break;
+            }
+            if(!child.isDirectory() || child.isSymbolicLink()) {
+                continue;
+            }
+            if(cache.isValid(child)) {
+                continue;
+            }
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Schedule prefetch of %s in %s", child, directory));
+            }
+            executor.execute(() -> this.list(child, current));
+            scheduled++;
+        }
+    }
+
+    /**
+     * Cancel scheduled and running listings
+     */
+    public void cancel() {
+        generation.incrementAndGet();
+    }
+
+    public void shutdown() {
+        this.cancel();
+        executor.shutdown(false);
+    }
+
+    private boolean isCanceled(final int generation) {
+        return generation != this.generation.get();
+    }
+
+    /**
+     * @return False if listing would have to wait for a connection in use
+     */
+    private boolean isIdle() {
+        if(pool instanceof DefaultSessionPool) {
+            return ((DefaultSessionPool) pool).getNumIdle() > 0;
+        }
+        // Shared connection without locking
+        return pool instanceof StatelessSessionPool;
+    }
+
+    private Void list(final Path directory, final int generation) {
+        if(this.isCanceled(generation) || cache.isValid(directory)) {
+            return null;
+        }
+        if(!this.isIdle()) {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Skip prefetch of %s with no idle connection in pool %s", directory, pool));
+            }
+            return null;
+        }
+        final Session<?> session;
+        try {
+            session = pool.borrow(new BackgroundActionState() {
+                @Override
+                public boolean isCanceled() {
+                    return ListPrefetcher.this.isCanceled(generation);
+                }
+
+                @Override
+                public boolean isRunning() {
+                    return true;
+                }
+            });
+        }
+        catch(BackgroundException e) {
+            log.warn(String.format("Failure %s obtaining connection to prefetch %s", e, directory));
+            return null;
+        }
+        BackgroundException failure = null;
+        try {
+            final AttributedList<Path> list = session.getFeature(ListService.class).withCache(cache)
+                .list(directory, new PrefetchListProgressListener(generation));
+            if(!this.isCanceled(generation)) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Prefetched %d files in %s", list.size(), directory));
+                }
+                cache.put(directory, list);
+            }
+        }
+        catch(ConnectionCanceledException e) {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Cancel prefetch of %s. %s", directory, e.getMessage()));
+            }
+        }
+        catch(BackgroundException e) {
+            log.warn(String.format("Failure %s prefetching %s", e, directory));
+            failure = e;
+        }
+        finally {
+            pool.release(session, failure);
+        }
+        return null;
+    }
+
+    private final class PrefetchListProgressListener implements ListProgressListener {
+        private final int generation;
+
+        public PrefetchListProgressListener(final int generation) {
+            this.generation = generation;
+        }
+
+        @Override
+        public void chunk(final Path directory, final AttributedList<Path> list) throws ConnectionCanceledException {
+            if(isCanceled(generation)) {
+                throw new ConnectionCanceledException();
+            }
+            if(list.size() > limit) {
+                // Discard large listings exceeding budget
+                throw new ListCanceledException(list);
+            }
+        }
+
+        @Override
+        public ListProgressListener reset() {
+            return this;
+        }
+
+        @Override
+        public void message(final String message) {
+            //
+        }
+    }
+}
@@ -36,5 +36,6 @@ public abstract class DefaultPreferences extends Preferences {
     @Override
     public void setDefault(final String property, final String value) {
         defaults.put(property, value);
+        this.changed(property);
     }
 }
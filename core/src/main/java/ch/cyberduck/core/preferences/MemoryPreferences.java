@@ -26,11 +26,13 @@ public class MemoryPreferences extends DefaultPreferences {
     @Override
     public void setProperty(final String property, final String v) {
         store.put(property, v);
+        this.changed(property);
     }
 
     @Override
     public void deleteProperty(final String property) {
         store.remove(property);
+        this.changed(property);
     }
 
     @Override
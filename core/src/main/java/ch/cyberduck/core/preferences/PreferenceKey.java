@@ -0,0 +1,92 @@
+package ch.cyberduck.core.preferences;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import java.util.function.BiFunction;
+
+/**
+ * Typed preference parsed once per change instead of on every read. The value bound to the current preferences is
+ * cached in the key such that reading it does not require a lookup in the preferences.
+ *
+ * @param <T> Immutable type of value
+ */
+public final class PreferenceKey<T> {
+
+    public static PreferenceKey<Integer> integer(final String property) {
+        return new PreferenceKey<>(property, Preferences::getInteger);
+    }
+
+    public static PreferenceKey<Long> longValue(final String property) {
+        return new PreferenceKey<>(property, Preferences::getLong);
+    }
+
+    public static PreferenceKey<Boolean> bool(final String property) {
+        return new PreferenceKey<>(property, Preferences::getBoolean);
+    }
+
+    public static PreferenceKey<String> string(final String property) {
+        return new PreferenceKey<>(property, Preferences::getProperty);
+    }
+
+    private final String property;
+    private final BiFunction<Preferences, String, T> parser;
+
+    /**
+     * Value in preferences last read
+     */
+    private volatile PreferenceValue<T> bound;
+
+    public PreferenceKey(final String property, final BiFunction<Preferences, String, T> parser) {
+        this.property = property;
+        this.parser = parser;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    /**
+     * @return Current value in preferences of {@link PreferencesFactory}
+     */
+    public T get() {
+        return this.value(PreferencesFactory.get()).get();
+    }
+
+    /**
+     * @param preferences Preferences to read from
+     * @return Value in given preferences updated on change
+     */
+    public PreferenceValue<T> value(final Preferences preferences) {
+        PreferenceValue<T> value = bound;
+        if(null == value || value.getPreferences() != preferences) {
+            value = preferences.getValue(this);
+            bound = value;
+        }
+        return value;
+    }
+
+    T parse(final Preferences preferences) {
+        return parser.apply(preferences, property);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("PreferenceKey{");
+        sb.append("property='").append(property).append('\'');
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,40 @@
+package ch.cyberduck.core.preferences;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+/**
+ * Typed keys for preferences read when transferring
+ */
+public final class PreferenceKeys {
+    private PreferenceKeys() {
+        //
+    }
+
+    public static final PreferenceKey<Integer> CONNECTION_CHUNKSIZE
+        = PreferenceKey.integer("connection.chunksize");
+
+    public static final PreferenceKey<Integer> TRANSFER_CONNECTION_RETRY
+        = PreferenceKey.integer("transfer.connection.retry");
+
+    public static final PreferenceKey<Integer> TRANSFER_CONNECTION_RETRY_DELAY
+        = PreferenceKey.integer("transfer.connection.retry.delay");
+
+    public static final PreferenceKey<Integer> BROWSER_LIST_LIMIT_CONTAINER
+        = PreferenceKey.integer("browser.list.limit.container");
+
+    public static final PreferenceKey<Integer> BROWSER_LIST_LIMIT_DIRECTORY
+        = PreferenceKey.integer("browser.list.limit.directory");
+}
@@ -0,0 +1,81 @@
+package ch.cyberduck.core.preferences;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.apache.log4j.Logger;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Parsed value of a preference republished when the property or its default is changed
+ *
+ * @param <T> Immutable type of value
+ */
+public final class PreferenceValue<T> {
+    private static final Logger log = Logger.getLogger(PreferenceValue.class);
+
+    private final Preferences preferences;
+    private final PreferenceKey<T> key;
+    private final List<PreferenceListener<T>> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile T value;
+
+    PreferenceValue(final Preferences preferences, final PreferenceKey<T> key) {
+        this.preferences = preferences;
+        this.key = key;
+        this.value = key.parse(preferences);
+    }
+
+    public T get() {
+        return value;
+    }
+
+    Preferences getPreferences() {
+        return preferences;
+    }
+
+    /**
+     * @param listener Notified with new value after change
+     */
+    public PreferenceValue<T> addListener(final PreferenceListener<T> listener) {
+        listeners.add(listener);
+        return this;
+    }
+
+    public void removeListener(final PreferenceListener<T> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Parse value from preferences and notify listeners if changed
+     */
+    synchronized void refresh() {
+        final T previous = value;
+        final T current = key.parse(preferences);
+        if(Objects.equals(previous, current)) {
+            return;
+        }
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Update %s to %s", key, current));
+        }
+        value = current;
+        for(PreferenceListener<T> listener : listeners) {
+            listener.changed(key, current);
+        }
+    }
+}
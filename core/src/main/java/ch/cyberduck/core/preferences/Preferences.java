@@ -45,6 +45,7 @@ import ch.cyberduck.core.proxy.DisabledProxyFinder;
 import ch.cyberduck.core.random.DefaultSecureRandomProvider;
 import ch.cyberduck.core.resources.DisabledIconCache;
 import ch.cyberduck.core.serializer.impl.dd.HostPlistReader;
+import ch.cyberduck.core.serializer.impl.dd.ListingPlistReader;
 import ch.cyberduck.core.serializer.impl.dd.PlistDeserializer;
 import ch.cyberduck.core.serializer.impl.dd.PlistSerializer;
 import ch.cyberduck.core.serializer.impl.dd.PlistWriter;
@@ -88,6 +89,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.google.common.collect.ImmutableMap;
 
@@ -100,6 +102,11 @@ public abstract class Preferences implements Locales {
 
     protected static final String LIST_SEPERATOR = StringUtils.SPACE;
 
+    /**
+     * Parsed values of typed preferences by property name
+     */
+    private final Map<String, PreferenceValue<?>> values = new ConcurrentHashMap<>();
+
     /**
      * Update the given property with a string value.
      *
@@ -179,6 +186,27 @@ public abstract class Preferences implements Locales {
 
     public abstract void setDefault(String property, String value);
 
+    /**
+     * @param key Typed preference
+     * @return Value parsed once and updated when the property or its default changes
+     */
+    @SuppressWarnings("unchecked")
+    public <T> PreferenceValue<T> getValue(final PreferenceKey<T> key) {
+        return (PreferenceValue<T>) values.computeIfAbsent(key.getProperty(), property -> new PreferenceValue<>(this, key));
+    }
+
+    /**
+     * Must be called by implementations after a property or its default value is modified
+     *
+     * @param property Property name
+     */
+    protected void changed(final String property) {
+        final PreferenceValue<?> value = values.get(property);
+        if(value != null) {
+            value.refresh();
+        }
+    }
+
     private static final class Version {
         /**
          * @return The <code>Specification-Version</code> in the JAR manifest.
@@ -277,6 +305,10 @@ public abstract class Preferences implements Locales {
          */
         this.setDefault("path.normalize", String.valueOf(true));
         this.setDefault("path.normalize.unicode", String.valueOf(false));
+        /*
+          Compute absolute path from parent instead of retaining it in every path
+         */
+        this.setDefault("path.compact", String.valueOf(false));
 
         this.setDefault("local.user.home", System.getProperty("user.home"));
         this.setDefault("local.alias.resolve", String.valueOf(true));
@@ -310,6 +342,18 @@ public abstract class Preferences implements Locales {
           Maximum number of directory listings to cache using a most recently used implementation
          */
         this.setDefault("browser.cache.size", String.valueOf(1000));
+        /*
+          Save directory listings in support directory to revalidate in later sessions instead of listing again
+         */
+        this.setDefault("browser.cache.persistent", String.valueOf(false));
+        /*
+          Maximum number of saved directory listings per host
+         */
+        this.setDefault("browser.cache.persistent.limit", String.valueOf(1000));
+        /*
+          Maximum age in days of saved directory listings
+         */
+        this.setDefault("browser.cache.persistent.age", String.valueOf(30));
         this.setDefault("transfer.cache.size", String.valueOf(100));
         this.setDefault("icon.cache.size", String.valueOf(200));
         this.setDefault("preferences.cache.size", String.valueOf(1000));
@@ -324,6 +368,16 @@ public abstract class Preferences implements Locales {
          */
         this.setDefault("browser.list.limit.directory", String.valueOf(5000));
         this.setDefault("browser.list.limit.container", String.valueOf(100));
+        /*
+          Speculatively list child directories on idle connections. Disabled by default as listings may be billed
+          per request or rate limited.
+         */
+        this.setDefault("browser.list.prefetch.enable", String.valueOf(false));
+        // Maximum number of child directories listed
+        this.setDefault("browser.list.prefetch.count", String.valueOf(5));
+        // Discard listings with more files
+        this.setDefault("browser.list.prefetch.limit", String.valueOf(1000));
+        this.setDefault("browser.list.prefetch.concurrency", String.valueOf(2));
 
         this.setDefault("info.toolbar.selected", String.valueOf(0));
         this.setDefault("preferences.toolbar.selected", String.valueOf(0));
@@ -431,6 +485,10 @@ public abstract class Preferences implements Locales {
             Host.TransferType.concurrent.name()
         ));
         this.setDefault("queue.transfer.type", Host.TransferType.concurrent.name());
+        /*
+          Start transfer of files as soon as prepared instead of preparing all files first
+         */
+        this.setDefault("queue.transfer.pipeline", String.valueOf(false));
         /*
           Warning when number of transfers in queue exceeds limit
          */
@@ -454,6 +512,17 @@ public abstract class Preferences implements Locales {
         this.setDefault("queue.download.reload.action", TransferAction.callback.name());
         this.setDefault("queue.upload.reload.action", TransferAction.callback.name());
         this.setDefault("queue.copy.reload.action", TransferAction.callback.name());
+        /*
+          Ring of buffers between reading from source and writing to target when copying between hosts
+         */
+        this.setDefault("queue.copy.buffer.size", String.valueOf(1024 * 1024));
+        this.setDefault("queue.copy.buffer.capacity", String.valueOf(8));
+        /*
+          Read ranges of large files from source in parallel when copying between hosts
+         */
+        this.setDefault("queue.copy.range.concurrency", String.valueOf(4));
+        this.setDefault("queue.copy.range.size", String.valueOf(8 * 1024 * 1024));
+        this.setDefault("queue.copy.range.threshold", String.valueOf(64L * 1024L * 1024L));
 
         this.setDefault("queue.upload.permissions.change", String.valueOf(false));
         this.setDefault("queue.upload.permissions.default", String.valueOf(false));
@@ -469,6 +538,11 @@ public abstract class Preferences implements Locales {
         this.setDefault("queue.upload.file.redundancy.change", String.valueOf(true));
 
         this.setDefault("queue.upload.checksum.calculate", String.valueOf(false));
+        /*
+          Maximum number of children in remote directory to list when entered by a recursive upload. Files in larger
+          directories or not contained in an uploaded directory are looked up individually.
+         */
+        this.setDefault("queue.upload.prepare.list.limit", String.valueOf(10000));
 
         this.setDefault("queue.upload.skip.enable", String.valueOf(true));
         this.setDefault("queue.upload.skip.regex.default",
@@ -517,6 +591,16 @@ public abstract class Preferences implements Locales {
         this.setDefault("queue.download.segments", String.valueOf(true));
         this.setDefault("queue.download.segments.threshold", String.valueOf(10L * 1024L * 1024L));
         this.setDefault("queue.download.segments.size", String.valueOf(5L * 1024L * 1024L));
+        // Write segments at their offset into preallocated target file instead of concatenating temporary files
+        this.setDefault("queue.download.segments.preallocate", String.valueOf(false));
+        // Bytes written by a segment before its progress is recorded to resume from
+        this.setDefault("queue.download.segments.checkpoint", String.valueOf(8L * 1024L * 1024L));
+        // Concurrent range requests within a single download for protocols supporting it
+        this.setDefault("queue.download.ranges.concurrency", String.valueOf(4));
+        this.setDefault("queue.download.ranges.threshold", String.valueOf(32L * 1024L * 1024L));
+        this.setDefault("queue.download.ranges.size", String.valueOf(8L * 1024L * 1024L));
+        // Minimum bytes for each half when splitting the remainder of a slow range for an idle connection
+        this.setDefault("queue.download.ranges.split.minimum", String.valueOf(1024L * 1024L));
 
         /*
           Open completed downloads
@@ -575,6 +659,22 @@ public abstract class Preferences implements Locales {
             options.append(20).append(",");
             this.setDefault("queue.connections.options", options.toString());
         }
+        /*
+          Adjust number of concurrent connections of a transfer at runtime from measured throughput and errors
+         */
+        this.setDefault("queue.connections.adaptive", String.valueOf(false));
+        this.setDefault("queue.connections.adaptive.minimum", String.valueOf(1));
+        this.setDefault("queue.connections.adaptive.maximum", String.valueOf(32));
+        // Sampling period in milliseconds
+        this.setDefault("queue.connections.adaptive.interval", String.valueOf(2000L));
+        /*
+          Milliseconds between progress notifications to stream listeners of concurrent transfers
+         */
+        this.setDefault("queue.transfer.progress.interval", String.valueOf(100L));
+        /*
+          Number of batches deleted in parallel for protocols supporting bulk delete
+         */
+        this.setDefault("delete.batch.concurrency", String.valueOf(4));
 
         /*
           While downloading, update the icon of the downloaded file as a progress indicator
@@ -612,6 +712,16 @@ public abstract class Preferences implements Locales {
         this.setDefault("http.socket.buffer", String.valueOf(8192));
         this.setDefault("http.credentials.charset", "UTF-8");
         this.setDefault("http.request.uri.normalize", String.valueOf(false));
+        /*
+          Maximum size in bytes of segment read into memory to compute checksum and upload in a single pass
+         */
+        this.setDefault("http.upload.buffer.maximum", String.valueOf(32L * 1024L * 1024L));
+        /*
+          Maximum number of segment buffers of the same size shared by multipart uploads. Writers allocate an additional
+          buffer when all are leased. Segments larger than the maximum size in bytes are not pooled.
+         */
+        this.setDefault("queue.upload.buffer.pool.size", String.valueOf(20));
+        this.setDefault("queue.upload.buffer.pool.segment.maximum", String.valueOf(16 * 1024 * 1024));
 
         /*
           Enable or disable verification that the remote host taking part
@@ -686,6 +796,14 @@ public abstract class Preferences implements Locales {
 
         this.setDefault("s3.listing.chunksize", String.valueOf(1000));
         this.setDefault("s3.listing.concurrency", String.valueOf(25));
+        /*
+          Recursive listing with flat or partitioned strategy
+         */
+        this.setDefault("s3.listing.recursive.strategy", "partitioned");
+        /*
+          Maximum number of delimiter levels expanded to partition recursive listing
+         */
+        this.setDefault("s3.listing.recursive.depth", String.valueOf(2));
 
         this.setDefault("s3.upload.multipart", String.valueOf(true));
         this.setDefault("s3.upload.multipart.concurrency", String.valueOf(10));
@@ -701,6 +819,12 @@ public abstract class Preferences implements Locales {
         this.setDefault("s3.copy.multipart.size", String.valueOf(100L * 1024L * 1024L)); // 100MB
 
         this.setDefault("s3.upload.expect-continue", String.valueOf(true));
+        /*
+          Read objects larger than threshold with concurrent range requests
+         */
+        this.setDefault("s3.download.multipart.concurrency", String.valueOf(4));
+        this.setDefault("s3.download.multipart.threshold", String.valueOf(100L * 1024L * 1024L));
+        this.setDefault("s3.download.multipart.size", String.valueOf(8L * 1024L * 1024L));
 
         /*
           Transfer thresholds for qloudsonic.io
@@ -764,6 +888,14 @@ public abstract class Preferences implements Locales {
         this.setDefault("azure.upload.md5", String.valueOf(false));
         this.setDefault("azure.upload.snapshot", String.valueOf(false));
         this.setDefault("azure.upload.blobtype", "APPEND_BLOB");
+        /*
+          Upload files larger than threshold with blocks staged concurrently if blob type is BLOCK_BLOB. Not used for
+          files in a vault.
+         */
+        this.setDefault("azure.upload.block", String.valueOf(true));
+        this.setDefault("azure.upload.block.threshold", String.valueOf(100L * 1024L * 1024L)); // 100MB
+        this.setDefault("azure.upload.block.size", String.valueOf(8L * 1024L * 1024L)); // 8MB
+        this.setDefault("azure.upload.block.concurrency", String.valueOf(5));
 
         // Legacy authentication
 //        this.setDefault("openstack.authentication.context", "/v1.0");
@@ -911,6 +1043,10 @@ public abstract class Preferences implements Locales {
           Socket timeout
          */
         this.setDefault("connection.timeout.seconds", String.valueOf(30));
+        /*
+          Share stateless feature implementations for all callers of a session
+         */
+        this.setDefault("connection.features.cache", String.valueOf(false));
         /*
           Retry to connect after a I/O failure automatically
          */
@@ -945,6 +1081,21 @@ public abstract class Preferences implements Locales {
         if(this.getBoolean("connection.dns.ipv6")) {
             System.setProperty("java.net.preferIPv6Addresses", String.valueOf(true));
         }
+        /*
+          Name server to query instead of system resolver given as hostname with optional port
+         */
+        this.setDefault("connection.dns.server", StringUtils.EMPTY);
+        /*
+          Seconds to cache resolved addresses and failed lookups
+         */
+        this.setDefault("connection.dns.cache.ttl", String.valueOf(30));
+        this.setDefault("connection.dns.cache.negative.ttl", String.valueOf(10));
+        this.setDefault("connection.dns.pool.size", String.valueOf(4));
+        /*
+          Delay in milliseconds before starting connection attempt to next address of host
+         */
+        this.setDefault("connection.happyeyeballs.delay.ms", String.valueOf(250));
+        this.setDefault("connection.happyeyeballs.pool.size", String.valueOf(20));
 
         /*
           Read proxy settings from system preferences
@@ -1093,6 +1244,11 @@ public abstract class Preferences implements Locales {
         this.setDefault("cryptomator.enable", String.valueOf(true));
         this.setDefault("cryptomator.vault.version", String.valueOf(7));
         this.setDefault("cryptomator.vault.autodetect", String.valueOf(true));
+        /*
+          Number of threads encrypting or decrypting file content chunks shared by all streams and maximum number of
+          chunks pending per stream. Set to 1 to disable read-ahead and write-behind.
+         */
+        this.setDefault("cryptomator.cryptor.concurrency", String.valueOf(Runtime.getRuntime().availableProcessors()));
     }
 
     protected void setLogging() {
@@ -1274,6 +1430,8 @@ public abstract class Preferences implements Locales {
         this.setDefault("factory.writer.transfer.class", PlistWriter.class.getName());
         this.setDefault("factory.reader.host.class", HostPlistReader.class.getName());
         this.setDefault("factory.writer.host.class", PlistWriter.class.getName());
+        this.setDefault("factory.reader.listing.class", ListingPlistReader.class.getName());
+        this.setDefault("factory.writer.listing.class", PlistWriter.class.getName());
 
         this.setDefault("factory.locale.class", DisabledLocale.class.getName());
         this.setDefault("factory.local.class", Local.class.getName());
@@ -27,7 +27,13 @@ public final class PreferencesFactory {
 
     private static Preferences preferences;
 
+    /**
+     * Fully initialized instance read without locking
+     */
+    private static volatile Preferences initialized;
+
     public static synchronized void set(final Preferences p) {
+        initialized = null;
         preferences = p;
         preferences.load();
         preferences.setFactories();
@@ -35,13 +41,20 @@ public final class PreferencesFactory {
         // Apply global configuration
         preferences.setDefaults(LocalFactory.get(SupportDirectoryFinderFactory.get().find(), "default.properties"));
         preferences.setLogging();
+        initialized = p;
     }
 
-    public static synchronized Preferences get() {
-        if(null == preferences) {
-            set(new DefaultLoggingMemoryPreferenes());
+    public static Preferences get() {
+        final Preferences p = initialized;
+        if(null != p) {
+            return p;
+        }
+        synchronized(PreferencesFactory.class) {
+            if(null == preferences) {
+                set(new DefaultLoggingMemoryPreferenes());
+            }
+            return preferences;
         }
-        return preferences;
     }
 
     private static final class DefaultLoggingMemoryPreferenes extends MemoryPreferences {
@@ -0,0 +1,60 @@
+package ch.cyberduck.core.serializer;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.DeserializerFactory;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.cache.Listing;
+
+import java.util.List;
+
+public class ListingDictionary {
+
+    private final DeserializerFactory factory;
+
+    public ListingDictionary() {
+        this.factory = new DeserializerFactory();
+    }
+
+    public ListingDictionary(final DeserializerFactory factory) {
+        this.factory = factory;
+    }
+
+    public <T> Listing deserialize(final T serialized) {
+        final Deserializer dict = factory.create(serialized);
+        final Object directoryObj = dict.objectForKey("Directory");
+        if(null == directoryObj) {
+            return null;
+        }
+        final Path directory = new PathDictionary(factory).deserialize(directoryObj);
+        if(null == directory) {
+            return null;
+        }
+        final AttributedList<Path> children = new AttributedList<>();
+        final List<T> childrenObj = dict.listForKey("Children");
+        if(childrenObj != null) {
+            for(T childObj : childrenObj) {
+                final Path child = new PathDictionary(factory).deserialize(childObj);
+                if(null == child) {
+                    continue;
+                }
+                children.add(child);
+            }
+        }
+        return new Listing(directory, dict.stringForKey("Validator"), children);
+    }
+}
@@ -0,0 +1,234 @@
+package ch.cyberduck.core.shared;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.ConnectionCallback;
+import ch.cyberduck.core.DefaultIOExceptionMappingService;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.features.Read;
+import ch.cyberduck.core.http.HttpRange;
+import ch.cyberduck.core.http.HttpRangeReadService;
+import ch.cyberduck.core.io.SegmentBufferPool;
+import ch.cyberduck.core.threading.BackgroundExceptionCallable;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Read byte ranges of a file with concurrent requests and return them in order as a single stream. At most as many
+ * ranges as requests allowed in parallel are buffered in memory. Requires a read feature supporting offsets that can be
+ * used concurrently from multiple threads. Ranges are pinned to the version of the file seen when the read started
+ * and retried on network failures.
+ *
+ * @see HttpRangeReadService
+ */
+public class ConcurrentRangeReadFeature implements Read {
+    private static final Logger log = Logger.getLogger(ConcurrentRangeReadFeature.class);
+
+    private final Host host;
+    private final Read proxy;
+    private final int concurrency;
+    private final int partsize;
+    private final long threshold;
+
+    /**
+     * @param host        Bookmark to determine retry policy
+     * @param proxy       Read feature for single range
+     * @param concurrency Number of ranges requested in parallel
+     * @param partsize    Length of range in bytes
+     * @param threshold   Minimum number of bytes to read with concurrent requests. Smaller reads are passed to the
+     *                    proxy unchanged without allocating any thread or buffer.
+     */
+    public ConcurrentRangeReadFeature(final Host host, final Read proxy, final int concurrency, final int partsize, final long threshold) {
+        this.host = host;
+        this.proxy = proxy;
+        this.concurrency = concurrency;
+        this.partsize = partsize;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public InputStream read(final Path file, final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
+        if(concurrency < 2 || status.isSegment() || status.getLength() < Math.max(threshold, partsize + 1L) || !proxy.offset(file)) {
+            return proxy.read(file, status, callback);
+        }
+        final long offset = status.isAppend() ? status.getOffset() : 0L;
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Read %d bytes of %s from offset %d with %d concurrent requests", status.getLength(), file, offset, concurrency));
+        }
+        return new RangeInputStream(new HttpRangeReadService(host, proxy, file, status, callback), status,
+            HttpRange.split(offset, status.getLength(), partsize).iterator());
+    }
+
+    @Override
+    public boolean offset(final Path file) throws BackgroundException {
+        return proxy.offset(file);
+    }
+
+    private final class RangeInputStream extends InputStream {
+        private final HttpRangeReadService service;
+        private final TransferStatus status;
+        /**
+         * Ranges not yet requested
+         */
+        private final Iterator<HttpRange> ranges;
+
+        private final ThreadPool pool = ThreadPoolFactory.get("range", concurrency);
+        private final SegmentBufferPool buffers = new SegmentBufferPool(partsize, concurrency, Long.MAX_VALUE);
+        private final Deque<Future<Range>> pending = new ArrayDeque<>();
+
+        private Range current;
+        private boolean closed;
+
+        public RangeInputStream(final HttpRangeReadService service, final TransferStatus status, final Iterator<HttpRange> ranges) {
+            this.service = service;
+            this.status = status;
+            this.ranges = ranges;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final byte[] b = new byte[1];
+            return this.read(b, 0, 1) == IOUtils.EOF ? IOUtils.EOF : b[0] & 0xFF;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            if(closed) {
+                throw new IOException("Stream closed");
+            }
+            if(0 == len) {
+                return 0;
+            }
+            while(null == current || current.position == current.length) {
+                if(current != null) {
+                    buffers.release(current.buffer);
+                    current = null;
+                }
+                this.request();
+                if(pending.isEmpty()) {
+                    return IOUtils.EOF;
+                }
+                current = this.await(pending.remove());
+            }
+            final int n = Math.min(len, current.length - current.position);
+            System.arraycopy(current.buffer, current.position, b, off, n);
+            current.position += n;
+            return n;
+        }
+
+        /**
+         * Submit requests for ranges until window is full
+         */
+        private void request() throws IOException {
+            while(ranges.hasNext() && pending.size() < concurrency) {
+                final HttpRange range = ranges.next();
+                final int length = (int) range.getLength();
+                final byte[] buffer = buffers.acquire();
+                pending.add(pool.execute(() -> {
+                    try {
+                        return service.retry(new BackgroundExceptionCallable<Range>() {
+                            @Override
+                            public Range call() throws BackgroundException {
+                                final InputStream in = service.read(range);
+                                try {
+                                    IOUtils.readFully(in, buffer, 0, length);
+                                }
+                                catch(IOException e) {
+                                    throw new DefaultIOExceptionMappingService().map(e);
+                                }
+                                finally {
+                                    IOUtils.closeQuietly(in);
+                                }
+                                return new Range(buffer, length);
+                            }
+                        }, status);
+                    }
+                    catch(BackgroundException | RuntimeException e) {
+                        buffers.release(buffer);
+                        throw e;
+                    }
+                }));
+            }
+        }
+
+        private Range await(final Future<Range> range) throws IOException {
+            try {
+                return range.get();
+            }
+            catch(InterruptedException e) {
+                throw new InterruptedIOException(e.getMessage());
+            }
+            catch(ExecutionException e) {
+                // Keep mapped failure as cause to be unwrapped by callers
+                final Throwable cause = e.getCause();
+                throw new IOException(cause.getMessage(), cause);
+            }
+        }
+
+        @Override
+        public int available() {
+            return null == current ? 0 : current.length - current.position;
+        }
+
+        @Override
+        public void close() {
+            if(closed) {
+                return;
+            }
+            closed = true;
+            for(Future<Range> range : pending) {
+                range.cancel(true);
+            }
+            pending.clear();
+            pool.shutdown(false);
+        }
+    }
+
+    private static final class Range {
+        private final byte[] buffer;
+        private final int length;
+        private int position;
+
+        public Range(final byte[] buffer, final int length) {
+            this.buffer = buffer;
+            this.length = length;
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ConcurrentRangeReadFeature{");
+        sb.append("proxy=").append(proxy);
+        sb.append(", concurrency=").append(concurrency);
+        sb.append('}');
+        return sb.toString();
+    }
+}
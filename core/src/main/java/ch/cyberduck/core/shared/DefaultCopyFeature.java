@@ -26,13 +26,21 @@ import ch.cyberduck.core.features.MultipartWrite;
 import ch.cyberduck.core.features.Read;
 import ch.cyberduck.core.features.Write;
 import ch.cyberduck.core.io.StatusOutputStream;
-import ch.cyberduck.core.io.StreamCopier;
+import ch.cyberduck.core.io.PipedStreamCopier;
+import ch.cyberduck.core.preferences.Preferences;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.transfer.TransferStatus;
 
+import org.apache.log4j.Logger;
+
 import java.io.InputStream;
 import java.util.Objects;
 
 public class DefaultCopyFeature implements Copy {
+    private static final Logger log = Logger.getLogger(DefaultCopyFeature.class);
+
+    private final Preferences preferences
+        = PreferencesFactory.get();
 
     private Session<?> from;
     private Session<?> to;
@@ -46,14 +54,27 @@ public class DefaultCopyFeature implements Copy {
     public Path copy(final Path source, final Path target, final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
         InputStream in;
         StatusOutputStream out;
-        in = from.getFeature(Read.class).read(source, new TransferStatus(status), callback);
+        Read read = from.getFeature(Read.class);
+        if(this.isStateless(from) && !(read instanceof ConcurrentRangeReadFeature)) {
+            // Fetch ranges of large files in parallel
+            read = new ConcurrentRangeReadFeature(from.getHost(), read,
+                preferences.getInteger("queue.copy.range.concurrency"),
+                preferences.getInteger("queue.copy.range.size"),
+                preferences.getLong("queue.copy.range.threshold"));
+        }
+        in = read.read(source, new TransferStatus(status), callback);
         Write write = to.getFeature(MultipartWrite.class);
         if(null == write) {
             // Fallback if multipart write is not available
             write = to.getFeature(Write.class);
         }
         out = write.write(target, status, callback);
-        new StreamCopier(status, status).transfer(in, out);
+        final PipedStreamCopier copier = new PipedStreamCopier(status, status);
+        copier.transfer(in, out);
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Copied %s with read throughput %.0f bytes/s and write throughput %.0f bytes/s",
+                source, copier.getReadThroughput(), copier.getWriteThroughput()));
+        }
         final Object reply = out.getStatus();
         if(reply instanceof VersionId) {
             return new Path(target.getParent(), target.getName(), target.getType(),
@@ -64,11 +85,21 @@ public class DefaultCopyFeature implements Copy {
 
     @Override
     public boolean isSupported(final Path source, final Path target) {
-        switch(from.getHost().getProtocol().getType()) {
+        if(!this.isStateless(from)) {
+            return !Objects.equals(from, to);
+        }
+        return true;
+    }
+
+    /**
+     * @return False if the session cannot be used for multiple requests at the same time
+     */
+    private boolean isStateless(final Session<?> session) {
+        switch(session.getHost().getProtocol().getType()) {
             case ftp:
             case irods:
                 // Stateful
-                return !Objects.equals(from, to);
+                return false;
         }
         return true;
     }
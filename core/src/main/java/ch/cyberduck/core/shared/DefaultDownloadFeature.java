@@ -28,6 +28,9 @@ import ch.cyberduck.core.io.StreamCopier;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.io.ThrottledInputStream;
 import ch.cyberduck.core.transfer.TransferStatus;
+import ch.cyberduck.core.transfer.download.SegmentedFileChannel;
+
+import org.apache.commons.io.IOUtils;
 
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -44,12 +47,28 @@ public class DefaultDownloadFeature implements Download {
     public void download(final Path file, final Local local, final BandwidthThrottle throttle, final StreamListener listener,
                          final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
         final InputStream in = reader.read(file, status, callback);
-        final OutputStream out = local.getOutputStream(!status.isSegment() && status.isAppend());
-        new StreamCopier(status, status)
-                .withOffset(0L)
-                .withLimit(status.getLength())
-                .withListener(listener)
-                .transfer(new ThrottledInputStream(in, throttle), out);
+        final OutputStream out;
+        if(status.isSegment() && status.isPreallocated()) {
+            // Write at offset into target file shared with other segments
+            out = SegmentedFileChannel.open(local).getOutputStream(status.getPart(), status.getOffset());
+        }
+        else {
+            out = local.getOutputStream(!status.isSegment() && status.isAppend());
+        }
+        try {
+            new StreamCopier(status, status)
+                    .withOffset(0L)
+                    .withLimit(status.getLength())
+                    .withListener(listener)
+                    .transfer(new ThrottledInputStream(in, throttle), out);
+        }
+        catch(BackgroundException e) {
+            if(status.isPreallocated()) {
+                // Record progress and release shared channel
+                IOUtils.closeQuietly(out);
+            }
+            throw e;
+        }
     }
 
     @Override
@@ -27,12 +27,13 @@ import ch.cyberduck.core.Path;
 import ch.cyberduck.core.URIEncoder;
 import ch.cyberduck.core.UrlProvider;
 import ch.cyberduck.core.WebUrlProvider;
+import ch.cyberduck.core.features.Stateless;
 
 import java.net.URI;
 import java.text.MessageFormat;
 import java.util.Locale;
 
-public class DefaultUrlProvider implements UrlProvider {
+public class DefaultUrlProvider implements UrlProvider, Stateless {
 
     private final Host host;
 
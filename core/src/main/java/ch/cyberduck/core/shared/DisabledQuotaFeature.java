@@ -16,8 +16,9 @@ package ch.cyberduck.core.shared;
  */
 
 import ch.cyberduck.core.features.Quota;
+import ch.cyberduck.core.features.Stateless;
 
-public class DisabledQuotaFeature implements Quota {
+public class DisabledQuotaFeature implements Quota, Stateless {
     @Override
     public Space get() {
         return new Space(0L, Long.MAX_VALUE);
@@ -0,0 +1,207 @@
+package ch.cyberduck.core.socket;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Race connection attempts to multiple addresses of a host as in RFC 8305. Addresses are tried in order of preference
+ * with address families interleaved. The next attempt is started when the previous attempt failed or did not
+ * complete within the delay. The first established connection is returned and all other attempts are closed. Only
+ * plain TCP connections are raced. Any layered protocol such as TLS must be negotiated by the caller on the returned
+ * socket to avoid handshakes with connections losing the race.
+ */
+public class HappyEyeballsConnector {
+    private static final Logger log = Logger.getLogger(HappyEyeballsConnector.class);
+
+    private static final ThreadPool pool = ThreadPoolFactory.get("connect",
+        PreferencesFactory.get().getInteger("connection.happyeyeballs.pool.size"));
+
+    /**
+     * Connection attempt to a single address
+     */
+    public interface Attempt {
+        /**
+         * @return Unconnected socket
+         */
+        Socket create() throws IOException;
+
+        /**
+         * @param socket  Socket returned by {@link #create()}
+         * @param address Remote address
+         * @return Socket with plain TCP connection established. Must not negotiate a layered protocol.
+         */
+        Socket connect(Socket socket, InetAddress address) throws IOException;
+    }
+
+    private final long delay;
+
+    public HappyEyeballsConnector() {
+        this(PreferencesFactory.get().getLong("connection.happyeyeballs.delay.ms"));
+    }
+
+    /**
+     * @param delay Milliseconds to wait for an attempt before starting the next
+     */
+    public HappyEyeballsConnector(final long delay) {
+        this.delay = delay;
+    }
+
+    /**
+     * @param addresses Addresses of host in order of preference
+     * @param attempt   Create and connect socket
+     * @return Connected socket
+     * @throws IOException Failure of last attempt if no connection could be established
+     */
+    public Socket connect(final InetAddress[] addresses, final Attempt attempt) throws IOException {
+        if(addresses.length == 1) {
+            return attempt.connect(attempt.create(), addresses[0]);
+        }
+        final Iterator<InetAddress> ordered = sort(addresses).iterator();
+        final CompletionService<Socket> completion = new ExecutorCompletionService<>(pool.executor());
+        final Map<Future<Socket>, Connection> running = new HashMap<>();
+        final AtomicBoolean established = new AtomicBoolean();
+        IOException failure = null;
+        try {
+            this.submit(completion, running, new Connection(attempt, ordered.next(), established));
+            while(!running.isEmpty()) {
+                final Future<Socket> done = ordered.hasNext() ? completion.poll(delay, TimeUnit.MILLISECONDS) : completion.take();
+                if(null == done) {
+                    // Start next attempt without waiting for previous to fail
+                    this.submit(completion, running, new Connection(attempt, ordered.next(), established));
+                    continue;
+                }
+                final Connection connection = running.remove(done);
+                try {
+                    final Socket socket = done.get();
+                    if(log.isInfoEnabled()) {
+                        log.info(String.format("Connected to %s", connection.address));
+                    }
+                    return socket;
+                }
+                catch(ExecutionException e) {
+                    log.warn(String.format("Connection attempt to %s failed. %s", connection.address, e.getCause().getMessage()));
+                    failure = e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+                    if(ordered.hasNext()) {
+                        this.submit(completion, running, new Connection(attempt, ordered.next(), established));
+                    }
+                }
+            }
+            throw failure;
+        }
+        catch(InterruptedException e) {
+            throw new InterruptedIOException(e.getMessage());
+        }
+        finally {
+            // Prevent late attempts from succeeding and abort attempts still connecting
+            established.set(true);
+            for(Connection connection : running.values()) {
+                connection.abort();
+            }
+        }
+    }
+
+    private void submit(final CompletionService<Socket> completion, final Map<Future<Socket>, Connection> running, final Connection connection) {
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Start connection attempt to %s", connection.address));
+        }
+        running.put(completion.submit(connection), connection);
+    }
+
+    /**
+     * @return Addresses with alternating address family starting with the family of the most preferred address
+     */
+    protected static List<InetAddress> sort(final InetAddress[] addresses) {
+        final List<InetAddress> preferred = new ArrayList<>();
+        final List<InetAddress> other = new ArrayList<>();
+        for(InetAddress address : addresses) {
+            if(address.getClass() == addresses[0].getClass()) {
+                preferred.add(address);
+            }
+            else {
+                other.add(address);
+            }
+        }
+        final List<InetAddress> sorted = new ArrayList<>(addresses.length);
+        for(int i = 0; i < Math.max(preferred.size(), other.size()); i++) {
+            if(i < preferred.size()) {
+                sorted.add(preferred.get(i));
+            }
+            if(i < other.size()) {
+                sorted.add(other.get(i));
+            }
+        }
+        return sorted;
+    }
+
+    private static final class Connection implements Callable<Socket> {
+        private final Attempt attempt;
+        private final InetAddress address;
+        private final AtomicBoolean established;
+
+        private volatile Socket socket;
+
+        private Connection(final Attempt attempt, final InetAddress address, final AtomicBoolean established) {
+            this.attempt = attempt;
+            this.address = address;
+            this.established = established;
+        }
+
+        @Override
+        public Socket call() throws IOException {
+            socket = attempt.create();
+            if(established.get()) {
+                IOUtils.closeQuietly(socket);
+                throw new ConnectException(String.format("Abort connection attempt to %s", address));
+            }
+            final Socket connected = attempt.connect(socket, address);
+            if(!established.compareAndSet(false, true)) {
+                // Lost race with other attempt
+                IOUtils.closeQuietly(connected);
+                IOUtils.closeQuietly(socket);
+                throw new ConnectException(String.format("Abort connection attempt to %s", address));
+            }
+            return connected;
+        }
+
+        private void abort() {
+            IOUtils.closeQuietly(socket);
+        }
+    }
+}
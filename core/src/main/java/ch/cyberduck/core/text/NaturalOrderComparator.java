@@ -19,6 +19,7 @@ package ch.cyberduck.core.text;
  * dkocher@cyberduck.ch
  */
 
+import java.text.CollationKey;
 import java.text.Collator;
 import java.util.Comparator;
 
@@ -28,10 +29,23 @@ import java.util.Comparator;
 public class NaturalOrderComparator implements Comparator<String>, java.io.Serializable {
     private static final long serialVersionUID = -5851677380348435176L;
 
+    /**
+     * Rule based collators synchronize all access
+     */
+    private static final ThreadLocal<Collator> keys = ThreadLocal.withInitial(NaturalOrderCollator::new);
+
     private final Collator collator = new NaturalOrderCollator();
 
     @Override
     public int compare(final String s1, final String s2) {
         return collator.compare(s1, s2);
     }
+
+    /**
+     * @return Key comparing to other keys in the same order as the strings compare with this comparator. Safe to
+     * call concurrently.
+     */
+    public CollationKey getCollationKey(final String s) {
+        return keys.get().getCollationKey(s);
+    }
 }
@@ -23,6 +23,7 @@ import ch.cyberduck.core.diagnostics.ReachabilityFactory;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.exception.RetriableAccessDeniedException;
+import ch.cyberduck.core.metrics.MetricRegistry;
 import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 
@@ -130,7 +131,11 @@ public abstract class AbstractRetryCallable<T> implements Callable<T> {
         if(preferences.getBoolean("connection.retry.backoff.enable")) {
             backoff *= 2;
         }
-        return !cancel.isCanceled();
+        if(cancel.isCanceled()) {
+            return false;
+        }
+        MetricRegistry.get().counter("retries_total", "type", diagnostics.determine(failure).name()).increment();
+        return true;
     }
 
     /**
@@ -33,6 +33,7 @@ import ch.cyberduck.core.transfer.TransferOptions;
 import ch.cyberduck.core.transfer.TransferPrompt;
 import ch.cyberduck.core.transfer.TransferSpeedometer;
 import ch.cyberduck.core.worker.ConcurrentTransferWorker;
+import ch.cyberduck.core.worker.DefaultConcurrencyMetrics;
 
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -134,8 +135,8 @@ public class TransferBackgroundAction extends TransferWorkerBackgroundAction<Boo
                                     final TransferErrorCallback error,
                                     final TransferSpeedometer meter,
                                     final StreamListener stream) {
-        super(controller, source, new ConcurrentTransferWorker(source, destination, transfer, options, meter, prompt, error, callback, progress, stream,
-            NotificationServiceFactory.get()));
+        super(controller, source, new ConcurrentTransferWorker(source, destination, transfer, ThreadPool.Priority.norm, options, meter, prompt, error,
+            callback, progress, stream, NotificationServiceFactory.get(), new DefaultConcurrencyMetrics()));
         this.options = options;
         this.meter = meter;
         this.transfer = transfer;
@@ -192,6 +192,11 @@ public class CopyTransfer extends Transfer {
         return nullified;
     }
 
+    @Override
+    public boolean isPipelined(final Session<?> source, final Session<?> destination) {
+        return source.getFeature(Bulk.class).isPipelined() && destination.getFeature(Bulk.class).isPipelined();
+    }
+
     @Override
     public void pre(final Session<?> source, final Session<?> destination, final Map<TransferItem, TransferStatus> files, final ConnectionCallback callback) throws BackgroundException {
         final Bulk<?> download = source.getFeature(Bulk.class);
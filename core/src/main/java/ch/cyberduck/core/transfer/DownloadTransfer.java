@@ -231,6 +231,11 @@ public class DownloadTransfer extends Transfer {
         super.stop();
     }
 
+    @Override
+    public boolean isPipelined(final Session<?> source, final Session<?> destination) {
+        return source.getFeature(Bulk.class).isPipelined();
+    }
+
     @Override
     public void pre(final Session<?> source, final Session<?> destination, final Map<TransferItem, TransferStatus> files, final ConnectionCallback callback) throws BackgroundException {
         final Bulk<?> feature = source.getFeature(Bulk.class);
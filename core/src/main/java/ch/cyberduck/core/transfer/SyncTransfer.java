@@ -166,6 +166,11 @@ public class SyncTransfer extends Transfer {
         ).withCache(cache);
     }
 
+    @Override
+    public boolean isPipelined(final Session<?> source, final Session<?> destination) {
+        return download.isPipelined(source, destination) && upload.isPipelined(source, destination);
+    }
+
     @Override
     public void pre(final Session<?> source, final Session<?> destination, final Map<TransferItem, TransferStatus> files, final ConnectionCallback callback) throws BackgroundException {
         final Map<TransferItem, TransferStatus> downloads = new HashMap<>();
@@ -48,7 +48,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 public abstract class Transfer implements Serializable {
     private static final Logger log = Logger.getLogger(Transfer.class);
@@ -61,12 +61,13 @@ public abstract class Transfer implements Serializable {
     /**
      * The sum of the file length of all files in the <code>queue</code> or null if unknown
      */
-    private AtomicLong size;
+    private LongAdder size;
 
     /**
-     * The number bytes already transferred of the files in the <code>queue</code> or null if unknown
+     * The number bytes already transferred of the files in the <code>queue</code> or null if unknown. Striped to
+     * avoid contention when updated from concurrent connections.
      */
-    private AtomicLong transferred;
+    private LongAdder transferred;
 
     private final Map<Local, Object> locks = new HashMap<>();
 
@@ -309,6 +310,16 @@ public abstract class Transfer implements Serializable {
      */
     public abstract List<TransferItem> list(Session<?> session, Path directory, Local local, ListProgressListener listener) throws BackgroundException;
 
+    /**
+     * @param source      Connection to source server of transfer. May be null.
+     * @param destination Connection to target server of transfer
+     * @return True if files can be transferred as soon as they are prepared with only the roots of the transfer
+     * passed to {@link #pre} and {@link #post}
+     */
+    public boolean isPipelined(final Session<?> source, final Session<?> destination) {
+        return false;
+    }
+
     /**
      * @param source      Connection to source server of transfer. May be null.
      * @param destination Connection to target server of transfer
@@ -429,19 +440,19 @@ public abstract class Transfer implements Serializable {
         if(null == size) {
             return 0L;
         }
-        return size.get();
+        return size.sum();
     }
 
     public void addSize(final long bytes) {
         if(null == size) {
             // Initialize
-            size = new AtomicLong(0L);
+            size = new LongAdder();
         }
         if(bytes > 0) {
-            size.addAndGet(bytes);
+            size.add(bytes);
         }
         if(log.isDebugEnabled()) {
-            log.debug(String.format("Size set to %d bytes", size.get()));
+            log.debug(String.format("Size set to %d bytes", size.sum()));
         }
     }
 
@@ -452,18 +463,18 @@ public abstract class Transfer implements Serializable {
         if(null == transferred) {
             return 0L;
         }
-        return transferred.get();
+        return transferred.sum();
     }
 
     public void addTransferred(final long bytes) {
         if(null == transferred) {
             // Initialize
-            transferred = new AtomicLong(0L);
+            transferred = new LongAdder();
         }
         // Allow decrement for failed segments
-        transferred.addAndGet(bytes);
+        transferred.add(bytes);
         if(log.isTraceEnabled()) {
-            log.trace(String.format("Transferred set to %d bytes", transferred.get()));
+            log.trace(String.format("Transferred set to %d bytes", transferred.sum()));
         }
     }
 
@@ -482,17 +493,19 @@ public abstract class Transfer implements Serializable {
     public void setSize(final Long bytes) {
         if(null == size) {
             // Initialize
-            size = new AtomicLong(0L);
+            size = new LongAdder();
         }
-        size.set(bytes);
+        size.reset();
+        size.add(bytes);
     }
 
     public void setTransferred(final Long bytes) {
         if(null == transferred) {
             // Initialize
-            transferred = new AtomicLong(0L);
+            transferred = new LongAdder();
         }
-        transferred.set(bytes);
+        transferred.reset();
+        transferred.add(bytes);
     }
 
     @Override
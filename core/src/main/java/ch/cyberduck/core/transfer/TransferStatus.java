@@ -80,6 +80,11 @@ public class TransferStatus implements StreamCancelation, StreamProgress {
      */
     private boolean segment = false;
 
+    /**
+     * Segment is written at its offset into the preallocated target file
+     */
+    private boolean preallocated = false;
+
     /**
      * Not accepted
      */
@@ -199,6 +204,7 @@ public class TransferStatus implements StreamCancelation, StreamProgress {
         this.append = copy.append;
         this.segment = copy.segment;
         this.segments = copy.segments;
+        this.preallocated = copy.preallocated;
         this.rejected = copy.rejected;
         this.hidden = copy.hidden;
         this.offset.set(copy.offset.get());
@@ -292,7 +298,10 @@ public class TransferStatus implements StreamCancelation, StreamProgress {
 
     @Override
     public void progress(final long bytes) {
-        this.setOffset(offset.addAndGet(bytes));
+        final long total = offset.addAndGet(bytes);
+        if(log.isTraceEnabled()) {
+            log.trace(String.format("Offset set to %d bytes", total));
+        }
     }
 
     public TransferStatus skip(final long bytes) {
@@ -370,6 +379,19 @@ public class TransferStatus implements StreamCancelation, StreamProgress {
         return this;
     }
 
+    public boolean isPreallocated() {
+        return preallocated;
+    }
+
+    public void setPreallocated(final boolean preallocated) {
+        this.preallocated = preallocated;
+    }
+
+    public TransferStatus preallocated(final boolean preallocated) {
+        this.setPreallocated(preallocated);
+        return this;
+    }
+
     public void setRejected(boolean rejected) {
         this.rejected = rejected;
     }
@@ -552,6 +574,11 @@ public class TransferStatus implements StreamCancelation, StreamProgress {
         this.part = part;
     }
 
+    public TransferStatus withPart(final Integer part) {
+        this.setPart(part);
+        return this;
+    }
+
     public String getUrl() {
         return url;
     }
@@ -677,6 +704,7 @@ public class TransferStatus implements StreamCancelation, StreamProgress {
         sb.append(", exists=").append(exists);
         sb.append(", append=").append(append);
         sb.append(", segment=").append(segment);
+        sb.append(", preallocated=").append(preallocated);
         sb.append(", offset=").append(offset);
         sb.append(", length=").append(length);
         sb.append(", checksum=").append(checksum);
@@ -45,6 +45,7 @@ import ch.cyberduck.core.transfer.symlink.UploadSymlinkResolver;
 import ch.cyberduck.core.transfer.upload.AbstractUploadFilter;
 import ch.cyberduck.core.transfer.upload.CompareFilter;
 import ch.cyberduck.core.transfer.upload.OverwriteFilter;
+import ch.cyberduck.core.transfer.upload.ParentListingResolver;
 import ch.cyberduck.core.transfer.upload.RenameExistingFilter;
 import ch.cyberduck.core.transfer.upload.RenameFilter;
 import ch.cyberduck.core.transfer.upload.ResumeFilter;
@@ -72,6 +73,9 @@ public class UploadTransfer extends Transfer {
     private Cache<Path> cache
             = new PathCache(PreferencesFactory.get().getInteger("transfer.cache.size"));
 
+    private final ParentListingResolver listing
+            = new ParentListingResolver();
+
     private UploadFilterOptions options = new UploadFilterOptions();
 
     public UploadTransfer(final Host host, final Path root, final Local local) {
@@ -150,21 +154,21 @@ public class UploadTransfer extends Transfer {
             options.withTemporary(source.getFeature(Write.class).temporary());
         }
         if(action.equals(TransferAction.resume)) {
-            return new ResumeFilter(resolver, source, options).withCache(cache);
+            return new ResumeFilter(resolver, source, options).withCache(cache).withListing(listing);
         }
         if(action.equals(TransferAction.rename)) {
-            return new RenameFilter(resolver, source, options).withCache(cache);
+            return new RenameFilter(resolver, source, options).withCache(cache).withListing(listing);
         }
         if(action.equals(TransferAction.renameexisting)) {
-            return new RenameExistingFilter(resolver, source, options).withCache(cache);
+            return new RenameExistingFilter(resolver, source, options).withCache(cache).withListing(listing);
         }
         if(action.equals(TransferAction.skip)) {
-            return new SkipFilter(resolver, source, options).withCache(cache);
+            return new SkipFilter(resolver, source, options).withCache(cache).withListing(listing);
         }
         if(action.equals(TransferAction.comparison)) {
-            return new CompareFilter(resolver, source, options, listener).withCache(cache);
+            return new CompareFilter(resolver, source, options, listener).withCache(cache).withListing(listing);
         }
-        return new OverwriteFilter(resolver, source, options).withCache(cache);
+        return new OverwriteFilter(resolver, source, options).withCache(cache).withListing(listing);
     }
 
     @Override
@@ -209,6 +213,11 @@ public class UploadTransfer extends Transfer {
         return action;
     }
 
+    @Override
+    public boolean isPipelined(final Session<?> source, final Session<?> destination) {
+        return source.getFeature(Bulk.class).isPipelined();
+    }
+
     @Override
     public void pre(final Session<?> source, final Session<?> destination, final Map<TransferItem, TransferStatus> files, final ConnectionCallback callback) throws BackgroundException {
         final Bulk<?> feature = source.getFeature(Bulk.class);
@@ -283,6 +292,7 @@ public class UploadTransfer extends Transfer {
     @Override
     public void stop() {
         cache.clear();
+        listing.clear();
         super.stop();
     }
 
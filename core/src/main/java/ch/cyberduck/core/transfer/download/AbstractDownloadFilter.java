@@ -43,6 +43,7 @@ import ch.cyberduck.core.io.ChecksumComputeFactory;
 import ch.cyberduck.core.local.ApplicationLauncher;
 import ch.cyberduck.core.local.ApplicationLauncherFactory;
 import ch.cyberduck.core.local.IconService;
+import ch.cyberduck.core.local.DefaultLocalDirectoryFeature;
 import ch.cyberduck.core.local.IconServiceFactory;
 import ch.cyberduck.core.local.QuarantineService;
 import ch.cyberduck.core.local.QuarantineServiceFactory;
@@ -196,7 +197,8 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
                 catch(IOException e) {
                     log.warn(String.format("Failure to determine disk space for %s", file.getParent()));
                 }
-                if(status.getLength() * 2 > space) {
+                // Segments written to temporary files require additional space to concatenate
+                if(status.getLength() * (options.preallocate ? 1 : 2) > space) {
                     log.warn(String.format("Insufficient free disk space %d for segmented download of %s", space, file));
                 }
                 else {
@@ -204,7 +206,8 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
                     if(status.getLength() >= preferences.getLong("queue.download.segments.threshold")
                         && status.getLength() > preferences.getLong("queue.download.segments.size")) {
                         final Download read = session.getFeature(Download.class);
-                        if(read.offset(file)) {
+                        // Ranges are already requested concurrently by the download feature
+                        if(!read.concurrent(file) && read.offset(file)) {
                             if(log.isInfoEnabled()) {
                                 log.info(String.format("Split download %s into segments", local));
                             }
@@ -218,8 +221,6 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
                             final List<TransferStatus> segments = new ArrayList<TransferStatus>();
                             final Local segmentsFolder = LocalFactory.get(local.getParent(), String.format("%s.cyberducksegment", local.getName()));
                             for(int segmentNumber = 1; remaining > 0; segmentNumber++) {
-                                final Local segmentFile = LocalFactory.get(
-                                    segmentsFolder, String.format("%s-%d.cyberducksegment", local.getName(), segmentNumber));
                                 // Last part can be less than 5 MB. Adjust part size.
                                 long length = Math.min(partsize, remaining);
                                 final TransferStatus segmentStatus = new TransferStatus()
@@ -227,9 +228,21 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
                                     .append(true) // Read with offset
                                     .skip(offset)
                                     .length(length)
-                                    .rename(segmentFile);
-                                if(log.isDebugEnabled()) {
-                                    log.debug(String.format("Adding status %s for segment %s", segmentStatus, segmentFile));
+                                    .withPart(segmentNumber);
+                                if(options.preallocate) {
+                                    // Write at offset into target file
+                                    segmentStatus.preallocated(true);
+                                    if(log.isDebugEnabled()) {
+                                        log.debug(String.format("Adding status %s for segment %d of %s", segmentStatus, segmentNumber, local));
+                                    }
+                                }
+                                else {
+                                    final Local segmentFile = LocalFactory.get(
+                                        segmentsFolder, String.format("%s-%d.cyberducksegment", local.getName(), segmentNumber));
+                                    segmentStatus.rename(segmentFile);
+                                    if(log.isDebugEnabled()) {
+                                        log.debug(String.format("Adding status %s for segment %s", segmentStatus, segmentFile));
+                                    }
                                 }
                                 segments.add(segmentStatus);
                                 remaining -= length;
@@ -250,7 +263,18 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
     @Override
     public void apply(final Path file, final Local local, final TransferStatus status,
                       final ProgressListener listener) throws BackgroundException {
-        //
+        if(status.isSegmented()) {
+            if(status.getSegments().get(0).isPreallocated()) {
+                // Keep contents of target file when resuming from journal
+                if(!status.isAppend()) {
+                    final Local folder = local.getParent();
+                    if(!folder.exists()) {
+                        new DefaultLocalDirectoryFeature().mkdir(folder);
+                    }
+                    SegmentedFileChannel.allocate(local, status.getLength());
+                }
+            }
+        }
     }
 
     /**
@@ -270,7 +294,13 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
             return;
         }
         if(status.isComplete()) {
-            if(status.isSegmented()) {
+            if(status.isSegmented() && status.getSegments().get(0).isPreallocated()) {
+                if(log.isInfoEnabled()) {
+                    log.info(String.format("Segments written to file %s", local));
+                }
+                SegmentedFileChannel.complete(local);
+            }
+            else if(status.isSegmented()) {
                 // Obtain ordered list of segments to reassemble
                 final List<TransferStatus> segments = status.getSegments();
                 if(log.isInfoEnabled()) {
@@ -32,6 +32,8 @@ import ch.cyberduck.core.transfer.symlink.SymlinkResolver;
 
 import org.apache.log4j.Logger;
 
+import java.util.Map;
+
 public class ResumeFilter extends AbstractDownloadFilter {
     private static final Logger log = Logger.getLogger(ResumeFilter.class);
 
@@ -55,7 +57,7 @@ public class ResumeFilter extends AbstractDownloadFilter {
     @Override
     public boolean accept(final Path file, final Local local, final TransferStatus parent) throws BackgroundException {
         if(local.isFile()) {
-            if(local.exists()) {
+            if(local.exists() && !SegmentedFileChannel.toJournal(local).exists()) {
                 // Read remote attributes
                 final PathAttributes attributes = attribute.find(file);
                 if(local.attributes().getSize() == attributes.getSize()) {
@@ -87,7 +89,31 @@ public class ResumeFilter extends AbstractDownloadFilter {
     @Override
     public TransferStatus prepare(final Path file, final Local local, final TransferStatus parent, final ProgressListener progress) throws BackgroundException {
         final TransferStatus status = super.prepare(file, local, parent, progress);
-        if(status.isSegmented()) {
+        if(status.isSegmented() && status.getSegments().get(0).isPreallocated()) {
+            // Position reached by each segment written to target file
+            final Map<Integer, Long> positions = SegmentedFileChannel.progress(local);
+            for(TransferStatus segmentStatus : status.getSegments()) {
+                if(positions.containsKey(segmentStatus.getPart())) {
+                    final long written = Math.min(segmentStatus.getLength(),
+                        positions.get(segmentStatus.getPart()) - segmentStatus.getOffset());
+                    if(log.isInfoEnabled()) {
+                        log.info(String.format("Resume segment %s with %d bytes written", segmentStatus, written));
+                    }
+                    if(written > 0) {
+                        segmentStatus.setLength(segmentStatus.getLength() - written);
+                        segmentStatus.setOffset(segmentStatus.getOffset() + written);
+                        if(segmentStatus.getLength() == 0L) {
+                            segmentStatus.setComplete();
+                        }
+                        // Recalculate transfer length
+                        status.setAppend(true);
+                        status.setLength(status.getLength() - written);
+                        status.setOffset(status.getOffset() + written);
+                    }
+                }
+            }
+        }
+        else if(status.isSegmented()) {
             for(TransferStatus segmentStatus : status.getSegments()) {
                 final Local segmentFile = segmentStatus.getRename().local;
                 if(segmentFile.exists()) {
@@ -111,7 +137,8 @@ public class ResumeFilter extends AbstractDownloadFilter {
         else {
             if(download.offset(file)) {
                 if(local.isFile()) {
-                    if(local.exists()) {
+                    // Size of preallocated file does not reflect bytes written
+                    if(local.exists() && !SegmentedFileChannel.toJournal(local).exists()) {
                         if(local.attributes().getSize() > 0) {
                             status.setAppend(true);
                             status.setLength(status.getLength() - local.attributes().getSize());
@@ -0,0 +1,271 @@
+package ch.cyberduck.core.transfer.download;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.LocalFactory;
+import ch.cyberduck.core.exception.AccessDeniedException;
+import ch.cyberduck.core.exception.LocalAccessDeniedException;
+import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Channel to a preallocated target file shared by all segments of a download writing at their own offset. The
+ * position reached by every segment is recorded in a journal next to the target file to resume from.
+ */
+public final class SegmentedFileChannel {
+    private static final Logger log = Logger.getLogger(SegmentedFileChannel.class);
+
+    private static final Map<Local, SegmentedFileChannel> open = new HashMap<>();
+
+    /**
+     * @param local Target file
+     * @return Journal with progress of segments written to target file
+     */
+    public static Local toJournal(final Local local) {
+        return LocalFactory.get(local.getParent(), String.format("%s.cyberducksegments", local.getName()));
+    }
+
+    /**
+     * Truncate target file and extend to the final length without writing any data. Resets the journal.
+     *
+     * @param local  Target file
+     * @param length Total length of download
+     */
+    public static void allocate(final Local local, final long length) throws AccessDeniedException {
+        allocate(local, 0L, length);
+    }
+
+    /**
+     * Truncate target file to the bytes to keep and extend to the final length without writing any data. Resets the
+     * journal.
+     *
+     * @param local  Target file
+     * @param retain Number of bytes already written at the start of the target file
+     * @param length Total length of download
+     */
+    public static void allocate(final Local local, final long retain, final long length) throws AccessDeniedException {
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Preallocate %d bytes for %s", length, local));
+        }
+        final FileChannel channel = local.getChannel();
+        try {
+            channel.truncate(retain);
+            if(length > retain) {
+                // Sparse file on file systems supporting it
+                channel.write(ByteBuffer.allocate(1), length - 1);
+            }
+        }
+        catch(IOException e) {
+            throw new LocalAccessDeniedException(e.getMessage(), e);
+        }
+        finally {
+            IOUtils.closeQuietly(channel);
+        }
+        final Local journal = toJournal(local);
+        final OutputStream out = journal.getOutputStream(false);
+        try {
+            new Properties().store(out, null);
+        }
+        catch(IOException e) {
+            throw new LocalAccessDeniedException(e.getMessage(), e);
+        }
+        finally {
+            IOUtils.closeQuietly(out);
+        }
+    }
+
+    /**
+     * @param local Target file
+     * @return Position reached in target file by segment number. Empty if no journal is found.
+     */
+    public static Map<Integer, Long> progress(final Local local) throws AccessDeniedException {
+        final Map<Integer, Long> progress = new HashMap<>();
+        final Local journal = toJournal(local);
+        if(!journal.exists()) {
+            return progress;
+        }
+        final Properties properties = new Properties();
+        final InputStream in = journal.getInputStream();
+        try {
+            properties.load(in);
+        }
+        catch(IOException e) {
+            throw new LocalAccessDeniedException(e.getMessage(), e);
+        }
+        finally {
+            IOUtils.closeQuietly(in);
+        }
+        for(String key : properties.stringPropertyNames()) {
+            try {
+                progress.put(Integer.valueOf(key), Long.valueOf(properties.getProperty(key)));
+            }
+            catch(NumberFormatException e) {
+                log.warn(String.format("Ignore invalid entry %s in journal %s", key, journal));
+            }
+        }
+        return progress;
+    }
+
+    /**
+     * Remove journal when all segments are complete
+     *
+     * @param local Target file
+     */
+    public static void complete(final Local local) throws AccessDeniedException {
+        final Local journal = toJournal(local);
+        if(journal.exists()) {
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Delete journal %s", journal));
+            }
+            try {
+                journal.delete();
+            }
+            catch(NotfoundException e) {
+                // Ignore
+            }
+        }
+    }
+
+    /**
+     * Open shared channel to target file. Must be balanced with a call to {@link #close()}.
+     *
+     * @param local Target file previously allocated
+     */
+    public static SegmentedFileChannel open(final Local local) throws AccessDeniedException {
+        synchronized(open) {
+            SegmentedFileChannel channel = open.get(local);
+            if(null == channel) {
+                channel = new SegmentedFileChannel(local, local.getChannel(), progress(local));
+                open.put(local, channel);
+            }
+            channel.references++;
+            return channel;
+        }
+    }
+
+    private final Local local;
+    private final FileChannel channel;
+    private final Map<Integer, Long> progress;
+    private final long checkpoint
+        = PreferencesFactory.get().getLong("queue.download.segments.checkpoint");
+
+    private int references;
+
+    private SegmentedFileChannel(final Local local, final FileChannel channel, final Map<Integer, Long> progress) {
+        this.local = local;
+        this.channel = channel;
+        this.progress = progress;
+    }
+
+    /**
+     * @param segment  Segment number recorded in journal
+     * @param position Offset in target file to start writing at
+     * @return Stream writing to shared channel. Closing the stream records its position and releases the channel.
+     */
+    public OutputStream getOutputStream(final int segment, final long position) {
+        return new PositionalOutputStream(segment, position);
+    }
+
+    /**
+     * Release reference to shared channel
+     */
+    public void close() throws IOException {
+        synchronized(open) {
+            if(--references == 0) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Close channel to %s", local));
+                }
+                open.remove(local);
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Flush written data to disk before recording the position reached by the segment
+     */
+    private synchronized void checkpoint(final int segment, final long position) throws IOException {
+        channel.force(false);
+        progress.put(segment, position);
+        final Properties properties = new Properties();
+        for(Map.Entry<Integer, Long> entry : progress.entrySet()) {
+            properties.setProperty(String.valueOf(entry.getKey()), String.valueOf(entry.getValue()));
+        }
+        try (OutputStream out = toJournal(local).getOutputStream(false)) {
+            properties.store(out, null);
+        }
+        catch(AccessDeniedException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    private final class PositionalOutputStream extends OutputStream {
+        private final int segment;
+        private long position;
+        private long unrecorded;
+        private boolean closed;
+
+        public PositionalOutputStream(final int segment, final long position) {
+            this.segment = segment;
+            this.position = position;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            this.write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            final ByteBuffer buffer = ByteBuffer.wrap(b, off, len);
+            while(buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            unrecorded += len;
+            if(unrecorded >= checkpoint) {
+                checkpoint(segment, position);
+                unrecorded = 0L;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if(closed) {
+                return;
+            }
+            closed = true;
+            try {
+                checkpoint(segment, position);
+            }
+            finally {
+                SegmentedFileChannel.this.close();
+            }
+        }
+    }
+}
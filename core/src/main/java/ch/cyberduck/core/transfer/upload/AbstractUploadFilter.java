@@ -64,6 +64,10 @@ public abstract class AbstractUploadFilter implements TransferPathFilter {
     protected Find find;
     protected AttributesFinder attribute;
     protected Cache<Path> cache = PathCache.empty();
+    /**
+     * Resolve files from listing of parent directory or null to look up files individually
+     */
+    protected ParentListingResolver listing;
     protected UploadFilterOptions options;
 
     public AbstractUploadFilter(final SymlinkResolver<Local> symlinkResolver, final Session<?> session,
@@ -81,6 +85,11 @@ public abstract class AbstractUploadFilter implements TransferPathFilter {
         return this;
     }
 
+    public AbstractUploadFilter withListing(final ParentListingResolver listing) {
+        this.listing = listing;
+        return this;
+    }
+
     public AbstractUploadFilter withFinder(final Find finder) {
         this.find = finder;
         return this;
@@ -112,7 +121,30 @@ public abstract class AbstractUploadFilter implements TransferPathFilter {
             .withLockId(parent.getLockId());
         // Read remote attributes first
         if(parent.isExists()) {
-            if(find.withCache(cache).find(file)) {
+            // Only listed when entered as directory of a recursive upload
+            final AttributedList<Path> siblings = null == listing ? null : listing.get(file.getParent(), cache);
+            if(siblings != null) {
+                // Resolve from listing of parent directory
+                final Path found = siblings.find(new SimplePathPredicate(file));
+                if(found != null) {
+                    status.setExists(true);
+                    status.setRemote(found.attributes());
+                }
+                else {
+                    // Look if there is directory or file that clashes with this upload
+                    if(file.getType().contains(Path.Type.file)) {
+                        if(siblings.find(new SimplePathPredicate(Path.Type.directory, file.getAbsolute())) != null) {
+                            throw new AccessDeniedException(String.format("Cannot replace folder %s with file %s", file.getAbsolute(), local.getName()));
+                        }
+                    }
+                    if(file.getType().contains(Path.Type.directory)) {
+                        if(siblings.find(new SimplePathPredicate(Path.Type.file, file.getAbsolute())) != null) {
+                            throw new AccessDeniedException(String.format("Cannot replace file %s with folder %s", file.getAbsolute(), local.getName()));
+                        }
+                    }
+                }
+            }
+            else if(find.withCache(cache).find(file)) {
                 status.setExists(true);
                 // Read remote attributes
                 final PathAttributes attributes = attribute.withCache(cache).find(file);
@@ -163,6 +195,10 @@ public abstract class AbstractUploadFilter implements TransferPathFilter {
         }
         if(file.isDirectory()) {
             status.setLength(0L);
+            if(status.isExists() && listing != null) {
+                // List once before contained files are prepared concurrently
+                listing.list(session, file, cache);
+            }
         }
         if(options.permissions) {
             final UnixPermission feature = session.getFeature(UnixPermission.class);
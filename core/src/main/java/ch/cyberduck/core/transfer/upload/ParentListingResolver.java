@@ -0,0 +1,125 @@
+package ch.cyberduck.core.transfer.upload;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.Cache;
+import ch.cyberduck.core.DisabledListProgressListener;
+import ch.cyberduck.core.ListService;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.Session;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.exception.ListCanceledException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.log4j.Logger;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * List remote directories once when entered while preparing an upload to resolve existence and attributes of all
+ * contained files from the cache. Parents of files not contained in an entered directory are never listed. Directories
+ * with more children than the limit or failing to list are not listed again and contained files must be looked up
+ * individually instead.
+ */
+public class ParentListingResolver {
+    private static final Logger log = Logger.getLogger(ParentListingResolver.class);
+
+    private final int limit;
+
+    /**
+     * Directories found to exceed the limit or failed to list
+     */
+    private final Set<Path> unlisted = ConcurrentHashMap.newKeySet();
+
+    public ParentListingResolver() {
+        this(PreferencesFactory.get().getInteger("queue.upload.prepare.list.limit"));
+    }
+
+    /**
+     * @param limit Maximum number of children to list in directory
+     */
+    public ParentListingResolver(final int limit) {
+        this.limit = limit;
+    }
+
+    /**
+     * @param directory Parent directory of file to prepare
+     * @param cache     Cache with listings of entered directories
+     * @return Children of directory if cached or null if contained files must be looked up individually
+     */
+    public AttributedList<Path> get(final Path directory, final Cache<Path> cache) {
+        if(cache.isCached(directory)) {
+            return cache.get(directory);
+        }
+        return null;
+    }
+
+    /**
+     * List directory entered by recursive upload before contained files are prepared
+     *
+     * @param session   Connection
+     * @param directory Remote directory known to exist
+     * @param cache     Cache to save listing in
+     * @return Children of directory or null if directory has more children than the limit or cannot be listed and
+     * contained files must be looked up individually
+     */
+    public AttributedList<Path> list(final Session<?> session, final Path directory, final Cache<Path> cache) throws BackgroundException {
+        if(cache.isCached(directory)) {
+            return cache.get(directory);
+        }
+        if(unlisted.contains(directory)) {
+            return null;
+        }
+        final ListService service = session.getFeature(ListService.class);
+        if(null == service) {
+            return null;
+        }
+        try {
+            final AttributedList<Path> list = service.list(directory, new DisabledListProgressListener() {
+                @Override
+                public void chunk(final Path folder, final AttributedList<Path> list) throws ListCanceledException {
+                    if(list.size() > limit) {
+                        throw new ListCanceledException(list);
+                    }
+                }
+            });
+            cache.put(directory, list);
+            return list;
+        }
+        catch(ListCanceledException e) {
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Lookup files individually in %s with more than %d children", directory, limit));
+            }
+            unlisted.add(directory);
+            return null;
+        }
+        catch(ConnectionCanceledException e) {
+            throw e;
+        }
+        catch(BackgroundException e) {
+            log.warn(String.format("Lookup files individually in %s after failure listing directory. %s", directory, e.getMessage()));
+            unlisted.add(directory);
+            return null;
+        }
+    }
+
+    public void clear() {
+        unlisted.clear();
+    }
+}
@@ -27,6 +27,8 @@ import ch.cyberduck.core.features.Vault;
 
 import org.apache.log4j.Logger;
 
+import java.util.EnumSet;
+
 public class DecryptingListProgressListener extends IndexedListProgressListener {
     private static final Logger log = Logger.getLogger(DecryptingListProgressListener.class);
 
@@ -44,7 +46,9 @@ public class DecryptingListProgressListener extends IndexedListProgressListener
     @Override
     public void visit(final AttributedList<Path> list, final int index, final Path f) {
         try {
-            f.getType().add(Path.Type.encrypted);
+            final EnumSet<Path.Type> type = f.getType();
+            type.add(Path.Type.encrypted);
+            f.setType(type);
             if(f.attributes().getVersions().isEmpty()) {
                 list.set(index, vault.decrypt(session, f));
             }
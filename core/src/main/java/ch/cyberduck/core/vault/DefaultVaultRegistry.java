@@ -32,6 +32,7 @@ import org.apache.log4j.Logger;
 
 import java.util.Arrays;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class DefaultVaultRegistry extends CopyOnWriteArraySet<Vault> implements VaultRegistry {
     private static final Logger log = Logger.getLogger(DefaultVaultRegistry.class);
@@ -46,6 +47,8 @@ public class DefaultVaultRegistry extends CopyOnWriteArraySet<Vault> implements
     private final PasswordStore keychain;
     private final PasswordCallback prompt;
 
+    private final AtomicLong revision = new AtomicLong();
+
     public DefaultVaultRegistry(final PasswordCallback prompt) {
         this(PasswordStoreFactory.get(), prompt);
     }
@@ -63,12 +66,16 @@ public class DefaultVaultRegistry extends CopyOnWriteArraySet<Vault> implements
 
     @Override
     public boolean add(final Vault vault) {
-        return super.add(vault);
+        if(super.add(vault)) {
+            revision.incrementAndGet();
+            return true;
+        }
+        return false;
     }
 
     @Override
     public boolean close(final Path directory) {
-        return this.removeIf(vault -> {
+        final boolean removed = this.removeIf(vault -> {
             if(new SimplePathPredicate(vault.getHome()).test(directory)) {
                 vault.close();
                 directory.attributes().setVault(null);
@@ -76,6 +83,10 @@ public class DefaultVaultRegistry extends CopyOnWriteArraySet<Vault> implements
             }
             return false;
         });
+        if(removed) {
+            revision.incrementAndGet();
+        }
+        return removed;
     }
 
     @Override
@@ -98,6 +109,12 @@ public class DefaultVaultRegistry extends CopyOnWriteArraySet<Vault> implements
         }
         this.forEach(Vault::close);
         super.clear();
+        revision.incrementAndGet();
+    }
+
+    @Override
+    public long getRevision() {
+        return revision.get();
     }
 
     @Override
@@ -54,4 +54,11 @@ public interface VaultRegistry {
     <T> T getFeature(Session<?> session, Class<T> type, T proxy);
 
     boolean contains(Path vault);
+
+    /**
+     * @return Number incremented whenever a vault is added or removed
+     */
+    default long getRevision() {
+        return 0L;
+    }
 }
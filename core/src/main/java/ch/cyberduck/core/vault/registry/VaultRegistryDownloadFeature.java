@@ -49,6 +49,11 @@ public class VaultRegistryDownloadFeature implements Download {
         return registry.find(session, file).getFeature(session, Download.class, proxy).offset(file);
     }
 
+    @Override
+    public boolean concurrent(final Path file) throws BackgroundException {
+        return registry.find(session, file).getFeature(session, Download.class, proxy).concurrent(file);
+    }
+
     @Override
     public Download withReader(final Read reader) {
         proxy.withReader(reader);
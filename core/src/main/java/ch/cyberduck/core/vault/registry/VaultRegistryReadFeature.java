@@ -20,12 +20,13 @@ import ch.cyberduck.core.Path;
 import ch.cyberduck.core.Session;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.features.Read;
+import ch.cyberduck.core.features.Stateless;
 import ch.cyberduck.core.transfer.TransferStatus;
 import ch.cyberduck.core.vault.VaultRegistry;
 
 import java.io.InputStream;
 
-public class VaultRegistryReadFeature implements Read {
+public class VaultRegistryReadFeature implements Read, Stateless {
 
     private final Session<?> session;
     private final Read proxy;
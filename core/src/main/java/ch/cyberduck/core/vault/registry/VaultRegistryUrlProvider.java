@@ -19,10 +19,11 @@ import ch.cyberduck.core.DescriptiveUrlBag;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.Session;
 import ch.cyberduck.core.UrlProvider;
+import ch.cyberduck.core.features.Stateless;
 import ch.cyberduck.core.vault.DefaultVaultRegistry;
 import ch.cyberduck.core.vault.VaultUnlockCancelException;
 
-public class VaultRegistryUrlProvider implements UrlProvider {
+public class VaultRegistryUrlProvider implements UrlProvider, Stateless {
 
     private final Session<?> session;
     private final UrlProvider proxy;
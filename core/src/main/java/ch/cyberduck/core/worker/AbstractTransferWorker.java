@@ -36,6 +36,8 @@ import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.exception.TransferCanceledException;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.notification.NotificationService;
+import ch.cyberduck.core.preferences.PreferenceKeys;
+import ch.cyberduck.core.preferences.PreferenceValue;
 import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.threading.TransferBackgroundActionState;
@@ -55,9 +57,14 @@ import org.apache.commons.lang3.concurrent.ConcurrentUtils;
 import org.apache.log4j.Logger;
 
 import java.text.MessageFormat;
+import java.util.AbstractMap;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.Future;
 
 public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
@@ -89,6 +96,19 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
     private final StreamListener stream;
     private final Preferences preferences = PreferencesFactory.get();
 
+    private final PreferenceValue<Integer> retry
+        = PreferenceKeys.TRANSFER_CONNECTION_RETRY.value(preferences);
+    private final PreferenceValue<Integer> delay
+        = PreferenceKeys.TRANSFER_CONNECTION_RETRY_DELAY.value(preferences);
+    /**
+     * Transfer files as soon as prepared
+     */
+    private boolean pipelined;
+    /**
+     * Directories to complete after all contained files are transferred with most recently prepared first
+     */
+    private final Deque<Map.Entry<TransferItem, TransferStatus>> directories = new ConcurrentLinkedDeque<>();
+
     public AbstractTransferWorker(final Transfer transfer, final TransferOptions options,
                                   final TransferPrompt prompt, final TransferSpeedometer meter,
                                   final TransferErrorCallback error,
@@ -156,6 +176,15 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
      */
     protected abstract void release(Session session, Connection type, BackgroundException failure);
 
+    /**
+     * Transfer of file or segment finished
+     *
+     * @param failure Null if transfer completed
+     */
+    protected void transferred(final TransferStatus status, final BackgroundException failure) {
+        //
+    }
+
     @Override
     public Boolean initialize() {
         return false;
@@ -212,6 +241,26 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
             progress.message(MessageFormat.format(LocaleFactory.localizedString("Prepare {0} ({1})", "Status"), transfer.getName(), action.getTitle()));
             transfer.normalize();
 
+            pipelined = preferences.getBoolean("queue.transfer.pipeline") && transfer.isPipelined(source, destination);
+            if(pipelined) {
+                if(log.isInfoEnabled()) {
+                    log.info(String.format("Transfer files as soon as prepared for transfer %s", transfer));
+                }
+                final Map<TransferItem, TransferStatus> roots = new HashMap<>();
+                for(TransferItem next : transfer.getRoots()) {
+                    roots.put(next, new TransferStatus().exists(true).withLockId(next.lockId).withChecksum(next.checksum));
+                }
+                meter.reset();
+                transfer.pre(source, destination, roots, connect);
+                // Total size is updated while walking the tree
+                for(TransferItem next : transfer.getRoots()) {
+                    this.prepare(next.remote, next.local, new TransferStatus().exists(true).withLockId(next.lockId).withChecksum(next.checksum), action);
+                }
+                this.await();
+                this.complete(action);
+                transfer.post(source, destination, roots, connect);
+                return true;
+            }
             // Calculate information about the files in advance to give progress information
             for(TransferItem next : transfer.getRoots()) {
                 this.prepare(next.remote, next.local, new TransferStatus().exists(true).withLockId(next.lockId).withChecksum(next.checksum), action);
@@ -237,6 +286,7 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
             sleep.release(lock);
             table.clear();
             cache.clear();
+            directories.clear();
         }
         return true;
     }
@@ -256,7 +306,7 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
         }
         if(prompt.isSelected(new TransferItem(file, local))) {
             return this.submit(new RetryTransferCallable(transfer.getSource(),
-                preferences.getInteger("transfer.connection.retry"), preferences.getInteger("transfer.connection.retry.delay")) {
+                retry.get(), delay.get()) {
 
                 @Override
                 public TransferStatus call() throws BackgroundException {
@@ -293,8 +343,17 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                             transfer.addSize(status.getLength() + status.getOffset());
                             // Add skipped bytes
                             transfer.addTransferred(status.getOffset());
+                            if(pipelined) {
+                                if(file.isDirectory()) {
+                                    // Completed after all contained files are transferred
+                                    directories.addFirst(new AbstractMap.SimpleImmutableEntry<>(new TransferItem(file, local), status));
+                                }
+                                // Submit transfer without waiting for other files to be prepared. Children of
+                                // a directory are prepared once the directory is created.
+                                AbstractTransferWorker.this.transfer(new TransferItem(file, local), action);
+                            }
                             // Recursive
-                            if(file.isDirectory()) {
+                            else if(file.isDirectory()) {
                                 final List<TransferItem> children;
                                 // Call recursively for all children
                                 children = transfer.list(source, file, local, new WorkerListProgressListener(AbstractTransferWorker.this, progress));
@@ -367,7 +426,7 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                     continue;
                 }
                 this.submit(new RetryTransferCallable(transfer.getSource(),
-                    preferences.getInteger("transfer.connection.retry"), preferences.getInteger("transfer.connection.retry.delay")) {
+                    retry.get(), delay.get()) {
 
                     @Override
                     public TransferStatus call() throws BackgroundException {
@@ -375,6 +434,12 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                         // Transfer
                         // Do transfer with retry
                         this.retry(segment);
+                        if(pipelined && item.remote.isDirectory()) {
+                            // Prepare contained files after directory is created
+                            this.prepare(segment);
+                            // Directory is completed after all contained files are transferred
+                            return segment;
+                        }
                         // Recursive
                         if(item.remote.isDirectory()) {
                             if(!cache.isCached(item)) {
@@ -401,9 +466,41 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                             release(source, Connection.source, null);
                             release(destination, Connection.destination, null);
                         }
+                        if(pipelined && !status.isSegmented()) {
+                            // Release status of finished file
+                            table.remove(item);
+                        }
                         return segment;
                     }
 
+                    private void prepare(final TransferStatus segment) throws BackgroundException {
+                        final Session<?> source = borrow(Connection.source);
+                        final List<TransferItem> children;
+                        try {
+                            children = transfer.list(source, item.remote, item.local, new WorkerListProgressListener(AbstractTransferWorker.this, progress));
+                        }
+                        catch(BackgroundException e) {
+                            release(source, Connection.source, e);
+                            if(this.retry(e, progress, new TransferBackgroundActionState(status))) {
+                                // Retry immediately
+                                this.prepare(segment);
+                                return;
+                            }
+                            // Prompt to continue or abort for application errors
+                            if(error.prompt(item, segment, e, table.size())) {
+                                // Continue
+                                log.warn(String.format("Ignore transfer failure %s", e));
+                                return;
+                            }
+                            throw new ConnectionCanceledException(e);
+                        }
+                        release(source, Connection.source, null);
+                        for(TransferItem f : children) {
+                            // Change download path relative to parent local folder
+                            AbstractTransferWorker.this.prepare(f.remote, f.local, segment, action);
+                        }
+                    }
+
                     private void retry(final TransferStatus segment) throws BackgroundException {
                         if(log.isDebugEnabled()) {
                             log.debug(String.format("Transfer item %s with status %s", item, segment));
@@ -415,8 +512,10 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                                 segment.getRename().remote != null ? segment.getRename().remote : item.remote,
                                 segment.getRename().local != null ? segment.getRename().local : item.local,
                                 options, segment, connect, progress, stream);
+                            transferred(segment, null);
                         }
                         catch(BackgroundException e) {
+                            transferred(segment, e);
                             release(s, Connection.source, e);
                             release(d, Connection.destination, e);
                             log.warn(String.format("Failure transferring %s. %s", item, e));
@@ -429,7 +528,15 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                                         if(log.isDebugEnabled()) {
                                             log.debug(String.format("Retry transfer of %s", item));
                                         }
-                                        final TransferStatus retry = filter.prepare(item.remote, item.local, new TransferStatus().exists(true), progress);
+                                        TransferStatus retry = filter.prepare(item.remote, item.local, new TransferStatus().exists(true), progress);
+                                        if(segment.isSegment()) {
+                                            // Resume single segment from its own offset
+                                            for(TransferStatus r : retry.getSegments()) {
+                                                if(Objects.equals(r.getPart(), segment.getPart())) {
+                                                    retry = r;
+                                                }
+                                            }
+                                        }
                                         // Retry immediately
                                         log.info(String.format("Retry %s with transfer status %s", item, segment));
                                         this.retry(segment
@@ -507,6 +614,10 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                             log.warn(String.format("Skip concatenating segments for failed transfer %s", status));
                             status.setFailure();
                         }
+                        if(pipelined) {
+                            // Release status of finished file
+                            table.remove(item);
+                        }
                     }
                     return status;
                 }
@@ -527,6 +638,36 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
         return ConcurrentUtils.constantFuture(null);
     }
 
+    /**
+     * Run completion filter for directories after all contained files are transferred
+     *
+     * @param action Transfer action for existing files
+     */
+    protected void complete(final TransferAction action) throws BackgroundException {
+        final Session<?> source = borrow(Connection.source);
+        final Session<?> destination = borrow(Connection.destination);
+        try {
+            final TransferPathFilter filter = transfer.filter(source, destination, action, progress);
+            while(!directories.isEmpty()) {
+                final Map.Entry<TransferItem, TransferStatus> entry = directories.removeFirst();
+                final TransferItem item = entry.getKey();
+                final TransferStatus status = entry.getValue();
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Complete directory %s with status %s", item, status));
+                }
+                filter.complete(
+                    status.getRename().remote != null ? status.getRename().remote : item.remote,
+                    status.getRename().local != null ? status.getRename().local : item.local,
+                    options, status, progress);
+                table.remove(item);
+            }
+        }
+        finally {
+            release(source, Connection.source, null);
+            release(destination, Connection.destination, null);
+        }
+    }
+
     @Override
     public String getActivity() {
         return BookmarkNameProvider.toString(transfer.getSource());
@@ -0,0 +1,138 @@
+package ch.cyberduck.core.worker;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.apache.log4j.Logger;
+
+/**
+ * Adjust the number of concurrent connections of a transfer from the throughput and error rate sampled in regular
+ * periods. Similar to TCP Vegas, the throughput per connection observed at best is taken as the baseline to estimate the
+ * number of connections not contributing to the overall throughput. The limit is increased by one when all connections
+ * are busy and the throughput scales with the number of connections. It is decreased by one when more connections than
+ * tolerated do not add throughput. The limit is halved when connections fail with network errors.
+ */
+public class AdaptiveConcurrencyController {
+    private static final Logger log = Logger.getLogger(AdaptiveConcurrencyController.class);
+
+    /**
+     * Increase when fewer connections than alpha are estimated to be not contributing
+     */
+    private static final double ALPHA = 1d;
+    /**
+     * Decrease when more connections than beta are estimated to be not contributing
+     */
+    private static final double BETA = 3d;
+    /**
+     * Ratio of failed connections to halve the limit
+     */
+    private static final double ERROR_THRESHOLD = 0.1d;
+    /**
+     * Forget best throughput per connection slowly to adapt to changing conditions
+     */
+    private static final double DECAY = 0.995d;
+
+    private final int minimum;
+    private final int maximum;
+    private final ConcurrencyMetrics metrics;
+
+    private int limit;
+    /**
+     * Best throughput per connection observed in bytes per second
+     */
+    private double best;
+
+    private int completed;
+    private int failed;
+
+    public AdaptiveConcurrencyController(final int initial, final int minimum, final int maximum) {
+        this(initial, minimum, maximum, new DisabledConcurrencyMetrics());
+    }
+
+    public AdaptiveConcurrencyController(final int initial, final int minimum, final int maximum, final ConcurrencyMetrics metrics) {
+        this.minimum = Math.max(1, minimum);
+        this.maximum = Math.max(this.minimum, maximum);
+        this.limit = Math.min(this.maximum, Math.max(this.minimum, initial));
+        this.metrics = metrics;
+    }
+
+    /**
+     * Transfer of file or segment completed
+     */
+    public synchronized void success() {
+        completed++;
+    }
+
+    /**
+     * Transfer of file or segment failed with network error
+     */
+    public synchronized void failure() {
+        failed++;
+    }
+
+    public synchronized int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Determine new limit at the end of a sampling period
+     *
+     * @param throughput Bytes per second transferred in period
+     * @param active     Number of connections busy at the end of the period
+     * @return New number of concurrent connections
+     */
+    public synchronized int update(final double throughput, final int active) {
+        final int previous = limit;
+        final double errors = completed + failed == 0 ? 0d : (double) failed / (completed + failed);
+        if(errors > ERROR_THRESHOLD) {
+            // Multiplicative decrease
+            limit = Math.max(minimum, limit / 2);
+        }
+        else if(throughput > 0d) {
+            final int busy = Math.max(1, Math.min(active, limit));
+            best = Math.max(throughput / busy, best * DECAY);
+            // Estimated number of connections not adding to throughput
+            final double queue = busy - throughput / best;
+            if(queue < ALPHA) {
+                if(active >= limit) {
+                    limit = Math.min(maximum, limit + 1);
+                }
+            }
+            else if(queue > BETA) {
+                limit = Math.max(minimum, limit - 1);
+            }
+        }
+        completed = 0;
+        failed = 0;
+        if(previous != limit) {
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Change concurrent connections from %d to %d with throughput %.0f bytes/s and error rate %.2f",
+                    previous, limit, throughput, errors));
+            }
+        }
+        metrics.update(previous, limit, throughput, errors);
+        return limit;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("AdaptiveConcurrencyController{");
+        sb.append("limit=").append(limit);
+        sb.append(", minimum=").append(minimum);
+        sb.append(", maximum=").append(maximum);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,30 @@
+package ch.cyberduck.core.worker;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+/**
+ * Decisions of the adaptive concurrency controller for a transfer
+ */
+public interface ConcurrencyMetrics {
+
+    /**
+     * @param previous   Number of concurrent connections before the decision
+     * @param limit      Number of concurrent connections after the decision
+     * @param throughput Bytes per second transferred in the sampled period
+     * @param errors     Ratio of transfers failed with a network error in the sampled period
+     */
+    void update(int previous, int limit, double throughput, double errors);
+}
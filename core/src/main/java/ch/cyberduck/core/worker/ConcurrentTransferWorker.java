@@ -25,11 +25,18 @@ import ch.cyberduck.core.ProgressListener;
 import ch.cyberduck.core.Session;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.io.BatchedStreamListener;
+import ch.cyberduck.core.io.DelegateStreamListener;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.notification.NotificationService;
+import ch.cyberduck.core.pool.DefaultSessionPool;
 import ch.cyberduck.core.pool.SessionPool;
+import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.threading.BackgroundActionState;
+import ch.cyberduck.core.threading.DefaultFailureDiagnostics;
+import ch.cyberduck.core.threading.FailureDiagnostics;
+import ch.cyberduck.core.threading.ScheduledThreadPool;
 import ch.cyberduck.core.threading.ThreadPool;
 import ch.cyberduck.core.threading.ThreadPoolFactory;
 import ch.cyberduck.core.transfer.Transfer;
@@ -45,7 +52,10 @@ import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 public class ConcurrentTransferWorker extends AbstractTransferWorker {
     private static final Logger log = Logger.getLogger(ConcurrentTransferWorker.class);
@@ -58,6 +68,15 @@ public class ConcurrentTransferWorker extends AbstractTransferWorker {
     private final AtomicInteger size = new AtomicInteger();
     private final ThreadPool pool;
 
+    private final FailureDiagnostics<BackgroundException> diagnostics
+        = new DefaultFailureDiagnostics();
+    /**
+     * Adjusts number of threads in pool and idle sessions or null if disabled
+     */
+    private final AdaptiveConcurrencyController controller;
+    private final ThroughputStreamListener throughput;
+    private ScheduledThreadPool timer;
+
     public ConcurrentTransferWorker(final SessionPool source,
                                     final SessionPool destination,
                                     final Transfer transfer,
@@ -85,12 +104,63 @@ public class ConcurrentTransferWorker extends AbstractTransferWorker {
                                     final ProgressListener progressListener,
                                     final StreamListener streamListener,
                                     final NotificationService notification) {
+        this(source, destination, transfer, priority, options, meter, prompt, error,
+            connect, progressListener, streamListener, notification, new DisabledConcurrencyMetrics());
+    }
+
+    /**
+     * @param metrics Decisions of controller adjusting the number of connections when enabled with
+     *                <code>queue.connections.adaptive</code>
+     */
+    public ConcurrentTransferWorker(final SessionPool source,
+                                    final SessionPool destination,
+                                    final Transfer transfer,
+                                    final ThreadPool.Priority priority,
+                                    final TransferOptions options,
+                                    final TransferSpeedometer meter,
+                                    final TransferPrompt prompt,
+                                    final TransferErrorCallback error,
+                                    final ConnectionCallback connect,
+                                    final ProgressListener progressListener,
+                                    final StreamListener streamListener,
+                                    final NotificationService notification,
+                                    final ConcurrencyMetrics metrics) {
+        this(source, destination, transfer, priority, options, meter, prompt, error,
+            connect, progressListener, new ThroughputStreamListener(new BatchedStreamListener(streamListener,
+                PreferencesFactory.get().getLong("queue.transfer.progress.interval"))), notification, metrics);
+    }
+
+    private ConcurrentTransferWorker(final SessionPool source,
+                                     final SessionPool destination,
+                                     final Transfer transfer,
+                                     final ThreadPool.Priority priority,
+                                     final TransferOptions options,
+                                     final TransferSpeedometer meter,
+                                     final TransferPrompt prompt,
+                                     final TransferErrorCallback error,
+                                     final ConnectionCallback connect,
+                                     final ProgressListener progressListener,
+                                     final ThroughputStreamListener streamListener,
+                                     final NotificationService notification,
+                                     final ConcurrencyMetrics metrics) {
         super(transfer, options, prompt, meter, error, progressListener, streamListener, connect, notification);
         this.source = source;
         this.destination = destination;
+        this.throughput = streamListener;
+        final Preferences preferences = PreferencesFactory.get();
+        final int connections = transfer.getTransferType() == Host.TransferType.newconnection ? 1 : preferences.getInteger("queue.connections.limit");
         this.pool = ThreadPoolFactory.get(String.format("%s-transfer", new AlphanumericRandomStringService().random()),
-            transfer.getTransferType() == Host.TransferType.newconnection ? 1 : PreferencesFactory.get().getInteger("queue.connections.limit"), priority);
+            connections, priority);
         this.completion = new ExecutorCompletionService<TransferStatus>(pool.executor());
+        if(transfer.getTransferType() != Host.TransferType.newconnection
+            && preferences.getBoolean("queue.connections.adaptive") && pool.executor() instanceof ThreadPoolExecutor) {
+            this.controller = new AdaptiveConcurrencyController(connections,
+                preferences.getInteger("queue.connections.adaptive.minimum"),
+                preferences.getInteger("queue.connections.adaptive.maximum"), metrics);
+        }
+        else {
+            this.controller = null;
+        }
     }
 
     @Override
@@ -124,6 +194,22 @@ public class ConcurrentTransferWorker extends AbstractTransferWorker {
         return null;
     }
 
+    @Override
+    protected void transferred(final TransferStatus status, final BackgroundException failure) {
+        if(controller != null) {
+            if(null == failure) {
+                controller.success();
+            }
+            else if(failure instanceof ConnectionCanceledException) {
+                // Not counted when interrupted by user
+                return;
+            }
+            else if(diagnostics.determine(failure) == FailureDiagnostics.Type.network) {
+                controller.failure();
+            }
+        }
+    }
+
     @Override
     protected void release(final Session session, final Connection type, final BackgroundException failure) {
         switch(type) {
@@ -141,6 +227,9 @@ public class ConcurrentTransferWorker extends AbstractTransferWorker {
         if(log.isInfoEnabled()) {
             log.info(String.format("Submit %s to pool", callable));
         }
+        if(controller != null) {
+            this.schedule();
+        }
         final Future<TransferStatus> f = completion.submit(callable);
         size.incrementAndGet();
         return f;
@@ -179,9 +268,97 @@ public class ConcurrentTransferWorker extends AbstractTransferWorker {
 
     @Override
     public void cleanup(final Boolean result) {
+        synchronized(this) {
+            if(timer != null) {
+                timer.shutdown();
+                timer = null;
+            }
+        }
+        throughput.close();
         pool.shutdown(result);
     }
 
+    /**
+     * Start sampling throughput for adaptive concurrency
+     */
+    private synchronized void schedule() {
+        if(null == timer) {
+            timer = new ScheduledThreadPool();
+            final long interval = PreferencesFactory.get().getLong("queue.connections.adaptive.interval");
+            throughput.sample();
+            timer.repeat(this::adjust, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Resize thread pool and maximum number of idle sessions to limit determined by controller
+     */
+    private void adjust() {
+        final ThreadPoolExecutor executor = (ThreadPoolExecutor) pool.executor();
+        final int limit = controller.update(throughput.sample(), executor.getActiveCount());
+        if(limit > executor.getMaximumPoolSize()) {
+            executor.setMaximumPoolSize(limit);
+            executor.setCorePoolSize(limit);
+        }
+        else if(limit < executor.getMaximumPoolSize()) {
+            // Excess threads terminate when idle
+            executor.setCorePoolSize(limit);
+            executor.setMaximumPoolSize(limit);
+        }
+        for(SessionPool p : new SessionPool[]{source, destination}) {
+            if(p instanceof DefaultSessionPool) {
+                ((DefaultSessionPool) p).withMaxIdle(limit);
+            }
+        }
+    }
+
+    /**
+     * Count bytes transferred on all connections
+     */
+    private static final class ThroughputStreamListener extends DelegateStreamListener {
+        private final LongAdder bytes = new LongAdder();
+        private final BatchedStreamListener delegate;
+        private long timestamp = System.currentTimeMillis();
+        private long last;
+
+        public ThroughputStreamListener(final BatchedStreamListener delegate) {
+            super(delegate);
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void sent(final long bytes) {
+            this.bytes.add(bytes);
+            super.sent(bytes);
+        }
+
+        @Override
+        public void recv(final long bytes) {
+            this.bytes.add(bytes);
+            super.recv(bytes);
+        }
+
+        /**
+         * Publish remaining progress to listener
+         */
+        public void close() {
+            delegate.close();
+        }
+
+        /**
+         * @return Bytes per second since previous sample
+         */
+        public synchronized double sample() {
+            final long time = System.currentTimeMillis();
+            final long total = bytes.sum();
+            final long elapsed = time - timestamp;
+            final double speed = elapsed > 0 ? (double) (total - last) / elapsed * 1000d : 0d;
+            timestamp = time;
+            last = total;
+            return speed;
+        }
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("ConcurrentTransferWorker{");
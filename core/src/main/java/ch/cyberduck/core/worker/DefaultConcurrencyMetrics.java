@@ -0,0 +1,51 @@
+package ch.cyberduck.core.worker;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.metrics.Histogram;
+import ch.cyberduck.core.metrics.MetricRegistry;
+
+/**
+ * Record decisions of adaptive concurrency controller in registry
+ */
+public class DefaultConcurrencyMetrics implements ConcurrencyMetrics {
+
+    private static final double[] CONNECTIONS = {1, 2, 4, 8, 16, 32, 64};
+
+    private final MetricRegistry registry;
+
+    public DefaultConcurrencyMetrics() {
+        this(MetricRegistry.get());
+    }
+
+    public DefaultConcurrencyMetrics(final MetricRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void update(final int previous, final int limit, final double throughput, final double errors) {
+        if(limit > previous) {
+            registry.counter("transfer_concurrency_changes_total", "direction", "increase").increment();
+        }
+        else if(limit < previous) {
+            registry.counter("transfer_concurrency_changes_total", "direction", "decrease").increment();
+        }
+        registry.histogram("transfer_concurrency_limit", CONNECTIONS).observe(limit);
+        if(errors > 0d) {
+            registry.counter("transfer_concurrency_error_periods_total").increment();
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package ch.cyberduck.core.worker;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Cache;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.LocaleFactory;
+import ch.cyberduck.core.PasswordCallback;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.ProgressListener;
+import ch.cyberduck.core.Session;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.features.Delete;
+import ch.cyberduck.core.pool.SessionPool;
+import ch.cyberduck.core.threading.BackgroundActionState;
+import ch.cyberduck.core.threading.BackgroundExceptionCallable;
+import ch.cyberduck.core.threading.DefaultRetryCallable;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
+import ch.cyberduck.core.transfer.TransferStatus;
+import ch.cyberduck.ui.browser.PathReloadFinder;
+
+import org.apache.log4j.Logger;
+
+import java.text.MessageFormat;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Delete files in batches while the recursive list is still compiled. Full batches are dispatched concurrently with
+ * retry on failure, each on a connection borrowed from the session pool. Adding files blocks while the maximum number of batches is pending to bound memory usage.
+ * Cached listings of the parent directories of a batch are invalidated when the batch is deleted.
+ */
+final class DeleteBatchQueue {
+    private static final Logger log = Logger.getLogger(DeleteBatchQueue.class);
+
+    private final Host host;
+    private final SessionPool session;
+    private final Cache<Path> cache;
+    private final PasswordCallback prompt;
+    private final Delete.Callback callback;
+    private final ProgressListener listener;
+    private final BackgroundActionState state;
+    private final int size;
+
+    private final ThreadPool pool;
+    /**
+     * Batches dispatched but not yet completed
+     */
+    private final Semaphore permits;
+    private final Deque<Future<Integer>> pending = new ArrayDeque<>();
+
+    private Map<Path, TransferStatus> batch = new LinkedHashMap<>();
+    private long queued;
+    private long deleted;
+
+    /**
+     * @param size        Number of files in a batch
+     * @param concurrency Number of batches deleted in parallel
+     */
+    public DeleteBatchQueue(final Host host, final SessionPool session, final Cache<Path> cache, final PasswordCallback prompt, final Delete.Callback callback,
+                            final ProgressListener listener, final BackgroundActionState state, final int size, final int concurrency) {
+        this.host = host;
+        this.session = session;
+        this.cache = cache;
+        this.prompt = prompt;
+        this.callback = callback;
+        this.listener = listener;
+        this.state = state;
+        this.size = size;
+        this.pool = ThreadPoolFactory.get("delete", concurrency);
+        this.permits = new Semaphore(concurrency * 2);
+    }
+
+    /**
+     * Add file to current batch and dispatch the batch when full
+     */
+    public void add(final Path file, final TransferStatus status) throws BackgroundException {
+        batch.put(file, status);
+        queued++;
+        if(batch.size() >= size) {
+            this.dispatch();
+        }
+    }
+
+    /**
+     * Dispatch remaining files and wait for all batches to complete
+     */
+    public void await() throws BackgroundException {
+        if(!batch.isEmpty()) {
+            this.dispatch();
+        }
+        while(!pending.isEmpty()) {
+            this.complete(pending.remove());
+        }
+    }
+
+    /**
+     * Cancel pending batches
+     */
+    public void shutdown() {
+        pool.shutdown(false);
+    }
+
+    private void dispatch() throws BackgroundException {
+        // Fail early and report progress of batches already completed
+        for(Iterator<Future<Integer>> iter = pending.iterator(); iter.hasNext(); ) {
+            final Future<Integer> future = iter.next();
+            if(future.isDone()) {
+                iter.remove();
+                this.complete(future);
+            }
+        }
+        try {
+            permits.acquire();
+        }
+        catch(InterruptedException e) {
+            throw new ConnectionCanceledException(e);
+        }
+        final Map<Path, TransferStatus> files = batch;
+        batch = new LinkedHashMap<>();
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Dispatch batch of %d files", files.size()));
+        }
+        final DefaultRetryCallable<Integer> command = new DefaultRetryCallable<>(host, new BackgroundExceptionCallable<Integer>() {
+            @Override
+            public Integer call() throws BackgroundException {
+                final Session<?> conn = session.borrow(state);
+                try {
+                    conn.getFeature(Delete.class).delete(files, prompt, callback);
+                    session.release(conn, null);
+                    for(Path folder : new PathReloadFinder().find(new ArrayList<>(files.keySet()))) {
+                        cache.invalidate(folder);
+                    }
+                    return files.size();
+                }
+                catch(BackgroundException e) {
+                    session.release(conn, e);
+                    throw e;
+                }
+            }
+        }, listener, state);
+        pending.add(pool.execute(() -> {
+            try {
+                return command.call();
+            }
+            finally {
+                permits.release();
+            }
+        }));
+    }
+
+    private void complete(final Future<Integer> future) throws BackgroundException {
+        try {
+            deleted += future.get();
+        }
+        catch(InterruptedException e) {
+            log.error("Delete batch failed with interrupt failure");
+            throw new ConnectionCanceledException(e);
+        }
+        catch(ExecutionException e) {
+            log.warn(String.format("Delete batch failed with execution failure %s", e.getMessage()));
+            if(e.getCause() instanceof BackgroundException) {
+                throw (BackgroundException) e.getCause();
+            }
+            throw new BackgroundException(e.getCause());
+        }
+        listener.message(MessageFormat.format(LocaleFactory.localizedString("Deleting {0}", "Status"),
+            MessageFormat.format(LocaleFactory.localizedString("{0} of {1}"), deleted, queued)));
+    }
+}
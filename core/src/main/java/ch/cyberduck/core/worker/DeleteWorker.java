@@ -32,6 +32,10 @@ import ch.cyberduck.core.Session;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.features.Delete;
+import ch.cyberduck.core.pool.SessionPool;
+import ch.cyberduck.core.preferences.Preferences;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.BackgroundActionState;
 import ch.cyberduck.core.transfer.TransferStatus;
 import ch.cyberduck.ui.browser.PathReloadFinder;
 
@@ -57,13 +61,29 @@ public class DeleteWorker extends Worker<List<Path>> {
     private final Cache<Path> cache;
     private final ProgressListener listener;
     private final Filter<Path> filter;
+    /**
+     * Connections to delete batches concurrently or null to use the session of the worker
+     */
+    private final SessionPool pool;
+
+    private final Preferences preferences
+        = PreferencesFactory.get();
 
     public DeleteWorker(final LoginCallback prompt, final List<Path> files, final Cache<Path> cache, final ProgressListener listener) {
         this(prompt, files, cache, new NullFilter<Path>(), listener);
     }
 
     public DeleteWorker(final LoginCallback prompt, final List<Path> files, final Cache<Path> cache, final Filter<Path> filter, final ProgressListener listener) {
+        this(prompt, files, cache, filter, listener, null);
+    }
+
+    /**
+     * @param pool Connections to delete batches concurrently
+     */
+    public DeleteWorker(final LoginCallback prompt, final List<Path> files, final Cache<Path> cache, final Filter<Path> filter, final ProgressListener listener,
+                        final SessionPool pool) {
         this.files = files;
+        this.pool = pool;
         this.prompt = prompt;
         this.cache = cache;
         this.listener = listener;
@@ -74,26 +94,57 @@ public class DeleteWorker extends Worker<List<Path>> {
     public List<Path> run(final Session<?> session) throws BackgroundException {
         final Delete delete = session.getFeature(Delete.class);
         final ListService list = session.getFeature(ListService.class);
+        final Delete.Callback callback = new Delete.Callback() {
+            @Override
+            public void delete(final Path file) {
+                listener.message(MessageFormat.format(LocaleFactory.localizedString("Deleting {0}", "Status"),
+                    file.getName()));
+            }
+        };
         final Map<Path, TransferStatus> recursive = new LinkedHashMap<>();
         for(Path file : files) {
             if(this.isCanceled()) {
                 throw new ConnectionCanceledException();
             }
-            recursive.putAll(this.compile(session.getHost(), delete, list, new WorkerListProgressListener(this, listener), file));
-        }
-        delete.delete(recursive, prompt, new Delete.Callback() {
-            @Override
-            public void delete(final Path file) {
-                listener.message(MessageFormat.format(LocaleFactory.localizedString("Deleting {0}", "Status"),
-                    file.getName()));
+            final int size = delete.getBatchSize(file);
+            if(size > 0 && file.isDirectory() && !delete.isRecursive()) {
+                // Delete descendants while listing without keeping the complete list in memory
+                final DeleteBatchQueue queue = new DeleteBatchQueue(session.getHost(),
+                    null == pool ? new SessionPool.SingleSessionPool(session) : pool, cache, prompt, callback, listener,
+                    new WorkerBackgroundActionState(), size, preferences.getInteger("delete.batch.concurrency"));
+                try {
+                    final ListProgressListener progress = new WorkerListProgressListener(this, listener);
+                    for(Path child : list.list(file, progress).filter(filter)) {
+                        if(this.isCanceled()) {
+                            throw new ConnectionCanceledException();
+                        }
+                        this.compile(session.getHost(), delete, list, progress, child, queue::add);
+                    }
+                    queue.await();
+                }
+                finally {
+                    queue.shutdown();
+                }
+                // Delete selected directory with other selected files. Listings of descendants are invalidated with each batch.
+                recursive.put(file, new TransferStatus().withLockId(this.getLockId(file)));
+            }
+            else {
+                recursive.putAll(this.compile(session.getHost(), delete, list, new WorkerListProgressListener(this, listener), file));
             }
-        });
+        }
+        delete.delete(recursive, prompt, callback);
         return new ArrayList<>(recursive.keySet());
     }
 
     protected Map<Path, TransferStatus> compile(final Host host, final Delete delete, final ListService list, final ListProgressListener listener, final Path file) throws BackgroundException {
         // Compile recursive list
         final Map<Path, TransferStatus> recursive = new LinkedHashMap<>();
+        this.compile(host, delete, list, listener, file, recursive::put);
+        return recursive;
+    }
+
+    private void compile(final Host host, final Delete delete, final ListService list, final ListProgressListener listener, final Path file,
+                         final Collector collector) throws BackgroundException {
         if(file.isFile() || file.isSymbolicLink()) {
             final Path copy = new Path(file);
             switch(host.getProtocol().getType()) {
@@ -106,7 +157,7 @@ public class DeleteWorker extends Worker<List<Path>> {
                         }
                     }
             }
-            recursive.put(copy, new TransferStatus().withLockId(this.getLockId(copy)));
+            collector.add(copy, new TransferStatus().withLockId(this.getLockId(copy)));
         }
         else if(file.isDirectory()) {
             if(!delete.isRecursive()) {
@@ -114,13 +165,12 @@ public class DeleteWorker extends Worker<List<Path>> {
                     if(this.isCanceled()) {
                         throw new ConnectionCanceledException();
                     }
-                    recursive.putAll(this.compile(host, delete, list, listener, child));
+                    this.compile(host, delete, list, listener, child, collector);
                 }
             }
             // Add parent after children
-            recursive.put(file, new TransferStatus().withLockId(this.getLockId(file)));
+            collector.add(file, new TransferStatus().withLockId(this.getLockId(file)));
         }
-        return recursive;
     }
 
     protected String getLockId(final Path file) {
@@ -145,6 +195,25 @@ public class DeleteWorker extends Worker<List<Path>> {
         return Collections.emptyList();
     }
 
+    /**
+     * Receive files in the order to delete
+     */
+    private interface Collector {
+        void add(Path file, TransferStatus status) throws BackgroundException;
+    }
+
+    private final class WorkerBackgroundActionState implements BackgroundActionState {
+        @Override
+        public boolean isCanceled() {
+            return DeleteWorker.this.isCanceled();
+        }
+
+        @Override
+        public boolean isRunning() {
+            return true;
+        }
+    }
+
     @Override
     public boolean equals(final Object o) {
         if(this == o) {
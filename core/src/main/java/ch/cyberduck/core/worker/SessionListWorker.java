@@ -27,6 +27,9 @@ import ch.cyberduck.core.Session;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.exception.ListCanceledException;
+import ch.cyberduck.core.metrics.Histogram;
+import ch.cyberduck.core.metrics.LatencyListProgressListener;
+import ch.cyberduck.core.metrics.MetricRegistry;
 
 import org.apache.log4j.Logger;
 
@@ -58,7 +61,8 @@ public class SessionListWorker extends Worker<AttributedList<Path>> {
             if(log.isDebugEnabled()) {
                 log.debug(String.format("Run with feature %s", service));
             }
-            return service.list(directory, listener);
+            return service.list(directory, new LatencyListProgressListener(MetricRegistry.get().histogram("listing_page_duration_ms",
+                Histogram.LATENCY, "protocol", session.getHost().getProtocol().getIdentifier()), listener));
         }
         catch(ListCanceledException e) {
             return e.getChunk();
@@ -20,14 +20,16 @@ package ch.cyberduck.ui.comparator;
  */
 
 import ch.cyberduck.core.Path;
+import ch.cyberduck.core.collections.KeyedComparator;
 import ch.cyberduck.core.text.NaturalOrderComparator;
 
+import java.text.CollationKey;
 import java.util.Comparator;
 
-public class FilenameComparator extends BrowserComparator {
+public class FilenameComparator extends BrowserComparator implements KeyedComparator<Path, CollationKey> {
     private static final long serialVersionUID = -6726865487297853350L;
 
-    private final Comparator<String> impl = new NaturalOrderComparator();
+    private final NaturalOrderComparator impl = new NaturalOrderComparator();
 
     public FilenameComparator(boolean ascending) {
         super(ascending, null);
@@ -40,4 +42,17 @@ public class FilenameComparator extends BrowserComparator {
         }
         return -impl.compare(p1.getName(), p2.getName());
     }
+
+    @Override
+    public CollationKey getKey(final Path file) {
+        return impl.getCollationKey(file.getName());
+    }
+
+    @Override
+    public Comparator<CollationKey> getKeyComparator() {
+        if(ascending) {
+            return Comparator.naturalOrder();
+        }
+        return Comparator.reverseOrder();
+    }
 }
@@ -80,4 +80,26 @@ public class AttributedListTest {
         assertNotSame(list, list.filter(new NullFilter<>()));
         assertEquals(list, list.filter(new NullFilter<>()));
     }
+
+    @Test
+    public void testFindIndexed() {
+        final AttributedList<Path> list = new AttributedList<Path>();
+        for(int i = 0; i < 5000; i++) {
+            assertTrue(list.add(new Path(String.format("/d/%d", i), EnumSet.of(Path.Type.file))));
+        }
+        final Path f = new Path("/d/4000", EnumSet.of(Path.Type.file));
+        assertEquals(f, list.find(new SimplePathPredicate(f)));
+        assertEquals(f, list.find(new DefaultPathPredicate(f)));
+        assertEquals(f, list.get(f));
+        assertEquals(4000, list.indexOf(f));
+        assertNull(list.find(new SimplePathPredicate(new Path("/d/4000", EnumSet.of(Path.Type.directory)))));
+        assertNull(list.find(new SimplePathPredicate(new Path("/d/5000", EnumSet.of(Path.Type.file)))));
+        final Path added = new Path("/d/5000", EnumSet.of(Path.Type.file));
+        assertTrue(list.add(added));
+        assertEquals(added, list.find(new SimplePathPredicate(added)));
+        assertTrue(list.contains(added));
+        assertTrue(list.remove(f));
+        assertNull(list.find(new SimplePathPredicate(f)));
+        assertEquals(4000, list.indexOf(new Path("/d/4001", EnumSet.of(Path.Type.file))));
+    }
 }
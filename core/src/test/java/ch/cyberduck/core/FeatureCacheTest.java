@@ -0,0 +1,70 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.features.Bulk;
+import ch.cyberduck.core.features.IdProvider;
+import ch.cyberduck.core.features.Move;
+import ch.cyberduck.core.features.Read;
+import ch.cyberduck.core.features.Vault;
+import ch.cyberduck.core.vault.DefaultVaultRegistry;
+import ch.cyberduck.core.vault.VaultRegistry;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FeatureCacheTest {
+
+    @Test
+    public void testStateless() {
+        final NullSession session = new NullSession(new Host(new TestProtocol()));
+        assertNotSame(session.getFeature(UrlProvider.class), session.getFeature(UrlProvider.class));
+        session.enableFeatureCache();
+        assertSame(session.getFeature(UrlProvider.class), session.getFeature(UrlProvider.class));
+        // Not marked stateless
+        assertNotSame(session.getFeature(Read.class), session.getFeature(Read.class));
+    }
+
+    @Test
+    public void testInvalidateOnVaultChange() {
+        final NullSession session = new NullSession(new Host(new TestProtocol()));
+        session.enableFeatureCache();
+        final UrlProvider provider = session.getFeature(UrlProvider.class);
+        assertSame(provider, session.getFeature(UrlProvider.class));
+        final DefaultVaultRegistry registry = new DefaultVaultRegistry(new DisabledPasswordStore(), new DisabledPasswordCallback());
+        session.withRegistry(registry);
+        final UrlProvider wrapped = session.getFeature(UrlProvider.class);
+        assertNotSame(provider, wrapped);
+        assertSame(wrapped, session.getFeature(UrlProvider.class));
+        final long revision = registry.getRevision();
+        registry.add(Vault.DISABLED);
+        assertNotEquals(revision, registry.getRevision());
+        assertNotSame(wrapped, session.getFeature(UrlProvider.class));
+        session.withRegistry(VaultRegistry.DISABLED);
+    }
+
+    @Test
+    public void testWrapperWithMutators() {
+        final NullSession session = new NullSession(new Host(new TestProtocol()));
+        session.enableFeatureCache();
+        session.withRegistry(new DefaultVaultRegistry(new DisabledPasswordStore(), new DisabledPasswordCallback()));
+        assertNotSame(session.getFeature(Bulk.class), session.getFeature(Bulk.class));
+        assertNotSame(session.getFeature(Move.class), session.getFeature(Move.class));
+        assertNotSame(session.getFeature(IdProvider.class), session.getFeature(IdProvider.class));
+        session.withRegistry(VaultRegistry.DISABLED);
+    }
+}
@@ -0,0 +1,88 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of computing absolute path and hash code for files in a nested directory with and without compact mode
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathAbsoluteBenchmark {
+
+    @Param({"false", "true"})
+    public boolean compact;
+
+    @Param({"8"})
+    public int depth;
+
+    private final List<Path> files = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Path.setCompact(compact);
+        Path directory = new Path("/", EnumSet.of(Path.Type.volume, Path.Type.directory));
+        for(int i = 0; i < depth; i++) {
+            directory = new Path(directory, String.format("directory-%d", i), EnumSet.of(Path.Type.directory));
+        }
+        for(int i = 0; i < 1000; i++) {
+            files.add(new Path(directory, String.format("file-%d.txt", i), EnumSet.of(Path.Type.file)));
+        }
+    }
+
+    @Benchmark
+    public void absolute(final Blackhole blackhole) {
+        for(Path file : files) {
+            blackhole.consume(file.getAbsolute());
+        }
+    }
+
+    @Benchmark
+    public void hash(final Blackhole blackhole) {
+        for(Path file : files) {
+            blackhole.consume(file.hashCode());
+        }
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PathAbsoluteBenchmark.class.getSimpleName()).build()).run();
+    }
+}
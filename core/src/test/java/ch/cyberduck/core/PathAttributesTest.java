@@ -7,6 +7,8 @@ import ch.cyberduck.core.serializer.PathAttributesDictionary;
 import org.apache.commons.collections4.CollectionUtils;
 import org.junit.Test;
 
+import java.util.Collections;
+
 import static org.junit.Assert.*;
 
 public class PathAttributesTest {
@@ -20,6 +22,22 @@ public class PathAttributesTest {
         assertEquals(clone.getModificationDate(), attributes.getModificationDate());
     }
 
+    @Test
+    public void testCopyExtended() {
+        final PathAttributes attributes = new PathAttributes();
+        assertEquals(Acl.EMPTY, attributes.getAcl());
+        assertTrue(attributes.getMetadata().isEmpty());
+        assertTrue(attributes.getCustom().isEmpty());
+        assertTrue(attributes.getVersions().isEmpty());
+        assertEquals(DescriptiveUrl.EMPTY, attributes.getLink());
+        attributes.withCustom("k", "v");
+        final PathAttributes clone = new PathAttributes(attributes);
+        assertEquals("v", clone.getCustom().get("k"));
+        clone.setMetadata(Collections.singletonMap("k", "v"));
+        assertTrue(attributes.getMetadata().isEmpty());
+        assertEquals(attributes, clone);
+    }
+
     @Test
     public void testPermissions() {
         final PathAttributes attributes = new PathAttributes();
@@ -0,0 +1,80 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.EnumSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookup of files by reference in a cache with 10k directories of 1k files each. Requires a large heap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class PathCacheBenchmark {
+
+    @Param({"10000"})
+    public int directories;
+
+    @Param({"1000"})
+    public int files;
+
+    private PathCache cache;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        cache = new PathCache(Integer.MAX_VALUE);
+        for(int i = 0; i < directories; i++) {
+            final Path directory = new Path(String.format("/d%d", i), EnumSet.of(Path.Type.directory));
+            final AttributedList<Path> children = new AttributedList<>();
+            for(int j = 0; j < files; j++) {
+                children.add(new Path(directory, String.format("f%d", j), EnumSet.of(Path.Type.file)));
+            }
+            cache.put(directory, children);
+        }
+    }
+
+    @Benchmark
+    public Path lookup() {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        return cache.lookup(new DefaultPathPredicate(new Path(
+            String.format("/d%d/f%d", random.nextInt(directories), random.nextInt(files)), EnumSet.of(Path.Type.file))));
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PathCacheBenchmark.class.getSimpleName()).build()).run();
+    }
+}
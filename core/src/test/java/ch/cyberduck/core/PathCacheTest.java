@@ -2,6 +2,7 @@ package ch.cyberduck.core;
 
 import org.junit.Test;
 
+import java.util.Collections;
 import java.util.EnumSet;
 
 import static org.junit.Assert.*;
@@ -23,6 +24,42 @@ public class PathCacheTest {
         assertNotNull(cache.lookup(new DefaultPathPredicate(file2)));
     }
 
+    @Test
+    public void testLookupReverseIndex() {
+        final PathCache cache = new PathCache(2);
+        final Path directory = new Path("/p", EnumSet.of(Path.Type.directory));
+        final Path file = new Path(directory, "name", EnumSet.of(Path.Type.file));
+        final AttributedList<Path> list = new AttributedList<Path>();
+        list.add(file);
+        cache.put(directory, list);
+        assertSame(file, cache.lookup(new DefaultPathPredicate(file)));
+        // Replace listing
+        final Path other = new Path(directory, "other", EnumSet.of(Path.Type.file));
+        cache.put(directory, new AttributedList<>(Collections.singletonList(other)));
+        assertNull(cache.lookup(new DefaultPathPredicate(file)));
+        assertSame(other, cache.lookup(new DefaultPathPredicate(other)));
+        // Modified after caching
+        cache.get(directory).add(0, file);
+        assertNull(cache.lookup(new DefaultPathPredicate(file)));
+        assertSame(other, cache.lookup(new DefaultPathPredicate(other)));
+        cache.put(directory, cache.get(directory));
+        assertSame(file, cache.lookup(new DefaultPathPredicate(file)));
+        assertSame(other, cache.lookup(new DefaultPathPredicate(other)));
+        cache.remove(directory);
+        assertNull(cache.lookup(new DefaultPathPredicate(other)));
+        // Evicted
+        for(int i = 0; i < 3; i++) {
+            final Path d = new Path(String.format("/d%d", i), EnumSet.of(Path.Type.directory));
+            cache.put(d, new AttributedList<>(Collections.singletonList(new Path(d, "f", EnumSet.of(Path.Type.file)))));
+        }
+        assertNull(cache.lookup(new DefaultPathPredicate(new Path("/d0/f", EnumSet.of(Path.Type.file)))));
+        assertNotNull(cache.lookup(new DefaultPathPredicate(new Path("/d2/f", EnumSet.of(Path.Type.file)))));
+        // Reference not compatible with index
+        assertNull(cache.lookup(new SimplePathPredicate(new Path("/d2/f", EnumSet.of(Path.Type.file)))));
+        cache.clear();
+        assertNull(cache.lookup(new DefaultPathPredicate(new Path("/d2/f", EnumSet.of(Path.Type.file)))));
+    }
+
     @Test
     public void testIsEmpty() {
         final PathCache cache = new PathCache(1);
@@ -0,0 +1,103 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Retained heap per path for a tree of 1000 directories with 1000 files each. Compare the bytes per path counter
+ * with and without compact mode.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PathFootprintBenchmark {
+
+    @Param({"false", "true"})
+    public boolean compact;
+
+    @Param({"1000"})
+    public int directories;
+
+    @Param({"1000"})
+    public int files;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long bytesPerPath;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Path.setCompact(compact);
+    }
+
+    @Benchmark
+    public List<AttributedList<Path>> tree(final Footprint footprint) {
+        final long before = used();
+        final Path root = new Path("/", EnumSet.of(Path.Type.volume, Path.Type.directory));
+        final List<AttributedList<Path>> tree = new ArrayList<>(directories);
+        for(int i = 0; i < directories; i++) {
+            final Path directory = new Path(root, String.format("directory-%d", i), EnumSet.of(Path.Type.directory));
+            final AttributedList<Path> children = new AttributedList<>();
+            for(int j = 0; j < files; j++) {
+                final Path file = new Path(directory, String.format("file-%d.txt", j), EnumSet.of(Path.Type.file));
+                file.attributes().setSize(j);
+                file.attributes().setModificationDate(System.currentTimeMillis());
+                children.add(file);
+            }
+            tree.add(children);
+        }
+        footprint.bytesPerPath = (used() - before) / ((long) directories * files);
+        return tree;
+    }
+
+    private static long used() {
+        for(int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        final Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PathFootprintBenchmark.class.getSimpleName()).build()).run();
+    }
+}
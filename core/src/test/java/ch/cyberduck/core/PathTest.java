@@ -155,4 +155,72 @@ public class PathTest {
         assertNotEquals(new Path("19.vcf.gz", EnumSet.of(Path.Type.file)), new Path("0X.vcf.gz", EnumSet.of(Path.Type.file)));
         assertNotEquals(new Path("/d/2R", EnumSet.of(Path.Type.directory)), new Path("/d/33", EnumSet.of(Path.Type.directory)));
     }
+
+    @Test
+    public void testGetTypeCopy() {
+        final Path file = new Path("/d/f", EnumSet.of(Path.Type.file));
+        final EnumSet<Path.Type> type = file.getType();
+        type.add(Path.Type.encrypted);
+        assertEquals(EnumSet.of(Path.Type.file), file.getType());
+        file.setType(type);
+        assertEquals(EnumSet.of(Path.Type.file, Path.Type.encrypted), file.getType());
+    }
+
+    @Test
+    public void testNameWithParent() {
+        final Path directory = new Path("/d", EnumSet.of(Path.Type.directory));
+        assertEquals("f", new Path(directory, "f", EnumSet.of(Path.Type.file)).getName());
+        assertEquals("/d/f", new Path(directory, "/f", EnumSet.of(Path.Type.file)).getAbsolute());
+        assertEquals("g", new Path(directory, "f/g", EnumSet.of(Path.Type.file)).getName());
+        assertEquals("/d/f/g", new Path(directory, "f/g", EnumSet.of(Path.Type.file)).getAbsolute());
+        assertEquals("/f", new Path(new Path("/", EnumSet.of(Path.Type.directory)), "f", EnumSet.of(Path.Type.file)).getAbsolute());
+        assertTrue(new Path(new Path("/", EnumSet.of(Path.Type.directory)), "", EnumSet.of(Path.Type.directory)).isRoot());
+        assertFalse(new Path(directory, "", EnumSet.of(Path.Type.directory)).isRoot());
+        assertEquals(new Path("/d/f", EnumSet.of(Path.Type.file)), new Path(directory, "f", EnumSet.of(Path.Type.file)));
+    }
+
+    @Test
+    public void testCompact() {
+        Path.setCompact(true);
+        try {
+            final Path root = new Path("/", EnumSet.of(Path.Type.volume, Path.Type.directory));
+            assertTrue(root.isRoot());
+            assertEquals("/", root.getName());
+            final Path directory = new Path(root, "d", EnumSet.of(Path.Type.directory));
+            assertEquals("/d", directory.getAbsolute());
+            final Path file = new Path(directory, "f", EnumSet.of(Path.Type.file));
+            assertEquals("/d/f", file.getAbsolute());
+            assertEquals("f", file.getName());
+            assertSame(directory, file.getParent());
+            assertSame(root, directory.getParent());
+            assertEquals("/d/f/g", new Path(directory, "f/g", EnumSet.of(Path.Type.file)).getAbsolute());
+            assertEquals("g", new Path(directory, "f/g", EnumSet.of(Path.Type.file)).getName());
+            assertEquals("/d/f", new Path("/d/f", EnumSet.of(Path.Type.file)).getAbsolute());
+            assertEquals("/d/f", new Path(file).getAbsolute());
+            assertFalse(new Path(directory, "", EnumSet.of(Path.Type.directory)).isRoot());
+            assertTrue(new Path(root, "", EnumSet.of(Path.Type.directory)).isRoot());
+            // Same identity as paths retaining their absolute path
+            Path.setCompact(false);
+            final Path expected = new Path("/d/f", EnumSet.of(Path.Type.file));
+            assertEquals(expected, file);
+            assertEquals(expected.hashCode(), file.hashCode());
+            assertEquals(new Path("/d", EnumSet.of(Path.Type.directory)), directory);
+            assertEquals(new Path("/d", EnumSet.of(Path.Type.directory)).hashCode(), directory.hashCode());
+        }
+        finally {
+            Path.setCompact(false);
+        }
+    }
+
+    @Test
+    public void testCompactDictionary() {
+        Path.setCompact(true);
+        try {
+            final Path path = new Path(new Path("/d", EnumSet.of(Path.Type.directory)), "f", EnumSet.of(Path.Type.file));
+            assertEquals(path, new PathDictionary().deserialize(path.serialize(SerializerFactory.get())));
+        }
+        finally {
+            Path.setCompact(false);
+        }
+    }
 }
@@ -0,0 +1,96 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.serializer.impl.dd.ProfilePlistReader;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class ProfileIndexTest {
+
+    @Test
+    public void testFind() throws Exception {
+        final ProtocolFactory factory = new ProtocolFactory(Collections.singleton(new TestProtocol() {
+            @Override
+            public Type getType() {
+                return Type.dropbox;
+            }
+
+            @Override
+            public boolean isEnabled() {
+                return false;
+            }
+        }));
+        final ProfilePlistReader reader = new ProfilePlistReader(factory);
+        final File copy = new File(System.getProperty("java.io.tmpdir"), String.format("%s.cyberduckprofile", UUID.randomUUID()));
+        FileUtils.copyFile(new File("src/test/resources/Test Dropbox.cyberduckprofile"), copy);
+        final Local file = new Local(copy.getAbsolutePath());
+        final Local index = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final ProfileIndex write = new ProfileIndex(index);
+        assertNull(write.find(file, reader));
+        final Profile profile = reader.read(file);
+        write.put(file, profile);
+        write.save();
+        assertTrue(index.exists());
+        final Protocol indexed = new ProfileIndex(index).find(file, reader);
+        assertNotNull(indexed);
+        assertEquals(profile, indexed);
+        assertEquals(indexed, profile);
+        assertEquals(profile.hashCode(), indexed.hashCode());
+        assertEquals("iterate GmbH", indexed.getProvider());
+        assertEquals(Protocol.Type.dropbox, indexed.getType());
+        assertTrue(indexed.isEnabled());
+        // Parse profile for properties not in index
+        assertEquals(profile.getName(), indexed.getName());
+        assertTrue(copy.setLastModified(copy.lastModified() - 60000L));
+        assertNull(new ProfileIndex(index).find(file, reader));
+        file.delete();
+        index.delete();
+    }
+
+    @Test
+    public void testSaveDropsMissing() throws Exception {
+        final ProtocolFactory factory = new ProtocolFactory(Collections.singleton(new TestProtocol() {
+            @Override
+            public Type getType() {
+                return Type.dropbox;
+            }
+
+            @Override
+            public boolean isEnabled() {
+                return false;
+            }
+        }));
+        final ProfilePlistReader reader = new ProfilePlistReader(factory);
+        final Local file = new Local("src/test/resources/Test Dropbox.cyberduckprofile");
+        final Local index = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final ProfileIndex write = new ProfileIndex(index);
+        write.put(file, reader.read(file));
+        write.save();
+        final ProfileIndex read = new ProfileIndex(index);
+        // Not found when loading profiles
+        read.save();
+        assertNull(new ProfileIndex(index).find(file, reader));
+        index.delete();
+    }
+}
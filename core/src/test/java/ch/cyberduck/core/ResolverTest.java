@@ -0,0 +1,97 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.exception.ResolveFailedException;
+
+import org.junit.Test;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ResolverTest {
+
+    @Test
+    public void testConcurrentLookupOnce() throws Exception {
+        final AtomicInteger count = new AtomicInteger();
+        final CountDownLatch release = new CountDownLatch(1);
+        final Resolver resolver = new Resolver(hostname -> {
+            count.incrementAndGet();
+            try {
+                release.await();
+            }
+            catch(InterruptedException e) {
+                throw new UnknownHostException(hostname);
+            }
+            return new InetAddress[]{InetAddress.getByAddress(hostname, new byte[]{127, 0, 0, 1})};
+        }, 60000L, 0L);
+        final ExecutorService executor = Executors.newFixedThreadPool(32);
+        final List<Future<InetAddress>> results = new ArrayList<>();
+        for(int i = 0; i < 32; i++) {
+            results.add(executor.submit((Callable<InetAddress>) () -> resolver.resolve("test.cyberduck.io", new DisabledCancelCallback())));
+        }
+        Thread.sleep(200L);
+        release.countDown();
+        for(Future<InetAddress> result : results) {
+            assertEquals("127.0.0.1", result.get().getHostAddress());
+        }
+        executor.shutdown();
+        assertEquals(1, count.get());
+        resolver.resolve("test.cyberduck.io", new DisabledCancelCallback());
+        assertEquals(1, count.get());
+    }
+
+    @Test
+    public void testNegativeCache() throws Exception {
+        final AtomicInteger count = new AtomicInteger();
+        final Resolver resolver = new Resolver(hostname -> {
+            count.incrementAndGet();
+            throw new UnknownHostException(hostname);
+        }, 60000L, 60000L);
+        for(int i = 0; i < 2; i++) {
+            try {
+                resolver.resolve("non.cyberduck.io", new DisabledCancelCallback());
+                fail();
+            }
+            catch(ResolveFailedException e) {
+                assertTrue(e.getCause() instanceof UnknownHostException);
+            }
+        }
+        assertEquals(1, count.get());
+    }
+
+    @Test
+    public void testExpired() throws Exception {
+        final AtomicInteger count = new AtomicInteger();
+        final Resolver resolver = new Resolver(hostname -> {
+            count.incrementAndGet();
+            return new InetAddress[]{InetAddress.getByAddress(hostname, new byte[]{127, 0, 0, 1})};
+        }, 0L, 0L);
+        resolver.resolve("test.cyberduck.io", new DisabledCancelCallback());
+        resolver.resolve("test.cyberduck.io", new DisabledCancelCallback());
+        assertEquals(2, count.get());
+    }
+}
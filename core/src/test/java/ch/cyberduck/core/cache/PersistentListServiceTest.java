@@ -0,0 +1,107 @@
+package ch.cyberduck.core.cache;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.DisabledListProgressListener;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.ListService;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.TestProtocol;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.junit.Test;
+
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class PersistentListServiceTest {
+
+    @Test
+    public void testStore() {
+        final ListingStore store = new ListingStore(new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString()));
+        final Host host = new Host(new TestProtocol(), "localhost");
+        final Path directory = new Path("/d", EnumSet.of(Path.Type.directory));
+        assertNull(store.get(host, directory));
+        final AttributedList<Path> children = new AttributedList<>();
+        final Path file = new Path(directory, "f", EnumSet.of(Path.Type.file));
+        file.attributes().setSize(3L);
+        file.attributes().setETag("e");
+        children.add(file);
+        children.add(new Path(directory, "s", EnumSet.of(Path.Type.directory)));
+        store.put(host, new Listing(directory, "v", children));
+        final Listing listing = store.get(host, directory);
+        assertNotNull(listing);
+        assertEquals("v", listing.getValidator());
+        assertEquals(children, listing.getChildren());
+        assertEquals(3L, listing.getChildren().get(0).attributes().getSize());
+        assertEquals("e", listing.getChildren().get(0).attributes().getETag());
+        assertTrue(listing.getChildren().get(1).isDirectory());
+        assertNull(store.get(new Host(new TestProtocol(), "example.net"), directory));
+        store.invalidate(host, directory);
+        assertNull(store.get(host, directory));
+    }
+
+    @Test
+    public void testRevalidate() throws Exception {
+        final ListingStore store = new ListingStore(new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString()));
+        final Host host = new Host(new TestProtocol(), "localhost");
+        final Path directory = new Path("/d", EnumSet.of(Path.Type.directory));
+        final AtomicInteger count = new AtomicInteger();
+        final ListService proxy = (folder, listener) -> {
+            count.incrementAndGet();
+            final AttributedList<Path> list = new AttributedList<>();
+            list.add(new Path(folder, "f", EnumSet.of(Path.Type.file)));
+            return list;
+        };
+        final AtomicReference<String> validator = new AtomicReference<>("1");
+        assertEquals(1, new PersistentListService(host, proxy, d -> validator.get(), store).list(directory, new DisabledListProgressListener()).size());
+        assertEquals(1, count.get());
+        // New session with unchanged validator
+        assertEquals(1, new PersistentListService(host, proxy, d -> validator.get(), store).list(directory, new DisabledListProgressListener()).size());
+        assertEquals(1, count.get());
+        validator.set("2");
+        new PersistentListService(host, proxy, d -> validator.get(), store).list(directory, new DisabledListProgressListener());
+        assertEquals(2, count.get());
+        assertEquals("2", store.get(host, directory).getValidator());
+        // No validator available
+        validator.set(null);
+        new PersistentListService(host, proxy, d -> validator.get(), store).list(directory, new DisabledListProgressListener());
+        new PersistentListService(host, proxy, d -> validator.get(), store).list(directory, new DisabledListProgressListener());
+        assertEquals(4, count.get());
+    }
+
+    @Test
+    public void testEvict() {
+        final ListingStore store = new ListingStore(new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString()), 2, Long.MAX_VALUE);
+        final Host host = new Host(new TestProtocol(), "localhost");
+        int found = 0;
+        for(int i = 0; i < 3; i++) {
+            store.put(host, new Listing(new Path(String.format("/d%d", i), EnumSet.of(Path.Type.directory)), "v", new AttributedList<>()));
+        }
+        for(int i = 0; i < 3; i++) {
+            if(store.get(host, new Path(String.format("/d%d", i), EnumSet.of(Path.Type.directory))) != null) {
+                found++;
+            }
+        }
+        assertEquals(2, found);
+    }
+}
@@ -0,0 +1,134 @@
+package ch.cyberduck.core.collections;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class ChunkedListTest {
+
+    @Test
+    public void testAppend() {
+        final ChunkedList<Integer> list = new ChunkedList<>();
+        final List<Integer> expected = new ArrayList<>();
+        for(int i = 0; i < 5000; i++) {
+            assertTrue(list.add(i));
+            expected.add(i);
+        }
+        assertEquals(5000, list.size());
+        assertEquals(expected, list);
+        assertEquals(expected, new ArrayList<>(list));
+        assertEquals(expected, list.stream().collect(Collectors.toList()));
+        assertEquals(4999, list.get(4999), 0);
+        assertEquals(1024, list.indexOf(1024));
+        assertEquals(-1, list.indexOf(5000));
+    }
+
+    @Test
+    public void testSnapshotIterator() {
+        final ChunkedList<Integer> list = new ChunkedList<>(Arrays.asList(1, 2, 3));
+        final Iterator<Integer> iterator = list.iterator();
+        list.add(4);
+        list.remove(0);
+        int count = 0;
+        while(iterator.hasNext()) {
+            iterator.next();
+            count++;
+        }
+        assertEquals(3, count);
+        assertEquals(Arrays.asList(2, 3, 4), list);
+    }
+
+    @Test
+    public void testModify() {
+        final ChunkedList<Integer> list = new ChunkedList<>();
+        for(int i = 0; i < 2000; i++) {
+            list.add(i);
+        }
+        assertEquals(1500, list.indexOf(1500));
+        list.add(0, -1);
+        assertEquals(1501, list.indexOf(1500));
+        assertEquals(-1, list.set(0, -2), 0);
+        assertTrue(list.remove(Integer.valueOf(-2)));
+        assertEquals(1500, list.indexOf(1500));
+        assertTrue(list.removeIf(i -> i % 2 == 0));
+        assertEquals(1000, list.size());
+        assertEquals(750, list.indexOf(1501));
+        list.sort(Comparator.reverseOrder());
+        assertEquals(1999, list.get(0), 0);
+        assertEquals(0, list.indexOf(1999));
+        list.clear();
+        assertTrue(list.isEmpty());
+        assertFalse(list.contains(1999));
+    }
+
+    @Test
+    public void testIndexByKey() {
+        final ChunkedList<String> list = new ChunkedList<>();
+        for(int i = 0; i < 100; i++) {
+            list.add(String.format("f-%d", i));
+        }
+        assertEquals(10, list.indexOf(String.class, String::length, 4));
+        list.add("longer-than-any");
+        assertEquals(100, list.indexOf(String.class, String::length, 15));
+    }
+
+    @Test
+    public void testIndexByMutatedKey() {
+        final ChunkedList<StringBuilder> list = new ChunkedList<>();
+        for(int i = 0; i < 100; i++) {
+            list.add(new StringBuilder(String.format("f-%d", i)));
+        }
+        assertEquals(50, list.indexOf(String.class, StringBuilder::toString, "f-50"));
+        list.get(50).append("-renamed");
+        assertEquals(-1, list.indexOf(String.class, StringBuilder::toString, "f-50"));
+        assertEquals(50, list.indexOf(String.class, StringBuilder::toString, "f-50-renamed"));
+        assertEquals(-1, list.indexOf(String.class, StringBuilder::toString, "f-100"));
+        list.get(60).append("-renamed");
+        // Miss in index is not confirmed by searching the list
+        assertEquals(-1, list.indexOf(String.class, StringBuilder::toString, "f-60-renamed"));
+        list.invalidate();
+        assertEquals(60, list.indexOf(String.class, StringBuilder::toString, "f-60-renamed"));
+    }
+
+    @Test
+    public void testGrowFirstChunk() {
+        final ChunkedList<Integer> list = new ChunkedList<>(Arrays.asList(0, 1, 2));
+        list.remove(Integer.valueOf(2));
+        final List<Integer> snapshot = new ArrayList<>();
+        final Iterator<Integer> iterator = list.iterator();
+        for(int i = 2; i < 3000; i++) {
+            list.add(i);
+        }
+        iterator.forEachRemaining(snapshot::add);
+        assertEquals(Arrays.asList(0, 1), snapshot);
+        assertEquals(3000, list.size());
+        for(int i = 0; i < 3000; i++) {
+            assertEquals(i, list.get(i), 0);
+        }
+        list.set(0, 0);
+        list.add(3000);
+        assertEquals(3000, list.get(3000), 0);
+    }
+}
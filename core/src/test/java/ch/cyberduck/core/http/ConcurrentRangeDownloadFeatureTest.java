@@ -0,0 +1,234 @@
+package ch.cyberduck.core.http;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.ConnectionCallback;
+import ch.cyberduck.core.DisabledConnectionCallback;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathAttributes;
+import ch.cyberduck.core.TestProtocol;
+import ch.cyberduck.core.exception.AccessDeniedException;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.features.Read;
+import ch.cyberduck.core.io.BandwidthThrottle;
+import ch.cyberduck.core.io.DisabledStreamListener;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.transfer.TransferStatus;
+import ch.cyberduck.core.transfer.download.SegmentedFileChannel;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.RandomUtils;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ConcurrentRangeDownloadFeatureTest {
+
+    private static final class RangeRead implements Read {
+        private final byte[] content;
+        private final AtomicInteger requests = new AtomicInteger();
+
+        public RangeRead(final byte[] content) {
+            this.content = content;
+        }
+
+        @Override
+        public InputStream read(final Path file, final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
+            requests.incrementAndGet();
+            if(!status.isAppend()) {
+                return new ByteArrayInputStream(content);
+            }
+            final InputStream in = new ByteArrayInputStream(content, (int) status.getOffset(), (int) status.getLength());
+            if(status.getOffset() != 0L) {
+                return in;
+            }
+            // Slow first range
+            return new FilterInputStream(in) {
+                @Override
+                public int read(final byte[] b, final int off, final int len) throws IOException {
+                    try {
+                        Thread.sleep(10L);
+                    }
+                    catch(InterruptedException e) {
+                        throw new InterruptedIOException(e.getMessage());
+                    }
+                    return super.read(b, off, Math.min(len, 16));
+                }
+            };
+        }
+
+        @Override
+        public boolean offset(final Path file) {
+            return true;
+        }
+    }
+
+    @Test
+    public void testDownload() throws Exception {
+        final byte[] content = RandomUtils.nextBytes(4000);
+        final RangeRead reader = new RangeRead(content);
+        final ConcurrentRangeDownloadFeature feature = new ConcurrentRangeDownloadFeature(new Host(new TestProtocol()),
+            reader, 4, 1000L, 0L, 64L);
+        final Local local = new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString());
+        final TransferStatus status = new TransferStatus().length(content.length);
+        feature.download(new Path("/f", EnumSet.of(Path.Type.file)), local, new BandwidthThrottle(BandwidthThrottle.UNLIMITED),
+            new DisabledStreamListener(), status, new DisabledConnectionCallback());
+        assertTrue(status.isComplete());
+        assertEquals(content.length, status.getOffset());
+        assertFalse(SegmentedFileChannel.toJournal(local).exists());
+        final InputStream in = local.getInputStream();
+        assertArrayEquals(content, IOUtils.toByteArray(in));
+        in.close();
+        // Remainder of slow range split for idle connections
+        assertTrue(reader.requests.get() > 4);
+        local.delete();
+    }
+
+    @Test
+    public void testDownloadAppend() throws Exception {
+        final byte[] content = RandomUtils.nextBytes(4000);
+        final Local local = new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString());
+        final OutputStream out = local.getOutputStream(false);
+        out.write(content, 0, 500);
+        out.close();
+        final ConcurrentRangeDownloadFeature feature = new ConcurrentRangeDownloadFeature(new Host(new TestProtocol()),
+            new RangeRead(content), 3, 1000L, 0L, 64L);
+        final TransferStatus status = new TransferStatus().append(true).skip(500L).length(3500L);
+        feature.download(new Path("/f", EnumSet.of(Path.Type.file)), local, new BandwidthThrottle(BandwidthThrottle.UNLIMITED),
+            new DisabledStreamListener(), status, new DisabledConnectionCallback());
+        assertTrue(status.isComplete());
+        final InputStream in = local.getInputStream();
+        assertArrayEquals(content, IOUtils.toByteArray(in));
+        in.close();
+        local.delete();
+    }
+
+    @Test
+    public void testBelowThreshold() throws Exception {
+        final byte[] content = RandomUtils.nextBytes(1000);
+        final RangeRead reader = new RangeRead(content);
+        final ConcurrentRangeDownloadFeature feature = new ConcurrentRangeDownloadFeature(new Host(new TestProtocol()),
+            reader, 4, 100L, 2000L, 64L);
+        final Local local = new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString());
+        feature.download(new Path("/f", EnumSet.of(Path.Type.file)), local, new BandwidthThrottle(BandwidthThrottle.UNLIMITED),
+            new DisabledStreamListener(), new TransferStatus().length(content.length), new DisabledConnectionCallback());
+        assertEquals(1, reader.requests.get());
+        assertFalse(SegmentedFileChannel.toJournal(local).exists());
+        local.delete();
+    }
+
+    @Test(expected = NotfoundException.class)
+    public void testFailure() throws Exception {
+        final ConcurrentRangeDownloadFeature feature = new ConcurrentRangeDownloadFeature(new Host(new TestProtocol()), new Read() {
+            @Override
+            public InputStream read(final Path file, final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
+                throw new NotfoundException(file.getAbsolute());
+            }
+
+            @Override
+            public boolean offset(final Path file) {
+                return true;
+            }
+        }, 2, 100L, 0L, 64L);
+        final Local local = new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString());
+        try {
+            feature.download(new Path("/f", EnumSet.of(Path.Type.file)), local, new BandwidthThrottle(BandwidthThrottle.UNLIMITED),
+                new DisabledStreamListener(), new TransferStatus().length(1000L), new DisabledConnectionCallback());
+        }
+        finally {
+            // Journal marks incomplete download
+            assertTrue(SegmentedFileChannel.toJournal(local).exists());
+            SegmentedFileChannel.complete(local);
+            local.delete();
+        }
+    }
+
+    @Test(expected = AccessDeniedException.class)
+    public void testFirstFailure() throws Exception {
+        final byte[] content = RandomUtils.nextBytes(1000);
+        final RangeRead slow = new RangeRead(content);
+        final ConcurrentRangeDownloadFeature feature = new ConcurrentRangeDownloadFeature(new Host(new TestProtocol()), new Read() {
+            @Override
+            public InputStream read(final Path file, final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
+                if(status.getOffset() == 0L) {
+                    return slow.read(file, status, callback);
+                }
+                try {
+                    Thread.sleep(20L);
+                }
+                catch(InterruptedException e) {
+                    fail();
+                }
+                throw new AccessDeniedException(file.getAbsolute());
+            }
+
+            @Override
+            public boolean offset(final Path file) {
+                return true;
+            }
+        }, 2, 100L, 0L, 64L);
+        final Local local = new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString());
+        try {
+            // Slow worker fails with cancel after abort
+            feature.download(new Path("/f", EnumSet.of(Path.Type.file)), local, new BandwidthThrottle(BandwidthThrottle.UNLIMITED),
+                new DisabledStreamListener(), new TransferStatus().length(content.length), new DisabledConnectionCallback());
+        }
+        finally {
+            SegmentedFileChannel.complete(local);
+            local.delete();
+        }
+    }
+
+    @Test
+    public void testPinRanges() throws Exception {
+        final byte[] content = RandomUtils.nextBytes(1000);
+        final RangeRead proxy = new RangeRead(content);
+        final ConcurrentRangeDownloadFeature feature = new ConcurrentRangeDownloadFeature(new Host(new TestProtocol()), new Read() {
+            @Override
+            public InputStream read(final Path file, final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
+                assertEquals("e", status.getRemote().getETag());
+                return proxy.read(file, status, callback);
+            }
+
+            @Override
+            public boolean offset(final Path file) {
+                return true;
+            }
+        }, 2, 400L, 0L, 64L);
+        final Local local = new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString());
+        final PathAttributes remote = new PathAttributes();
+        remote.setETag("e");
+        final TransferStatus status = new TransferStatus().length(content.length);
+        status.setRemote(remote);
+        feature.download(new Path("/f", EnumSet.of(Path.Type.file)), local, new BandwidthThrottle(BandwidthThrottle.UNLIMITED),
+            new DisabledStreamListener(), status, new DisabledConnectionCallback());
+        assertTrue(status.isComplete());
+        local.delete();
+    }
+}
@@ -0,0 +1,79 @@
+package ch.cyberduck.core.http;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.socket.HappyEyeballsConnector;
+
+import org.apache.http.HttpHost;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.config.SocketConfig;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.LayeredConnectionSocketFactory;
+import org.apache.http.impl.conn.DefaultManagedHttpClientConnection;
+import org.apache.http.impl.conn.DefaultSchemePortResolver;
+import org.apache.http.protocol.BasicHttpContext;
+import org.apache.http.protocol.HttpContext;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class HappyEyeballsConnectionOperatorTest {
+
+    @Test
+    public void testHandshakeOnce() throws Exception {
+        try (ServerSocket server = new ServerSocket(0, 2, InetAddress.getLoopbackAddress())) {
+            final AtomicInteger layered = new AtomicInteger();
+            final LayeredConnectionSocketFactory factory = new LayeredConnectionSocketFactory() {
+                @Override
+                public Socket createLayeredSocket(final Socket socket, final String target, final int port, final HttpContext context) {
+                    layered.incrementAndGet();
+                    assertTrue(socket.isConnected());
+                    return socket;
+                }
+
+                @Override
+                public Socket createSocket(final HttpContext context) {
+                    return new Socket();
+                }
+
+                @Override
+                public Socket connectSocket(final int connectTimeout, final Socket sock, final HttpHost host, final InetSocketAddress remoteAddress,
+                                            final InetSocketAddress localAddress, final HttpContext context) throws IOException {
+                    fail();
+                    return null;
+                }
+            };
+            final HappyEyeballsConnectionOperator operator = new HappyEyeballsConnectionOperator(
+                RegistryBuilder.<ConnectionSocketFactory>create().register("https", factory).build(),
+                DefaultSchemePortResolver.INSTANCE,
+                host -> new InetAddress[]{InetAddress.getByName("192.0.2.1"), server.getInetAddress()},
+                new HappyEyeballsConnector(50L));
+            final DefaultManagedHttpClientConnection conn = new DefaultManagedHttpClientConnection("t", 1024);
+            operator.connect(conn, new HttpHost("test.localhost", server.getLocalPort(), "https"), null,
+                5000, SocketConfig.DEFAULT, new BasicHttpContext());
+            assertTrue(conn.isOpen());
+            assertEquals(1, layered.get());
+            conn.close();
+        }
+    }
+}
@@ -17,7 +17,10 @@ package ch.cyberduck.core.http;
 
 import org.junit.Test;
 
+import java.util.List;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class HttpRangeTest {
 
@@ -52,4 +55,14 @@ public class HttpRangeTest {
         assertEquals(2L, range.getEnd(), 0L);
         assertEquals(2L, range.getLength(), 0L);
     }
+
+    @Test
+    public void testSplit() {
+        final List<HttpRange> ranges = HttpRange.split(100L, 250L, 100L);
+        assertEquals(3, ranges.size());
+        assertEquals(HttpRange.byLength(100L, 100L), ranges.get(0));
+        assertEquals(HttpRange.byLength(200L, 100L), ranges.get(1));
+        assertEquals(HttpRange.byLength(300L, 50L), ranges.get(2));
+        assertTrue(HttpRange.split(0L, 0L, 100L).isEmpty());
+    }
 }
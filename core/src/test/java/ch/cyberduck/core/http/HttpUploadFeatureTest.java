@@ -0,0 +1,66 @@
+package ch.cyberduck.core.http;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.io.SHA256ChecksumCompute;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.apache.commons.lang3.RandomUtils;
+import org.junit.Test;
+
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class HttpUploadFeatureTest {
+
+    @Test
+    public void testBufferChecksum() throws Exception {
+        final Local local = new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString());
+        final byte[] content = RandomUtils.nextBytes(2000);
+        final OutputStream out = local.getOutputStream(false);
+        out.write(content);
+        out.close();
+        final HttpUploadFeature<Void, Void> feature = new HttpUploadFeature<>(null);
+        final Path file = new Path("/f", EnumSet.of(Path.Type.file));
+        final TransferStatus status = new TransferStatus().skip(500L).length(1000L);
+        final byte[] buffer = feature.buffer(file, local, status);
+        assertArrayEquals(Arrays.copyOfRange(content, 500, 1500), buffer);
+        final SHA256ChecksumCompute compute = new SHA256ChecksumCompute();
+        assertEquals(compute.compute(local.getInputStream(), status), feature.checksum(compute, buffer, status));
+        feature.release(buffer);
+        // Reused for next segment of same size
+        assertSame(buffer, feature.buffer(file, local, new TransferStatus().skip(1000L).length(1000L)));
+        assertArrayEquals(Arrays.copyOfRange(content, 1000, 2000), buffer);
+        feature.release(buffer);
+        local.delete();
+    }
+
+    @Test
+    public void testBufferExceedsMaximum() throws Exception {
+        final HttpUploadFeature<Void, Void> feature = new HttpUploadFeature<>(null);
+        assertNull(feature.buffer(new Path("/f", EnumSet.of(Path.Type.file)), new Local(UUID.randomUUID().toString()),
+            new TransferStatus().length(PreferencesFactory.get().getLong("http.upload.buffer.maximum") + 1)));
+        assertNull(feature.buffer(new Path("/f", EnumSet.of(Path.Type.file)), new Local(UUID.randomUUID().toString()),
+            new TransferStatus().length(-1L)));
+    }
+}
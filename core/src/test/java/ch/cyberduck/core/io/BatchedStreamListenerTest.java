@@ -0,0 +1,66 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class BatchedStreamListenerTest {
+
+    @Test
+    public void testPublish() throws Exception {
+        final AtomicLong recv = new AtomicLong();
+        final AtomicLong sent = new AtomicLong();
+        final CountDownLatch notified = new CountDownLatch(1);
+        final BatchedStreamListener listener = new BatchedStreamListener(new StreamListener() {
+            @Override
+            public void recv(final long bytes) {
+                recv.addAndGet(bytes);
+                notified.countDown();
+            }
+
+            @Override
+            public void sent(final long bytes) {
+                sent.addAndGet(bytes);
+            }
+        }, 10L);
+        final Thread[] threads = new Thread[8];
+        for(int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for(int j = 0; j < 1000; j++) {
+                    listener.recv(1L);
+                    listener.sent(2L);
+                }
+            });
+            threads[i].start();
+        }
+        for(Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(notified.await(1L, TimeUnit.SECONDS));
+        listener.close();
+        assertEquals(8000L, recv.get());
+        assertEquals(16000L, sent.get());
+        // Forwarded without restarting timer after close
+        listener.sent(1L);
+        assertEquals(16001L, sent.get());
+    }
+}
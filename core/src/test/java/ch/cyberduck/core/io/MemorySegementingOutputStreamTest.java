@@ -19,8 +19,10 @@ import org.apache.commons.io.output.ByteArrayOutputStream;
 import org.apache.commons.lang3.RandomUtils;
 import org.junit.Test;
 
-import static org.junit.Assert.assertArrayEquals;
-import static org.junit.Assert.assertEquals;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import static org.junit.Assert.*;
 
 public class MemorySegementingOutputStreamTest {
 
@@ -74,4 +76,55 @@ public class MemorySegementingOutputStreamTest {
         out.close();
         assertArrayEquals(content, proxy.toByteArray());
     }
+
+    @Test
+    public void testReleaseBuffer() throws Exception {
+        final SegmentBufferPool pool = new SegmentBufferPool(1024, 1, 0L);
+        final ByteArrayOutputStream proxy = new ByteArrayOutputStream(3000);
+        final MemorySegementingOutputStream out = new MemorySegementingOutputStream(proxy, pool);
+        final byte[] content = RandomUtils.nextBytes(3000);
+        out.write(content, 0, 2500);
+        assertEquals(2048, proxy.toByteArray().length);
+        assertEquals(0, pool.available());
+        out.write(content, 2500, 500);
+        out.close();
+        assertEquals(1, pool.available());
+        assertArrayEquals(content, proxy.toByteArray());
+    }
+
+    @Test
+    public void testReleaseBufferOnFailure() throws Exception {
+        final SegmentBufferPool pool = new SegmentBufferPool(1024, 1, 0L);
+        final MemorySegementingOutputStream out = new MemorySegementingOutputStream(new OutputStream() {
+            @Override
+            public void write(final int b) throws IOException {
+                throw new IOException("Upload failed");
+            }
+
+            @Override
+            public void write(final byte[] b, final int off, final int len) throws IOException {
+                throw new IOException("Upload failed");
+            }
+        }, pool);
+        final byte[] content = RandomUtils.nextBytes(1500);
+        try {
+            out.write(content, 0, 1500);
+            fail();
+        }
+        catch(IOException e) {
+            // Expected
+        }
+        // Returned without close
+        assertEquals(1, pool.available());
+        out.write(content, 0, 100);
+        assertEquals(0, pool.available());
+        try {
+            out.close();
+            fail();
+        }
+        catch(IOException e) {
+            // Expected
+        }
+        assertEquals(1, pool.available());
+    }
 }
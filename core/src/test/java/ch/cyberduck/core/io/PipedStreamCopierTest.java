@@ -0,0 +1,100 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.apache.commons.io.input.NullInputStream;
+import org.apache.commons.io.output.NullOutputStream;
+import org.apache.commons.lang3.RandomUtils;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import static org.junit.Assert.*;
+
+public class PipedStreamCopierTest {
+
+    @Test
+    public void testIntegrity() throws Exception {
+        final byte[] bytes = RandomUtils.nextBytes(39865);
+        final TransferStatus status = new TransferStatus();
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length);
+        final PipedStreamCopier copier = new PipedStreamCopier(status, status).withChunksize(1000).withCapacity(2);
+        copier.transfer(new ByteArrayInputStream(bytes), out);
+        assertEquals(bytes.length, status.getOffset(), 0L);
+        assertArrayEquals(bytes, out.toByteArray());
+        assertTrue(status.isComplete());
+        assertTrue(copier.getReadThroughput() > 0d);
+        assertTrue(copier.getWriteThroughput() > 0d);
+    }
+
+    @Test
+    public void testLimit() throws Exception {
+        final byte[] bytes = RandomUtils.nextBytes(10000);
+        final TransferStatus status = new TransferStatus();
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new PipedStreamCopier(status, status).withChunksize(3000).withLimit(7000L).transfer(new ByteArrayInputStream(bytes), out);
+        assertEquals(7000L, status.getOffset(), 0L);
+        assertEquals(7000, out.size());
+    }
+
+    @Test
+    public void testTransferUnknownLength() throws Exception {
+        final TransferStatus status = new TransferStatus();
+        new PipedStreamCopier(status, status).withChunksize(32768).transfer(new NullInputStream(432768L), new NullOutputStream());
+        assertTrue(status.isComplete());
+        assertEquals(432768L, status.getOffset(), 0L);
+    }
+
+    @Test(expected = BackgroundException.class)
+    public void testReadFailure() throws Exception {
+        final TransferStatus status = new TransferStatus();
+        new PipedStreamCopier(status, status).withChunksize(100).transfer(new InputStream() {
+            private int count;
+
+            @Override
+            public int read() throws IOException {
+                if(++count > 1000) {
+                    throw new IOException("failure");
+                }
+                return 0;
+            }
+        }, new NullOutputStream());
+    }
+
+    @Test
+    public void testWriteFailure() throws Exception {
+        final TransferStatus status = new TransferStatus();
+        try {
+            new PipedStreamCopier(status, status).withChunksize(100).withCapacity(1).transfer(new NullInputStream(100000L), new OutputStream() {
+                @Override
+                public void write(final int b) throws IOException {
+                    throw new IOException("failure");
+                }
+            });
+            fail();
+        }
+        catch(BackgroundException e) {
+            assertEquals(0L, status.getOffset(), 0L);
+        }
+    }
+}
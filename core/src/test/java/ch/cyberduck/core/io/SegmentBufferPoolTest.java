@@ -0,0 +1,83 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class SegmentBufferPoolTest {
+
+    @Test
+    public void testReuse() throws Exception {
+        final SegmentBufferPool pool = new SegmentBufferPool(16, 2, 0L);
+        final byte[] buffer = pool.acquire();
+        assertEquals(16, buffer.length);
+        assertEquals(1, pool.available());
+        pool.release(buffer);
+        assertEquals(2, pool.available());
+        assertSame(buffer, pool.acquire());
+    }
+
+    @Test
+    public void testExhausted() throws Exception {
+        final SegmentBufferPool pool = new SegmentBufferPool(16, 1, 0L);
+        final byte[] leased = pool.acquire();
+        // Allocated outside of pool without waiting
+        final byte[] unpooled = pool.acquire();
+        assertNotSame(leased, unpooled);
+        pool.release(unpooled);
+        assertEquals(0, pool.available());
+        pool.release(leased);
+        assertEquals(1, pool.available());
+    }
+
+    @Test
+    public void testShared() throws Exception {
+        assertSame(SegmentBufferPool.get(16), SegmentBufferPool.get(16));
+        final int maximum = PreferencesFactory.get().getInteger("queue.upload.buffer.pool.segment.maximum");
+        final SegmentBufferPool large = SegmentBufferPool.get(maximum + 1);
+        assertNotSame(large, SegmentBufferPool.get(maximum + 1));
+        final byte[] buffer = large.acquire();
+        assertEquals(maximum + 1, buffer.length);
+        large.release(buffer);
+        // Not retained
+        assertNotSame(buffer, large.acquire());
+    }
+
+    @Test
+    public void testWaitForRelease() throws Exception {
+        final SegmentBufferPool pool = new SegmentBufferPool(16, 1, TimeUnit.MINUTES.toMillis(1));
+        final byte[] leased = pool.acquire();
+        final CompletableFuture<byte[]> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return pool.acquire();
+            }
+            catch(Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        Thread.sleep(100L);
+        assertFalse(waiting.isDone());
+        pool.release(leased);
+        assertSame(leased, waiting.get(10, TimeUnit.SECONDS));
+    }
+}
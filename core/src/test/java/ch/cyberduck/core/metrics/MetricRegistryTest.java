@@ -0,0 +1,66 @@
+package ch.cyberduck.core.metrics;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class MetricRegistryTest {
+
+    @Test
+    public void testCounter() {
+        final MetricRegistry registry = new MetricRegistry();
+        registry.counter("requests", "status", "200").increment();
+        registry.counter("requests", "status", "200").add(2L);
+        registry.counter("requests", "status", "404").increment();
+        assertEquals(3L, registry.counter("requests", "status", "200").get());
+        assertEquals(1L, registry.counter("requests", "status", "404").get());
+        assertEquals(2, registry.getMetrics().size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTypeMismatch() {
+        final MetricRegistry registry = new MetricRegistry();
+        registry.counter("latency");
+        registry.histogram("latency", Histogram.LATENCY);
+    }
+
+    @Test
+    public void testGauge() {
+        final MetricRegistry registry = new MetricRegistry();
+        registry.gauge("active", () -> 1d);
+        registry.gauge("active", () -> 2d);
+        assertEquals(1, registry.getMetrics().size());
+        assertEquals(2d, ((Gauge) registry.getMetrics().get(0)).get(), 0d);
+    }
+
+    @Test
+    public void testHistogram() {
+        final Histogram histogram = new Histogram("latency", new double[]{10, 100});
+        histogram.observe(5);
+        histogram.observe(10);
+        histogram.observe(50);
+        histogram.observe(500);
+        assertEquals(4L, histogram.getCount());
+        assertEquals(565d, histogram.getSum(), 0d);
+        assertArrayEquals(new long[]{2L, 3L, 4L}, histogram.getCumulativeCounts());
+        assertEquals(10d, histogram.getQuantile(0.5), 0d);
+        assertEquals(100d, histogram.getQuantile(0.75), 0d);
+        assertEquals(Double.POSITIVE_INFINITY, histogram.getQuantile(0.99), 0d);
+        assertTrue(Double.isNaN(new Histogram("empty", Histogram.LATENCY).getQuantile(0.5)));
+    }
+}
@@ -0,0 +1,45 @@
+package ch.cyberduck.core.metrics;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.junit.Test;
+
+import java.io.StringWriter;
+
+import static org.junit.Assert.assertEquals;
+
+public class PrometheusMetricExporterTest {
+
+    @Test
+    public void testExport() throws Exception {
+        final MetricRegistry registry = new MetricRegistry();
+        registry.counter("http_requests_total", "method", "GET", "status", "200").add(3L);
+        registry.histogram("http_request_duration_ms", new double[]{10, 100}, "method", "GET").observe(20);
+        registry.gauge("pool_active_sessions", () -> 2d);
+        final StringWriter writer = new StringWriter();
+        new PrometheusMetricExporter().export(registry.getMetrics(), writer);
+        assertEquals("# TYPE http_request_duration_ms histogram\n" +
+            "http_request_duration_ms_bucket{method=\"GET\",le=\"10.0\"} 0\n" +
+            "http_request_duration_ms_bucket{method=\"GET\",le=\"100.0\"} 1\n" +
+            "http_request_duration_ms_bucket{method=\"GET\",le=\"+Inf\"} 1\n" +
+            "http_request_duration_ms_sum{method=\"GET\"} 20\n" +
+            "http_request_duration_ms_count{method=\"GET\"} 1\n" +
+            "# TYPE http_requests_total counter\n" +
+            "http_requests_total{method=\"GET\",status=\"200\"} 3\n" +
+            "# TYPE pool_active_sessions gauge\n" +
+            "pool_active_sessions 2\n", writer.toString());
+    }
+}
@@ -25,6 +25,9 @@ import ch.cyberduck.core.TestProtocol;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.exception.ConnectionRefusedException;
+import ch.cyberduck.core.metrics.Gauge;
+import ch.cyberduck.core.metrics.Metric;
+import ch.cyberduck.core.metrics.MetricRegistry;
 import ch.cyberduck.core.ssl.DefaultX509KeyManager;
 import ch.cyberduck.core.ssl.DisabledX509TrustManager;
 import ch.cyberduck.core.threading.BackgroundActionState;
@@ -35,8 +38,11 @@ import org.apache.commons.pool2.impl.GenericObjectPool;
 import org.junit.Test;
 
 import java.net.SocketException;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -50,6 +56,31 @@ public class DefaultSessionPoolTest {
         pool.borrow(BackgroundActionState.running);
     }
 
+    @Test
+    public void testActiveSessionsGauge() throws Exception {
+        final Host bookmark = new Host(new TestProtocol(), "gauge.localhost");
+        final TestLoginConnectionService connect = new TestLoginConnectionService() {
+            @Override
+            public boolean check(final Session<?> session, final CancelCallback callback) {
+                return true;
+            }
+        };
+        final DefaultSessionPool first = new DefaultSessionPool(connect, new DisabledX509TrustManager(), new DefaultX509KeyManager(),
+            new DefaultVaultRegistry(new DisabledPasswordCallback()), new DisabledTranscriptListener(), bookmark);
+        final DefaultSessionPool second = new DefaultSessionPool(connect, new DisabledX509TrustManager(), new DefaultX509KeyManager(),
+            new DefaultVaultRegistry(new DisabledPasswordCallback()), new DisabledTranscriptListener(), bookmark);
+        first.borrow(BackgroundActionState.running);
+        second.borrow(BackgroundActionState.running);
+        final List<Metric> gauges = MetricRegistry.get().getMetrics().stream()
+            .filter(m -> m.getName().equals("pool_active_sessions"))
+            .filter(m -> "gauge.localhost".equals(m.getLabels().get("host"))).collect(Collectors.toList());
+        // Single gauge summing both pools
+        assertEquals(1, gauges.size());
+        assertEquals(2d, ((Gauge) gauges.get(0)).get(), 0d);
+        first.shutdown();
+        second.shutdown();
+    }
+
     @Test(expected = ConnectionRefusedException.class)
     public void testConnectRefuse() throws Exception {
         final DefaultSessionPool pool = new DefaultSessionPool(new TestLoginConnectionService() {
@@ -0,0 +1,72 @@
+package ch.cyberduck.core.pool;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.DisabledTranscriptListener;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.ListProgressListener;
+import ch.cyberduck.core.NullSession;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathCache;
+import ch.cyberduck.core.TestLoginConnectionService;
+import ch.cyberduck.core.TestProtocol;
+import ch.cyberduck.core.vault.VaultRegistry;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.*;
+
+public class ListPrefetcherTest {
+
+    @Test
+    public void testPrefetch() throws Exception {
+        final Set<Path> listed = ConcurrentHashMap.newKeySet();
+        final NullSession session = new NullSession(new Host(new TestProtocol(), "localhost")) {
+            @Override
+            public AttributedList<Path> list(final Path file, final ListProgressListener listener) {
+                listed.add(file);
+                return new AttributedList<>(Arrays.asList(new Path(file, "f", EnumSet.of(Path.Type.file))));
+            }
+        };
+        final PathCache cache = new PathCache(10);
+        final ListPrefetcher prefetcher = new ListPrefetcher(new StatelessSessionPool(new TestLoginConnectionService(), session,
+            new DisabledTranscriptListener(), VaultRegistry.DISABLED), cache, 2, 100, 1);
+        final Path home = new Path("/", EnumSet.of(Path.Type.directory));
+        final Path a = new Path(home, "a", EnumSet.of(Path.Type.directory));
+        final Path b = new Path(home, "b", EnumSet.of(Path.Type.directory));
+        final Path c = new Path(home, "c", EnumSet.of(Path.Type.directory));
+        final Path f = new Path(home, "f", EnumSet.of(Path.Type.file));
+        cache.put(a, new AttributedList<>());
+        prefetcher.prefetch(home, new AttributedList<>(Arrays.asList(f, a, b, c, new Path(home, "d", EnumSet.of(Path.Type.directory)))));
+        for(int i = 0; i < 50 && !(cache.isCached(b) && cache.isCached(c)); i++) {
+            Thread.sleep(100L);
+        }
+        prefetcher.shutdown();
+        assertTrue(cache.isCached(b));
+        assertTrue(cache.isCached(c));
+        assertEquals(1, cache.get(b).size());
+        // Already cached
+        assertFalse(listed.contains(a));
+        // Exceeds count
+        assertFalse(listed.contains(new Path(home, "d", EnumSet.of(Path.Type.directory))));
+    }
+}
@@ -0,0 +1,63 @@
+package ch.cyberduck.core.preferences;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class PreferenceKeyTest {
+
+    @Test
+    public void testParseOnChange() {
+        final Preferences preferences = new MemoryPreferences();
+        preferences.load();
+        preferences.setDefault("test.key", "1");
+        final PreferenceKey<Integer> key = PreferenceKey.integer("test.key");
+        final PreferenceValue<Integer> value = key.value(preferences);
+        assertSame(value, key.value(preferences));
+        assertEquals(1, value.get(), 0);
+        final AtomicInteger notified = new AtomicInteger();
+        value.addListener((k, v) -> notified.set(v));
+        preferences.setProperty("test.key", 2);
+        assertEquals(2, value.get(), 0);
+        assertEquals(2, notified.get());
+        notified.set(0);
+        preferences.setProperty("test.key", 2);
+        preferences.setProperty("other.key", 3);
+        assertEquals(0, notified.get());
+        preferences.deleteProperty("test.key");
+        assertEquals(1, value.get(), 0);
+        assertEquals(1, notified.get());
+        preferences.setDefault("test.key", "4");
+        assertEquals(4, value.get(), 0);
+    }
+
+    @Test
+    public void testBindOtherPreferences() {
+        final Preferences first = new MemoryPreferences();
+        first.load();
+        first.setDefault("test.key", "true");
+        final Preferences second = new MemoryPreferences();
+        second.load();
+        final PreferenceKey<Boolean> key = PreferenceKey.bool("test.key");
+        assertTrue(key.value(first).get());
+        assertFalse(key.value(second).get());
+        assertTrue(key.value(first).get());
+    }
+}
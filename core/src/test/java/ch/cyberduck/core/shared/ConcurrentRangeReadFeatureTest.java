@@ -0,0 +1,184 @@
+package ch.cyberduck.core.shared;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.ConnectionCallback;
+import ch.cyberduck.core.DefaultIOExceptionMappingService;
+import ch.cyberduck.core.DisabledConnectionCallback;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.TestProtocol;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.features.Read;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.RandomUtils;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ConcurrentRangeReadFeatureTest {
+
+    private static final class RangeRead implements Read {
+        private final byte[] content;
+        private final AtomicInteger requests = new AtomicInteger();
+
+        public RangeRead(final byte[] content) {
+            this.content = content;
+        }
+
+        @Override
+        public InputStream read(final Path file, final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
+            requests.incrementAndGet();
+            if(!status.isAppend()) {
+                return new ByteArrayInputStream(content);
+            }
+            try {
+                // Complete out of order
+                Thread.sleep(RandomUtils.nextInt(0, 5));
+            }
+            catch(InterruptedException e) {
+                throw new NotfoundException(e.getMessage());
+            }
+            return new ByteArrayInputStream(content, (int) status.getOffset(), (int) status.getLength());
+        }
+
+        @Override
+        public boolean offset(final Path file) {
+            return true;
+        }
+    }
+
+    @Test
+    public void testReadOrdered() throws Exception {
+        final byte[] content = RandomUtils.nextBytes(1000);
+        final RangeRead proxy = new RangeRead(content);
+        final ConcurrentRangeReadFeature feature = new ConcurrentRangeReadFeature(new Host(new TestProtocol()), proxy, 4, 64, 0L);
+        final Path file = new Path("/f", EnumSet.of(Path.Type.file));
+        final InputStream in = feature.read(file, new TransferStatus().length(content.length), new DisabledConnectionCallback());
+        assertArrayEquals(content, IOUtils.toByteArray(in));
+        assertEquals(-1, in.read());
+        in.close();
+        assertEquals(16, proxy.requests.get());
+    }
+
+    @Test
+    public void testReadOffset() throws Exception {
+        final byte[] content = RandomUtils.nextBytes(1000);
+        final RangeRead proxy = new RangeRead(content);
+        final ConcurrentRangeReadFeature feature = new ConcurrentRangeReadFeature(new Host(new TestProtocol()), proxy, 3, 100, 0L);
+        final Path file = new Path("/f", EnumSet.of(Path.Type.file));
+        final InputStream in = feature.read(file, new TransferStatus().append(true).skip(150L).length(700L), new DisabledConnectionCallback());
+        assertArrayEquals(Arrays.copyOfRange(content, 150, 850), IOUtils.toByteArray(in));
+        in.close();
+        assertEquals(7, proxy.requests.get());
+    }
+
+    @Test
+    public void testBelowThreshold() throws Exception {
+        final byte[] content = RandomUtils.nextBytes(1000);
+        final RangeRead proxy = new RangeRead(content);
+        final ConcurrentRangeReadFeature feature = new ConcurrentRangeReadFeature(new Host(new TestProtocol()), proxy, 4, 64, 2000L);
+        final InputStream in = feature.read(new Path("/f", EnumSet.of(Path.Type.file)), new TransferStatus().length(content.length), new DisabledConnectionCallback());
+        assertArrayEquals(content, IOUtils.toByteArray(in));
+        assertEquals(1, proxy.requests.get());
+    }
+
+    @Test
+    public void testPinRanges() throws Exception {
+        final byte[] content = RandomUtils.nextBytes(1000);
+        final Set<String> etags = ConcurrentHashMap.newKeySet();
+        final ConcurrentRangeReadFeature feature = new ConcurrentRangeReadFeature(new Host(new TestProtocol()), new Read() {
+            @Override
+            public InputStream read(final Path file, final TransferStatus status, final ConnectionCallback callback) {
+                etags.add(status.getRemote().getETag());
+                return new ByteArrayInputStream(content, (int) status.getOffset(), (int) status.getLength());
+            }
+
+            @Override
+            public boolean offset(final Path file) {
+                return true;
+            }
+        }, 4, 100, 0L);
+        final Path file = new Path("/f", EnumSet.of(Path.Type.file));
+        file.attributes().setETag("a");
+        final InputStream in = feature.read(file, new TransferStatus().length(content.length), new DisabledConnectionCallback());
+        assertArrayEquals(content, IOUtils.toByteArray(in));
+        in.close();
+        assertEquals(Collections.singleton("a"), etags);
+    }
+
+    @Test
+    public void testFailureCause() throws Exception {
+        final ConcurrentRangeReadFeature feature = new ConcurrentRangeReadFeature(new Host(new TestProtocol()), new Read() {
+            @Override
+            public InputStream read(final Path file, final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
+                throw new NotfoundException(file.getAbsolute());
+            }
+
+            @Override
+            public boolean offset(final Path file) {
+                return true;
+            }
+        }, 2, 64, 0L);
+        final InputStream in = feature.read(new Path("/f", EnumSet.of(Path.Type.file)), new TransferStatus().length(1000L), new DisabledConnectionCallback());
+        try {
+            in.read();
+            fail();
+        }
+        catch(IOException e) {
+            assertTrue(e.getCause() instanceof NotfoundException);
+            assertTrue(new DefaultIOExceptionMappingService().map(e) instanceof NotfoundException);
+        }
+        finally {
+            in.close();
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testFailure() throws Exception {
+        final ConcurrentRangeReadFeature feature = new ConcurrentRangeReadFeature(new Host(new TestProtocol()), new Read() {
+            @Override
+            public InputStream read(final Path file, final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
+                throw new NotfoundException(file.getAbsolute());
+            }
+
+            @Override
+            public boolean offset(final Path file) {
+                return true;
+            }
+        }, 2, 64, 0L);
+        final InputStream in = feature.read(new Path("/f", EnumSet.of(Path.Type.file)), new TransferStatus().length(1000L), new DisabledConnectionCallback());
+        try {
+            in.read();
+        }
+        finally {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package ch.cyberduck.core.socket;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class HappyEyeballsConnectorTest {
+
+    @Test
+    public void testSortInterleave() throws Exception {
+        final InetAddress v4a = InetAddress.getByName("127.0.0.1");
+        final InetAddress v4b = InetAddress.getByName("127.0.0.2");
+        final InetAddress v6a = InetAddress.getByName("::1");
+        final InetAddress v6b = InetAddress.getByName("::2");
+        final List<InetAddress> sorted = HappyEyeballsConnector.sort(new InetAddress[]{v6a, v6b, v4a, v4b});
+        assertEquals(v6a, sorted.get(0));
+        assertEquals(v4a, sorted.get(1));
+        assertEquals(v6b, sorted.get(2));
+        assertEquals(v4b, sorted.get(3));
+    }
+
+    @Test
+    public void testConnectFallback() throws Exception {
+        try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            final InetAddress unreachable = InetAddress.getByName("192.0.2.1");
+            final Socket socket = new HappyEyeballsConnector(50L).connect(new InetAddress[]{unreachable, server.getInetAddress()},
+                new HappyEyeballsConnector.Attempt() {
+                    @Override
+                    public Socket create() {
+                        return new Socket();
+                    }
+
+                    @Override
+                    public Socket connect(final Socket socket, final InetAddress address) throws IOException {
+                        socket.connect(new InetSocketAddress(address, server.getLocalPort()), 5000);
+                        return socket;
+                    }
+                });
+            assertTrue(socket.isConnected());
+            assertEquals(server.getInetAddress(), socket.getInetAddress());
+            socket.close();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package ch.cyberduck.core.transfer;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.TestProtocol;
+import ch.cyberduck.core.io.BatchedStreamListener;
+import ch.cyberduck.core.io.DisabledStreamListener;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress reported for every chunk from 32 connections to shared atomic counters compared to striped counters
+ * published at a fixed interval
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Threads(32)
+@Fork(1)
+public class TransferProgressBenchmark {
+
+    private final AtomicLong transferred = new AtomicLong();
+    private final AtomicLong throughput = new AtomicLong();
+
+    private Transfer transfer;
+    private BatchedStreamListener listener;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        transfer = new DownloadTransfer(new Host(new TestProtocol()), new Path("/p", EnumSet.of(Path.Type.file)), new Local("/t"));
+        listener = new BatchedStreamListener(new DisabledStreamListener(), 100L);
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() {
+        listener.close();
+    }
+
+    @Benchmark
+    public long atomic() {
+        throughput.addAndGet(32768L);
+        return transferred.addAndGet(32768L);
+    }
+
+    @Benchmark
+    public void striped() {
+        transfer.addTransferred(32768L);
+        listener.recv(32768L);
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TransferProgressBenchmark.class.getSimpleName()).build()).run();
+    }
+}
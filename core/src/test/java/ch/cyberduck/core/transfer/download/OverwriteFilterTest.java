@@ -1,7 +1,11 @@
 package ch.cyberduck.core.transfer.download;
 
+import ch.cyberduck.core.ConnectionCallback;
+import ch.cyberduck.core.DisabledPasswordCallback;
+import ch.cyberduck.core.DisabledPasswordStore;
 import ch.cyberduck.core.DisabledProgressListener;
 import ch.cyberduck.core.Host;
+import ch.cyberduck.core.Local;
 import ch.cyberduck.core.LocalAttributes;
 import ch.cyberduck.core.NullLocal;
 import ch.cyberduck.core.NullSession;
@@ -10,12 +14,19 @@ import ch.cyberduck.core.Path;
 import ch.cyberduck.core.Permission;
 import ch.cyberduck.core.TestProtocol;
 import ch.cyberduck.core.exception.AccessDeniedException;
+import ch.cyberduck.core.features.Download;
+import ch.cyberduck.core.features.Read;
+import ch.cyberduck.core.http.ConcurrentRangeDownloadFeature;
 import ch.cyberduck.core.local.DefaultLocalTouchFeature;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.transfer.TransferStatus;
 import ch.cyberduck.core.transfer.symlink.DisabledDownloadSymlinkResolver;
+import ch.cyberduck.core.vault.DefaultVaultRegistry;
+import ch.cyberduck.core.vault.registry.VaultRegistryDownloadFeature;
 
 import org.junit.Test;
 
+import java.io.InputStream;
 import java.util.EnumSet;
 import java.util.UUID;
 
@@ -98,4 +109,41 @@ public class OverwriteFilterTest {
         new DefaultLocalTouchFeature().touch(l);
         f.prepare(new Path("a", EnumSet.of(Path.Type.directory)), l, new TransferStatus().exists(true), new DisabledProgressListener());
     }
+
+    @Test
+    public void testPrepareConcurrentRanges() throws Exception {
+        final NullTransferSession session = new NullTransferSession(new Host(new TestProtocol())) {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> T _getFeature(final Class<T> type) {
+                if(type == Download.class) {
+                    return (T) new ConcurrentRangeDownloadFeature(this.getHost(), new Read() {
+                        @Override
+                        public InputStream read(final Path file, final TransferStatus status, final ConnectionCallback callback) {
+                            throw new UnsupportedOperationException();
+                        }
+
+                        @Override
+                        public boolean offset(final Path file) {
+                            return true;
+                        }
+                    }, 4, 8L * 1024L * 1024L, 32L * 1024L * 1024L, 1024L * 1024L);
+                }
+                return super._getFeature(type);
+            }
+        };
+        session.withRegistry(new DefaultVaultRegistry(new DisabledPasswordStore(), new DisabledPasswordCallback()));
+        assertTrue(session.getFeature(Download.class) instanceof VaultRegistryDownloadFeature);
+        final DownloadFilterOptions options = new DownloadFilterOptions();
+        options.segments = true;
+        final OverwriteFilter f = new OverwriteFilter(new DisabledDownloadSymlinkResolver(), session, options);
+        final Local local = new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString());
+        final Path large = new Path("/a", EnumSet.of(Path.Type.file));
+        large.attributes().setSize(64L * 1024L * 1024L);
+        // Ranges requested concurrently by download feature
+        assertFalse(f.prepare(large, local, new TransferStatus(), new DisabledProgressListener()).isSegmented());
+        final Path small = new Path("/b", EnumSet.of(Path.Type.file));
+        small.attributes().setSize(16L * 1024L * 1024L);
+        assertTrue(f.prepare(small, local, new TransferStatus(), new DisabledProgressListener()).isSegmented());
+    }
 }
@@ -0,0 +1,76 @@
+package ch.cyberduck.core.transfer.download;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.RandomUtils;
+import org.junit.Test;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class SegmentedFileChannelTest {
+
+    @Test
+    public void testWriteSegments() throws Exception {
+        final Local local = new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString());
+        final byte[] content = RandomUtils.nextBytes(1000);
+        SegmentedFileChannel.allocate(local, content.length);
+        assertEquals(content.length, local.attributes().getSize());
+        assertTrue(SegmentedFileChannel.toJournal(local).exists());
+        assertTrue(SegmentedFileChannel.progress(local).isEmpty());
+        // Write out of order
+        final OutputStream second = SegmentedFileChannel.open(local).getOutputStream(2, 600L);
+        final OutputStream first = SegmentedFileChannel.open(local).getOutputStream(1, 0L);
+        second.write(content, 600, 400);
+        first.write(content, 0, 300);
+        first.close();
+        second.close();
+        final Map<Integer, Long> progress = SegmentedFileChannel.progress(local);
+        assertEquals(300L, progress.get(1), 0L);
+        assertEquals(1000L, progress.get(2), 0L);
+        // Resume first segment
+        final OutputStream resume = SegmentedFileChannel.open(local).getOutputStream(1, 300L);
+        resume.write(content, 300, 300);
+        resume.close();
+        assertEquals(600L, SegmentedFileChannel.progress(local).get(1), 0L);
+        final InputStream in = local.getInputStream();
+        assertArrayEquals(content, IOUtils.toByteArray(in));
+        in.close();
+        SegmentedFileChannel.complete(local);
+        assertFalse(SegmentedFileChannel.toJournal(local).exists());
+        local.delete();
+    }
+
+    @Test
+    public void testAllocateTruncate() throws Exception {
+        final Local local = new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString());
+        final OutputStream out = local.getOutputStream(false);
+        out.write(RandomUtils.nextBytes(2000));
+        out.close();
+        SegmentedFileChannel.allocate(local, 1000L);
+        assertEquals(1000L, local.attributes().getSize());
+        SegmentedFileChannel.complete(local);
+        local.delete();
+    }
+}
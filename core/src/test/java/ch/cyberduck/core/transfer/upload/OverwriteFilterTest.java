@@ -1,12 +1,15 @@
 package ch.cyberduck.core.transfer.upload;
 
 import ch.cyberduck.core.Acl;
+import ch.cyberduck.core.AttributedList;
 import ch.cyberduck.core.DisabledProgressListener;
 import ch.cyberduck.core.Host;
+import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.LocalAttributes;
 import ch.cyberduck.core.NullLocal;
 import ch.cyberduck.core.NullSession;
 import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathCache;
 import ch.cyberduck.core.Permission;
 import ch.cyberduck.core.TestProtocol;
 import ch.cyberduck.core.exception.AccessDeniedException;
@@ -17,7 +20,9 @@ import ch.cyberduck.core.transfer.symlink.DisabledUploadSymlinkResolver;
 
 import org.junit.Test;
 
+import java.util.Collections;
 import java.util.EnumSet;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
 
@@ -160,4 +165,45 @@ public class OverwriteFilterTest {
         );
         f.prepare(new Path("a", EnumSet.of(Path.Type.directory)), new NullLocal(System.getProperty("java.io.tmpdir")), new TransferStatus().exists(true), new DisabledProgressListener());
     }
+
+    @Test
+    public void testPrepareFromParentListing() throws Exception {
+        final Path directory = new Path("/t", EnumSet.of(Path.Type.directory));
+        final Path existing = new Path(directory, "a", EnumSet.of(Path.Type.file));
+        existing.attributes().setSize(3L);
+        final AtomicInteger listed = new AtomicInteger();
+        final AtomicInteger found = new AtomicInteger();
+        final NullSession session = new NullSession(new Host(new TestProtocol())) {
+            @Override
+            public AttributedList<Path> list(final Path file, final ListProgressListener listener) {
+                assertEquals(directory, file);
+                listed.incrementAndGet();
+                return new AttributedList<>(Collections.singletonList(existing));
+            }
+        };
+        final PathCache cache = new PathCache(1);
+        final ParentListingResolver listing = new ParentListingResolver(10);
+        final AbstractUploadFilter f = new OverwriteFilter(new DisabledUploadSymlinkResolver(), session).withFinder(new Find() {
+            @Override
+            public boolean find(final Path file) {
+                found.incrementAndGet();
+                return false;
+            }
+        }).withCache(cache).withListing(listing);
+        // Single file looked up individually without listing parent
+        assertFalse(f.prepare(new Path(directory, "b", EnumSet.of(Path.Type.file)), new NullLocal(System.getProperty("java.io.tmpdir"), "b"),
+            new TransferStatus().exists(true), new DisabledProgressListener()).isExists());
+        assertEquals(0, listed.get());
+        assertEquals(2, found.get());
+        // Entered by recursive upload
+        listing.list(session, directory, cache);
+        final TransferStatus status = f.prepare(new Path(directory, "a", EnumSet.of(Path.Type.file)), new NullLocal(System.getProperty("java.io.tmpdir"), "a"),
+            new TransferStatus().exists(true), new DisabledProgressListener());
+        assertTrue(status.isExists());
+        assertEquals(3L, status.getRemote().getSize());
+        assertFalse(f.prepare(new Path(directory, "b", EnumSet.of(Path.Type.file)), new NullLocal(System.getProperty("java.io.tmpdir"), "b"),
+            new TransferStatus().exists(true), new DisabledProgressListener()).isExists());
+        assertEquals(1, listed.get());
+        assertEquals(2, found.get());
+    }
 }
@@ -0,0 +1,108 @@
+package ch.cyberduck.core.transfer.upload;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.ListProgressListener;
+import ch.cyberduck.core.NullSession;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathCache;
+import ch.cyberduck.core.TestProtocol;
+import ch.cyberduck.core.exception.AccessDeniedException;
+import ch.cyberduck.core.exception.BackgroundException;
+
+import org.junit.Test;
+
+import java.util.EnumSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ParentListingResolverTest {
+
+    @Test
+    public void testList() throws Exception {
+        final AtomicInteger count = new AtomicInteger();
+        final NullSession session = new NullSession(new Host(new TestProtocol())) {
+            @Override
+            public AttributedList<Path> list(final Path folder, final ListProgressListener listener) throws BackgroundException {
+                count.incrementAndGet();
+                final AttributedList<Path> list = new AttributedList<>();
+                for(int i = 0; i < 3; i++) {
+                    list.add(new Path(folder, String.valueOf(i), EnumSet.of(Path.Type.file)));
+                    listener.chunk(folder, list);
+                }
+                return list;
+            }
+        };
+        final PathCache cache = new PathCache(10);
+        final Path small = new Path("/small", EnumSet.of(Path.Type.directory));
+        final ParentListingResolver resolver = new ParentListingResolver(3);
+        assertEquals(3, resolver.list(session, small, cache).size());
+        assertTrue(cache.isCached(small));
+        assertEquals(3, cache.get(small).size());
+        assertNotNull(resolver.list(session, small, cache));
+        assertEquals(1, count.get());
+        final Path large = new Path("/large", EnumSet.of(Path.Type.directory));
+        assertNull(new ParentListingResolver(2).list(session, large, cache));
+        assertFalse(cache.isCached(large));
+        assertEquals(2, count.get());
+    }
+
+    @Test
+    public void testExceededListedOnce() throws Exception {
+        final AtomicInteger count = new AtomicInteger();
+        final NullSession session = new NullSession(new Host(new TestProtocol())) {
+            @Override
+            public AttributedList<Path> list(final Path folder, final ListProgressListener listener) throws BackgroundException {
+                count.incrementAndGet();
+                final AttributedList<Path> list = new AttributedList<>();
+                list.add(new Path(folder, "a", EnumSet.of(Path.Type.file)));
+                list.add(new Path(folder, "b", EnumSet.of(Path.Type.file)));
+                listener.chunk(folder, list);
+                return list;
+            }
+        };
+        final PathCache cache = new PathCache(10);
+        final Path directory = new Path("/d", EnumSet.of(Path.Type.directory));
+        final ParentListingResolver resolver = new ParentListingResolver(1);
+        assertNull(resolver.list(session, directory, cache));
+        assertNull(resolver.list(session, directory, cache));
+        assertEquals(1, count.get());
+        resolver.clear();
+        assertNull(resolver.list(session, directory, cache));
+        assertEquals(2, count.get());
+    }
+
+    @Test
+    public void testFailure() throws Exception {
+        final AtomicInteger count = new AtomicInteger();
+        final NullSession session = new NullSession(new Host(new TestProtocol())) {
+            @Override
+            public AttributedList<Path> list(final Path folder, final ListProgressListener listener) throws BackgroundException {
+                count.incrementAndGet();
+                throw new AccessDeniedException();
+            }
+        };
+        final PathCache cache = new PathCache(10);
+        final Path directory = new Path("/d", EnumSet.of(Path.Type.directory));
+        final ParentListingResolver resolver = new ParentListingResolver(1);
+        assertNull(resolver.list(session, directory, cache));
+        assertNull(resolver.list(session, directory, cache));
+        assertEquals(1, count.get());
+    }
+}
@@ -0,0 +1,92 @@
+package ch.cyberduck.core.worker;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.metrics.MetricRegistry;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+public class AdaptiveConcurrencyControllerTest {
+
+    @Test
+    public void testIncreaseWithScalingThroughput() {
+        final AdaptiveConcurrencyController controller = new AdaptiveConcurrencyController(2, 1, 32);
+        // Throughput proportional to connections with latency bound small files
+        for(int i = 0; i < 100; i++) {
+            final int limit = controller.getLimit();
+            controller.update(limit * 100d, limit);
+        }
+        assertEquals(32, controller.getLimit());
+    }
+
+    @Test
+    public void testNoIncreaseWhenIdle() {
+        final AdaptiveConcurrencyController controller = new AdaptiveConcurrencyController(4, 1, 32);
+        for(int i = 0; i < 10; i++) {
+            controller.update(100d, 1);
+        }
+        assertEquals(4, controller.getLimit());
+    }
+
+    @Test
+    public void testDecreaseWithThrottledThroughput() {
+        final AtomicInteger previous = new AtomicInteger();
+        final AdaptiveConcurrencyController throttled = new AdaptiveConcurrencyController(20, 1, 32,
+            (p, limit, throughput, errors) -> previous.set(p));
+        // Baseline with three busy connections
+        throttled.update(3000d, 3);
+        for(int i = 0; i < 50; i++) {
+            final int limit = throttled.getLimit();
+            // Server limits total throughput regardless of number of connections
+            throttled.update(3000d, limit);
+        }
+        assertEquals(6, throttled.getLimit());
+        assertEquals(6, previous.get());
+    }
+
+    @Test
+    public void testHalveOnFailures() {
+        final AdaptiveConcurrencyController controller = new AdaptiveConcurrencyController(16, 2, 32);
+        controller.success();
+        controller.failure();
+        assertEquals(8, controller.update(1000d, 16));
+        // Counters reset with new period
+        controller.success();
+        assertEquals(8, controller.update(0d, 8));
+        for(int i = 0; i < 10; i++) {
+            controller.failure();
+            controller.update(0d, 8);
+        }
+        assertEquals(2, controller.getLimit());
+    }
+
+    @Test
+    public void testRecordMetrics() {
+        final MetricRegistry registry = new MetricRegistry();
+        final AdaptiveConcurrencyController controller = new AdaptiveConcurrencyController(16, 2, 32,
+            new DefaultConcurrencyMetrics(registry));
+        controller.failure();
+        controller.update(1000d, 16);
+        controller.update(0d, 8);
+        assertEquals(1L, registry.counter("transfer_concurrency_changes_total", "direction", "decrease").get());
+        assertEquals(0L, registry.counter("transfer_concurrency_changes_total", "direction", "increase").get());
+        assertEquals(1L, registry.counter("transfer_concurrency_error_periods_total").get());
+    }
+}
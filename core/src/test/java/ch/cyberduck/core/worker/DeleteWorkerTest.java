@@ -21,9 +21,12 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 public class DeleteWorkerTest {
@@ -109,4 +112,64 @@ public class DeleteWorkerTest {
             PathCache.empty(), new DisabledProgressListener());
         worker.run(session);
     }
+
+    @Test
+    public void testBatch() throws Exception {
+        final List<Path> deleted = Collections.synchronizedList(new ArrayList<>());
+        final Session session = new NullSession(new Host(new TestProtocol())) {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> T _getFeature(final Class<T> type) {
+                if(type == Delete.class) {
+                    return (T) new Delete() {
+                        @Override
+                        public void delete(final Map<Path, TransferStatus> files, final PasswordCallback prompt, final Callback callback) {
+                            assertTrue(files.size() <= 2);
+                            deleted.addAll(files.keySet());
+                        }
+
+                        @Override
+                        public int getBatchSize(final Path file) {
+                            return 2;
+                        }
+                    };
+                }
+                return super._getFeature(type);
+            }
+
+            @Override
+            public AttributedList<Path> list(final Path file, final ListProgressListener listener) {
+                if(file.equals(new Path("/t", EnumSet.of(Path.Type.directory)))) {
+                    return new AttributedList<Path>(Arrays.asList(
+                        new Path("/t/a", EnumSet.of(Path.Type.file)),
+                        new Path("/t/c", EnumSet.of(Path.Type.file)),
+                        new Path("/t/d", EnumSet.of(Path.Type.directory))
+                    ));
+                }
+                if(file.equals(new Path("/t/d", EnumSet.of(Path.Type.directory)))) {
+                    return new AttributedList<Path>(Collections.singletonList(
+                        new Path("/t/d/b", EnumSet.of(Path.Type.file))
+                    ));
+                }
+                fail();
+                return null;
+            }
+        };
+        final PathCache cache = new PathCache(10);
+        cache.put(new Path("/t", EnumSet.of(Path.Type.directory)), new AttributedList<>());
+        cache.put(new Path("/t/d", EnumSet.of(Path.Type.directory)), new AttributedList<>());
+        final DeleteWorker worker = new DeleteWorker(new DisabledLoginCallback(),
+            Collections.singletonList(new Path("/t", EnumSet.of(Path.Type.directory))), cache,
+            new DisabledProgressListener());
+        // Only selected files returned
+        assertEquals(Collections.singletonList(new Path("/t", EnumSet.of(Path.Type.directory))), worker.run(session));
+        // Invalidated with completed batches
+        assertFalse(cache.isValid(new Path("/t", EnumSet.of(Path.Type.directory))));
+        assertFalse(cache.isValid(new Path("/t/d", EnumSet.of(Path.Type.directory))));
+        assertEquals(5, deleted.size());
+        assertTrue(deleted.contains(new Path("/t/d/b", EnumSet.of(Path.Type.file))));
+        assertTrue(deleted.contains(new Path("/t/d", EnumSet.of(Path.Type.directory))));
+        // Selected directory deleted last
+        assertEquals(new Path("/t", EnumSet.of(Path.Type.directory)), deleted.get(4));
+    }
 }
@@ -20,6 +20,7 @@ import ch.cyberduck.core.features.AttributesFinder;
 import ch.cyberduck.core.io.DisabledStreamListener;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.notification.DisabledNotificationService;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.transfer.DisabledTransferErrorCallback;
 import ch.cyberduck.core.transfer.DisabledTransferPrompt;
 import ch.cyberduck.core.transfer.DownloadTransfer;
@@ -34,8 +35,11 @@ import ch.cyberduck.core.transfer.download.AbstractDownloadFilter;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.List;
 import java.util.concurrent.Future;
 
 import static org.junit.Assert.*;
@@ -293,4 +297,73 @@ public class SingleTransferWorkerTest {
             throw e;
         }
     }
+
+    @Test
+    public void testUploadPipelined() throws Exception {
+        final Path child = new Path("/t/c", EnumSet.of(Path.Type.file));
+        final Path root = new Path("/t", EnumSet.of(Path.Type.directory));
+        final NullLocal local = new NullLocal("l") {
+            @Override
+            public AttributedList<Local> list() {
+                AttributedList<Local> l = new AttributedList<Local>();
+                l.add(new NullLocal(this.getAbsolute(), "c") {
+                    @Override
+                    public boolean exists() {
+                        return true;
+                    }
+                });
+                return l;
+            }
+
+            @Override
+            public boolean exists() {
+                return true;
+            }
+        };
+        final List<Path> transferred = new ArrayList<>();
+        final Transfer t = new UploadTransfer(new Host(new TestProtocol()), root, local) {
+            @Override
+            public void transfer(final Session<?> source, final Session<?> destination, final Path file, Local local,
+                                 final TransferOptions options, final TransferStatus status,
+                                 final ConnectionCallback connectionCallback,
+                                 final ProgressListener listener, final StreamListener streamListener) {
+                transferred.add(file);
+                status.setComplete();
+            }
+
+            @Override
+            public boolean isPipelined(final Session<?> source, final Session<?> destination) {
+                return true;
+            }
+        };
+        final NullSession session = new NullSession(new Host(new TestProtocol()));
+        final SingleTransferWorker worker = new SingleTransferWorker(session, session, t, new TransferOptions(), new TransferSpeedometer(t), new DisabledTransferPrompt() {
+            @Override
+            public TransferAction prompt(final TransferItem file) {
+                return TransferAction.overwrite;
+            }
+        }, new DisabledTransferErrorCallback(),
+            new DisabledProgressListener(), new DisabledStreamListener(), new DisabledLoginCallback(), new DisabledNotificationService()) {
+            @Override
+            public Future<TransferStatus> transfer(final TransferItem item, final TransferAction action) throws BackgroundException {
+                // Prepared file is transferred without its directory put in cache
+                assertFalse(this.getCache().isCached(new TransferItem(root, local)));
+                final Future<TransferStatus> future = super.transfer(item, action);
+                if(item.remote.equals(child)) {
+                    // Released when complete
+                    assertFalse(this.getStatus().containsKey(item));
+                }
+                return future;
+            }
+        };
+        PreferencesFactory.get().setProperty("queue.transfer.pipeline", true);
+        try {
+            worker.run(session);
+        }
+        finally {
+            PreferencesFactory.get().deleteProperty("queue.transfer.pipeline");
+        }
+        assertEquals(Arrays.asList(root, child), transferred);
+        assertTrue(worker.getStatus().isEmpty());
+    }
 }
@@ -1,10 +1,14 @@
 package ch.cyberduck.ui.comparator;
 
+import ch.cyberduck.core.AttributedList;
 import ch.cyberduck.core.Path;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
 
@@ -21,4 +25,26 @@ public class FilenameComparatorTest {
         assertEquals(1,
                 new FilenameComparator(true).compareFirst(new Path("/b", EnumSet.of(Path.Type.file)), new Path("/a", EnumSet.of(Path.Type.directory))));
     }
+
+    @Test
+    public void testSortWithKeys() {
+        final Random random = new Random(1L);
+        final String[] names = {"a", "A", "b", "a-b", "a b", "file10", "file2", "File1", "ä", "z"};
+        for(int size : new int[]{100, 20000}) {
+            final AttributedList<Path> list = new AttributedList<>();
+            for(int i = 0; i < size; i++) {
+                list.add(new Path(String.format("/%s%d", names[random.nextInt(names.length)], random.nextInt(size)), EnumSet.of(Path.Type.file)));
+            }
+            for(boolean ascending : new boolean[]{true, false}) {
+                final FilenameComparator comparator = new FilenameComparator(ascending);
+                final List<Path> expected = new ArrayList<>();
+                list.forEach(expected::add);
+                // Compare every pair without precomputed keys
+                expected.sort(comparator::compare);
+                final List<Path> sorted = new ArrayList<>();
+                list.filter(comparator).forEach(sorted::add);
+                assertEquals(expected, sorted);
+            }
+        }
+    }
 }
@@ -0,0 +1,84 @@
+package ch.cyberduck.ui.comparator;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.Path;
+
+import org.apache.commons.lang3.RandomStringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sort directory listing by filename comparing every pair with the collator compared to precomputed collation keys
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class FilenameSortBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int files;
+
+    private AttributedList<Path> list;
+    private final FilenameComparator comparator = new FilenameComparator(true);
+
+    @Setup(Level.Trial)
+    public void setup() {
+        list = new AttributedList<>();
+        for(int i = 0; i < files; i++) {
+            list.add(new Path(String.format("/%s-%d.txt", RandomStringUtils.randomAlphanumeric(8), i), EnumSet.of(Path.Type.file)));
+        }
+    }
+
+    @Benchmark
+    public List<Path> pairwise() {
+        final List<Path> copy = new ArrayList<>(files);
+        list.forEach(copy::add);
+        copy.sort(comparator::compare);
+        return copy;
+    }
+
+    @Benchmark
+    public AttributedList<Path> keyed() {
+        return list.filter(comparator);
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(FilenameSortBenchmark.class.getSimpleName()).build()).run();
+    }
+}
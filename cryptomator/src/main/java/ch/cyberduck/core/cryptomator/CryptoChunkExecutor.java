@@ -0,0 +1,98 @@
+package ch.cyberduck.core.cryptomator;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
+
+import org.cryptomator.cryptolib.api.CryptoException;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Encrypt or decrypt file content chunks on a pool shared by all streams. Chunks are authenticated independently and
+ * can be processed in any order.
+ */
+final class CryptoChunkExecutor {
+
+    private static ThreadPool pool;
+
+    /**
+     * @return Shared pool sized from preferences independent of the concurrency of the calling stream
+     */
+    private static synchronized ThreadPool pool() {
+        if(null == pool) {
+            pool = ThreadPoolFactory.get("cryptor",
+                Math.max(1, PreferencesFactory.get().getInteger("cryptomator.cryptor.concurrency")));
+        }
+        return pool;
+    }
+
+    private final int concurrency;
+
+    public CryptoChunkExecutor() {
+        this(PreferencesFactory.get().getInteger("cryptomator.cryptor.concurrency"));
+    }
+
+    /**
+     * @param concurrency Maximum number of chunks pending per stream. Chunks are processed on the calling thread if
+     *                    not greater than 1.
+     */
+    public CryptoChunkExecutor(final int concurrency) {
+        this.concurrency = Math.max(1, concurrency);
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public <T> Future<T> submit(final Callable<T> chunk) {
+        if(concurrency > 1) {
+            return pool().execute(chunk);
+        }
+        final FutureTask<T> task = new FutureTask<>(chunk);
+        task.run();
+        return task;
+    }
+
+    /**
+     * Wait for chunk to complete
+     */
+    public <T> T await(final Future<T> chunk) throws IOException {
+        try {
+            return chunk.get();
+        }
+        catch(InterruptedException e) {
+            throw new InterruptedIOException(e.getMessage());
+        }
+        catch(ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if(cause instanceof CryptoException) {
+                throw new IOException(cause.getMessage(), new CryptoAuthenticationException(cause.getMessage(), cause));
+            }
+            if(cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException(cause.getMessage(), cause);
+        }
+    }
+}
@@ -15,16 +15,23 @@ package ch.cyberduck.core.cryptomator;
  * GNU General Public License for more details.
  */
 
+import ch.cyberduck.core.io.SegmentBufferPool;
+
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.input.ProxyInputStream;
-import org.cryptomator.cryptolib.api.CryptoException;
 import org.cryptomator.cryptolib.api.FileContentCryptor;
 import org.cryptomator.cryptolib.api.FileHeader;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Future;
 
+/**
+ * Read ahead ciphertext chunks and decrypt them in parallel while returning cleartext in order
+ */
 public class CryptoInputStream extends ProxyInputStream {
 
     private final InputStream proxy;
@@ -39,21 +46,42 @@ public class CryptoInputStream extends ProxyInputStream {
     private long chunkIndexOffset;
     private final int chunkSize;
 
+    private final CryptoChunkExecutor executor;
+    /**
+     * Reused ciphertext chunks
+     */
+    private final SegmentBufferPool buffers;
+    private final Deque<Future<ByteBuffer>> pending = new ArrayDeque<>();
+    /**
+     * No more chunks to read from proxy
+     */
+    private boolean eof;
+
     public CryptoInputStream(final InputStream proxy, final FileContentCryptor cryptor, final FileHeader header, final long chunkIndexOffset) {
+        this(proxy, cryptor, header, chunkIndexOffset, new CryptoChunkExecutor());
+    }
+
+    public CryptoInputStream(final InputStream proxy, final FileContentCryptor cryptor, final FileHeader header, final long chunkIndexOffset,
+                             final CryptoChunkExecutor executor) {
         super(proxy);
         this.proxy = proxy;
         this.cryptor = cryptor;
         this.header = header;
         this.chunkSize = cryptor.ciphertextChunkSize();
         this.chunkIndexOffset = chunkIndexOffset;
+        this.executor = executor;
+        this.buffers = new SegmentBufferPool(chunkSize, executor.getConcurrency(), Long.MAX_VALUE);
     }
 
     @Override
     public int read() throws IOException {
-        if(!buffer.hasRemaining()) {
-            this.readNextChunk();
+        while(!buffer.hasRemaining()) {
+            final int read = this.readNextChunk();
+            if(read == IOUtils.EOF) {
+                return IOUtils.EOF;
+            }
         }
-        return buffer.get();
+        return buffer.get() & 0xFF;
     }
 
     @Override
@@ -63,7 +91,7 @@ public class CryptoInputStream extends ProxyInputStream {
 
     @Override
     public int read(final byte[] dst, final int off, final int len) throws IOException {
-        if(!buffer.hasRemaining()) {
+        while(!buffer.hasRemaining()) {
             final int read = this.readNextChunk();
             if(read == IOUtils.EOF) {
                 return IOUtils.EOF;
@@ -80,19 +108,41 @@ public class CryptoInputStream extends ProxyInputStream {
     }
 
     private int readNextChunk() throws IOException {
-        final ByteBuffer ciphertextBuf = ByteBuffer.allocate(chunkSize);
-        final int read = IOUtils.read(proxy, ciphertextBuf.array());
-        if(read == 0) {
-            return IOUtils.EOF;
+        while(!eof && pending.size() < executor.getConcurrency()) {
+            final byte[] ciphertext = buffers.acquire();
+            final int read = IOUtils.read(proxy, ciphertext);
+            if(read == 0) {
+                buffers.release(ciphertext);
+                eof = true;
+                break;
+            }
+            if(read < chunkSize) {
+                // Last chunk
+                eof = true;
+            }
+            final long chunkIndex = chunkIndexOffset++;
+            pending.add(executor.submit(() -> {
+                try {
+                    return cryptor.decryptChunk(ByteBuffer.wrap(ciphertext, 0, read), chunkIndex, header, true);
+                }
+                finally {
+                    buffers.release(ciphertext);
+                }
+            }));
         }
-        ciphertextBuf.position(read);
-        ciphertextBuf.flip();
-        try {
-            buffer = cryptor.decryptChunk(ciphertextBuf, chunkIndexOffset++, header, true);
+        if(pending.isEmpty()) {
+            return IOUtils.EOF;
         }
-        catch(CryptoException e) {
-            throw new IOException(e.getMessage(), new CryptoAuthenticationException(e.getMessage(), e));
+        buffer = executor.await(pending.remove());
+        return buffer.remaining();
+    }
+
+    @Override
+    public void close() throws IOException {
+        for(Future<ByteBuffer> chunk : pending) {
+            chunk.cancel(false);
         }
-        return read;
+        pending.clear();
+        super.close();
     }
 }
@@ -17,18 +17,20 @@ package ch.cyberduck.core.cryptomator;
 
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.io.MemorySegementingOutputStream;
+import ch.cyberduck.core.io.SegmentBufferPool;
 import ch.cyberduck.core.io.StatusOutputStream;
 import ch.cyberduck.core.random.NonceGenerator;
 
 import org.apache.commons.io.output.ProxyOutputStream;
-import org.cryptomator.cryptolib.api.CryptoException;
 import org.cryptomator.cryptolib.api.FileContentCryptor;
 import org.cryptomator.cryptolib.api.FileHeader;
 
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
-import java.util.Arrays;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Future;
 
 public class CryptoOutputStream<Reply> extends StatusOutputStream<Reply> {
 
@@ -56,6 +58,9 @@ public class CryptoOutputStream<Reply> extends StatusOutputStream<Reply> {
         write(b, 0, b.length);
     }
 
+    /**
+     * Encrypt chunks in parallel and write them to the proxy in order as they complete
+     */
     private static final class EncryptingOutputStream extends ProxyOutputStream {
         private final FileContentCryptor cryptor;
         private final FileHeader header;
@@ -63,6 +68,13 @@ public class CryptoOutputStream<Reply> extends StatusOutputStream<Reply> {
         private final NonceGenerator nonces;
         private long chunkIndexOffset;
 
+        private final CryptoChunkExecutor executor = new CryptoChunkExecutor();
+        /**
+         * Reused cleartext chunks
+         */
+        private final SegmentBufferPool buffers;
+        private final Deque<Future<ByteBuffer>> pending = new ArrayDeque<>();
+
         public EncryptingOutputStream(final OutputStream proxy, final FileContentCryptor cryptor, final FileHeader header,
                                       final NonceGenerator nonces, final long chunkIndexOffset) {
             super(proxy);
@@ -71,6 +83,7 @@ public class CryptoOutputStream<Reply> extends StatusOutputStream<Reply> {
             this.chunksize = cryptor.cleartextChunkSize();
             this.nonces = nonces;
             this.chunkIndexOffset = chunkIndexOffset;
+            this.buffers = new SegmentBufferPool(chunksize, executor.getConcurrency(), Long.MAX_VALUE);
         }
 
         @Override
@@ -80,17 +93,53 @@ public class CryptoOutputStream<Reply> extends StatusOutputStream<Reply> {
 
         @Override
         public void write(final byte[] b, final int off, final int len) throws IOException {
+            for(int chunkOffset = off; chunkOffset < off + len; chunkOffset += chunksize) {
+                if(pending.size() >= executor.getConcurrency()) {
+                    this.writeNextChunk();
+                }
+                final int chunkLen = Math.min(chunksize, off + len - chunkOffset);
+                final byte[] cleartext = buffers.acquire();
+                System.arraycopy(b, chunkOffset, cleartext, 0, chunkLen);
+                // Nonces and chunk numbers must be assigned in order
+                final long chunkIndex = chunkIndexOffset++;
+                final byte[] nonce = nonces.next();
+                pending.add(executor.submit(() -> {
+                    try {
+                        return cryptor.encryptChunk(ByteBuffer.wrap(cleartext, 0, chunkLen), chunkIndex, header, nonce);
+                    }
+                    finally {
+                        buffers.release(cleartext);
+                    }
+                }));
+            }
+        }
+
+        private void writeNextChunk() throws IOException {
+            final ByteBuffer encryptedChunk = executor.await(pending.remove());
+            super.write(encryptedChunk.array());
+        }
+
+        @Override
+        public void flush() throws IOException {
+            while(!pending.isEmpty()) {
+                this.writeNextChunk();
+            }
+            super.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
             try {
-                for(int chunkOffset = off; chunkOffset < len; chunkOffset += chunksize) {
-                    int chunkLen = Math.min(chunksize, len - chunkOffset);
-                    final ByteBuffer encryptedChunk = cryptor.encryptChunk(
-                        ByteBuffer.wrap(Arrays.copyOfRange(b, chunkOffset, chunkOffset + chunkLen)),
-                        chunkIndexOffset++, header, nonces.next());
-                    super.write(encryptedChunk.array());
+                while(!pending.isEmpty()) {
+                    this.writeNextChunk();
                 }
             }
-            catch(CryptoException e) {
-                throw new IOException(e.getMessage(), new CryptoAuthenticationException(e.getMessage(), e));
+            finally {
+                for(Future<ByteBuffer> chunk : pending) {
+                    chunk.cancel(false);
+                }
+                pending.clear();
+                super.close();
             }
         }
     }
@@ -56,6 +56,16 @@ public class CryptoDownloadFeature implements Download {
         }
     }
 
+    @Override
+    public boolean concurrent(final Path file) throws BackgroundException {
+        try {
+            return proxy.concurrent(vault.encrypt(session, file));
+        }
+        catch(NotfoundException e) {
+            return false;
+        }
+    }
+
     @Override
     public Download withReader(final Read reader) {
         return this;
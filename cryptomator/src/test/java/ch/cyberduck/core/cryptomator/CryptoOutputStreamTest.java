@@ -144,4 +144,30 @@ public class CryptoOutputStreamTest {
 
         assertArrayEquals(cleartext, read);
     }
+
+    @Test
+    public void testWriteReadParallelChunks() throws Exception {
+        final CryptoVault vault = this.getVault();
+        final ByteArrayOutputStream cipherText = new ByteArrayOutputStream();
+        final FileHeader header = vault.getFileHeaderCryptor().create();
+        final CryptoOutputStream<?> stream = new CryptoOutputStream<>(new StatusOutputStream<Void>(cipherText) {
+            @Override
+            public Void getStatus() {
+                return null;
+            }
+        }, vault.getFileContentCryptor(), header, new RandomNonceGenerator(), 0);
+
+        final byte[] cleartext = RandomUtils.nextBytes(vault.getFileContentCryptor().cleartextChunkSize() * 10 + 1);
+        stream.write(cleartext, 0, cleartext.length);
+        stream.close();
+        assertEquals(vault.toCiphertextSize(cleartext.length) - vault.getFileHeaderCryptor().headerSize(), cipherText.size());
+
+        for(int concurrency : new int[]{1, 4}) {
+            final CryptoInputStream cryptoInputStream = new CryptoInputStream(new ByteArrayInputStream(cipherText.toByteArray()),
+                vault.getFileContentCryptor(), header, 0, new CryptoChunkExecutor(concurrency));
+            assertArrayEquals(cleartext, IOUtils.toByteArray(cryptoInputStream));
+            assertEquals(-1, cryptoInputStream.read());
+            cryptoInputStream.close();
+        }
+    }
 }
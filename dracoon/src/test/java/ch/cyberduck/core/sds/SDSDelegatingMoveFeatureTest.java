@@ -233,7 +233,9 @@ public class SDSDelegatingMoveFeatureTest extends AbstractSDSTest {
         encrypt.setIsEncrypted(true);
         new NodesApi(session.getClient()).encryptRoom(encrypt, Long.parseLong(new SDSNodeIdProvider(session).withCache(cache).getFileid(room2,
             new DisabledListProgressListener())), StringUtils.EMPTY, null);
-        room2.getType().add(Path.Type.triplecrypt);
+        final EnumSet<Path.Type> type = room2.getType();
+        type.add(Path.Type.triplecrypt);
+        room2.setType(type);
         final byte[] content = RandomUtils.nextBytes(32769);
         final TransferStatus status = new TransferStatus();
         status.setLength(content.length);
@@ -95,6 +95,7 @@ public class FTPListResponseReader implements FTPDataResponseReader {
                         log.warn(String.format("Missing symbolic link target for %s", parsed));
                         final EnumSet<Path.Type> type = parsed.getType();
                         type.remove(AbstractPath.Type.symboliclink);
+                        parsed.setType(type);
                     }
                     else if(StringUtils.startsWith(target, String.valueOf(Path.DELIMITER))) {
                         parsed.setSymlinkTarget(new Path(PathNormalizer.normalize(target), EnumSet.of(Path.Type.file)));
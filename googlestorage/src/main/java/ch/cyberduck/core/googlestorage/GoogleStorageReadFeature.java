@@ -70,7 +70,11 @@ public class GoogleStorageReadFeature implements Read {
                 session.getClient().getRootUrl(), containerService.getContainer(file).getName(),
                 GoogleStorageUriEncoder.encode(containerService.getKey(file))));
             if(StringUtils.isNotBlank(file.attributes().getVersionId())) {
-                uri.append(String.format("?generation=%s", file.attributes().getVersionId()));
+                uri.append(String.format("&generation=%s", file.attributes().getVersionId()));
+            }
+            else if(status.isAppend() && StringUtils.isNotBlank(status.getRemote().getVersionId())) {
+                // Read same generation as when download started
+                uri.append(String.format("&generation=%s", status.getRemote().getVersionId()));
             }
             final HttpUriRequest request = new HttpGet(uri.toString());
             request.addHeader(HTTP.CONTENT_TYPE, MEDIA_TYPE);
@@ -87,6 +91,11 @@ public class GoogleStorageReadFeature implements Read {
                     log.debug(String.format("Add range header %s for file %s", header, file));
                 }
                 request.addHeader(new BasicHeader(HttpHeaders.RANGE, header));
+                if(StringUtils.isNotBlank(status.getRemote().getETag())) {
+                    // Fail if object has changed since download started
+                    request.addHeader(new BasicHeader(HttpHeaders.IF_MATCH,
+                        String.format("\"%s\"", StringUtils.strip(status.getRemote().getETag(), "\""))));
+                }
                 // Disable compression
                 request.addHeader(new BasicHeader(HttpHeaders.ACCEPT_ENCODING, "identity"));
             }
@@ -26,6 +26,7 @@ import ch.cyberduck.core.UseragentProvider;
 import ch.cyberduck.core.cdn.DistributionConfiguration;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.features.*;
+import ch.cyberduck.core.http.ConcurrentRangeDownloadFeature;
 import ch.cyberduck.core.http.HttpSession;
 import ch.cyberduck.core.http.UserAgentHttpRequestInitializer;
 import ch.cyberduck.core.oauth.OAuth2ErrorResponseInterceptor;
@@ -99,6 +100,9 @@ public class GoogleStorageSession extends HttpSession<Storage> {
         if(type == Read.class) {
             return (T) new GoogleStorageReadFeature(this);
         }
+        if(type == Download.class) {
+            return (T) new ConcurrentRangeDownloadFeature(this);
+        }
         if(type == Write.class) {
             return (T) new GoogleStorageWriteFeature(this);
         }
@@ -17,7 +17,10 @@ package ch.cyberduck.core.nextcloud;
 
 import ch.cyberduck.core.Host;
 import ch.cyberduck.core.UrlProvider;
+import ch.cyberduck.core.dav.DAVListValidator;
 import ch.cyberduck.core.dav.DAVSession;
+import ch.cyberduck.core.features.AttributesFinder;
+import ch.cyberduck.core.features.ListValidator;
 import ch.cyberduck.core.features.Lock;
 import ch.cyberduck.core.features.PromptUrlProvider;
 import ch.cyberduck.core.features.Write;
@@ -46,6 +49,10 @@ public class NextcloudSession extends DAVSession {
         if(type == PromptUrlProvider.class) {
             return (T) new NextcloudShareProvider(this);
         }
+        if(type == ListValidator.class) {
+            // Entity tag of collection changes with any member
+            return (T) new DAVListValidator(this._getFeature(AttributesFinder.class));
+        }
         return super._getFeature(type);
     }
 }
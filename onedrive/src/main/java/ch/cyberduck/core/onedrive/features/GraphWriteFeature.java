@@ -137,7 +137,8 @@ public class GraphWriteFeature implements Write<Void> {
 
         @Override
         public void write(final byte[] b, final int off, final int len) throws IOException {
-            final byte[] content = Arrays.copyOfRange(b, off, len);
+            // Only copy partial segment
+            final byte[] content = off == 0 && len == b.length ? b : Arrays.copyOfRange(b, off, off + len);
             final HttpRange range = HttpRange.byLength(offset, content.length);
             final String header;
             if(overall.getLength() == -1L) {
@@ -33,6 +33,7 @@ import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.InteroperabilityException;
 import ch.cyberduck.core.exception.LoginFailureException;
 import ch.cyberduck.core.features.*;
+import ch.cyberduck.core.http.ConcurrentRangeDownloadFeature;
 import ch.cyberduck.core.http.HttpSession;
 import ch.cyberduck.core.proxy.Proxy;
 import ch.cyberduck.core.shared.DelegatingSchedulerFeature;
@@ -133,6 +134,9 @@ public class SwiftSession extends HttpSession<Client> {
         if(type == Read.class) {
             return (T) new SwiftReadFeature(this, regionService);
         }
+        if(type == Download.class) {
+            return (T) new ConcurrentRangeDownloadFeature(this);
+        }
         if(type == MultipartWrite.class) {
             return (T) new SwiftLargeUploadWriteFeature(this, regionService, new SwiftSegmentService(this, regionService));
         }
@@ -61,6 +61,7 @@ import ch.cyberduck.core.logging.UnifiedSystemLogTranscriptListener;
 import ch.cyberduck.core.pasteboard.HostPasteboard;
 import ch.cyberduck.core.pasteboard.PathPasteboard;
 import ch.cyberduck.core.pasteboard.PathPasteboardFactory;
+import ch.cyberduck.core.pool.ListPrefetcher;
 import ch.cyberduck.core.pool.SessionPool;
 import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
@@ -217,6 +218,11 @@ public class BrowserController extends WindowController implements NSToolbar.Del
 
     private Scheduler scheduler;
 
+    /**
+     * List child directories ahead of navigation or null if disabled
+     */
+    private ListPrefetcher prefetcher;
+
     @Outlet
     protected NSProgressIndicator statusSpinner;
     @Outlet
@@ -513,6 +519,7 @@ public class BrowserController extends WindowController implements NSToolbar.Del
                 else {
                     if(cache.isValid(folder)) {
                         reload(browser, model, workdir, selected, folder);
+                        this.prefetch(folder, cache.get(folder));
                         return;
                     }
                 }
@@ -527,6 +534,7 @@ public class BrowserController extends WindowController implements NSToolbar.Del
                             if(!(AttributedList.<Path>emptyList() == list)) {
                                 // Reload browser
                                 reload(browser, model, workdir, selected, folder);
+                                prefetch(folder, list);
                             }
                             }
                         }
@@ -536,6 +544,15 @@ public class BrowserController extends WindowController implements NSToolbar.Del
         }
     }
 
+    /**
+     * List child directories of folder in the background
+     */
+    private void prefetch(final Path folder, final AttributedList<Path> list) {
+        if(prefetcher != null) {
+            prefetcher.prefetch(folder, list);
+        }
+    }
+
     /**
      * @param browser  Browser view
      * @param model    Browser Model
@@ -3120,6 +3137,10 @@ public class BrowserController extends WindowController implements NSToolbar.Del
         this.setFilter(SearchFilterFactory.create(showHiddenFiles));
         final NSTableView browser = this.getSelectedBrowserView();
         window.endEditingFor(browser);
+        if(prefetcher != null) {
+            // Navigated away
+            prefetcher.cancel();
+        }
         if(null == directory) {
             this.reload(null, Collections.emptySet(), selected, false);
         }
@@ -3153,6 +3174,9 @@ public class BrowserController extends WindowController implements NSToolbar.Del
             public void run() {
                 // The browser has no session, we are allowed to proceed
                 pool = SessionPoolFactory.create(BrowserController.this, bookmark, SessionPoolFactory.Usage.browser);
+                if(preferences.getBoolean("browser.list.prefetch.enable")) {
+                    prefetcher = new ListPrefetcher(pool, cache);
+                }
                 background(new WorkerBackgroundAction<Path>(BrowserController.this, pool,
                     new MountWorker(bookmark, cache, listener) {
                         @Override
@@ -3270,6 +3294,10 @@ public class BrowserController extends WindowController implements NSToolbar.Del
                 if(scheduler != null) {
                     scheduler.shutdown();
                 }
+                if(prefetcher != null) {
+                    prefetcher.shutdown();
+                    prefetcher = null;
+                }
                 pool.shutdown();
                 pool = SessionPool.DISCONNECTED;
                 cache.clear();
@@ -65,6 +65,12 @@ public class S3BulkTransferAccelerationFeature implements Bulk<Void> {
         this.configure(files, callback, false);
     }
 
+    @Override
+    public boolean isPipelined() {
+        // Configuration only depends on buckets of transfer roots
+        return true;
+    }
+
     @Override
     public Bulk<Void> withDelete(final Delete delete) {
         return this;
@@ -51,6 +51,7 @@ import org.jets3t.service.model.MultipartUpload;
 import org.jets3t.service.model.S3Object;
 import org.jets3t.service.model.StorageObject;
 
+import java.io.ByteArrayInputStream;
 import java.security.MessageDigest;
 import java.text.MessageFormat;
 import java.util.ArrayList;
@@ -247,14 +248,22 @@ public class S3MultipartUploadService extends HttpUploadFeature<StorageObject, M
                 status.setPart(partNumber);
                 status.setHeader(overall.getHeader());
                 status.setNonces(overall.getNonces());
-                switch(session.getSignatureVersion()) {
-                    case AWS4HMACSHA256:
-                        status.setChecksum(writer.checksum(file, status).compute(local.getInputStream(), status));
-                        break;
-                }
-                status.setSegment(true);
-                final StorageObject part = S3MultipartUploadService.super.upload(
-                    file, local, throttle, listener, status, overall, new StreamProgress() {
+                byte[] buffer = null;
+                try {
+                    switch(session.getSignatureVersion()) {
+                        case AWS4HMACSHA256:
+                            // Read part once for both checksum and upload
+                            buffer = S3MultipartUploadService.this.buffer(file, local, status);
+                            if(null == buffer) {
+                                status.setChecksum(writer.checksum(file, status).compute(local.getInputStream(), status));
+                            }
+                            else {
+                                status.setChecksum(S3MultipartUploadService.this.checksum(writer.checksum(file, status), buffer, status));
+                            }
+                            break;
+                    }
+                    status.setSegment(true);
+                    final StreamProgress progress = new StreamProgress() {
                         @Override
                         public void progress(final long bytes) {
                             status.progress(bytes);
@@ -266,15 +275,22 @@ public class S3MultipartUploadService extends HttpUploadFeature<StorageObject, M
                         public void setComplete() {
                             status.setComplete();
                         }
-                    }, callback);
-                if(log.isInfoEnabled()) {
-                    log.info(String.format("Received response %s for part number %d", part, partNumber));
+                    };
+                    final StorageObject part = null == buffer ?
+                        S3MultipartUploadService.super.upload(file, local, throttle, listener, status, overall, progress, callback) :
+                        S3MultipartUploadService.super.upload(file, new ByteArrayInputStream(buffer), 0L, throttle, listener, status, overall, progress, callback);
+                    if(log.isInfoEnabled()) {
+                        log.info(String.format("Received response %s for part number %d", part, partNumber));
+                    }
+                    // Populate part with response data that is accessible via the object's metadata
+                    return new MultipartPart(partNumber,
+                        null == part.getLastModifiedDate() ? new Date(System.currentTimeMillis()) : part.getLastModifiedDate(),
+                        null == part.getETag() ? StringUtils.EMPTY : part.getETag(),
+                        part.getContentLength());
+                }
+                finally {
+                    S3MultipartUploadService.this.release(buffer);
                 }
-                // Populate part with response data that is accessible via the object's metadata
-                return new MultipartPart(partNumber,
-                    null == part.getLastModifiedDate() ? new Date(System.currentTimeMillis()) : part.getLastModifiedDate(),
-                    null == part.getETag() ? StringUtils.EMPTY : part.getETag(),
-                    part.getContentLength());
 
             }
         }, overall));
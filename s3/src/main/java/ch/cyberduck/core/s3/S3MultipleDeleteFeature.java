@@ -116,6 +116,23 @@ public class S3MultipleDeleteFeature implements Delete {
         }
     }
 
+    @Override
+    public int getBatchSize(final Path file) {
+        if(versioningService != null) {
+            try {
+                if(versioningService.getConfiguration(containerService.getContainer(file)).isMultifactor()) {
+                    // Avoid prompting for a token for every batch
+                    return 0;
+                }
+            }
+            catch(BackgroundException e) {
+                log.warn(String.format("Failure %s reading versioning configuration for %s", e, file));
+                return 0;
+            }
+        }
+        return PreferencesFactory.get().getInteger("s3.delete.multiple.partition");
+    }
+
     /**
      * @param container Bucket
      * @param keys      Key and version ID for versioned object or null
@@ -74,6 +74,15 @@ public class S3ObjectListService extends S3AbstractListService implements ListSe
     }
 
     protected AttributedList<Path> list(final Path directory, final ListProgressListener listener, final String delimiter, final int chunksize) throws BackgroundException {
+        return this.list(directory, listener, delimiter, chunksize, false);
+    }
+
+    /**
+     * @param placeholder Include placeholder object of directory itself as found in a listing of its parent without
+     *                    delimiter
+     */
+    protected AttributedList<Path> list(final Path directory, final ListProgressListener listener, final String delimiter, final int chunksize,
+                                        final boolean placeholder) throws BackgroundException {
         try {
             final String prefix = this.createPrefix(directory);
             // If this optional, Unicode string parameter is included with your request,
@@ -103,6 +112,11 @@ public class S3ObjectListService extends S3AbstractListService implements ListSe
                     if(new Path(bucket, key, EnumSet.of(Path.Type.directory)).equals(directory)) {
                         // Placeholder object, skip
                         hasDirectoryPlaceholder = true;
+                        if(placeholder) {
+                            final PathAttributes attr = attributes.toAttributes(object);
+                            attr.setRegion(bucket.attributes().getRegion());
+                            children.add(new Path(String.format("%s%s", bucket.getAbsolute(), key), EnumSet.of(Path.Type.directory), attr));
+                        }
                         continue;
                     }
                     final EnumSet<Path.Type> types = object.getKey().endsWith(String.valueOf(Path.DELIMITER))
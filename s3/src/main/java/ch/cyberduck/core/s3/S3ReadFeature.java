@@ -27,6 +27,7 @@ import ch.cyberduck.core.http.HttpRange;
 import ch.cyberduck.core.transfer.TransferStatus;
 
 import org.apache.commons.io.input.NullInputStream;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
 import org.jets3t.service.ServiceException;
 import org.jets3t.service.model.S3Object;
@@ -53,13 +54,24 @@ public class S3ReadFeature implements Read {
             }
             final HttpRange range = HttpRange.withStatus(status);
             final RequestEntityRestStorageService client = session.getClient();
+            String version = file.attributes().getVersionId();
+            String[] match = null;
+            if(status.isAppend()) {
+                // Fail with precondition instead of reading range from object replaced since download started
+                if(StringUtils.isBlank(version)) {
+                    version = status.getRemote().getVersionId();
+                }
+                if(StringUtils.isNotBlank(status.getRemote().getETag())) {
+                    match = new String[]{String.format("\"%s\"", StringUtils.strip(status.getRemote().getETag(), "\""))};
+                }
+            }
             final S3Object object = client.getVersionedObject(
-                file.attributes().getVersionId(),
+                version,
                 containerService.getContainer(file).getName(),
                 containerService.getKey(file),
                 null, // ifModifiedSince
                 null, // ifUnmodifiedSince
-                null, // ifMatch
+                match, // ifMatch
                 null, // ifNoneMatch
                 status.isAppend() ? range.getStart() : null,
                 status.isAppend() ? (range.getEnd() == -1 ? null : range.getEnd()) : null);
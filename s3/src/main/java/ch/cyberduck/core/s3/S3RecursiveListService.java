@@ -0,0 +1,221 @@
+package ch.cyberduck.core.s3;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.ListProgressListener;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.preferences.Preferences;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.BackgroundExceptionCallable;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
+
+import org.apache.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * List all keys below a directory at any depth. Results are passed to the listener as they arrive with all entries
+ * found so far. Both strategies return the same entries. Common prefixes found while partitioning the keyspace are
+ * not included unless a placeholder object exists for them as in a listing without delimiter.
+ */
+public class S3RecursiveListService extends S3AbstractListService {
+    private static final Logger log = Logger.getLogger(S3RecursiveListService.class);
+
+    public enum Strategy {
+        /**
+         * Single listing without delimiter paging through all keys with the prefix of the directory
+         */
+        flat,
+        /**
+         * Fan out by common prefixes until there are enough partitions and list these concurrently without delimiter
+         */
+        partitioned
+    }
+
+    private final Preferences preferences
+        = PreferencesFactory.get();
+
+    private final S3Session session;
+    private final Strategy strategy;
+    private final int concurrency;
+    private final int depth;
+
+    public S3RecursiveListService(final S3Session session) {
+        this(session, Strategy.valueOf(PreferencesFactory.get().getProperty("s3.listing.recursive.strategy")),
+            PreferencesFactory.get().getInteger("s3.listing.concurrency"),
+            PreferencesFactory.get().getInteger("s3.listing.recursive.depth"));
+    }
+
+    /**
+     * @param strategy    Listing strategy
+     * @param concurrency Number of partitions listed in parallel
+     * @param depth       Maximum number of delimiter levels to expand for partitioning
+     */
+    public S3RecursiveListService(final S3Session session, final Strategy strategy, final int concurrency, final int depth) {
+        this.session = session;
+        this.strategy = strategy;
+        this.concurrency = concurrency;
+        this.depth = depth;
+    }
+
+    @Override
+    public AttributedList<Path> list(final Path directory, final ListProgressListener listener) throws BackgroundException {
+        if(strategy == Strategy.flat || concurrency < 2) {
+            return new S3ObjectListService(session).list(directory, listener, null, preferences.getInteger("s3.listing.chunksize"));
+        }
+        final AttributedList<Path> children = new AttributedList<>();
+        final ThreadPool pool = ThreadPoolFactory.get("list", concurrency);
+        try {
+            List<Path> partitions = Collections.singletonList(directory);
+            for(int level = 0; level < depth && partitions.size() < concurrency; level++) {
+                final List<Future<AttributedList<Path>>> futures = new ArrayList<>();
+                for(Path partition : partitions) {
+                    futures.add(this.submit(pool, directory, partition, String.valueOf(Path.DELIMITER), children, listener));
+                }
+                final List<Path> next = new ArrayList<>();
+                for(int i = 0; i < futures.size(); i++) {
+                    for(Path f : this.await(futures.get(i))) {
+                        if(f.isDirectory() && !f.equals(partitions.get(i))) {
+                            next.add(f);
+                        }
+                    }
+                }
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Found %d partitions at level %d below %s", next.size(), level + 1, directory));
+                }
+                if(next.isEmpty()) {
+                    // No further prefixes to descend into
+                    return children;
+                }
+                partitions = next;
+            }
+            final List<Future<AttributedList<Path>>> futures = new ArrayList<>();
+            for(Path partition : partitions) {
+                futures.add(this.submit(pool, directory, partition, null, children, listener));
+            }
+            for(Future<AttributedList<Path>> future : futures) {
+                this.await(future);
+            }
+            return children;
+        }
+        finally {
+            // Cancel future tasks
+            pool.shutdown(false);
+        }
+    }
+
+    private Future<AttributedList<Path>> submit(final ThreadPool pool, final Path directory, final Path partition, final String delimiter,
+                                                final AttributedList<Path> children, final ListProgressListener listener) {
+        return pool.execute(new BackgroundExceptionCallable<AttributedList<Path>>() {
+            @Override
+            public AttributedList<Path> call() throws BackgroundException {
+                final PartitionListProgressListener proxy = new PartitionListProgressListener(directory, partition,
+                    null != delimiter, children, listener);
+                try {
+                    // Placeholder of partition root is not returned by the listing of its parent with delimiter
+                    final AttributedList<Path> list = new S3ObjectListService(session).list(partition, proxy,
+                        delimiter, preferences.getInteger("s3.listing.chunksize"), !partition.equals(directory));
+                    proxy.chunk(partition, list);
+                    return list;
+                }
+                catch(NotfoundException e) {
+                    if(partition.equals(directory)) {
+                        throw e;
+                    }
+                    // Prefix removed after it was found in parent listing
+                    log.warn(String.format("Ignore missing partition %s", partition));
+                    return AttributedList.emptyList();
+                }
+            }
+        });
+    }
+
+    private AttributedList<Path> await(final Future<AttributedList<Path>> future) throws BackgroundException {
+        try {
+            return future.get();
+        }
+        catch(InterruptedException e) {
+            log.error("Listing partition failed with interrupt failure");
+            throw new ConnectionCanceledException(e);
+        }
+        catch(ExecutionException e) {
+            log.warn(String.format("Listing partition failed with execution failure %s", e.getMessage()));
+            if(e.getCause() instanceof BackgroundException) {
+                throw (BackgroundException) e.getCause();
+            }
+            throw new BackgroundException(e.getCause());
+        }
+    }
+
+    /**
+     * Merge entries from a partition listing into the shared result and notify the listener for the directory. Common
+     * prefixes from listings with delimiter are left out.
+     */
+    private static final class PartitionListProgressListener implements ListProgressListener {
+        private final Path directory;
+        private final Path partition;
+        private final boolean delimiter;
+        private final AttributedList<Path> children;
+        private final ListProgressListener delegate;
+        /**
+         * Number of entries of partition listing already merged
+         */
+        private int merged;
+
+        public PartitionListProgressListener(final Path directory, final Path partition, final boolean delimiter,
+                                             final AttributedList<Path> children, final ListProgressListener delegate) {
+            this.directory = directory;
+            this.partition = partition;
+            this.delimiter = delimiter;
+            this.children = children;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void chunk(final Path folder, final AttributedList<Path> list) throws ConnectionCanceledException {
+            synchronized(children) {
+                for(; merged < list.size(); merged++) {
+                    final Path f = list.get(merged);
+                    if(delimiter && f.isDirectory() && !f.equals(partition)) {
+                        // Common prefix listed again as partition
+                        continue;
+                    }
+                    children.add(f);
+                }
+                delegate.chunk(directory, children);
+            }
+        }
+
+        @Override
+        public void message(final String message) {
+            delegate.message(message);
+        }
+
+        @Override
+        public ListProgressListener reset() {
+            return this;
+        }
+    }
+}
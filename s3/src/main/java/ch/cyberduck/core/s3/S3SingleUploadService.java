@@ -35,6 +35,7 @@ import ch.cyberduck.core.transfer.TransferStatus;
 import org.apache.log4j.Logger;
 import org.jets3t.service.model.StorageObject;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.security.DigestInputStream;
@@ -57,24 +58,39 @@ public class S3SingleUploadService extends HttpUploadFeature<StorageObject, Mess
     public StorageObject upload(final Path file, final Local local, final BandwidthThrottle throttle,
                                 final StreamListener listener, final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
         final S3Protocol.AuthenticationHeaderSignatureVersion signatureVersion = session.getSignatureVersion();
-        switch(signatureVersion) {
-            case AWS4HMACSHA256:
-                if(!HashAlgorithm.sha256.equals(status.getChecksum().algorithm)) {
-                    // Checksum not set in upload filter
-                    status.setChecksum(writer.checksum(file, status).compute(local.getInputStream(), status));
-                }
-                break;
-        }
+        byte[] buffer = null;
         try {
-            return super.upload(file, local, throttle, listener, status, callback);
-        }
-        catch(InteroperabilityException e) {
-            if(!session.getSignatureVersion().equals(signatureVersion)) {
-                // Retry if upload fails with Header "x-amz-content-sha256" set to the hex-encoded SHA256 hash of the
-                // request payload is required for AWS Version 4 request signing
-                return this.upload(file, local, throttle, listener, status, callback);
+            switch(signatureVersion) {
+                case AWS4HMACSHA256:
+                    if(!HashAlgorithm.sha256.equals(status.getChecksum().algorithm)) {
+                        // Checksum not set in upload filter. Read file once for both checksum and upload
+                        buffer = this.buffer(file, local, status);
+                        if(null == buffer) {
+                            status.setChecksum(writer.checksum(file, status).compute(local.getInputStream(), status));
+                        }
+                        else {
+                            status.setChecksum(this.checksum(writer.checksum(file, status), buffer, status));
+                        }
+                    }
+                    break;
             }
-            throw e;
+            try {
+                if(null == buffer) {
+                    return super.upload(file, local, throttle, listener, status, callback);
+                }
+                return super.upload(file, new ByteArrayInputStream(buffer), 0L, throttle, listener, status, status, status, callback);
+            }
+            catch(InteroperabilityException e) {
+                if(!session.getSignatureVersion().equals(signatureVersion)) {
+                    // Retry if upload fails with Header "x-amz-content-sha256" set to the hex-encoded SHA256 hash of the
+                    // request payload is required for AWS Version 4 request signing
+                    return this.upload(file, local, throttle, listener, status, callback);
+                }
+                throw e;
+            }
+        }
+        finally {
+            this.release(buffer);
         }
     }
 
@@ -21,8 +21,9 @@ import ch.cyberduck.core.ConnectionCallback;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.features.Read;
-import ch.cyberduck.core.preferences.Preferences;
-import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.features.Stateless;
+import ch.cyberduck.core.preferences.PreferenceKey;
+import ch.cyberduck.core.preferences.PreferenceKeys;
 import ch.cyberduck.core.transfer.TransferStatus;
 
 import org.apache.log4j.Logger;
@@ -35,13 +36,13 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import net.schmizz.sshj.sftp.OpenMode;
 import net.schmizz.sshj.sftp.RemoteFile;
 
-public class SFTPReadFeature implements Read {
+public class SFTPReadFeature implements Read, Stateless {
     private static final Logger log = Logger.getLogger(SFTPReadFeature.class);
 
     private final SFTPSession session;
 
-    private final Preferences preferences
-            = PreferencesFactory.get();
+    private static final PreferenceKey<Integer> MAXUNCONFIRMED
+            = PreferenceKey.integer("sftp.read.maxunconfirmed");
 
     public SFTPReadFeature(final SFTPSession session) {
         this.session = session;
@@ -81,10 +82,10 @@ public class SFTPReadFeature implements Read {
 
     protected int getMaxUnconfirmedReads(final TransferStatus status) {
         if(-1 == status.getLength()) {
-            return preferences.getInteger("sftp.read.maxunconfirmed");
+            return MAXUNCONFIRMED.get();
         }
-        return Integer.min(((int) (status.getLength() / preferences.getInteger("connection.chunksize")) + 1),
-                preferences.getInteger("sftp.read.maxunconfirmed"));
+        return Integer.min(((int) (status.getLength() / PreferenceKeys.CONNECTION_CHUNKSIZE.get()) + 1),
+                MAXUNCONFIRMED.get());
     }
 
     @Override
@@ -22,8 +22,8 @@ import ch.cyberduck.core.Path;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.io.StatusOutputStream;
 import ch.cyberduck.core.io.VoidStatusOutputStream;
-import ch.cyberduck.core.preferences.Preferences;
-import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.preferences.PreferenceKey;
+import ch.cyberduck.core.preferences.PreferenceKeys;
 import ch.cyberduck.core.shared.AppendWriteFeature;
 import ch.cyberduck.core.transfer.TransferStatus;
 
@@ -41,8 +41,8 @@ public class SFTPWriteFeature extends AppendWriteFeature<Void> {
 
     private final SFTPSession session;
 
-    private final Preferences preferences
-            = PreferencesFactory.get();
+    private static final PreferenceKey<Integer> MAXUNCONFIRMED
+            = PreferenceKey.integer("sftp.write.maxunconfirmed");
 
     public SFTPWriteFeature(final SFTPSession session) {
         super(session);
@@ -114,10 +114,10 @@ public class SFTPWriteFeature extends AppendWriteFeature<Void> {
 
     protected int getMaxUnconfirmedWrites(final TransferStatus status) {
         if(-1 == status.getLength()) {
-            return preferences.getInteger("sftp.write.maxunconfirmed");
+            return MAXUNCONFIRMED.get();
         }
-        return Integer.min((int) (status.getLength() / preferences.getInteger("connection.chunksize")) + 1,
-                preferences.getInteger("sftp.write.maxunconfirmed"));
+        return Integer.min((int) (status.getLength() / PreferenceKeys.CONNECTION_CHUNKSIZE.get()) + 1,
+                MAXUNCONFIRMED.get());
     }
 
     @Override
@@ -43,8 +43,8 @@ import org.apache.http.HttpEntity;
 import org.apache.http.HttpHeaders;
 import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
-import org.apache.http.client.entity.EntityBuilder;
 import org.apache.http.client.methods.HttpPut;
+import org.apache.http.entity.ByteArrayEntity;
 import org.apache.http.util.EntityUtils;
 import org.apache.log4j.Logger;
 
@@ -52,7 +52,6 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
@@ -136,17 +135,16 @@ public class StoregateMultipartWriteFeature implements MultipartWrite<VersionId>
                 if(null != canceled.get()) {
                     throw canceled.get();
                 }
-                final byte[] content = Arrays.copyOfRange(b, off, len);
                 new DefaultRetryCallable<>(session.getHost(), new BackgroundExceptionCallable<Void>() {
                     @Override
                     public Void call() throws BackgroundException {
                         final StoregateApiClient client = session.getClient();
                         try {
-                            final HttpEntity entity = EntityBuilder.create().setBinary(content).build();
+                            final HttpEntity entity = new ByteArrayEntity(b, off, len);
                             final HttpPut put = new HttpPut(location);
                             put.setEntity(entity);
-                            if(0L != overall.getLength() && 0 != content.length) {
-                                final HttpRange range = HttpRange.byLength(offset, content.length);
+                            if(0L != overall.getLength() && 0 != len) {
+                                final HttpRange range = HttpRange.byLength(offset, len);
                                 final String header;
                                 if(overall.getLength() == -1L) {
                                     header = String.format("%d-%d/*", range.getStart(), range.getEnd());
@@ -166,7 +164,7 @@ public class StoregateMultipartWriteFeature implements MultipartWrite<VersionId>
                                         overall.setVersion(new VersionId(result.getId()));
                                     case HttpStatus.SC_NO_CONTENT:
                                         // Upload complete
-                                        offset += content.length;
+                                        offset += len;
                                         break;
                                     default:
                                         throw new StoregateExceptionMappingService().map(new ApiException(response.getStatusLine().getStatusCode(), response.getStatusLine().getReasonPhrase(), Collections.emptyMap(),
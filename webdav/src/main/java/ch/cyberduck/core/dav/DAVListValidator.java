@@ -0,0 +1,41 @@
+package ch.cyberduck.core.dav;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.features.AttributesFinder;
+import ch.cyberduck.core.features.ListValidator;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Entity tag of collection from <code>PROPFIND</code> with depth 0. Only for servers such as Nextcloud and ownCloud
+ * that change the entity tag of a collection whenever a member is added, removed or modified.
+ */
+public class DAVListValidator implements ListValidator {
+
+    private final AttributesFinder attributes;
+
+    public DAVListValidator(final AttributesFinder attributes) {
+        this.attributes = attributes;
+    }
+
+    @Override
+    public String getValidator(final Path directory) throws BackgroundException {
+        return StringUtils.trimToNull(attributes.find(directory).getETag());
+    }
+}